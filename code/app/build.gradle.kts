@@ -30,6 +30,8 @@ android {
         }
     }
     compileOptions {
+        // java.time (DateFormatHelper) needs desugaring below API 26
+        isCoreLibraryDesugaringEnabled = true
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
@@ -50,6 +52,10 @@ dependencies {
     implementation("androidx.navigation:navigation-fragment-ktx:2.7.5")
     implementation("androidx.navigation:navigation-ui-ktx:2.7.5")
     implementation("com.github.bumptech.glide:glide:4.16.0")
+    // Registers ImageModule with Glide
+    annotationProcessor("com.github.bumptech.glide:compiler:4.16.0")
+    // Background feed prefetch (FeedPrefetchWorker)
+    implementation("androidx.work:work-runtime:2.9.1")
     implementation(platform("com.google.firebase:firebase-bom:33.8.0"))
     implementation("com.google.firebase:firebase-firestore:25.1.1")
     implementation("com.google.firebase:firebase-storage-ktx:20.3.0")
@@ -67,6 +73,7 @@ dependencies {
     implementation("com.google.maps.android:android-maps-utils:3.4.0")
     implementation(libs.espresso.core)
     implementation(libs.uiautomator)
+    coreLibraryDesugaring("com.android.tools:desugar_jdk_libs:2.0.4")
 
 
     // Test Dependencies
@@ -0,0 +1,353 @@
+/**
+ * DaoLoadTest - Load test harness for UserDAOImplement and CommentManager against the
+ * Firestore/Auth emulators.
+ *
+ * Key Responsibilities:
+ * 1. Seeding:
+ *    - Wipes the Firestore emulator and seeds it with LoadTestSeeder
+ *    - Sizes come from instrumentation arguments, so the same test covers
+ *      small smoke runs and large volume runs
+ *
+ * 2. Load Generation:
+ *    - Drives searchUsers, getFollowStatus, acceptFollowRequest, feed loading and
+ *      deleteComment from a fixed-size worker pool
+ *    - Each worker blocks on one Task at a time, so the pool size is the number
+ *      of calls in flight
+ *
+ * 3. Reporting:
+ *    - Logs p50/p95/p99 latency plus reads and writes per operation
+ *    - Writes the same numbers as JSON to the app's external files directory
+ *
+ * Technical Implementation:
+ * - The client SDK does not expose billed reads, so each operation counts them
+ *   from its results using Firestore's billing rules (one read per returned
+ *   document, and one read for a query that returns nothing)
+ * - Feed loading replays the queries FollowedUserMoodEvents issues, since that
+ *   logic lives in the fragment rather than a DAO
+ * - Skipped unless the "loadTest" argument is "true", because it wipes the emulator
+ *
+ * Usage:
+ *   firebase emulators:start --only firestore,auth
+ *   ./gradlew connectedAndroidTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.class=com.example.unemployedavengers.DaoLoadTest \
+ *     -Pandroid.testInstrumentationRunnerArguments.loadTest=true \
+ *     -Pandroid.testInstrumentationRunnerArguments.users=1000
+ *   Other arguments: follows, moods, comments, requests, iterations, concurrency, seed
+ *
+ * Outstanding Issues/TODOs:
+ * 1. Emulator latency does not include real network round trips; compare runs
+ *    against each other rather than against production
+ *
+ * @see LoadTestSeeder
+ * @see LatencyStats
+ */
+package com.example.unemployedavengers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import android.os.Bundle;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.filters.LargeTest;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.example.unemployedavengers.implementationDAO.CommentManager;
+import com.example.unemployedavengers.implementationDAO.UserDAOImplement;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.example.unemployedavengers.models.User;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+@RunWith(AndroidJUnit4.class)
+@LargeTest
+public class DaoLoadTest {
+    private static final String TAG = "DaoLoadTest";
+    private static final String HOST = "10.0.2.2";
+    private static final int FIRESTORE_PORT = 8080;
+    private static final int AUTH_PORT = 9099;
+    private static final String PROJECT_ID = "unemployeedavenger";
+    private static final String OBSERVER_USERNAME = "loadobserver";
+    private static final String OBSERVER_PASSWORD = "123456";
+    private static final long CALL_TIMEOUT_SECONDS = 30;
+    // Mirror UserDAOImplement's search: per-query limit and trigram queries per term
+    private static final int SEARCH_LIMIT = 20;
+    private static final int SEARCH_TRIGRAMS = 3;
+
+    private static FirebaseFirestore db;
+    private static FirebaseAuth auth;
+
+    /**
+     * One call of an operation under test; resolves to {reads, writes}.
+     */
+    private interface Operation {
+        Task<int[]> call(int iteration) throws Exception;
+    }
+
+    @BeforeClass
+    public static void setup() {
+        db = FirebaseFirestore.getInstance();
+        auth = FirebaseAuth.getInstance();
+        try {
+            db.useEmulator(HOST, FIRESTORE_PORT);
+            auth.useEmulator(HOST, AUTH_PORT);
+        } catch (IllegalStateException e) {
+            // Another test in this process already pointed the SDK at the emulator
+            Log.d(TAG, "Emulator already configured");
+        }
+    }
+
+    @Test
+    public void daoOperationsUnderLoad() throws Exception {
+        Bundle args = InstrumentationRegistry.getArguments();
+        assumeTrue("Pass -e loadTest true to run the load test", "true".equals(args.getString("loadTest")));
+
+        int users = intArg(args, "users", 200);
+        int follows = intArg(args, "follows", 10);
+        int moods = intArg(args, "moods", 20);
+        int comments = intArg(args, "comments", 1000);
+        int requests = intArg(args, "requests", 200);
+        int iterations = intArg(args, "iterations", 200);
+        int concurrency = intArg(args, "concurrency", 8);
+        long seed = intArg(args, "seed", 42);
+
+        LoadTestSeeder.clearEmulator(HOST, FIRESTORE_PORT, PROJECT_ID);
+        LoadTestSeeder seeder = new LoadTestSeeder(db, seed);
+        long seedStart = System.nanoTime();
+        seeder.seed(users, follows, moods, comments, requests);
+        Log.i(TAG, String.format(Locale.US, "Seeded %d users in %.1fs", users,
+                (System.nanoTime() - seedStart) / 1e9));
+
+        UserDAOImplement userDAO = new UserDAOImplement();
+        CommentManager commentManager = new CommentManager();
+        signInObserver(userDAO);
+
+        List<String> userIds = seeder.getUserIds();
+        List<String> usernames = seeder.getUsernames();
+        List<String> searchable = new ArrayList<>(usernames);
+        searchable.add(OBSERVER_USERNAME);
+        List<String[]> pending = seeder.getPendingRequests();
+        List<String> topLevelComments = seeder.getTopLevelCommentIds();
+
+        List<LatencyStats> results = new ArrayList<>();
+
+        results.add(run("searchUsers", iterations, concurrency, i -> {
+            // Seeded per iteration so picks do not depend on worker scheduling
+            Random random = new Random(seed + i);
+            String username = usernames.get(random.nextInt(usernames.size()));
+            // Strip the last two digits so each prefix matches up to 100 users
+            String prefix = username.substring(0, username.length() - 2);
+            int reads = searchReads(prefix, searchable);
+            return userDAO.searchUsers(prefix).continueWith(task -> {
+                task.getResult(); // rethrows on failure
+                return new int[]{reads, 0};
+            });
+        }));
+
+        results.add(run("getFollowStatus", iterations, concurrency, i -> {
+            Random random = new Random(seed + i);
+            String requester = userIds.get(random.nextInt(userIds.size()));
+            String target = userIds.get(random.nextInt(userIds.size()));
+            return userDAO.getFollowStatus(requester, target).continueWith(task -> {
+                task.getResult(); // rethrows on failure
+                return new int[]{2, 0};
+            });
+        }));
+
+        results.add(run("acceptFollowRequest", Math.min(iterations, pending.size()), concurrency, i -> {
+            String[] request = pending.get(i);
+            return userDAO.acceptFollowRequest(request[0], request[1]).continueWith(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+                return new int[]{0, 3};
+            });
+        }));
+
+        results.add(run("loadFeed", iterations, concurrency, i ->
+                loadFeed(userIds.get(new Random(seed + i).nextInt(userIds.size())))));
+
+        results.add(run("deleteComment", Math.min(iterations, topLevelComments.size()), concurrency, i -> {
+            String commentId = topLevelComments.get(i);
+            int replies = seeder.getReplyCount(commentId);
+            return commentManager.deleteComment(commentId).continueWith(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+                return new int[]{1, replies + 1};
+            });
+        }));
+
+        report(results, users, follows, moods, comments, concurrency);
+
+        for (LatencyStats stats : results) {
+            assertEquals(stats + " had failures", 0, stats.getFailures());
+        }
+    }
+
+    /**
+     * Replays the followee feed load: following list, then each followee's username
+     * and 10 newest moods, keeping 3 public moods per followee.
+     */
+    private Task<int[]> loadFeed(String userId) {
+        return db.collection("users").document(userId).collection("following").get()
+                .continueWithTask(followingTask -> {
+                    QuerySnapshot following = followingTask.getResult();
+                    int reads = Math.max(1, following.size());
+
+                    List<Task<DocumentSnapshot>> profileTasks = new ArrayList<>();
+                    List<Task<QuerySnapshot>> moodTasks = new ArrayList<>();
+                    for (DocumentSnapshot doc : following.getDocuments()) {
+                        String followedId = doc.getString("followedId");
+                        if (followedId == null) {
+                            continue;
+                        }
+                        profileTasks.add(db.collection("users").document(followedId).get());
+                        moodTasks.add(db.collection("users").document(followedId).collection("moods")
+                                .orderBy("time", Query.Direction.DESCENDING)
+                                .limit(10)
+                                .get());
+                    }
+
+                    List<Task<?>> all = new ArrayList<>(profileTasks);
+                    all.addAll(moodTasks);
+                    final int followingReads = reads;
+                    return Tasks.whenAllSuccess(all).continueWith(task -> {
+                        int total = followingReads + profileTasks.size();
+                        FeedSelector selector = new FeedSelector(FeedSelector.Mode.PER_FRIEND);
+                        for (int i = 0; i < moodTasks.size(); i++) {
+                            QuerySnapshot snapshot = moodTasks.get(i).getResult();
+                            total += Math.max(1, snapshot.size());
+                            selector.offerAll(String.valueOf(i), snapshot.toObjects(MoodEvent.class));
+                        }
+                        selector.result();
+                        return new int[]{total, 0};
+                    });
+                });
+    }
+
+    /**
+     * Counts the reads of one searchUsers call from the seeded usernames: the prefix query,
+     * the legacy prefix query and one query per spread trigram, each billing its hits up to
+     * the limit or one read when empty. The caller is counted too, since the queries return
+     * it before searchUsers filters it out.
+     */
+    private static int searchReads(String term, List<String> usernames) {
+        String query = UsernameSearchIndex.normalize(term);
+        List<String> grams = UsernameSearchIndex.spreadTrigrams(query, SEARCH_TRIGRAMS);
+        int prefixHits = 0;
+        int legacyHits = 0;
+        int[] gramHits = new int[grams.size()];
+        for (String username : usernames) {
+            String lower = UsernameSearchIndex.normalize(username);
+            if (lower.startsWith(query)) {
+                prefixHits++;
+            }
+            if (username.startsWith(term)) {
+                legacyHits++;
+            }
+            for (int g = 0; g < grams.size(); g++) {
+                if (lower.contains(grams.get(g))) {
+                    gramHits[g]++;
+                }
+            }
+        }
+        int reads = queryReads(prefixHits) + queryReads(legacyHits);
+        for (int hits : gramHits) {
+            reads += queryReads(hits);
+        }
+        return reads;
+    }
+
+    private static int queryReads(int hits) {
+        return Math.max(1, Math.min(hits, SEARCH_LIMIT));
+    }
+
+    /**
+     * Runs an operation {@code iterations} times with {@code concurrency} calls in flight.
+     */
+    private LatencyStats run(String name, int iterations, int concurrency, Operation operation)
+            throws InterruptedException {
+        LatencyStats stats = new LatencyStats(name);
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < iterations; i++) {
+            final int iteration = i;
+            workers.execute(() -> {
+                long start = System.nanoTime();
+                try {
+                    int[] counts = Tasks.await(operation.call(iteration), CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    stats.record(System.nanoTime() - start, counts[0], counts[1]);
+                } catch (Exception e) {
+                    Log.e(TAG, name + " call " + iteration + " failed", e);
+                    stats.recordFailure();
+                }
+            });
+        }
+        workers.shutdown();
+        workers.awaitTermination(10, TimeUnit.MINUTES);
+        Log.i(TAG, stats.toString());
+        return stats;
+    }
+
+    private void signInObserver(UserDAOImplement userDAO) throws Exception {
+        try {
+            Tasks.await(userDAO.signInUser(OBSERVER_USERNAME, OBSERVER_PASSWORD), CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Tasks.await(userDAO.signUpUser(OBSERVER_USERNAME, OBSERVER_PASSWORD), CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+        // The emulator wipe removes the profile document, so write it again
+        String uid = auth.getCurrentUser().getUid();
+        User observer = new User(uid, OBSERVER_USERNAME, OBSERVER_USERNAME + "@example.com", OBSERVER_PASSWORD, "");
+        Tasks.await(db.collection("users").document(uid).set(observer), CALL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void report(List<LatencyStats> results, int users, int follows, int moods,
+                        int comments, int concurrency) throws Exception {
+        JSONObject report = new JSONObject();
+        report.put("users", users);
+        report.put("followsPerUser", follows);
+        report.put("moodsPerUser", moods);
+        report.put("comments", comments);
+        report.put("concurrency", concurrency);
+        JSONArray operations = new JSONArray();
+        for (LatencyStats stats : results) {
+            operations.put(stats.toJson());
+        }
+        report.put("operations", operations);
+
+        File dir = InstrumentationRegistry.getInstrumentation().getTargetContext().getExternalFilesDir("loadtest");
+        File file = new File(dir, "dao-load-" + System.currentTimeMillis() + ".json");
+        try (Writer writer = new FileWriter(file)) {
+            writer.write(report.toString(2));
+        }
+        Log.i(TAG, "Report written to " + file.getAbsolutePath());
+    }
+
+    private static int intArg(Bundle args, String key, int defaultValue) {
+        String value = args.getString(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
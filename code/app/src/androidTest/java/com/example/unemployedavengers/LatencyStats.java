@@ -0,0 +1,112 @@
+/**
+ * LatencyStats - Collects per-operation latency samples and document counts for DaoLoadTest.
+ *
+ * Key Responsibilities:
+ * - Records one latency sample, read count and write count per completed call
+ * - Counts failed calls separately so they do not skew the percentiles
+ * - Reports p50/p95/p99 latency using the nearest-rank method
+ *
+ * Technical Implementation:
+ * - Thread-safe: samples are recorded from the load test's worker threads
+ * - Percentiles are computed on a sorted copy, so reporting does not block recording
+ *
+ * @see DaoLoadTest
+ */
+package com.example.unemployedavengers;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+public class LatencyStats {
+    private final String operation;
+    private final List<Long> samplesNanos = new ArrayList<>();
+    private long reads = 0;
+    private long writes = 0;
+    private int failures = 0;
+
+    public LatencyStats(String operation) {
+        this.operation = operation;
+    }
+
+    /**
+     * Records a successful call.
+     *
+     * @param nanos Wall-clock latency of the call in nanoseconds
+     * @param readCount Documents read by the call
+     * @param writeCount Documents written by the call
+     */
+    public synchronized void record(long nanos, int readCount, int writeCount) {
+        samplesNanos.add(nanos);
+        reads += readCount;
+        writes += writeCount;
+    }
+
+    /**
+     * Records a failed call.
+     */
+    public synchronized void recordFailure() {
+        failures++;
+    }
+
+    public synchronized int getFailures() {
+        return failures;
+    }
+
+    public synchronized int getCount() {
+        return samplesNanos.size();
+    }
+
+    /**
+     * Returns the latency at the given percentile in milliseconds.
+     *
+     * @param percentile A value in (0, 100]
+     * @return The nearest-rank latency, or 0 when nothing was recorded
+     */
+    public double percentileMillis(double percentile) {
+        List<Long> sorted;
+        synchronized (this) {
+            sorted = new ArrayList<>(samplesNanos);
+        }
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1)) / 1_000_000.0;
+    }
+
+    /**
+     * Returns a one-line summary for logcat.
+     */
+    @Override
+    public synchronized String toString() {
+        int count = samplesNanos.size();
+        return String.format(Locale.US,
+                "%-20s n=%-5d fail=%-3d p50=%8.1fms p95=%8.1fms p99=%8.1fms reads/op=%6.1f writes/op=%5.1f",
+                operation, count, failures,
+                percentileMillis(50), percentileMillis(95), percentileMillis(99),
+                count == 0 ? 0 : (double) reads / count,
+                count == 0 ? 0 : (double) writes / count);
+    }
+
+    /**
+     * Returns the summary as JSON for the exported report.
+     */
+    public synchronized JSONObject toJson() throws JSONException {
+        JSONObject json = new JSONObject();
+        json.put("operation", operation);
+        json.put("count", samplesNanos.size());
+        json.put("failures", failures);
+        json.put("p50Ms", percentileMillis(50));
+        json.put("p95Ms", percentileMillis(95));
+        json.put("p99Ms", percentileMillis(99));
+        json.put("reads", reads);
+        json.put("writes", writes);
+        return json;
+    }
+}
@@ -0,0 +1,259 @@
+/**
+ * LoadTestSeeder - Deterministic data generator for DaoLoadTest.
+ *
+ * Key Responsibilities:
+ * 1. Data Generation:
+ *    - Creates N users, M follows per user, K moods per user and C comments
+ *    - Creates pending follow requests for the acceptFollowRequest scenario
+ *    - Uses a fixed seed and fixed document IDs, so two runs with the same
+ *      parameters produce identical databases
+ *
+ * 2. Emulator Management:
+ *    - Wipes the Firestore emulator through its REST endpoint before seeding
+ *    - Writes documents in batches of 500 (the Firestore batch limit)
+ *
+ * Technical Implementation:
+ * - Document layout mirrors what the app writes (users, usernames, following,
+ *   followers, requests, moods and the top-level comments collection)
+ * - Must be called off the main thread; batch commits are awaited with Tasks.await
+ *
+ * @see DaoLoadTest
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.Comment;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.example.unemployedavengers.models.User;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+public class LoadTestSeeder {
+    private static final int BATCH_LIMIT = 500;
+    private static final long BASE_TIME = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+    private static final long HOUR_MILLIS = 60L * 60 * 1000;
+    private static final String[] MOODS = {
+            "Anger", "Confusion", "Disgust", "Fear", "Happiness", "Sadness", "Shame", "Surprise"
+    };
+    private static final String[] SITUATIONS = {
+            "Alone", "With one other person", "With two to several people", "With a crowd"
+    };
+
+    private final FirebaseFirestore db;
+    private final Random random;
+
+    private final List<String> userIds = new ArrayList<>();
+    private final List<String> usernames = new ArrayList<>();
+    private final List<String[]> pendingRequests = new ArrayList<>();
+    private final List<String> topLevelCommentIds = new ArrayList<>();
+    private final List<String> replyCommentIds = new ArrayList<>();
+    private final Map<String, Integer> replyCounts = new HashMap<>();
+
+    private WriteBatch batch;
+    private int batchSize = 0;
+
+    public LoadTestSeeder(FirebaseFirestore db, long seed) {
+        this.db = db;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Deletes every document in the emulator's default database.
+     *
+     * @param host Emulator host as seen from the device
+     * @param port Firestore emulator port
+     * @param projectId Firebase project ID
+     */
+    public static void clearEmulator(String host, int port, String projectId) throws IOException {
+        URL url = new URL("http://" + host + ":" + port + "/emulator/v1/projects/"
+                + projectId + "/databases/(default)/documents");
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("DELETE");
+            int code = connection.getResponseCode();
+            if (code != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Emulator wipe failed with HTTP " + code);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Seeds the database.
+     *
+     * @param users Number of users
+     * @param followsPerUser Number of users each user follows
+     * @param moodsPerUser Number of mood events per user
+     * @param comments Number of comments, about a third of which are replies
+     * @param requests Number of pending follow requests
+     */
+    public void seed(int users, int followsPerUser, int moodsPerUser, int comments, int requests) throws Exception {
+        batch = db.batch();
+
+        for (int i = 0; i < users; i++) {
+            String userId = String.format(Locale.US, "load-uid-%05d", i);
+            String username = String.format(Locale.US, "loaduser%05d", i);
+            userIds.add(userId);
+            usernames.add(username);
+            put(db.collection("users").document(userId),
+                    new User(userId, username, username + "@example.com", "123456", ""));
+            Map<String, Object> reservation = new HashMap<>();
+            reservation.put("uid", userId);
+            reservation.put("username", username);
+            put(db.collection("usernames").document(username), reservation);
+        }
+
+        Set<String> edges = new HashSet<>();
+        for (int i = 0; i < users; i++) {
+            int follows = Math.min(followsPerUser, users - 1);
+            while (follows > 0) {
+                int j = random.nextInt(users);
+                if (j == i || !edges.add(i + ">" + j)) {
+                    continue;
+                }
+                writeFollow(userIds.get(i), userIds.get(j));
+                follows--;
+            }
+        }
+
+        List<String[]> moodRefs = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            for (int k = 0; k < moodsPerUser; k++) {
+                MoodEvent moodEvent = new MoodEvent(
+                        MOODS[random.nextInt(MOODS.length)],
+                        "load reason " + k,
+                        SITUATIONS[random.nextInt(SITUATIONS.length)],
+                        BASE_TIME - random.nextInt(30 * 24) * HOUR_MILLIS,
+                        SITUATIONS[random.nextInt(SITUATIONS.length)],
+                        "",
+                        random.nextInt(5) != 0);
+                String moodId = String.format(Locale.US, "load-mood-%05d-%04d", i, k);
+                moodEvent.setId(moodId);
+                moodEvent.setUserId(userIds.get(i));
+                moodEvent.setUserName(usernames.get(i));
+                put(db.collection("users").document(userIds.get(i)).collection("moods").document(moodId), moodEvent);
+                moodRefs.add(new String[]{userIds.get(i), moodId});
+            }
+        }
+
+        // Parents are buffered so their replyIds are complete before they are written
+        Map<String, Comment> parents = new HashMap<>();
+        for (int c = 0; c < comments && !moodRefs.isEmpty(); c++) {
+            String commentId = String.format(Locale.US, "load-comment-%06d", c);
+            String authorId = userIds.get(random.nextInt(users));
+            Comment parent = null;
+            if (!topLevelCommentIds.isEmpty() && random.nextInt(3) == 0) {
+                parent = parents.get(topLevelCommentIds.get(random.nextInt(topLevelCommentIds.size())));
+            }
+            String moodEventId = parent != null ? parent.getMoodEventId()
+                    : moodRefs.get(random.nextInt(moodRefs.size()))[1];
+            Comment comment = new Comment(moodEventId, authorId, "load", "load comment " + c,
+                    parent != null ? parent.getId() : null);
+            comment.setId(commentId);
+            comment.setTimestamp(BASE_TIME + c * 1000L);
+            if (parent != null) {
+                parent.addReplyId(commentId);
+                replyCommentIds.add(commentId);
+                put(db.collection("comments").document(commentId), comment);
+            } else {
+                parents.put(commentId, comment);
+                topLevelCommentIds.add(commentId);
+            }
+        }
+        for (Comment parent : parents.values()) {
+            replyCounts.put(parent.getId(), parent.getReplyIds().size());
+            put(db.collection("comments").document(parent.getId()), parent);
+        }
+
+        int attempts = 0;
+        while (pendingRequests.size() < requests && attempts++ < requests * 20) {
+            int requester = random.nextInt(users);
+            int target = random.nextInt(users);
+            if (requester == target || !edges.add(requester + ">" + target)) {
+                continue;
+            }
+            Map<String, Object> requestData = new HashMap<>();
+            requestData.put("status", "pending");
+            requestData.put("requestedAt", BASE_TIME);
+            requestData.put("requesterId", userIds.get(requester));
+            put(db.collection("users").document(userIds.get(target))
+                    .collection("requests").document(userIds.get(requester)), requestData);
+            pendingRequests.add(new String[]{userIds.get(requester), userIds.get(target)});
+        }
+
+        flush();
+    }
+
+    public List<String> getUserIds() {
+        return userIds;
+    }
+
+    public List<String> getUsernames() {
+        return usernames;
+    }
+
+    /**
+     * Returns seeded pending requests as {requesterId, targetId} pairs.
+     */
+    public List<String[]> getPendingRequests() {
+        return pendingRequests;
+    }
+
+    public List<String> getTopLevelCommentIds() {
+        return topLevelCommentIds;
+    }
+
+    public List<String> getReplyCommentIds() {
+        return replyCommentIds;
+    }
+
+    /**
+     * Returns the number of seeded replies of a top-level comment.
+     */
+    public int getReplyCount(String commentId) {
+        Integer count = replyCounts.get(commentId);
+        return count == null ? 0 : count;
+    }
+
+    private void writeFollow(String followerId, String followedId) throws Exception {
+        Map<String, Object> followingData = new HashMap<>();
+        followingData.put("followedId", followedId);
+        followingData.put("followedAt", BASE_TIME);
+        put(db.collection("users").document(followerId).collection("following").document(followedId), followingData);
+
+        Map<String, Object> followerData = new HashMap<>();
+        followerData.put("followerId", followerId);
+        followerData.put("followedAt", BASE_TIME);
+        put(db.collection("users").document(followedId).collection("followers").document(followerId), followerData);
+    }
+
+    private void put(DocumentReference ref, Object data) throws Exception {
+        batch.set(ref, data);
+        if (++batchSize >= BATCH_LIMIT) {
+            flush();
+        }
+    }
+
+    private void flush() throws Exception {
+        if (batchSize > 0) {
+            Tasks.await(batch.commit(), 60, TimeUnit.SECONDS);
+        }
+        batch = db.batch();
+        batchSize = 0;
+    }
+}
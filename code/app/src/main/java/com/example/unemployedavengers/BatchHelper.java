@@ -0,0 +1,50 @@
+/**
+ * BatchHelper - Utility class for splitting bulk Firestore work into batches.
+ *
+ * Key Responsibilities:
+ * - Splits a list into consecutive chunks of a bounded size
+ * - Works out how many items fit in one WriteBatch when each item costs
+ *   several write operations
+ *
+ * Technical Implementation:
+ * - Static utility methods, no Android or Firestore dependencies
+ * - A WriteBatch holds at most 500 operations
+ *
+ * @see com.example.unemployedavengers.implementationDAO.UserDAOImplement#acceptFollowRequests(List, String)
+ */
+package com.example.unemployedavengers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BatchHelper {
+    public static final int MAX_BATCH_WRITES = 500;
+
+    /**
+     * Splits a list into consecutive chunks.
+     *
+     * @param items The items to split
+     * @param size Maximum chunk size
+     * @return The chunks in order; empty if there are no items
+     */
+    public static <T> List<List<T>> partition(List<T> items, int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < items.size(); i += size) {
+            chunks.add(new ArrayList<>(items.subList(i, Math.min(items.size(), i + size))));
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns how many items fit in one WriteBatch.
+     *
+     * @param writesPerItem Number of write operations each item needs
+     * @return Items per batch, at least 1
+     */
+    public static int itemsPerBatch(int writesPerItem) {
+        return Math.max(1, MAX_BATCH_WRITES / Math.max(1, writesPerItem));
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * CommentThread - Live comment tree of one mood event, patched one change at a time.
+ *
+ * Design Pattern:
+ * - In-memory model fed by snapshot listeners; each document change is applied to
+ *   the tree instead of rebuilding it, and the result says which rows need redrawing
+ *
+ * Key Responsibilities:
+ * 1. Tree:
+ *    - Top-level comments newest first, replies per parent oldest first; equal
+ *      timestamps are ordered by ID, like the page queries' cursors
+ *    - Comments are keyed by ID, so a comment delivered by two overlapping page
+ *      listeners is stored once
+ *
+ * 2. Patching:
+ *    - apply() takes a batch of added, modified and removed comments and returns a
+ *      Patch: the top-level rows whose content changed, and whether the top-level
+ *      list itself changed (a comment was added, removed or moved)
+ *    - A changed reply marks its parent's row, since replies are drawn inside it
+ *
+ * Technical Implementation:
+ * - Sorted inserts by binary search; a modified comment is replaced in place unless
+ *   its timestamp moved it
+ * - getTopLevel() returns the live list so an ArrayAdapter can be backed by it
+ * - Replies may arrive before their parent and are kept until it does
+ * - Pure Java so it can run in unit tests; not thread-safe
+ *
+ * @see com.example.unemployedavengers.friendSection.MoodDetailFragment
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.Comment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class CommentThread {
+    private static final Comparator<Comment> NEWEST_FIRST = (c1, c2) -> {
+        int byTime = Long.compare(c2.getTimestamp(), c1.getTimestamp());
+        return byTime != 0 ? byTime : c2.getId().compareTo(c1.getId());
+    };
+    private static final Comparator<Comment> OLDEST_FIRST = (c1, c2) -> {
+        int byTime = Long.compare(c1.getTimestamp(), c2.getTimestamp());
+        return byTime != 0 ? byTime : c1.getId().compareTo(c2.getId());
+    };
+
+    public enum ChangeType { ADDED, MODIFIED, REMOVED }
+
+    /**
+     * One changed comment.
+     */
+    public static class Change {
+        public final ChangeType type;
+        public final Comment comment;
+
+        public Change(ChangeType type, Comment comment) {
+            this.type = type;
+            this.comment = comment;
+        }
+    }
+
+    /**
+     * What a batch of changes did to the top-level list.
+     */
+    public static class Patch {
+        // Top-level comments whose row content changed, including through their replies
+        public final Set<String> changedRows = new HashSet<>();
+        // True if top-level comments were added, removed or reordered
+        public boolean structural;
+        // Top-level comments that were new to the thread, and ones that were removed
+        public int topLevelAdded;
+        public int topLevelRemoved;
+
+        public boolean isEmpty() {
+            return !structural && changedRows.isEmpty();
+        }
+    }
+
+    private final List<Comment> topLevel = new ArrayList<>();
+    private final Map<String, List<Comment>> replies = new HashMap<>();
+    private final Map<String, Comment> byId = new HashMap<>();
+
+    /**
+     * Applies a batch of changes.
+     *
+     * @param changes Changes in any order; comments must have their IDs set
+     * @return What changed
+     */
+    public Patch apply(Collection<Change> changes) {
+        Patch patch = new Patch();
+        for (Change change : changes) {
+            if (change.type == ChangeType.REMOVED) {
+                remove(change.comment.getId(), patch);
+            } else {
+                put(change.comment, patch);
+            }
+        }
+        // Rows that were added or removed are redrawn by the structural update anyway
+        patch.changedRows.retainAll(byId.keySet());
+        return patch;
+    }
+
+    /**
+     * Returns the top-level comments, newest first. The list is live: it changes as
+     * patches are applied.
+     */
+    public List<Comment> getTopLevel() {
+        return topLevel;
+    }
+
+    /**
+     * Returns the known replies of a comment, oldest first, or an empty list.
+     */
+    public List<Comment> getReplies(String parentId) {
+        List<Comment> list = replies.get(parentId);
+        return list != null ? list : Collections.emptyList();
+    }
+
+    /**
+     * Returns the comment with the given ID, or null.
+     */
+    public Comment get(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Returns the position of a top-level comment, or -1.
+     */
+    public int indexOf(String id) {
+        Comment comment = byId.get(id);
+        if (comment == null || comment.getParentId() != null) {
+            return -1;
+        }
+        int index = Collections.binarySearch(topLevel, comment, NEWEST_FIRST);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Removes every comment.
+     */
+    public void clear() {
+        topLevel.clear();
+        replies.clear();
+        byId.clear();
+    }
+
+    private void put(Comment comment, Patch patch) {
+        Comment previous = byId.put(comment.getId(), comment);
+        if (comment.getParentId() == null) {
+            if (previous != null && previous.getParentId() == null
+                    && previous.getTimestamp() == comment.getTimestamp()) {
+                topLevel.set(Collections.binarySearch(topLevel, previous, NEWEST_FIRST), comment);
+                patch.changedRows.add(comment.getId());
+                return;
+            }
+            if (previous != null) {
+                detach(previous);
+            } else {
+                patch.topLevelAdded++;
+            }
+            insertSorted(topLevel, comment, NEWEST_FIRST);
+            patch.structural = true;
+        } else {
+            if (previous != null && previous.getParentId() != null
+                    && previous.getParentId().equals(comment.getParentId())
+                    && previous.getTimestamp() == comment.getTimestamp()) {
+                List<Comment> siblings = replies.get(comment.getParentId());
+                siblings.set(Collections.binarySearch(siblings, previous, OLDEST_FIRST), comment);
+            } else {
+                if (previous != null) {
+                    detach(previous);
+                    patch.structural |= previous.getParentId() == null;
+                    if (previous.getParentId() != null) patch.changedRows.add(previous.getParentId());
+                }
+                List<Comment> siblings = replies.get(comment.getParentId());
+                if (siblings == null) {
+                    siblings = new ArrayList<>();
+                    replies.put(comment.getParentId(), siblings);
+                }
+                insertSorted(siblings, comment, OLDEST_FIRST);
+            }
+            patch.changedRows.add(comment.getParentId());
+        }
+    }
+
+    private void remove(String id, Patch patch) {
+        Comment previous = byId.remove(id);
+        if (previous == null) {
+            return;
+        }
+        detach(previous);
+        if (previous.getParentId() == null) {
+            List<Comment> orphans = replies.remove(id);
+            if (orphans != null) {
+                for (Comment reply : orphans) {
+                    byId.remove(reply.getId());
+                }
+            }
+            patch.topLevelRemoved++;
+            patch.structural = true;
+        } else {
+            patch.changedRows.add(previous.getParentId());
+        }
+    }
+
+    // Takes a comment out of whichever sorted list holds it
+    private void detach(Comment comment) {
+        if (comment.getParentId() == null) {
+            int index = Collections.binarySearch(topLevel, comment, NEWEST_FIRST);
+            if (index >= 0) topLevel.remove(index);
+        } else {
+            List<Comment> siblings = replies.get(comment.getParentId());
+            if (siblings == null) return;
+            int index = Collections.binarySearch(siblings, comment, OLDEST_FIRST);
+            if (index >= 0) siblings.remove(index);
+            if (siblings.isEmpty()) replies.remove(comment.getParentId());
+        }
+    }
+
+    private static void insertSorted(List<Comment> list, Comment comment, Comparator<Comment> order) {
+        int index = Collections.binarySearch(list, comment, order);
+        list.add(index >= 0 ? index : -index - 1, comment);
+    }
+}
@@ -131,6 +131,25 @@ public interface IUserDAO {
      */
     Task<Void> rejectFollowRequest(@NonNull String requesterId, @NonNull String targetId);
 
+    /**
+     * Accepts many follow requests using as few write batches as the batch limit allows.
+     * Each batch succeeds or fails as a whole.
+     *
+     * @param requesterIds The user IDs of the users who sent the follow requests.
+     * @param targetId The user ID of the user accepting the follow requests.
+     * @return A {@link Task} with the requester IDs whose batch failed; empty if all succeeded.
+     */
+    Task<List<String>> acceptFollowRequests(@NonNull List<String> requesterIds, @NonNull String targetId);
+
+    /**
+     * Rejects many follow requests using as few write batches as the batch limit allows.
+     *
+     * @param requesterIds The user IDs of the users who sent the follow requests.
+     * @param targetId The user ID of the user rejecting the follow requests.
+     * @return A {@link Task} with the requester IDs whose batch failed; empty if all succeeded.
+     */
+    Task<List<String>> rejectFollowRequests(@NonNull List<String> requesterIds, @NonNull String targetId);
+
     /**
      * Unfollows a user by removing the follow relationship from Firestore.
      *
@@ -141,7 +160,8 @@ public interface IUserDAO {
     Task<Void> unfollowUser(@NonNull String followerId, @NonNull String followedId);
 
     /**
-     * Searches for users in Firestore based on a search query.
+     * Searches for users in Firestore whose usernames start with or contain a search query,
+     * ignoring case. The signed-in user is never part of the results.
      *
      * @param query The search term to find matching usernames.
      * @return A {@link Task<List<User>>} containing a list of matching users.
@@ -166,10 +186,11 @@ public interface IUserDAO {
 
     /**
      * Checks if the requester already follows or has requested to follow the target.
+     * Answered from the in-memory {@code FollowGraph} when it is running for the requester.
      *
      * @param requesterId The user ID of the person initiating the follow.
      * @param targetId The user ID of the target person.
-     * @return A {@link Task<Boolean>} indicating if a relationship already exists.
+     * @return A {@link Task<String>} with "following", "requested" or "none".
      */
 
     Task<String> getFollowStatus(@NonNull String requesterId, @NonNull String targetId);
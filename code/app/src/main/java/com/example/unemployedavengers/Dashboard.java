@@ -15,7 +15,8 @@
  * 2. Social Features:
  *    - Shows nearby mood events (within 5km radius)
  *    - Displays followed users' public mood events
- *    - Manages location-based filtering
+ *    - Manages location-based filtering; the friend feed loads while the location
+ *      is fetched, and the nearby list is filtered once both are in
  *
  * 3. Navigation Hub:
  *    - Entry point to mood input dialog
@@ -79,15 +80,13 @@ import androidx.navigation.Navigation;
 import com.example.unemployedavengers.DAO.IUserDAO;
 import com.example.unemployedavengers.arrayadapters.MoodEventArrayAdapter;
 import com.example.unemployedavengers.databinding.DashboardBinding;
+import com.example.unemployedavengers.implementationDAO.FeedManager;
+import com.example.unemployedavengers.implementationDAO.MoodStatsManager;
 import com.example.unemployedavengers.implementationDAO.UserDAOImplement;
 import com.example.unemployedavengers.models.FriendMoodEventsViewModel;
 import com.example.unemployedavengers.models.MoodEvent;
 import com.example.unemployedavengers.models.MoodEventsViewModel;
 import com.example.unemployedavengers.models.WithinFiveKmViewModel;
-import com.google.android.gms.location.FusedLocationProviderClient;
-import com.google.android.gms.location.LocationRequest;
-import com.google.android.gms.location.LocationServices;
-import com.google.android.gms.maps.model.LatLng;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.CollectionReference;
@@ -95,9 +94,8 @@ import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 import com.google.firebase.firestore.FirebaseFirestoreSettings;
-import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
-import com.google.maps.android.SphericalUtil;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -105,19 +103,18 @@ import java.util.List;
 
 public class Dashboard extends BaseFragment {
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 100;
-    private FusedLocationProviderClient fusedLocationClient;
     private DashboardBinding binding;
     private ArrayList<MoodEvent> moodList;
     private MoodEventArrayAdapter moodAdapter;
     private FirebaseFirestore db;
     private CollectionReference moodEventRef;
+    private final FirestoreMetrics metrics = FirestoreMetrics.getInstance();
     private IUserDAO userDAO;
+    private MoodStatsManager statsManager;
+    private FeedManager feedManager;
     private String userID;
     private String username;
 
-    private double currentLatitude;
-    private double currentLongitude;
-
     private MoodEvent selectedMoodForDeletion;
 
     @Override
@@ -135,7 +132,8 @@ public class Dashboard extends BaseFragment {
                               @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         userDAO = new UserDAOImplement();
-        fusedLocationClient = LocationServices.getFusedLocationProviderClient(requireActivity());
+        statsManager = new MoodStatsManager();
+        feedManager = new FeedManager();
         // Initialize FirebaseFirestore
         db = FirebaseFirestore.getInstance();
 
@@ -184,7 +182,7 @@ public class Dashboard extends BaseFragment {
         // Only try to fetch username from Firestore if we're online and username isn't cached
         if (isOnline && (username == null)) {
             DocumentReference userDocRef = db.collection("users").document(userID);
-            userDocRef.get().addOnCompleteListener(task -> {
+            metrics.track("Dashboard.fetchUsername", userDocRef.get()).addOnCompleteListener(task -> {
                 if (task.isSuccessful() && task.getResult().exists()) {
                     username = task.getResult().getString("username");
 
@@ -205,8 +203,9 @@ public class Dashboard extends BaseFragment {
         DocumentReference userDocRef = db.collection("users").document(userID);
 
         // Fetch username from Firestore (works offline if previously cached)
-        userDocRef.get().addOnCompleteListener(task -> {
+        metrics.track("Dashboard.loadUsername", userDocRef.get()).addOnCompleteListener(task -> {
             if (task.isSuccessful() && task.getResult().exists()) {
+                ProfileStore.getInstance().put(task.getResult());
                 username = task.getResult().getString("username");
             } else {
                 if (isValidFragment()) {
@@ -263,9 +262,8 @@ public class Dashboard extends BaseFragment {
 
                 boolean deleteConfirmed = result.getBoolean("DeleteConfirmed", false);
                 if (deleteConfirmed && selectedMoodForDeletion != null) {
-                    //proceed with the deletion
+                    //proceed with the deletion; the row is removed right away
                     onDeleteConfirmed(selectedMoodForDeletion);
-                    loadMoodEvents(); //reload the mood events after deletion
                 }
             }
         });
@@ -283,78 +281,76 @@ public class Dashboard extends BaseFragment {
     public void addMoodEvent(MoodEvent moodEvent) {
         if (binding == null || moodEventRef == null || !isValidFragment()) return;
 
-        moodEvent.setExisted(true); //mark it as an existing mood event
-        // Set user info from current session
+        //assign the ID on the client so the mood is written once, with its id field already set
+        DocumentReference moodEventDocRef = moodEventRef.document();
+        moodEvent.setId(moodEventDocRef.getId());
         moodEvent.setUserId(userID);
         moodEvent.setUserName(username);
-        moodEvent.setExisted(true);
+        moodEvent.setExisted(true); //mark it as an existing mood event
 
-        //add the mood event without the ID first
-        moodEventRef.add(moodEvent)
-                .addOnSuccessListener(documentReference -> {
+        //one commit writes the mood and its stats counters
+        statsManager.createMood(userID, moodEventDocRef, moodEvent)
+                .addOnSuccessListener(aVoid -> {
                     if (binding == null || !isValidFragment()) return;
-
-                    //get the unique ID generated by Firestore
-                    String id = documentReference.getId();
-
-                    //update the document with the ID field
-                    documentReference.update("id", id)
-                            .addOnSuccessListener(aVoid -> {
-                                if (binding == null || !isValidFragment()) return;
-
-                                //set the id in the local object
-                                moodEvent.setId(id);
-                                moodEvent.setUserId(userID);
-                                moodEvent.setUserName((username));
-
-                                //update user
-                                updateMoodEvent(moodEvent);
-                                Toast.makeText(getContext(), "Mood added successfully", Toast.LENGTH_SHORT).show();
-                            })
-                            .addOnFailureListener(e -> {
-                                if (binding == null || !isValidFragment()) return;
-                                Toast.makeText(getContext(), "Failed to update ID in Firestore", Toast.LENGTH_SHORT).show();
-                            });
+                    Toast.makeText(getContext(), "Mood added successfully", Toast.LENGTH_SHORT).show();
                 })
                 .addOnFailureListener(e -> {
                     if (binding == null || !isValidFragment()) return;
+                    moodList.remove(moodEvent);
+                    MoodSearchIndex.getInstance().removeMood(moodEvent.getId());
+                    showMoodEvents();
                     Toast.makeText(getContext(), "Failed to add mood", Toast.LENGTH_SHORT).show();
                 });
+
+        //show the new mood right away instead of reloading every mood, and make it searchable
+        moodList.add(moodEvent);
+        MoodSearchIndex.getInstance().putMood(moodEvent);
+        showMoodEvents();
     }
 
     private void updateMoodEvent(MoodEvent moodEvent) {
         if (binding == null || moodEventRef == null || !isValidFragment() || moodEvent == null) return;
 
-        // NEED TO RELOAD DATABASE CAUSE FIREBASE IS AN IDIOT (crashes if you add a moodEvent and tries to update it right away cause "cannot find id")
-
-        loadMoodEvents();
-
         String moodEventId = moodEvent.getId();
         if (moodEventId == null) {
             Log.e("Dashboard", "Mood event ID is null");
             return;
         }
 
-        // Get document via id
-        DocumentReference moodEventDocRef = moodEventRef.document(moodEventId);
+        // Edits made in quick succession are sent as one update of the changed fields
+        MoodWriteQueue.getInstance().enqueue(userID, moodEvent, new MoodWriteQueue.Listener() {
+            @Override
+            public void onWritten(MoodEvent written) {
+                if (binding == null || !isValidFragment()) return;
+                Toast.makeText(getContext(), "Mood updated successfully", Toast.LENGTH_SHORT).show();
+            }
 
-        // Set the new values for the document
-        moodEventDocRef.set(moodEvent)  //use set() to update or create the document if it doesn't exist
-                .addOnSuccessListener(aVoid -> {
-                    if (binding == null || !isValidFragment()) return;
-                    Toast.makeText(getContext(), "Mood updated successfully", Toast.LENGTH_SHORT).show();
-                })
-                .addOnFailureListener(e -> {
-                    if (binding == null || !isValidFragment()) return;
-                    Toast.makeText(getContext(), "Failed to update mood", Toast.LENGTH_SHORT).show();
-                });
+            @Override
+            public void onFailed(MoodEvent failed, Exception error) {
+                if (binding == null || !isValidFragment()) return;
+                Toast.makeText(getContext(), "Failed to update mood", Toast.LENGTH_SHORT).show();
+                loadMoodEvents(); //roll back to what Firestore has
+            }
+        });
+
+        // Replace the edited mood in the local list and the search index
+        for (int i = 0; i < moodList.size(); i++) {
+            if (moodEventId.equals(moodList.get(i).getId())) {
+                moodList.set(i, moodEvent);
+                break;
+            }
+        }
+        MoodSearchIndex.getInstance().putMood(moodEvent);
+        showMoodEvents();
     }
 
     //delete function
     public void onDeleteConfirmed(MoodEvent moodEvent) {
         if (binding == null || moodEventRef == null || !isValidFragment() || moodEvent == null || moodEvent.getId() == null) return;
 
-        moodEventRef.document(moodEvent.getId()).delete() //using the id to delete
+        //an edit still waiting to be sent would otherwise fail against the deleted mood
+        MoodWriteQueue.getInstance().cancel(userID, moodEvent.getId());
+        statsManager.deleteMood(userID, moodEventRef.document(moodEvent.getId())) //using the id to delete
                 .addOnSuccessListener(aVoid -> {
                     if (binding == null || !isValidFragment()) return;
                     Toast.makeText(getContext(), "Mood deleted successfully", Toast.LENGTH_SHORT).show();
@@ -362,20 +358,95 @@ public class Dashboard extends BaseFragment {
                 .addOnFailureListener(e -> {
                     if (binding == null || !isValidFragment()) return;
                     Toast.makeText(getContext(), "Failed to delete mood", Toast.LENGTH_SHORT).show();
+                    loadMoodEvents(); //roll back to what Firestore has
                 });
 
-        loadMoodEvents(); //reload mood events
+        //remove the mood right away; a reload now could still read it back before the delete is queued
+        MoodSearchIndex.getInstance().removeMood(moodEvent.getId());
+        for (int i = 0; i < moodList.size(); i++) {
+            if (moodEvent.getId().equals(moodList.get(i).getId())) {
+                moodList.remove(i);
+                break;
+            }
+        }
+        showMoodEvents();
     }
 
     public void loadFollowedMoodEvents() {
-        if (binding == null || moodEventRef == null || !isValidFragment()) return;
+        if (binding == null || moodEventRef == null || !isValidFragment() || userID == null) return;
 
-        // Create an empty list to collect mood events.
+        // Followees' moods are offered as they arrive; the feed mode decides what is kept
+        FeedSelector selector = new FeedSelector(FeedModeStore.load(requireContext()));
         List<MoodEvent> followedEventsList = new ArrayList<>();
-        List<MoodEvent> withinFiveEventsList = new ArrayList<>();
         FriendMoodEventsViewModel vm = new ViewModelProvider(requireActivity()).get(FriendMoodEventsViewModel.class);
         WithinFiveKmViewModel withinFiveKmViewModel = new ViewModelProvider(requireActivity()).get(WithinFiveKmViewModel.class);
 
+        // The location is only needed for the 5 km list, so it is requested alongside the feed
+        requestCurrentLocation(withinFiveKmViewModel);
+
+        // Followed user IDs come from the in-memory follow graph
+        FollowGraph followGraph = FollowGraph.getInstance();
+        followGraph.start(requireContext(), userID);
+        followGraph.getFollowing(userID)
+                .addOnSuccessListener(followedUserIds -> {
+                    if (binding == null || !isValidFragment()) return;
+
+                    if (followedUserIds.isEmpty()) {
+                        vm.setMoodEvents(followedEventsList);
+                        withinFiveKmViewModel.setFriendMoodEvents(followedEventsList);
+                        return;
+                    }
+
+                    // Each followee's moods arrive separately; the cached ones first after a background prefetch
+                    boolean warm = FeedPrefetchWorker.isWarm(requireContext(), userID);
+                    feedManager.loadFeed(followedUserIds, selector.getFetchLimit(), warm, "Dashboard.loadFollowedMoods",
+                            new FeedManager.FeedListener() {
+                                @Override
+                                public void onMoods(String followedId, List<MoodEvent> moods) {
+                                    if (binding == null || !isValidFragment()) return;
+
+                                    // Keep this followee's share of the feed and publish the feed so far
+                                    selector.offerAll(followedId, moods);
+                                    List<MoodEvent> feed = selector.result();
+
+                                    vm.setMoodEvents(feed);
+                                    // Recomputes the 5 km list if the location is already known
+                                    withinFiveKmViewModel.setFriendMoodEvents(feed);
+                                }
+
+                                @Override
+                                public void onReplaced(String followedId, List<MoodEvent> moods) {
+                                    if (binding == null || !isValidFragment()) return;
+
+                                    // The server's moods replace the cached ones, which may be deleted or private by now
+                                    selector.replaceAll(followedId, moods);
+                                    List<MoodEvent> feed = selector.result();
+
+                                    vm.setMoodEvents(feed);
+                                    withinFiveKmViewModel.setFriendMoodEvents(feed);
+                                }
+
+                                @Override
+                                public void onSettled(boolean fromCache) {
+                                    // The feed is already published after every followee. Only the final
+                                    // feed is searchable; earlier offers may since have been pushed out.
+                                    if (!fromCache && binding != null && isValidFragment()) {
+                                        MoodSearchIndex.getInstance().putMoods(selector.result());
+                                    }
+                                }
+                            });
+                })
+                .addOnFailureListener(e -> {
+                    if (binding == null || !isValidFragment()) return;
+                    Log.e("Dashboard", "Error loading following users", e);
+                });
+    }
+
+    /**
+     * Gets the user's location for the 5 km list. Without location permission the
+     * permission is requested and the friend feed still loads; only the 5 km list stays empty.
+     */
+    private void requestCurrentLocation(WithinFiveKmViewModel withinFiveKmViewModel) {
         if (ActivityCompat.checkSelfPermission(requireContext(), android.Manifest.permission.ACCESS_FINE_LOCATION) != PackageManager.PERMISSION_GRANTED &&
                 ActivityCompat.checkSelfPermission(requireContext(), android.Manifest.permission.ACCESS_COARSE_LOCATION) != PackageManager.PERMISSION_GRANTED) {
             ActivityCompat.requestPermissions(requireActivity(),
@@ -387,90 +458,16 @@ public class Dashboard extends BaseFragment {
             return;
         }
 
-        // Request the current location
-        fusedLocationClient.getCurrentLocation(LocationRequest.PRIORITY_HIGH_ACCURACY, null)
+        // The 5 km filter accepts a coarse fix from the last few minutes
+        LocationCache.getInstance().getLocation(requireContext(), LocationCache.Requirement.NEARBY_FILTER)
                 .addOnSuccessListener(location -> {
                     if (binding == null || !isValidFragment()) return;
 
                     if (location != null) {
-                        currentLatitude = location.getLatitude();
-                        currentLongitude = location.getLongitude();
+                        withinFiveKmViewModel.setCurrentLocation(location.getLatitude(), location.getLongitude());
                     } else {
                         Toast.makeText(getContext(), "Unable to retrieve current location", Toast.LENGTH_SHORT).show();
                     }
-
-                    if (binding == null || !isValidFragment() || userID == null) return;
-
-                    LatLng currentLocation = new LatLng(currentLatitude, currentLongitude);
-
-                    // Query the current user's "following" subcollection to get followed user IDs.
-                    db.collection("users")
-                            .document(userID)
-                            .collection("following")
-                            .get()
-                            .addOnSuccessListener(querySnapshot -> {
-                                if (binding == null || !isValidFragment()) return;
-
-                                List<String> followedUserIds = new ArrayList<>();
-
-                                // Extract each followed user ID from the "following" documents.
-                                for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                                    String followedId = document.getString("followedId");
-                                    if (followedId != null) {
-                                        followedUserIds.add(followedId);
-                                    }
-                                }
-
-                                if (followedUserIds.isEmpty()) {
-                                    vm.setMoodEvents(followedEventsList);
-                                    return;
-                                }
-
-                                // For each followed user, query the 3 most recent mood events.
-                                for (String followedId : followedUserIds) {
-                                    db.collection("users")
-                                            .document(followedId)
-                                            .collection("moods")
-                                            .orderBy("time", Query.Direction.DESCENDING) // Sort by time descending (newest first)
-                                            .limit(10) // Get more than we need in case some are private
-                                            .get()
-                                            .addOnSuccessListener(querySnapshot1 -> {
-                                                if (binding == null || !isValidFragment()) return;
-                                                int count = 0;
-
-                                                for (QueryDocumentSnapshot doc : querySnapshot1) {
-                                                    MoodEvent moodEvent = doc.toObject(MoodEvent.class);
-                                                    Boolean isPublic = doc.contains("publicStatus") ?
-                                                            doc.getBoolean("publicStatus") : true;
-                                                    if (isPublic != null && isPublic) {
-                                                        followedEventsList.add(moodEvent);
-                                                        count++;
-                                                        if (moodEvent.getHasLocation()) {
-                                                            LatLng eventLocation = new LatLng(moodEvent.getLatitude(), moodEvent.getLongitude());
-                                                            double distanceInMeters = SphericalUtil.computeDistanceBetween(currentLocation, eventLocation);
-                                                            if (distanceInMeters <= 5000) {
-                                                                withinFiveEventsList.add(moodEvent);
-                                                            }
-                                                        }
-                                                        if (count >= 3) {
-                                                            break;
-                                                        }
-                                                    }
-                                                }
-
-                                                vm.setMoodEvents(followedEventsList);
-                                                withinFiveKmViewModel.setMoodEvents(withinFiveEventsList);
-                                            })
-                                            .addOnFailureListener(e -> {
-                                                if (binding == null || !isValidFragment()) return;
-                                                Log.e("Dashboard", "Error loading followed mood events", e);
-                                            });
-                                }
-                            })
-                            .addOnFailureListener(e -> {
-                                if (binding == null || !isValidFragment()) return;
-                                Log.e("Dashboard", "Error loading following users", e);
-                            });
                 })
                 .addOnFailureListener(e -> {
                     if (binding == null || !isValidFragment()) return;
@@ -489,78 +486,102 @@ public class Dashboard extends BaseFragment {
             return;
         }
 
-        moodEventRef.get()
+        // After a background prefetch, show the cached moods while the server is asked
+        boolean[] fromServer = {false};
+        if (FeedPrefetchWorker.isWarm(requireContext(), userID)) {
+            moodEventRef.get(Source.CACHE).addOnSuccessListener(snapshot -> {
+                if (binding == null || !isValidFragment() || fromServer[0]) return;
+                showLoadedMoods(snapshot);
+            });
+        }
+
+        metrics.track("Dashboard.loadMoodEvents", moodEventRef.get())
                 .addOnCompleteListener(task -> {
                     if (binding == null || !isValidFragment()) return;
 
-                    //convert each document to
                     if (task.isSuccessful()) {
-                        List<MoodEvent> moodEvents = new ArrayList<>();
-                        //each documentSnapsho is a document fethced from task.getResult()
-                        for (DocumentSnapshot document : task.getResult()) {
-                            MoodEvent moodEvent = document.toObject(MoodEvent.class); //convert to MoodEvent class
-                            if (moodEvent != null) {
-                                moodEvents.add(moodEvent); //add to array
-                                // Ensure user info is set from current session
-                                moodEvent.setUserId(userID);
-                                moodEvent.setUserName(username);
-                            }
-                        }
-
-                        Log.d("MapDebug", "dashboard reached" );
-                        // query first in upper space for map to draw markers
-                        MoodEventsViewModel vm = new ViewModelProvider(requireActivity()).get(MoodEventsViewModel.class);
-                        vm.setMoodEvents(moodEvents);
-                        Log.d("MapDebug", "size dashboard" + moodEvents.size() );
-
-                        //sort the mood events by time in descending order (most recent first)
-                        Collections.sort(moodEvents, (e1, e2) -> Long.compare(e2.getTime(), e1.getTime()));
-
-                        //limit the list to the most recent 7 mood events
-                        List<MoodEvent> recentMoodEvents = new ArrayList<>();
-
-                        //store the most recent 7 moodevent or smaller.
-                        for (int i = 0; i < Math.min(7, moodEvents.size()); i++) {
-                            recentMoodEvents.add(moodEvents.get(i));
-                        }
-
-                        //set the adapter with the recent 7 mood events
-                        MoodEventArrayAdapter adapter = new MoodEventArrayAdapter(getContext(), recentMoodEvents);
-                        binding.activityList.setAdapter(adapter);
-
-                        //set item click listener
-                        binding.activityList.setOnItemClickListener((parent, view, position, id) -> {
-                            if (position >= 0 && position < recentMoodEvents.size()) {
-                                //get the selected MoodEvent based on position
-                                MoodEvent selectedMoodEvent = recentMoodEvents.get(position);
-
-                                //create a bundle and put the selected MoodEvent in it
-                                Bundle args = new Bundle();
-                                args.putSerializable("selected_mood_event", selectedMoodEvent);
-                                args.putString("source", "dashboard");
-
-                                //navigate to inputdialog and pass the selected mood event
-                                Navigation.findNavController(view).navigate(R.id.action_dashboardFragment_to_inputDialog, args);
-                            }
-                        });
-
-                        //long click to delete
-                        binding.activityList.setOnItemLongClickListener((parent, view, position, id) -> {
-                            if (position >= 0 && position < recentMoodEvents.size()) {
-                                selectedMoodForDeletion = recentMoodEvents.get(position);
-
-                                ConfirmDeleteDialogFragment dialog = ConfirmDeleteDialogFragment.newInstance(selectedMoodForDeletion.getId());
-                                dialog.show(getParentFragmentManager(), "ConfirmDeleteDialog");
-                            }
-                            return true; //indicate the event was handled
-                        });
-
+                        fromServer[0] = true;
+                        showLoadedMoods(task.getResult());
                     } else {
                         Log.e("Dashboard", "Error fetching mood events", task.getException());
                     }
                 });
     }
 
+    //converts each loaded document to a MoodEvent and shows them
+    private void showLoadedMoods(QuerySnapshot snapshot) {
+        moodList.clear();
+        //each documentSnapshot is a document fetched from the query
+        for (DocumentSnapshot document : snapshot) {
+            MoodEvent moodEvent = document.toObject(MoodEvent.class); //convert to MoodEvent class
+            if (moodEvent != null) {
+                moodList.add(moodEvent); //add to array
+                // Ensure user info is set from current session
+                moodEvent.setUserId(userID);
+                moodEvent.setUserName(username);
+            }
+        }
+        //keep edits that haven't been written yet
+        MoodWriteQueue.getInstance().overlay(userID, moodList);
+        MoodSearchIndex.getInstance().replaceUserMoods(userID, moodList);
+        showMoodEvents();
+    }
+
+    //shows the most recent 7 of the loaded mood events
+    private void showMoodEvents() {
+        if (binding == null || !isValidFragment()) return;
+
+        List<MoodEvent> moodEvents = new ArrayList<>(moodList);
+
+        Log.d("MapDebug", "dashboard reached" );
+        // query first in upper space for map to draw markers
+        MoodEventsViewModel vm = new ViewModelProvider(requireActivity()).get(MoodEventsViewModel.class);
+        vm.setMoodEvents(moodEvents);
+        Log.d("MapDebug", "size dashboard" + moodEvents.size() );
+
+        //sort the mood events by time in descending order (most recent first)
+        Collections.sort(moodEvents, (e1, e2) -> Long.compare(e2.getTime(), e1.getTime()));
+
+        //limit the list to the most recent 7 mood events
+        List<MoodEvent> recentMoodEvents = new ArrayList<>();
+
+        //store the most recent 7 moodevent or smaller.
+        for (int i = 0; i < Math.min(7, moodEvents.size()); i++) {
+            recentMoodEvents.add(moodEvents.get(i));
+        }
+
+        //set the adapter with the recent 7 mood events
+        MoodEventArrayAdapter adapter = new MoodEventArrayAdapter(getContext(), recentMoodEvents);
+        binding.activityList.setAdapter(adapter);
+
+        //set item click listener
+        binding.activityList.setOnItemClickListener((parent, view, position, id) -> {
+            if (position >= 0 && position < recentMoodEvents.size()) {
+                //get the selected MoodEvent based on position
+                MoodEvent selectedMoodEvent = recentMoodEvents.get(position);
+
+                //create a bundle and put the selected MoodEvent in it
+                Bundle args = new Bundle();
+                args.putSerializable("selected_mood_event", selectedMoodEvent);
+                args.putString("source", "dashboard");
+
+                //navigate to inputdialog and pass the selected mood event
+                Navigation.findNavController(view).navigate(R.id.action_dashboardFragment_to_inputDialog, args);
+            }
+        });
+
+        //long click to delete
+        binding.activityList.setOnItemLongClickListener((parent, view, position, id) -> {
+            if (position >= 0 && position < recentMoodEvents.size()) {
+                selectedMoodForDeletion = recentMoodEvents.get(position);
+
+                ConfirmDeleteDialogFragment dialog = ConfirmDeleteDialogFragment.newInstance(selectedMoodForDeletion.getId());
+                dialog.show(getParentFragmentManager(), "ConfirmDeleteDialog");
+            }
+            return true; //indicate the event was handled
+        });
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -0,0 +1,208 @@
+/**
+ * DateFormatHelper - Shared, thread-safe timestamp formatter used by every list adapter.
+ *
+ * Design Pattern:
+ * - Process-wide singleton so all adapters share one formatter and one cache
+ * - Observer pattern for the minute tick that refreshes relative labels
+ *
+ * Key Responsibilities:
+ * 1. Absolute Formatting:
+ *    - Formats epoch milliseconds as "yyyy-MM-dd HH:mm" with java.time
+ *    - Caches formatted strings keyed by minute bucket (every timestamp inside
+ *      the same minute renders to the same string)
+ *
+ * 2. Relative Formatting:
+ *    - Produces "just now", "5 min ago" and "3 h ago" labels for recent timestamps
+ *    - Falls back to the absolute format after one day
+ *    - Reads the current minute from a single ticking clock instead of
+ *      calling System.currentTimeMillis() on every bind
+ *
+ * 3. Performance:
+ *    - DateTimeFormatter is immutable and thread-safe, unlike SimpleDateFormat
+ *    - Relative labels are precomputed, so binding a row does not allocate
+ *    - The ticker only runs while at least one listener is registered
+ *
+ * Technical Implementation:
+ * - java.time requires API 26; minSdk 24 is covered by core library desugaring
+ * - The LRU cache is a synchronized access-ordered LinkedHashMap
+ * - The tick is posted on the main looper and aligned to minute boundaries
+ *
+ * Outstanding Issues/TODOs:
+ * 1. Relative labels are English only
+ * 2. Zone and locale are captured at construction; a system change needs a restart
+ *
+ * @see com.example.unemployedavengers.arrayadapters.CommentAdapter
+ * @see com.example.unemployedavengers.arrayadapters.FollowedUserMoodEventAdapter
+ */
+package com.example.unemployedavengers;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public final class DateFormatHelper {
+    private static final long MINUTE_MILLIS = 60_000L;
+    private static final int MINUTES_PER_HOUR = 60;
+    private static final int HOURS_PER_DAY = 24;
+    private static final int CACHE_SIZE = 512;
+    private static final String PATTERN = "yyyy-MM-dd HH:mm";
+
+    private static DateFormatHelper instance;
+
+    private final DateTimeFormatter formatter;
+    private final Map<Long, String> cache;
+    private final String[] minuteLabels = new String[MINUTES_PER_HOUR];
+    private final String[] hourLabels = new String[HOURS_PER_DAY];
+    private final List<Runnable> tickListeners = new CopyOnWriteArrayList<>();
+
+    private Handler handler;
+    private volatile boolean ticking = false;
+    private volatile long currentMinute;
+
+    private final Runnable tick = new Runnable() {
+        @Override
+        public void run() {
+            long now = System.currentTimeMillis();
+            currentMinute = now / MINUTE_MILLIS;
+            for (Runnable listener : tickListeners) {
+                listener.run();
+            }
+            if (ticking) {
+                // Re-align with the next minute boundary
+                handler.postDelayed(this, MINUTE_MILLIS - (now % MINUTE_MILLIS));
+            }
+        }
+    };
+
+    /**
+     * Returns the shared formatter for the device's zone and locale.
+     *
+     * @return The process-wide DateFormatHelper.
+     */
+    public static synchronized DateFormatHelper getInstance() {
+        if (instance == null) {
+            instance = new DateFormatHelper(ZoneId.systemDefault(), Locale.getDefault());
+        }
+        return instance;
+    }
+
+    /**
+     * Creates a formatter for a specific zone and locale. Exposed to the package for tests.
+     *
+     * @param zone   The zone used to render absolute timestamps.
+     * @param locale The locale used to render absolute timestamps.
+     */
+    DateFormatHelper(ZoneId zone, Locale locale) {
+        this.formatter = DateTimeFormatter.ofPattern(PATTERN, locale).withZone(zone);
+        this.cache = new LinkedHashMap<Long, String>(CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > CACHE_SIZE;
+            }
+        };
+
+        minuteLabels[0] = "just now";
+        for (int i = 1; i < MINUTES_PER_HOUR; i++) {
+            minuteLabels[i] = i + " min ago";
+        }
+        for (int i = 1; i < HOURS_PER_DAY; i++) {
+            hourLabels[i] = i + " h ago";
+        }
+        currentMinute = System.currentTimeMillis() / MINUTE_MILLIS;
+    }
+
+    /**
+     * Formats a timestamp as "yyyy-MM-dd HH:mm".
+     *
+     * @param timestamp Epoch milliseconds.
+     * @return The formatted date, served from the minute-bucket cache when possible.
+     */
+    public String formatAbsolute(long timestamp) {
+        long minute = Math.floorDiv(timestamp, MINUTE_MILLIS);
+        synchronized (cache) {
+            String cached = cache.get(minute);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        String formatted = formatter.format(Instant.ofEpochMilli(minute * MINUTE_MILLIS));
+        synchronized (cache) {
+            cache.put(minute, formatted);
+        }
+        return formatted;
+    }
+
+    /**
+     * Formats a timestamp relative to the ticking clock ("5 min ago"), falling back to
+     * the absolute format for anything older than a day or in the future.
+     *
+     * @param timestamp Epoch milliseconds.
+     * @return The relative or absolute label.
+     */
+    public String formatRelative(long timestamp) {
+        long nowMinute = ticking ? currentMinute : System.currentTimeMillis() / MINUTE_MILLIS;
+        return formatRelative(timestamp, nowMinute * MINUTE_MILLIS);
+    }
+
+    /**
+     * Formats a timestamp relative to an explicit "now".
+     *
+     * @param timestamp Epoch milliseconds to format.
+     * @param now       Epoch milliseconds treated as the current time.
+     * @return The relative or absolute label.
+     */
+    String formatRelative(long timestamp, long now) {
+        long minutesAgo = Math.floorDiv(now, MINUTE_MILLIS) - Math.floorDiv(timestamp, MINUTE_MILLIS);
+        if (minutesAgo < 0) {
+            return formatAbsolute(timestamp);
+        }
+        if (minutesAgo < MINUTES_PER_HOUR) {
+            return minuteLabels[(int) minutesAgo];
+        }
+        long hoursAgo = minutesAgo / MINUTES_PER_HOUR;
+        if (hoursAgo < HOURS_PER_DAY) {
+            return hourLabels[(int) hoursAgo];
+        }
+        return formatAbsolute(timestamp);
+    }
+
+    /**
+     * Registers a callback invoked on the main thread once per minute so relative labels can
+     * be refreshed. The clock starts with the first listener and stops with the last one.
+     *
+     * @param listener The callback to run on each tick.
+     */
+    public synchronized void addTickListener(Runnable listener) {
+        tickListeners.add(listener);
+        if (!ticking) {
+            if (handler == null) {
+                handler = new Handler(Looper.getMainLooper());
+            }
+            ticking = true;
+            long now = System.currentTimeMillis();
+            currentMinute = now / MINUTE_MILLIS;
+            handler.postDelayed(tick, MINUTE_MILLIS - (now % MINUTE_MILLIS));
+        }
+    }
+
+    /**
+     * Unregisters a tick callback. The clock stops once no listeners remain.
+     *
+     * @param listener The callback previously passed to {@link #addTickListener(Runnable)}.
+     */
+    public synchronized void removeTickListener(Runnable listener) {
+        tickListeners.remove(listener);
+        if (tickListeners.isEmpty() && ticking) {
+            ticking = false;
+            handler.removeCallbacks(tick);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * DistanceFilterHelper - Utility class for the "within 5 km" mood event feature.
+ *
+ * Key Responsibilities:
+ * - Computes great-circle distances between coordinates
+ * - Filters located mood events to those inside a radius of the user
+ *
+ * Technical Implementation:
+ * - Haversine formula with the same earth radius as SphericalUtil (6371009 m),
+ *   so results match the maps-utils implementation it replaces
+ * - Pure Java so it can run in unit tests and JVM benchmarks
+ * - Skips events without location data
+ *
+ * @see MoodEvent
+ * @see com.example.unemployedavengers.models.WithinFiveKmViewModel
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DistanceFilterHelper {
+    public static final double FIVE_KM_METERS = 5000;
+    private static final double EARTH_RADIUS_METERS = 6371009;
+
+    /**
+     * Returns the great-circle distance between two coordinates.
+     *
+     * @param lat1 Latitude of the first point in degrees
+     * @param lng1 Longitude of the first point in degrees
+     * @param lat2 Latitude of the second point in degrees
+     * @param lng2 Longitude of the second point in degrees
+     * @return The distance in meters
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double phi1 = Math.toRadians(lat1);
+        double phi2 = Math.toRadians(lat2);
+        double sinHalfDPhi = Math.sin((phi2 - phi1) / 2);
+        double sinHalfDLambda = Math.sin(Math.toRadians(lng2 - lng1) / 2);
+        double h = sinHalfDPhi * sinHalfDPhi
+                + Math.cos(phi1) * Math.cos(phi2) * sinHalfDLambda * sinHalfDLambda;
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.sqrt(Math.min(1, h)));
+    }
+
+    /**
+     * Checks whether a located mood event lies within a radius of a point.
+     *
+     * @param event The mood event to check
+     * @param latitude Latitude of the center in degrees
+     * @param longitude Longitude of the center in degrees
+     * @param radiusMeters The radius in meters
+     * @return true if the event has a location inside the radius
+     */
+    public static boolean isWithin(MoodEvent event, double latitude, double longitude, double radiusMeters) {
+        return event != null && event.getHasLocation()
+                && distanceMeters(latitude, longitude, event.getLatitude(), event.getLongitude()) <= radiusMeters;
+    }
+
+    /**
+     * Filters mood events to those within a radius of a point.
+     *
+     * @param events The mood events to filter
+     * @param latitude Latitude of the center in degrees
+     * @param longitude Longitude of the center in degrees
+     * @param radiusMeters The radius in meters
+     * @return The events inside the radius, in their original order
+     */
+    public static List<MoodEvent> filterWithin(List<MoodEvent> events, double latitude, double longitude, double radiusMeters) {
+        List<MoodEvent> nearby = new ArrayList<>();
+        for (MoodEvent event : events) {
+            if (isWithin(event, latitude, longitude, radiusMeters)) {
+                nearby.add(event);
+            }
+        }
+        return nearby;
+    }
+}
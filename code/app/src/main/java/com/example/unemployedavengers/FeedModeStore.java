@@ -0,0 +1,51 @@
+/**
+ * FeedModeStore - Remembers which feed mode the user chose.
+ *
+ * Design Pattern:
+ * - Static load/save pair over SharedPreferences, kept apart from FeedSelector so the
+ *   selector stays plain Java for unit tests and the JMH benchmark module
+ *
+ * Key Responsibilities:
+ * - load() returns the saved FeedSelector.Mode, PER_FRIEND if none or unknown
+ * - save() stores the mode by its enum name
+ *
+ * Technical Implementation:
+ * - Stored in the "user_preferences" SharedPreferences under "feed_mode", as before
+ *   the split, so modes saved by older versions still load
+ *
+ * @see FeedSelector
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+
+public class FeedModeStore {
+    private static final String PREFS = "user_preferences";
+    private static final String KEY_MODE = "feed_mode";
+
+    private FeedModeStore() {
+    }
+
+    /**
+     * Returns the feed mode the user chose, PER_FRIEND by default.
+     */
+    public static FeedSelector.Mode load(Context context) {
+        String name = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE)
+                .getString(KEY_MODE, FeedSelector.Mode.PER_FRIEND.name());
+        try {
+            return FeedSelector.Mode.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return FeedSelector.Mode.PER_FRIEND;
+        }
+    }
+
+    /**
+     * Saves the feed mode the user chose.
+     */
+    public static void save(Context context, FeedSelector.Mode mode) {
+        context.getSharedPreferences(PREFS, Context.MODE_PRIVATE)
+                .edit()
+                .putString(KEY_MODE, mode.name())
+                .apply();
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * FeedPrefetchWorker - Background refresh of the followee feed, profiles and the user's recent moods.
+ *
+ * Design Pattern:
+ * - WorkManager periodic worker; the work itself is FeedManager.prefetch(), this class only
+ *   schedules it and remembers when it last succeeded
+ *
+ * Key Responsibilities:
+ * 1. Scheduling:
+ *    - Runs about hourly, only on an unmetered network or while charging
+ *    - WorkManager constraints can't express "or", so two periodic works are enqueued, one per
+ *      constraint set; a run within MIN_INTERVAL_MS of the last prefetch does nothing
+ *
+ * 2. Warmth:
+ *    - isWarm() tells the feed screens that Firestore's local cache holds a recent prefetch,
+ *      so they can draw from it first while the server's copy is read to replace it
+ *
+ * Technical Implementation:
+ * - doWork() runs on a WorkManager thread and blocks on the prefetch task with a timeout
+ * - The prefetch is recorded per user, so another account's prefetch never counts as warm
+ * - Nothing runs while signed out
+ *
+ * @see com.example.unemployedavengers.implementationDAO.FeedManager
+ * @see ProfileStore
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import com.example.unemployedavengers.implementationDAO.FeedManager;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class FeedPrefetchWorker extends Worker {
+    private static final String TAG = "FeedPrefetchWorker";
+    private static final String PREFS = "feed_prefetch";
+    private static final String KEY_USER = "userId";
+    private static final String KEY_TIME = "time";
+    private static final String WORK_UNMETERED = "feed_prefetch_unmetered";
+    private static final String WORK_CHARGING = "feed_prefetch_charging";
+    private static final long PERIOD_HOURS = 1;
+    private static final long TIMEOUT_SECONDS = 120;
+    // Both works may run back to back; the second one then has nothing to do
+    static final long MIN_INTERVAL_MS = 30 * 60 * 1000L;
+    // A prefetch younger than this lets the feed screens draw from the cache first
+    static final long WARM_MS = 3 * 60 * 60 * 1000L;
+
+    public FeedPrefetchWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    /**
+     * Schedules the periodic prefetch. Keeps the existing schedule if there is one.
+     *
+     * @param context Any context
+     */
+    public static void schedule(Context context) {
+        WorkManager workManager = WorkManager.getInstance(context.getApplicationContext());
+        Constraints unmetered = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.UNMETERED)
+                .build();
+        Constraints charging = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresCharging(true)
+                .build();
+        workManager.enqueueUniquePeriodicWork(WORK_UNMETERED, ExistingPeriodicWorkPolicy.KEEP,
+                new PeriodicWorkRequest.Builder(FeedPrefetchWorker.class, PERIOD_HOURS, TimeUnit.HOURS)
+                        .setConstraints(unmetered)
+                        .build());
+        workManager.enqueueUniquePeriodicWork(WORK_CHARGING, ExistingPeriodicWorkPolicy.KEEP,
+                new PeriodicWorkRequest.Builder(FeedPrefetchWorker.class, PERIOD_HOURS, TimeUnit.HOURS)
+                        .setConstraints(charging)
+                        .build());
+    }
+
+    /**
+     * Returns whether a user's feed was prefetched recently enough to draw from the cache.
+     *
+     * @param context Any context
+     * @param userId The signed-in user's ID
+     */
+    public static boolean isWarm(Context context, String userId) {
+        return userId != null && isRecent(prefs(context), userId, WARM_MS);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) {
+            return Result.success();
+        }
+        Context context = getApplicationContext();
+        SharedPreferences prefs = prefs(context);
+        if (isRecent(prefs, user.getUid(), MIN_INTERVAL_MS)) {
+            return Result.success();
+        }
+
+        ProfileStore.getInstance().init(context);
+        int fetchLimit = new FeedSelector(FeedModeStore.load(context)).getFetchLimit();
+        try {
+            Tasks.await(new FeedManager().prefetch(user.getUid(), fetchLimit), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            Log.w(TAG, "Prefetch failed", e);
+            return Result.retry();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Result.retry();
+        }
+
+        prefs.edit()
+                .putString(KEY_USER, user.getUid())
+                .putLong(KEY_TIME, System.currentTimeMillis())
+                .apply();
+        return Result.success();
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+    }
+
+    private static boolean isRecent(SharedPreferences prefs, String userId, long maxAgeMs) {
+        return userId.equals(prefs.getString(KEY_USER, null))
+                && System.currentTimeMillis() - prefs.getLong(KEY_TIME, 0) < maxAgeMs;
+    }
+}
@@ -0,0 +1,185 @@
+/**
+ * FeedSelector - Picks the followee feed out of streamed mood events with bounded heaps.
+ *
+ * Design Pattern:
+ * - Streaming top-K selector: followees' query results are offered as they arrive and
+ *   result() can be read at any time, so a screen can redraw after every followee
+ * - Mode enum holds the two feed shapes users can choose between
+ *
+ * Key Responsibilities:
+ * 1. Per-Author Cap:
+ *    - Each followee keeps at most perAuthorCap public events in a min-heap of that size;
+ *      a newer event replaces the oldest one kept
+ *
+ * 2. Global Top-K:
+ *    - result() runs the kept events through one more min-heap of size topK and drains
+ *      it newest first, in O(n log K) without sorting the whole feed
+ *
+ * 3. Modes:
+ *    - PER_FRIEND: the 3 most recent moods of every followee (topK unbounded)
+ *    - LATEST_OVERALL: the 20 most recent moods across followees; one followee can
+ *      fill all of them
+ *    - The chosen mode is saved by FeedModeStore
+ *
+ * Technical Implementation:
+ * - Private events are skipped; a missing "publicStatus" field deserializes as public
+ * - getFetchLimit() over-fetches per followee so that a few private events don't leave
+ *   the author short
+ * - replaceAll() swaps one author's events, so a screen can draw cached events first and
+ *   replace them with the server's
+ * - Not thread-safe; Firestore callbacks all arrive on the main thread
+ * - Pure Java, so unit tests and the JMH benchmark module can compile it
+ *
+ * @see FeedModeStore
+ * @see com.example.unemployedavengers.friendSection.FollowedUserMoodEvents
+ * @see Dashboard
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+public class FeedSelector {
+    // Extra events fetched per followee in case some of the newest are private
+    static final int PRIVATE_SLACK = 7;
+    private static final Comparator<MoodEvent> OLDEST_FIRST = (e1, e2) -> Long.compare(e1.getTime(), e2.getTime());
+
+    public enum Mode {
+        PER_FRIEND(3, Integer.MAX_VALUE, "Latest 3 each"),
+        LATEST_OVERALL(20, 20, "Latest overall");
+
+        public final int perAuthorCap;
+        public final int topK;
+        public final String label;
+
+        Mode(int perAuthorCap, int topK, String label) {
+            this.perAuthorCap = perAuthorCap;
+            this.topK = topK;
+            this.label = label;
+        }
+
+        /**
+         * Returns the other mode, for a toggle button.
+         */
+        public Mode next() {
+            return this == PER_FRIEND ? LATEST_OVERALL : PER_FRIEND;
+        }
+    }
+
+    private final int perAuthorCap;
+    private final int topK;
+    private final Map<String, PriorityQueue<MoodEvent>> perAuthor = new HashMap<>();
+
+    /**
+     * @param perAuthorCap Maximum number of events kept per author
+     * @param topK Maximum number of events in the feed
+     */
+    public FeedSelector(int perAuthorCap, int topK) {
+        if (perAuthorCap <= 0 || topK <= 0) {
+            throw new IllegalArgumentException("perAuthorCap and topK must be positive");
+        }
+        // An author can never contribute more than the whole feed
+        this.perAuthorCap = Math.min(perAuthorCap, topK);
+        this.topK = topK;
+    }
+
+    public FeedSelector(Mode mode) {
+        this(mode.perAuthorCap, mode.topK);
+    }
+
+    /**
+     * Returns how many events to query per author.
+     */
+    public int getFetchLimit() {
+        return perAuthorCap + PRIVATE_SLACK;
+    }
+
+    /**
+     * Offers one event of an author.
+     *
+     * @return True if the event is kept for now
+     */
+    public boolean offer(String authorId, MoodEvent event) {
+        if (event == null || !event.getPublicStatus()) {
+            return false;
+        }
+        PriorityQueue<MoodEvent> kept = perAuthor.get(authorId);
+        if (kept == null) {
+            kept = new PriorityQueue<>(Math.min(perAuthorCap, 16), OLDEST_FIRST);
+            perAuthor.put(authorId, kept);
+        }
+        return offerBounded(kept, event, perAuthorCap);
+    }
+
+    /**
+     * Offers an author's events, in any order. A kept event can still be pushed out by a
+     * later offer, so only result() says which events make the feed.
+     */
+    public void offerAll(String authorId, List<MoodEvent> events) {
+        for (MoodEvent event : events) {
+            offer(authorId, event);
+        }
+    }
+
+    /**
+     * Forgets everything offered for an author and offers their events again, e.g. when the
+     * server's copy replaces cached events that may since have been deleted or made private.
+     */
+    public void replaceAll(String authorId, List<MoodEvent> events) {
+        perAuthor.remove(authorId);
+        offerAll(authorId, events);
+    }
+
+    /**
+     * Returns the current feed: at most topK events, newest first.
+     */
+    public List<MoodEvent> result() {
+        int total = 0;
+        for (PriorityQueue<MoodEvent> kept : perAuthor.values()) {
+            total += kept.size();
+        }
+        int size = Math.min(total, topK);
+        if (size == 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<MoodEvent> top = new PriorityQueue<>(size, OLDEST_FIRST);
+        for (PriorityQueue<MoodEvent> kept : perAuthor.values()) {
+            for (MoodEvent event : kept) {
+                offerBounded(top, event, topK);
+            }
+        }
+        // Draining a min-heap yields oldest first, so fill from the end
+        MoodEvent[] newestFirst = new MoodEvent[top.size()];
+        for (int i = newestFirst.length - 1; i >= 0; i--) {
+            newestFirst[i] = top.poll();
+        }
+        return new ArrayList<>(Arrays.asList(newestFirst));
+    }
+
+    /**
+     * Forgets every offered event.
+     */
+    public void clear() {
+        perAuthor.clear();
+    }
+
+    private static boolean offerBounded(PriorityQueue<MoodEvent> heap, MoodEvent event, int bound) {
+        if (heap.size() < bound) {
+            heap.add(event);
+            return true;
+        }
+        if (OLDEST_FIRST.compare(event, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(event);
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,469 @@
+/**
+ * FirestoreMetrics - Read/write accounting for every Firestore call the app makes.
+ *
+ * Design Pattern:
+ * - Process-wide singleton shared by the DAOs, fragments and adapters
+ * - Decorator-style wrapping: call sites pass their Task through track() and get the
+ *   same Task back, so adding accounting does not change control flow
+ *
+ * Key Responsibilities:
+ * 1. Accounting:
+ *    - Counts billed reads (one per returned document, one for an empty query,
+ *      none for results served from the local cache), writes and estimated bytes
+ *    - Aggregates per call site and per screen
+ *    - Records a latency histogram per call site
+ *
+ * 2. Budgets:
+ *    - Tracks reads since the current screen was entered
+ *    - Logs a warning the first time a screen exceeds its read budget
+ *
+ * 3. Export:
+ *    - Keeps the most recent calls in a ring buffer
+ *    - Exports them as a Chrome trace (chrome://tracing or Perfetto) together
+ *      with the aggregated counters
+ *
+ * Technical Implementation:
+ * - Disabled by default; MainActivity enables it for debuggable builds only,
+ *   so release builds pay one volatile read per call
+ * - Completion listeners run on the main thread like every other Task listener
+ *   in the app; counters are synchronized because tracking may start elsewhere
+ * - Byte sizes follow Firestore's storage size rules (field names, values and a
+ *   fixed per-document overhead) and are estimates, not billed network bytes
+ *
+ * Outstanding Issues/TODOs:
+ * 1. Snapshot listener updates are not tracked yet
+ * 2. Reads issued by the SDK itself (e.g. offline persistence) are invisible here
+ *
+ * @see FirestoreMetricsOverlay
+ */
+package com.example.unemployedavengers;
+
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToIntFunction;
+
+public final class FirestoreMetrics {
+    private static final String TAG = "FirestoreMetrics";
+    private static final int TRACE_CAPACITY = 2000;
+    private static final int DOCUMENT_OVERHEAD_BYTES = 32;
+
+    /** Upper bounds (ms) of the latency histogram buckets; the last bucket is open-ended. */
+    static final long[] LATENCY_BUCKETS_MS = {10, 25, 50, 100, 250, 500, 1000, 2500};
+
+    private static FirestoreMetrics instance;
+
+    private volatile boolean enabled = false;
+    private volatile String currentScreen = "unknown";
+
+    private final Map<String, Counter> bySite = new TreeMap<>();
+    private final Map<String, Counter> byScreen = new TreeMap<>();
+    private final Map<String, Integer> readBudgets = new HashMap<>();
+    private final ArrayDeque<Event> trace = new ArrayDeque<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private int screenReads = 0;
+    private int screenWrites = 0;
+    private boolean budgetWarned = false;
+
+    /**
+     * Aggregated counters for one call site or screen.
+     */
+    public static class Counter {
+        public int calls;
+        public int failures;
+        public long reads;
+        public long cachedReads;
+        public long writes;
+        public long bytes;
+        public final int[] latencyHistogram = new int[LATENCY_BUCKETS_MS.length + 1];
+
+        void add(Event event) {
+            calls++;
+            if (!event.success) {
+                failures++;
+            }
+            reads += event.reads;
+            cachedReads += event.cachedReads;
+            writes += event.writes;
+            bytes += event.bytes;
+            latencyHistogram[bucketFor(event.durationMs)]++;
+        }
+
+        JSONObject toJson() throws JSONException {
+            JSONObject json = new JSONObject();
+            json.put("calls", calls);
+            json.put("failures", failures);
+            json.put("reads", reads);
+            json.put("cachedReads", cachedReads);
+            json.put("writes", writes);
+            json.put("bytes", bytes);
+            JSONArray histogram = new JSONArray();
+            for (int count : latencyHistogram) {
+                histogram.put(count);
+            }
+            json.put("latencyHistogram", histogram);
+            return json;
+        }
+    }
+
+    private static class Event {
+        final String site;
+        final String screen;
+        final long startMillis;
+        long durationMs;
+        boolean success;
+        int reads;
+        int cachedReads;
+        int writes;
+        long bytes;
+
+        Event(String site, String screen, long startMillis) {
+            this.site = site;
+            this.screen = screen;
+            this.startMillis = startMillis;
+        }
+    }
+
+    /**
+     * Returns the shared metrics instance.
+     */
+    public static synchronized FirestoreMetrics getInstance() {
+        if (instance == null) {
+            instance = new FirestoreMetrics();
+        }
+        return instance;
+    }
+
+    FirestoreMetrics() {
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks a new screen as current. Later calls are attributed to it and its budget
+     * window starts over.
+     *
+     * @param screen Human-readable screen name, e.g. the navigation destination label
+     */
+    public void setScreen(String screen) {
+        synchronized (this) {
+            currentScreen = screen;
+            screenReads = 0;
+            screenWrites = 0;
+            budgetWarned = false;
+        }
+        notifyListeners();
+    }
+
+    public String getScreen() {
+        return currentScreen;
+    }
+
+    /**
+     * Sets the maximum number of billed reads a single visit to a screen may cost.
+     *
+     * @param screen The screen name passed to {@link #setScreen(String)}
+     * @param maxReads The budget in document reads
+     */
+    public synchronized void setReadBudget(String screen, int maxReads) {
+        readBudgets.put(screen, maxReads);
+    }
+
+    /**
+     * Returns the budget for a screen, or -1 if none is set.
+     */
+    public synchronized int getReadBudget(String screen) {
+        Integer budget = readBudgets.get(screen);
+        return budget == null ? -1 : budget;
+    }
+
+    public synchronized int getScreenReads() {
+        return screenReads;
+    }
+
+    public synchronized int getScreenWrites() {
+        return screenWrites;
+    }
+
+    /**
+     * Tracks a Firestore read or single-document write.
+     * <p>
+     * Query and document snapshots count as reads; any other result counts as one write.
+     * </p>
+     *
+     * @param site Call site name, e.g. "UserDAO.searchUsers"
+     * @param task The Firestore task
+     * @return The same task
+     */
+    public <T> Task<T> track(String site, Task<T> task) {
+        return track(site, task, 1);
+    }
+
+    /**
+     * Tracks a Firestore call that writes several documents, such as a batch commit.
+     *
+     * @param site Call site name
+     * @param task The Firestore task
+     * @param writes Number of documents the call writes
+     * @return The same task
+     */
+    public <T> Task<T> track(String site, Task<T> task, int writes) {
+        return track(site, task, result -> writes);
+    }
+
+    /**
+     * Tracks a Firestore call whose number of written documents is only known once it
+     * completes, such as a transaction that writes conditionally.
+     *
+     * @param site Call site name
+     * @param task The Firestore task
+     * @param writes Returns the number of documents written, given the task's result
+     * @return The same task
+     */
+    public <T> Task<T> track(String site, Task<T> task, ToIntFunction<T> writes) {
+        if (!enabled) {
+            return task;
+        }
+        Event event = new Event(site, currentScreen, System.currentTimeMillis());
+        long start = System.nanoTime();
+        task.addOnCompleteListener(completed -> {
+            event.durationMs = (System.nanoTime() - start) / 1_000_000;
+            event.success = completed.isSuccessful();
+            Object result = event.success ? completed.getResult() : null;
+            if (result instanceof QuerySnapshot) {
+                QuerySnapshot snapshot = (QuerySnapshot) result;
+                int count = Math.max(1, snapshot.size());
+                if (snapshot.getMetadata().isFromCache()) {
+                    event.cachedReads = count;
+                } else {
+                    event.reads = count;
+                }
+                for (DocumentSnapshot doc : snapshot.getDocuments()) {
+                    event.bytes += estimateDocumentBytes(doc.getReference().getPath(), doc.getData());
+                }
+            } else if (result instanceof DocumentSnapshot) {
+                DocumentSnapshot snapshot = (DocumentSnapshot) result;
+                if (snapshot.getMetadata().isFromCache()) {
+                    event.cachedReads = 1;
+                } else {
+                    event.reads = 1;
+                }
+                event.bytes = estimateDocumentBytes(snapshot.getReference().getPath(), snapshot.getData());
+            } else if (event.success || result instanceof DocumentReference) {
+                event.writes = writes.applyAsInt(completed.getResult());
+            }
+            record(event);
+        });
+        return task;
+    }
+
+    private void record(Event event) {
+        boolean overBudget = false;
+        int reads;
+        int budget;
+        synchronized (this) {
+            counterFor(bySite, event.site).add(event);
+            counterFor(byScreen, event.screen).add(event);
+            if (trace.size() >= TRACE_CAPACITY) {
+                trace.removeFirst();
+            }
+            trace.addLast(event);
+
+            if (event.screen.equals(currentScreen)) {
+                screenReads += event.reads;
+                screenWrites += event.writes;
+            }
+            reads = screenReads;
+            budget = getReadBudget(currentScreen);
+            if (budget >= 0 && reads > budget && !budgetWarned) {
+                budgetWarned = true;
+                overBudget = true;
+            }
+        }
+        if (overBudget) {
+            Log.w(TAG, currentScreen + " exceeded its read budget: " + reads + " > " + budget
+                    + " (last call: " + event.site + ")");
+        }
+        notifyListeners();
+    }
+
+    private static Counter counterFor(Map<String, Counter> map, String key) {
+        Counter counter = map.get(key);
+        if (counter == null) {
+            counter = new Counter();
+            map.put(key, counter);
+        }
+        return counter;
+    }
+
+    /**
+     * Registers a callback run after every recorded call and screen change.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Clears all counters and the trace.
+     */
+    public synchronized void reset() {
+        bySite.clear();
+        byScreen.clear();
+        trace.clear();
+        screenReads = 0;
+        screenWrites = 0;
+        budgetWarned = false;
+    }
+
+    /**
+     * Exports the aggregated counters and the recent call trace as a Chrome trace
+     * JSON document.
+     *
+     * @return The trace as a JSON string
+     */
+    public synchronized String exportTrace() throws JSONException {
+        JSONArray events = new JSONArray();
+        for (Event event : trace) {
+            JSONObject json = new JSONObject();
+            json.put("name", event.site);
+            json.put("cat", event.screen);
+            json.put("ph", "X");
+            json.put("ts", event.startMillis * 1000);
+            json.put("dur", Math.max(1, event.durationMs) * 1000);
+            json.put("pid", 1);
+            json.put("tid", 1);
+            JSONObject args = new JSONObject();
+            args.put("reads", event.reads);
+            args.put("cachedReads", event.cachedReads);
+            args.put("writes", event.writes);
+            args.put("bytes", event.bytes);
+            args.put("success", event.success);
+            json.put("args", args);
+            events.put(json);
+        }
+
+        JSONObject sites = new JSONObject();
+        for (Map.Entry<String, Counter> entry : bySite.entrySet()) {
+            sites.put(entry.getKey(), entry.getValue().toJson());
+        }
+        JSONObject screens = new JSONObject();
+        for (Map.Entry<String, Counter> entry : byScreen.entrySet()) {
+            screens.put(entry.getKey(), entry.getValue().toJson());
+        }
+        JSONArray buckets = new JSONArray();
+        for (long bound : LATENCY_BUCKETS_MS) {
+            buckets.put(bound);
+        }
+
+        JSONObject root = new JSONObject();
+        root.put("traceEvents", events);
+        root.put("displayTimeUnit", "ms");
+        root.put("latencyBucketsMs", buckets);
+        root.put("bySite", sites);
+        root.put("byScreen", screens);
+        return root.toString();
+    }
+
+    /**
+     * Returns a snapshot of the per-screen counters.
+     */
+    public synchronized Map<String, Counter> getScreenCounters() {
+        return new TreeMap<>(byScreen);
+    }
+
+    /**
+     * Returns a snapshot of the per-call-site counters.
+     */
+    public synchronized Map<String, Counter> getSiteCounters() {
+        return new TreeMap<>(bySite);
+    }
+
+    /**
+     * Returns the histogram bucket index for a latency.
+     */
+    static int bucketFor(long durationMs) {
+        for (int i = 0; i < LATENCY_BUCKETS_MS.length; i++) {
+            if (durationMs <= LATENCY_BUCKETS_MS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS_MS.length;
+    }
+
+    /**
+     * Estimates the stored size of a document.
+     *
+     * @param path The document path, e.g. "users/abc"
+     * @param data The document fields, or null for a missing document
+     * @return Estimated size in bytes
+     */
+    static long estimateDocumentBytes(String path, Map<String, Object> data) {
+        if (data == null) {
+            return 0;
+        }
+        long size = DOCUMENT_OVERHEAD_BYTES + path.length() + 1;
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            size += entry.getKey().length() + 1 + estimateValueBytes(entry.getValue());
+        }
+        return size;
+    }
+
+    private static long estimateValueBytes(Object value) {
+        if (value == null || value instanceof Boolean) {
+            return 1;
+        }
+        if (value instanceof String) {
+            return ((String) value).length() + 1;
+        }
+        if (value instanceof Number) {
+            return 8;
+        }
+        if (value instanceof Map) {
+            long size = 0;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += String.valueOf(entry.getKey()).length() + 1 + estimateValueBytes(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof List) {
+            long size = 0;
+            for (Object item : (List<?>) value) {
+                size += estimateValueBytes(item);
+            }
+            return size;
+        }
+        // Timestamps, geo points and references
+        return 16;
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * FirestoreMetricsOverlay - Debug overlay showing what the current screen costs in Firestore.
+ *
+ * Key Responsibilities:
+ * - Shows reads, writes and the read budget of the current screen visit
+ * - Tap to expand into the most expensive call sites of the session
+ * - Long-press to export the trace to the app's external files directory
+ *
+ * Technical Implementation:
+ * - A plain TextView added on top of the activity content, so no layout changes
+ *   are needed and release builds never inflate it
+ * - Refreshes are posted to the view, since metrics callbacks can arrive while
+ *   the view is mid-layout
+ *
+ * @see FirestoreMetrics
+ * @see MainActivity
+ */
+package com.example.unemployedavengers;
+
+import android.app.Activity;
+import android.graphics.Color;
+import android.util.Log;
+import android.util.TypedValue;
+import android.view.Gravity;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+import android.widget.Toast;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class FirestoreMetricsOverlay {
+    private static final String TAG = "FirestoreMetricsOverlay";
+    private static final int TOP_SITES = 5;
+
+    private final Activity activity;
+    private final FirestoreMetrics metrics;
+    private final TextView view;
+    private final Runnable refresh = this::postRefresh;
+    private boolean expanded = false;
+
+    public FirestoreMetricsOverlay(Activity activity, FirestoreMetrics metrics) {
+        this.activity = activity;
+        this.metrics = metrics;
+
+        view = new TextView(activity);
+        view.setTextSize(TypedValue.COMPLEX_UNIT_SP, 10);
+        view.setTextColor(Color.WHITE);
+        view.setBackgroundColor(0xAA000000);
+        int padding = (int) (4 * activity.getResources().getDisplayMetrics().density);
+        view.setPadding(padding, padding, padding, padding);
+        view.setOnClickListener(v -> {
+            expanded = !expanded;
+            render();
+        });
+        view.setOnLongClickListener(v -> {
+            exportTrace();
+            return true;
+        });
+    }
+
+    /**
+     * Adds the overlay to the activity and starts listening for metrics.
+     */
+    public void attach() {
+        FrameLayout.LayoutParams params = new FrameLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT,
+                Gravity.BOTTOM | Gravity.START);
+        params.bottomMargin = (int) (64 * activity.getResources().getDisplayMetrics().density);
+        ViewGroup content = activity.findViewById(android.R.id.content);
+        content.addView(view, params);
+        metrics.addListener(refresh);
+        render();
+    }
+
+    /**
+     * Stops listening and removes the overlay.
+     */
+    public void detach() {
+        metrics.removeListener(refresh);
+        ViewGroup parent = (ViewGroup) view.getParent();
+        if (parent != null) {
+            parent.removeView(view);
+        }
+    }
+
+    private void postRefresh() {
+        view.post(this::render);
+    }
+
+    private void render() {
+        String screen = metrics.getScreen();
+        int budget = metrics.getReadBudget(screen);
+        int reads = metrics.getScreenReads();
+        StringBuilder text = new StringBuilder();
+        text.append(screen).append("  R ").append(reads);
+        if (budget >= 0) {
+            text.append('/').append(budget);
+        }
+        text.append("  W ").append(metrics.getScreenWrites());
+        view.setTextColor(budget >= 0 && reads > budget ? Color.RED : Color.WHITE);
+
+        if (expanded) {
+            List<Map.Entry<String, FirestoreMetrics.Counter>> sites =
+                    new ArrayList<>(metrics.getSiteCounters().entrySet());
+            sites.sort((a, b) -> Long.compare(b.getValue().reads, a.getValue().reads));
+            for (int i = 0; i < Math.min(TOP_SITES, sites.size()); i++) {
+                FirestoreMetrics.Counter counter = sites.get(i).getValue();
+                text.append('\n').append(String.format(Locale.US, "%s  %d calls  R %d  W %d  %.1f KB",
+                        sites.get(i).getKey(), counter.calls, counter.reads, counter.writes,
+                        counter.bytes / 1024.0));
+            }
+        }
+        view.setText(text);
+    }
+
+    private void exportTrace() {
+        try {
+            File dir = activity.getExternalFilesDir("metrics");
+            File file = new File(dir, "firestore-trace-" + System.currentTimeMillis() + ".json");
+            try (Writer writer = new FileWriter(file)) {
+                writer.write(metrics.exportTrace());
+            }
+            Toast.makeText(activity, "Trace saved to " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (Exception e) {
+            Log.e(TAG, "Failed to export trace", e);
+            Toast.makeText(activity, "Could not export trace", Toast.LENGTH_SHORT).show();
+        }
+    }
+}
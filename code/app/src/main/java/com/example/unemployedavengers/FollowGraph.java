@@ -0,0 +1,400 @@
+/**
+ * FollowGraph - In-memory follow graph of the signed-in user.
+ *
+ * Design Pattern:
+ * - Process-wide singleton shared by the DAO and every social screen
+ * - Observer pattern: screens register a listener and redraw when the graph changes
+ *
+ * Key Responsibilities:
+ * 1. Graph State:
+ *    - Following, followers, incoming requests and outgoing requests as ID sets
+ *    - Answers follow status and followee lists from memory in O(1)
+ *
+ * 2. Synchronization:
+ *    - One snapshot listener per set applies document changes incrementally
+ *    - Sets are persisted to SharedPreferences, so a cold start can answer
+ *      before the first snapshot arrives (the listeners correct it within moments)
+ *
+ * Technical Implementation:
+ * - following, followers and requests are the user's own subcollections
+ * - Outgoing requests live under other users, so they come from a collection group
+ *   query on "requests" filtered by requesterId (needs the single-field index
+ *   exemption in firestore.indexes.json)
+ * - start() is idempotent for the same user and switches graphs when the user changes
+ *
+ * Outstanding Issues/TODOs:
+ * 1. Listeners stay attached for the whole process, even while the app is backgrounded
+ *
+ * @see com.example.unemployedavengers.implementationDAO.UserDAOImplement#getFollowStatus(String, String)
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class FollowGraph {
+    private static final String TAG = "FollowGraph";
+    private static final String PREFS = "follow_graph";
+    private static final String KEY_USER = "userId";
+
+    public static final String STATUS_FOLLOWING = "following";
+    public static final String STATUS_REQUESTED = "requested";
+    public static final String STATUS_NONE = "none";
+
+    public enum Kind {
+        FOLLOWING, FOLLOWERS, INCOMING_REQUESTS, OUTGOING_REQUESTS
+    }
+
+    private static FollowGraph instance;
+
+    private final Map<Kind, Set<String>> sets = new EnumMap<>(Kind.class);
+    private final Set<Kind> loaded = new HashSet<>();
+    private final List<ListenerRegistration> registrations = new ArrayList<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private final List<TaskCompletionSource<List<String>>> followingWaiters = new ArrayList<>();
+    private SharedPreferences prefs;
+    private String userId;
+
+    /**
+     * Returns the shared graph.
+     */
+    public static synchronized FollowGraph getInstance() {
+        if (instance == null) {
+            instance = new FollowGraph();
+        }
+        return instance;
+    }
+
+    FollowGraph() {
+        for (Kind kind : Kind.values()) {
+            sets.put(kind, new HashSet<>());
+        }
+    }
+
+    /**
+     * Loads the persisted graph of a user and starts listening for changes.
+     * Does nothing if the graph is already running for that user.
+     *
+     * @param context Any context; only the application context is kept
+     * @param userId The signed-in user's ID
+     */
+    public void start(Context context, String userId) {
+        synchronized (this) {
+            if (userId == null || userId.equals(this.userId)) {
+                return;
+            }
+            stopLocked();
+            this.userId = userId;
+            prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+            if (userId.equals(prefs.getString(KEY_USER, null))) {
+                for (Kind kind : Kind.values()) {
+                    Set<String> saved = prefs.getStringSet(kind.name(), null);
+                    if (saved != null) {
+                        sets.get(kind).addAll(saved);
+                        loaded.add(kind);
+                    }
+                }
+            } else {
+                // Never let another account's sets survive into this one
+                prefs.edit().clear().putString(KEY_USER, userId).apply();
+            }
+            resolveFollowingWaiters();
+        }
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        DocumentReference userDoc = db.collection("users").document(userId);
+        listen(userId, Kind.FOLLOWING, userDoc.collection("following"));
+        listen(userId, Kind.FOLLOWERS, userDoc.collection("followers"));
+        listen(userId, Kind.INCOMING_REQUESTS, userDoc.collection("requests"));
+        listen(userId, Kind.OUTGOING_REQUESTS, db.collectionGroup("requests").whereEqualTo("requesterId", userId));
+        notifyListeners();
+    }
+
+    /**
+     * Detaches the listeners and forgets the in-memory graph.
+     */
+    public void stop() {
+        synchronized (this) {
+            stopLocked();
+        }
+        notifyListeners();
+    }
+
+    public synchronized String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Returns true once both the following and outgoing request sets of the user are known,
+     * which is what {@link #getFollowStatus(String)} needs.
+     *
+     * @param userId The user the caller is asking about
+     */
+    public synchronized boolean hasFollowStatus(String userId) {
+        return userId != null && userId.equals(this.userId)
+                && loaded.contains(Kind.FOLLOWING) && loaded.contains(Kind.OUTGOING_REQUESTS);
+    }
+
+    /**
+     * Returns the relationship from the signed-in user to another user.
+     *
+     * @param targetId The other user's ID
+     * @return "following", "requested" or "none"
+     */
+    public synchronized String getFollowStatus(String targetId) {
+        if (sets.get(Kind.FOLLOWING).contains(targetId)) {
+            return STATUS_FOLLOWING;
+        }
+        if (sets.get(Kind.OUTGOING_REQUESTS).contains(targetId)) {
+            return STATUS_REQUESTED;
+        }
+        return STATUS_NONE;
+    }
+
+    public synchronized boolean isFollowing(String targetId) {
+        return sets.get(Kind.FOLLOWING).contains(targetId);
+    }
+
+    /**
+     * Returns a copy of one of the sets.
+     */
+    public synchronized List<String> get(Kind kind) {
+        return new ArrayList<>(sets.get(kind));
+    }
+
+    /**
+     * Returns the IDs a user follows. For the graph's own user this waits for the first
+     * snapshot if nothing has been loaded yet; any other user costs a one-time read.
+     *
+     * @param userId The user whose followees are wanted
+     * @return A task with the followee IDs
+     */
+    public synchronized Task<List<String>> getFollowing(String userId) {
+        if (userId == null || !userId.equals(this.userId)) {
+            return readFollowing(userId);
+        }
+        if (loaded.contains(Kind.FOLLOWING)) {
+            return Tasks.forResult(get(Kind.FOLLOWING));
+        }
+        TaskCompletionSource<List<String>> source = new TaskCompletionSource<>();
+        followingWaiters.add(source);
+        return source.getTask();
+    }
+
+    /**
+     * Records a request the user just sent, before the listener confirms it.
+     */
+    public void markRequested(String targetId) {
+        synchronized (this) {
+            if (!sets.get(Kind.OUTGOING_REQUESTS).add(targetId)) {
+                return;
+            }
+            persist(Kind.OUTGOING_REQUESTS);
+        }
+        notifyListeners();
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds and removes IDs in one set and marks it as loaded.
+     *
+     * @return True if the set changed
+     */
+    boolean apply(Kind kind, Collection<String> added, Collection<String> removed) {
+        boolean changed;
+        synchronized (this) {
+            Set<String> set = sets.get(kind);
+            changed = set.removeAll(removed) | set.addAll(added) | loaded.add(kind);
+            if (changed) {
+                persist(kind);
+            }
+            if (kind == Kind.FOLLOWING) {
+                resolveFollowingWaiters();
+            }
+        }
+        if (changed) {
+            notifyListeners();
+        }
+        return changed;
+    }
+
+    private void listen(String owner, Kind kind, Query query) {
+        boolean[] first = {true};
+        ListenerRegistration registration = query.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                Log.e(TAG, "Listener for " + kind + " failed", error);
+                if (kind == Kind.FOLLOWING) {
+                    failFollowingWaiters(owner);
+                }
+                return;
+            }
+            if (snapshot == null || !owner.equals(getUserId())) {
+                return;
+            }
+            applySnapshot(kind, snapshot, first[0]);
+            first[0] = false;
+        });
+        synchronized (this) {
+            if (owner.equals(userId)) {
+                registrations.add(registration);
+            } else {
+                registration.remove();
+            }
+        }
+    }
+
+    private void applySnapshot(Kind kind, QuerySnapshot snapshot, boolean first) {
+        List<String> added = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            String id = idOf(kind, change);
+            if (change.getType() == DocumentChange.Type.REMOVED || !isActive(kind, change)) {
+                removed.add(id);
+            } else {
+                added.add(id);
+            }
+        }
+        if (first) {
+            // The first snapshot is the full set; drop persisted IDs it no longer contains
+            Set<String> stale;
+            synchronized (this) {
+                stale = new HashSet<>(sets.get(kind));
+            }
+            stale.removeAll(added);
+            removed.addAll(stale);
+        }
+        apply(kind, added, removed);
+    }
+
+    /**
+     * Following, followers and incoming requests are keyed by the other user's ID;
+     * an outgoing request's ID is the requester, so the target is its grandparent.
+     */
+    private static String idOf(Kind kind, DocumentChange change) {
+        if (kind == Kind.OUTGOING_REQUESTS) {
+            return change.getDocument().getReference().getParent().getParent().getId();
+        }
+        return change.getDocument().getId();
+    }
+
+    private static boolean isActive(Kind kind, DocumentChange change) {
+        if (kind == Kind.INCOMING_REQUESTS || kind == Kind.OUTGOING_REQUESTS) {
+            return "pending".equals(change.getDocument().getString("status"));
+        }
+        return true;
+    }
+
+    private void stopLocked() {
+        for (ListenerRegistration registration : registrations) {
+            registration.remove();
+        }
+        registrations.clear();
+        for (Set<String> set : sets.values()) {
+            set.clear();
+        }
+        loaded.clear();
+        for (TaskCompletionSource<List<String>> waiter : followingWaiters) {
+            forward(readFollowing(userId), waiter);
+        }
+        followingWaiters.clear();
+        userId = null;
+    }
+
+    private void resolveFollowingWaiters() {
+        if (!loaded.contains(Kind.FOLLOWING) || followingWaiters.isEmpty()) {
+            return;
+        }
+        List<String> following = get(Kind.FOLLOWING);
+        for (TaskCompletionSource<List<String>> waiter : followingWaiters) {
+            waiter.trySetResult(following);
+        }
+        followingWaiters.clear();
+    }
+
+    /**
+     * Falls back to a one-time read for callers that were waiting on a failed listener.
+     */
+    private void failFollowingWaiters(String owner) {
+        List<TaskCompletionSource<List<String>>> waiters;
+        synchronized (this) {
+            waiters = new ArrayList<>(followingWaiters);
+            followingWaiters.clear();
+        }
+        for (TaskCompletionSource<List<String>> waiter : waiters) {
+            forward(readFollowing(owner), waiter);
+        }
+    }
+
+    private static void forward(Task<List<String>> task, TaskCompletionSource<List<String>> waiter) {
+        task.addOnCompleteListener(completed -> {
+            if (completed.isSuccessful()) {
+                waiter.trySetResult(completed.getResult());
+            } else {
+                waiter.trySetException(completed.getException());
+            }
+        });
+    }
+
+    private static Task<List<String>> readFollowing(String userId) {
+        if (userId == null) {
+            return Tasks.forException(new IllegalArgumentException("No user ID"));
+        }
+        return FirestoreMetrics.getInstance().track("FollowGraph.readFollowing", FirebaseFirestore.getInstance()
+                .collection("users")
+                .document(userId)
+                .collection("following")
+                .get())
+                .continueWith(task -> {
+                    List<String> ids = new ArrayList<>();
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        ids.add(doc.getId());
+                    }
+                    return ids;
+                });
+    }
+
+    private void persist(Kind kind) {
+        if (prefs == null) {
+            return;
+        }
+        prefs.edit()
+                .putString(KEY_USER, userId)
+                .putStringSet(kind.name(), new HashSet<>(sets.get(kind)))
+                .apply();
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
@@ -0,0 +1,316 @@
+/**
+ * FollowRequestInbox - Live list of the signed-in user's pending follow requests.
+ *
+ * Design Pattern:
+ * - Process-wide singleton, so MainActivity's badge and the Notifications screen
+ *   share one listener
+ * - Observer pattern: both register a listener and redraw on change
+ *
+ * Key Responsibilities:
+ * 1. Request Tracking:
+ *    - A snapshot listener on users/{uid}/requests applies changes incrementally
+ *    - Requester profiles are fetched in batches with a documentId() "in" query
+ *      and cached for the rest of the process
+ *
+ * 2. Unread Count:
+ *    - A request is unread if it arrived after the newest request the user has seen
+ *    - The high-water mark is the requester's requestedAt, not the local clock, and
+ *      is persisted per user in SharedPreferences
+ *
+ * 3. Optimistic Updates:
+ *    - hide() removes a request from the list immediately; show() puts it back if
+ *      the accept/reject write fails
+ *
+ * Technical Implementation:
+ * - FollowGraph listens to the same query; the SDK shares one watch target between
+ *   identical queries, so this doesn't cost extra reads
+ *
+ * @see Notifications
+ * @see MainActivity
+ * @see FollowGraph
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.unemployedavengers.models.User;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class FollowRequestInbox {
+    private static final String TAG = "FollowRequestInbox";
+    private static final String PREFS = "follow_requests";
+    private static final String KEY_LAST_SEEN = "last_seen_";
+
+    // Maximum number of values in a Firestore "in" filter
+    static final int LOOKUP_BATCH = 30;
+
+    private static FollowRequestInbox instance;
+
+    private final Map<String, Long> pending = new HashMap<>();
+    private final Map<String, User> profiles = new HashMap<>();
+    private final Set<String> hidden = new HashSet<>();
+    private final Set<String> inFlight = new HashSet<>();
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private ListenerRegistration registration;
+    private SharedPreferences prefs;
+    private String userId;
+    private long lastSeen = 0;
+
+    /**
+     * Returns the shared inbox.
+     */
+    public static synchronized FollowRequestInbox getInstance() {
+        if (instance == null) {
+            instance = new FollowRequestInbox();
+        }
+        return instance;
+    }
+
+    FollowRequestInbox() {
+    }
+
+    /**
+     * Starts listening for a user's requests. Does nothing if already listening for that user.
+     *
+     * @param context Any context; only the application context is kept
+     * @param userId The signed-in user's ID
+     */
+    public void start(Context context, String userId) {
+        synchronized (this) {
+            if (userId == null || userId.equals(this.userId)) {
+                return;
+            }
+            stopLocked();
+            this.userId = userId;
+            prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+            lastSeen = prefs.getLong(KEY_LAST_SEEN + userId, 0);
+        }
+
+        final String owner = userId;
+        ListenerRegistration newRegistration = FirebaseFirestore.getInstance()
+                .collection("users")
+                .document(userId)
+                .collection("requests")
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        Log.e(TAG, "Request listener failed", error);
+                        return;
+                    }
+                    if (snapshot == null || !owner.equals(getUserId())) {
+                        return;
+                    }
+                    for (DocumentChange change : snapshot.getDocumentChanges()) {
+                        DocumentSnapshot doc = change.getDocument();
+                        boolean active = change.getType() != DocumentChange.Type.REMOVED
+                                && "pending".equals(doc.getString("status"));
+                        Long requestedAt = doc.getLong("requestedAt");
+                        applyChange(doc.getId(), requestedAt == null ? 0 : requestedAt, active);
+                    }
+                    fetchMissingProfiles(owner);
+                    notifyListeners();
+                });
+        synchronized (this) {
+            if (owner.equals(userId)) {
+                registration = newRegistration;
+            } else {
+                newRegistration.remove();
+            }
+        }
+    }
+
+    /**
+     * Detaches the listener and forgets the current user's requests.
+     */
+    public void stop() {
+        synchronized (this) {
+            stopLocked();
+        }
+        notifyListeners();
+    }
+
+    public synchronized String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Returns the visible requests whose requester profile has loaded, newest first.
+     */
+    public synchronized List<User> getRequests() {
+        List<String> ids = new ArrayList<>(pending.keySet());
+        ids.sort((a, b) -> Long.compare(pending.get(b), pending.get(a)));
+        List<User> users = new ArrayList<>();
+        for (String id : ids) {
+            User user = profiles.get(id);
+            if (user != null && !hidden.contains(id)) {
+                users.add(user);
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Returns the number of visible requests that arrived after the last markAllSeen().
+     */
+    public synchronized int getUnreadCount() {
+        int count = 0;
+        for (Map.Entry<String, Long> entry : pending.entrySet()) {
+            if (entry.getValue() > lastSeen && !hidden.contains(entry.getKey())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Marks every current request as seen.
+     */
+    public void markAllSeen() {
+        synchronized (this) {
+            long newest = lastSeen;
+            for (long requestedAt : pending.values()) {
+                newest = Math.max(newest, requestedAt);
+            }
+            if (newest == lastSeen) {
+                return;
+            }
+            lastSeen = newest;
+            if (prefs != null && userId != null) {
+                prefs.edit().putLong(KEY_LAST_SEEN + userId, lastSeen).apply();
+            }
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Hides a request before its accept/reject write completes.
+     */
+    public void hide(String requesterId) {
+        synchronized (this) {
+            if (!hidden.add(requesterId)) {
+                return;
+            }
+        }
+        notifyListeners();
+    }
+
+    /**
+     * Shows a hidden request again, e.g. because the write failed.
+     */
+    public void show(String requesterId) {
+        synchronized (this) {
+            if (!hidden.remove(requesterId)) {
+                return;
+            }
+        }
+        notifyListeners();
+    }
+
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Adds, updates or removes one request.
+     */
+    synchronized void applyChange(String requesterId, long requestedAt, boolean active) {
+        if (active) {
+            pending.put(requesterId, requestedAt);
+        } else {
+            pending.remove(requesterId);
+            hidden.remove(requesterId);
+        }
+    }
+
+    synchronized void putProfile(User user) {
+        profiles.put(user.getUserId(), user);
+    }
+
+    /**
+     * Returns the pending requesters whose profiles are neither cached nor being fetched,
+     * split into batches of at most {@code batchSize}, and marks them as being fetched.
+     */
+    synchronized List<List<String>> takeMissingProfiles(int batchSize) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        for (String id : pending.keySet()) {
+            if (profiles.containsKey(id) || !inFlight.add(id)) {
+                continue;
+            }
+            batch.add(id);
+            if (batch.size() == batchSize) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private void fetchMissingProfiles(String owner) {
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        for (List<String> batch : takeMissingProfiles(LOOKUP_BATCH)) {
+            FirestoreMetrics.getInstance().track("FollowRequestInbox.loadRequesters", db.collection("users")
+                    .whereIn(FieldPath.documentId(), batch)
+                    .get())
+                    .addOnCompleteListener(task -> {
+                        synchronized (this) {
+                            inFlight.removeAll(batch);
+                        }
+                        if (!task.isSuccessful()) {
+                            Log.e(TAG, "Failed to load requesters", task.getException());
+                            return;
+                        }
+                        if (!owner.equals(getUserId())) {
+                            return;
+                        }
+                        for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                            ProfileStore.getInstance().put(doc);
+                            User user = doc.toObject(User.class);
+                            if (user != null) {
+                                user.setUserId(doc.getId());
+                                putProfile(user);
+                            }
+                        }
+                        notifyListeners();
+                    });
+        }
+    }
+
+    private void stopLocked() {
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+        pending.clear();
+        hidden.clear();
+        inFlight.clear();
+        userId = null;
+        lastSeen = 0;
+    }
+
+    private void notifyListeners() {
+        for (Runnable listener : listeners) {
+            listener.run();
+        }
+    }
+}
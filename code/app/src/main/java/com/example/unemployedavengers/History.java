@@ -76,6 +76,7 @@ import androidx.navigation.Navigation;
 
 import com.example.unemployedavengers.arrayadapters.MoodEventArrayAdapter;
 import com.example.unemployedavengers.databinding.HistoryBinding;
+import com.example.unemployedavengers.implementationDAO.MoodStatsManager;
 import com.example.unemployedavengers.models.MoodEvent;
 import com.example.unemployedavengers.models.MoodEventsViewModel;
 import com.google.firebase.firestore.CollectionReference;
@@ -85,6 +86,7 @@ import com.google.firebase.firestore.FirebaseFirestore;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 //A history class that displays all mood event and can filter through them (to be completed later)
 //All functions currently are adapted from dashboard
@@ -97,6 +99,8 @@ public class History extends Fragment {
     private MoodEventArrayAdapter filteredMoodAdapter;
     private FirebaseFirestore db;
     private CollectionReference moodEventRef;
+    private final FirestoreMetrics metrics = FirestoreMetrics.getInstance();
+    private MoodStatsManager statsManager;
     private String userID;
     private MoodEvent selectedMoodForDeletion;
     private boolean isFiltered = false;
@@ -123,6 +127,7 @@ public class History extends Fragment {
 
         db = FirebaseFirestore.getInstance();
         moodEventRef = db.collection("users").document(userID).collection("moods");
+        statsManager = new MoodStatsManager();
 
         moodList = new ArrayList<>();
         filteredMoodList = new ArrayList<>();
@@ -153,23 +158,19 @@ public class History extends Fragment {
             public void onFragmentResult(@NonNull String requestKey, @NonNull Bundle result) {
                 boolean deleteConfirmed = result.getBoolean("DeleteConfirmed", false);
                 if (deleteConfirmed) {
-                    //proceed with the deletion
+                    //proceed with the deletion; the row is removed right away
                     onDeleteConfirmed(selectedMoodForDeletion);
-                    loadHistoryMoodEvents(); //reload the mood events after deletion
                 }
             }
         });
 
-        getParentFragmentManager().setFragmentResultListener("delete_mood_event", getViewLifecycleOwner(), new FragmentResultListener() {
-            @Override
-            public void onFragmentResult(@NonNull String requestKey, @NonNull Bundle result) {
-                boolean deleteConfirmed = result.getBoolean("DeleteConfirmed", false);
-                if (deleteConfirmed) {
-                    onDeleteConfirmed(selectedMoodForDeletion);
-                    loadHistoryMoodEvents();
-                }
-            }
-        });
+        //Stats
+        binding.statsButton.setOnClickListener(v ->
+                Navigation.findNavController(v).navigate(R.id.action_historyFragment_to_moodStatsFragment));
+
+        //Search
+        binding.searchButton.setOnClickListener(v ->
+                Navigation.findNavController(v).navigate(R.id.action_historyFragment_to_moodSearchFragment));
 
         //Filter
 
@@ -236,42 +237,77 @@ public class History extends Fragment {
     }
 
     private void updateMoodEvent(MoodEvent moodEvent) {
-        //NEED TO RELOAD DATABASE CAUSE FIREBASE IS AN IDIOT (crashes if you add a moodEvent and tries to update it right away cause "cannot find id")
-        loadHistoryMoodEvents();
-
         String moodEventId = moodEvent.getId();
 
         Log.d("Dashboard", "updateMoodEvent: " + moodEventId);
-        //get document via id
-        DocumentReference moodEventDocRef = moodEventRef.document(moodEventId);
-
-        //set the new values for the document
-        moodEventDocRef.set(moodEvent)  //use set() to update or create the document if it doesn't exist
-                .addOnSuccessListener(aVoid -> {
-                    Toast.makeText(getContext(), "Mood updated successfully", Toast.LENGTH_SHORT).show();
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(getContext(), "Failed to update mood", Toast.LENGTH_SHORT).show();
-                });
+        //edits made in quick succession are sent as one update of the changed fields
+        MoodWriteQueue.getInstance().enqueue(userID, moodEvent, new MoodWriteQueue.Listener() {
+            @Override
+            public void onWritten(MoodEvent written) {
+                if (binding == null) return;
+                Toast.makeText(getContext(), "Mood updated successfully", Toast.LENGTH_SHORT).show();
+            }
 
+            @Override
+            public void onFailed(MoodEvent failed, Exception error) {
+                if (binding == null) return;
+                Toast.makeText(getContext(), "Failed to update mood", Toast.LENGTH_SHORT).show();
+                loadHistoryMoodEvents(); //roll back to what Firestore has
+            }
+        });
 
+        //show the edit right away in both lists and the search index
+        replaceById(moodList, moodEvent);
+        replaceById(filteredMoodList, moodEvent);
+        MoodSearchIndex.getInstance().putMood(moodEvent);
+        moodAdapter.notifyDataSetChanged();
+        filteredMoodAdapter.notifyDataSetChanged();
+    }
 
+    private static void replaceById(List<MoodEvent> moodEvents, MoodEvent moodEvent) {
+        for (int i = 0; i < moodEvents.size(); i++) {
+            if (moodEvent.getId().equals(moodEvents.get(i).getId())) {
+                moodEvents.set(i, moodEvent);
+                return;
+            }
+        }
     }
 
     public void onDeleteConfirmed(MoodEvent moodEvent) {
-        moodEventRef.document(moodEvent.getId()).delete()
+        if (moodEvent == null || moodEvent.getId() == null) return;
+
+        //an edit still waiting to be sent would otherwise fail against the deleted mood
+        MoodWriteQueue.getInstance().cancel(userID, moodEvent.getId());
+        statsManager.deleteMood(userID, moodEventRef.document(moodEvent.getId()))
                 .addOnSuccessListener(aVoid -> {
+                    if (binding == null) return;
                     Toast.makeText(getContext(), "Mood deleted successfully", Toast.LENGTH_SHORT).show();
                 })
                 .addOnFailureListener(e -> {
+                    if (binding == null) return;
                     Toast.makeText(getContext(), "Failed to delete mood", Toast.LENGTH_SHORT).show();
+                    loadHistoryMoodEvents(); //roll back to what Firestore has
                 });
 
-        loadHistoryMoodEvents();
+        //remove the mood right away; a reload now could still read it back before the delete is queued
+        MoodSearchIndex.getInstance().removeMood(moodEvent.getId());
+        removeById(moodList, moodEvent.getId());
+        removeById(filteredMoodList, moodEvent.getId());
+        moodAdapter.notifyDataSetChanged();
+        filteredMoodAdapter.notifyDataSetChanged();
+    }
+
+    private static void removeById(List<MoodEvent> moodEvents, String moodEventId) {
+        for (int i = 0; i < moodEvents.size(); i++) {
+            if (moodEventId.equals(moodEvents.get(i).getId())) {
+                moodEvents.remove(i);
+                return;
+            }
+        }
     }
 
     private void loadHistoryMoodEvents() {
-        moodEventRef.get()
+        metrics.track("History.loadMoodEvents", moodEventRef.get())
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
                         moodList.clear();
@@ -279,6 +315,9 @@ public class History extends Fragment {
                             MoodEvent moodEvent = document.toObject(MoodEvent.class);
                             moodList.add(moodEvent);
                         }
+                        //keep edits that haven't been written yet
+                        MoodWriteQueue.getInstance().overlay(userID, moodList);
+                        MoodSearchIndex.getInstance().replaceUserMoods(userID, moodList);
 
                         /*
                         MoodEventsViewModel vm = new ViewModelProvider(requireActivity()).get(MoodEventsViewModel.class);
@@ -0,0 +1,90 @@
+/**
+ * ImageCacheKeys - Cache keys for image URLs that don't change when a URL is re-signed.
+ *
+ * Key Responsibilities:
+ * - Strips access tokens and signature parameters from a URL's query, so the same
+ *   stored image keeps one cache entry however its URL was authorised
+ * - Leaves every other part of the URL, including the order of the remaining
+ *   parameters, untouched
+ *
+ * Technical Implementation:
+ * - Safe for Firebase Storage because uploads always go to a new random path
+ *   (see Profile and InputDialog), so a path never points at different bytes
+ * - Parameter names are compared case-insensitively
+ * - Pure Java so it can run in unit tests
+ *
+ * @see ImageModule
+ */
+package com.example.unemployedavengers;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+public class ImageCacheKeys {
+    // Lowercased names of query parameters that only authorise the request
+    private static final Set<String> VOLATILE_PARAMS = new HashSet<>(Arrays.asList(
+            "token", "expires", "signature", "googleaccessid",
+            "x-goog-algorithm", "x-goog-credential", "x-goog-date", "x-goog-expires",
+            "x-goog-signedheaders", "x-goog-signature"));
+
+    /**
+     * Returns whether a URL has any parameter that stableKey() would remove.
+     */
+    public static boolean hasVolatileParams(String url) {
+        int query = url == null ? -1 : url.indexOf('?');
+        if (query < 0) {
+            return false;
+        }
+        int end = fragmentStart(url);
+        int start = query + 1;
+        while (start < end) {
+            int next = url.indexOf('&', start);
+            if (next < 0 || next > end) next = end;
+            if (isVolatile(url, start, next)) {
+                return true;
+            }
+            start = next + 1;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the URL without its token and signature parameters.
+     *
+     * @param url An image URL; null is returned as is
+     * @return The URL to use as the cache key
+     */
+    public static String stableKey(String url) {
+        int query = url == null ? -1 : url.indexOf('?');
+        if (query < 0) {
+            return url;
+        }
+        int end = fragmentStart(url);
+        StringBuilder key = new StringBuilder(url.length()).append(url, 0, query);
+        char separator = '?';
+        int start = query + 1;
+        while (start < end) {
+            int next = url.indexOf('&', start);
+            if (next < 0 || next > end) next = end;
+            if (next > start && !isVolatile(url, start, next)) {
+                key.append(separator).append(url, start, next);
+                separator = '&';
+            }
+            start = next + 1;
+        }
+        return key.append(url, end, url.length()).toString();
+    }
+
+    private static int fragmentStart(String url) {
+        int hash = url.indexOf('#');
+        return hash < 0 ? url.length() : hash;
+    }
+
+    private static boolean isVolatile(String url, int start, int end) {
+        int equals = url.indexOf('=', start);
+        int nameEnd = equals < 0 || equals > end ? end : equals;
+        return VOLATILE_PARAMS.contains(url.substring(start, nameEnd).toLowerCase(Locale.ROOT));
+    }
+}
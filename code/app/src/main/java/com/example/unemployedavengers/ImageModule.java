@@ -0,0 +1,132 @@
+/**
+ * ImageModule - App-wide Glide configuration.
+ *
+ * Design Pattern:
+ * - Glide AppGlideModule, picked up by Glide's annotation processor; every
+ *   Glide.with(...) call in the app uses this configuration
+ *
+ * Key Responsibilities:
+ * 1. Cache Sizes:
+ *    - Memory cache of two screens of pixels and a bitmap pool of two more, capped
+ *      at 30% of the app's memory class
+ *    - DISK_CACHE_BYTES of decoded and source images in the app's cache directory
+ *    - Opaque images are decoded as RGB_565, which halves their memory
+ *
+ * 2. Stable Cache Keys:
+ *    - Remote URLs carrying a download token or signature are loaded through
+ *      StableKeyUrl, whose cache key comes from ImageCacheKeys, so a re-fetched URL
+ *      for the same image is still a cache hit
+ *
+ * Technical Implementation:
+ * - Manifest parsing is off; this is the only module
+ *
+ * @see ImageCacheKeys
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.GlideBuilder;
+import com.bumptech.glide.Registry;
+import com.bumptech.glide.annotation.GlideModule;
+import com.bumptech.glide.load.DecodeFormat;
+import com.bumptech.glide.load.Options;
+import com.bumptech.glide.load.engine.bitmap_recycle.LruBitmapPool;
+import com.bumptech.glide.load.engine.cache.InternalCacheDiskCacheFactory;
+import com.bumptech.glide.load.engine.cache.LruResourceCache;
+import com.bumptech.glide.load.engine.cache.MemorySizeCalculator;
+import com.bumptech.glide.load.model.GlideUrl;
+import com.bumptech.glide.load.model.ModelLoader;
+import com.bumptech.glide.load.model.ModelLoaderFactory;
+import com.bumptech.glide.load.model.MultiModelLoaderFactory;
+import com.bumptech.glide.module.AppGlideModule;
+import com.bumptech.glide.request.RequestOptions;
+
+import java.io.InputStream;
+
+@GlideModule
+public final class ImageModule extends AppGlideModule {
+    private static final long DISK_CACHE_BYTES = 100L * 1024 * 1024;
+    private static final String DISK_CACHE_NAME = "image_cache";
+
+    @Override
+    public void applyOptions(@NonNull Context context, @NonNull GlideBuilder builder) {
+        MemorySizeCalculator calculator = new MemorySizeCalculator.Builder(context)
+                .setMemoryCacheScreens(2)
+                .setBitmapPoolScreens(2)
+                .setMaxSizeMultiplier(0.3f)
+                .build();
+        builder.setMemoryCache(new LruResourceCache(calculator.getMemoryCacheSize()));
+        builder.setBitmapPool(new LruBitmapPool(calculator.getBitmapPoolSize()));
+        builder.setDiskCache(new InternalCacheDiskCacheFactory(context, DISK_CACHE_NAME, DISK_CACHE_BYTES));
+        builder.setDefaultRequestOptions(new RequestOptions().format(DecodeFormat.PREFER_RGB_565));
+    }
+
+    @Override
+    public void registerComponents(@NonNull Context context, @NonNull Glide glide, @NonNull Registry registry) {
+        registry.prepend(String.class, InputStream.class, new StableKeyUrlLoader.Factory());
+    }
+
+    @Override
+    public boolean isManifestParsingEnabled() {
+        return false;
+    }
+
+    /**
+     * A URL whose cache key leaves out its token and signature parameters. The full
+     * URL is still what gets requested.
+     */
+    static class StableKeyUrl extends GlideUrl {
+        private final String cacheKey;
+
+        StableKeyUrl(String url) {
+            super(url);
+            cacheKey = ImageCacheKeys.stableKey(url);
+        }
+
+        @Override
+        public String getCacheKey() {
+            return cacheKey;
+        }
+    }
+
+    /**
+     * Loads token-bearing string URLs as StableKeyUrl through Glide's own URL loader.
+     */
+    static class StableKeyUrlLoader implements ModelLoader<String, InputStream> {
+        private final ModelLoader<GlideUrl, InputStream> urlLoader;
+
+        StableKeyUrlLoader(ModelLoader<GlideUrl, InputStream> urlLoader) {
+            this.urlLoader = urlLoader;
+        }
+
+        @Nullable
+        @Override
+        public LoadData<InputStream> buildLoadData(@NonNull String model, int width, int height,
+                                                   @NonNull Options options) {
+            return urlLoader.buildLoadData(new StableKeyUrl(model), width, height, options);
+        }
+
+        @Override
+        public boolean handles(@NonNull String model) {
+            return (model.startsWith("https://") || model.startsWith("http://"))
+                    && ImageCacheKeys.hasVolatileParams(model);
+        }
+
+        static class Factory implements ModelLoaderFactory<String, InputStream> {
+            @NonNull
+            @Override
+            public ModelLoader<String, InputStream> build(@NonNull MultiModelLoaderFactory multiFactory) {
+                return new StableKeyUrlLoader(multiFactory.build(GlideUrl.class, InputStream.class));
+            }
+
+            @Override
+            public void teardown() {
+            }
+        }
+    }
+}
@@ -97,11 +97,8 @@ import android.widget.Toast;
 import com.bumptech.glide.Glide;
 import com.example.unemployedavengers.databinding.InputDialogBinding;
 import com.example.unemployedavengers.models.MoodEvent;
-import com.google.android.gms.location.FusedLocationProviderClient;
 import com.google.android.gms.location.LocationCallback;
-import com.google.android.gms.location.LocationRequest;
 import com.google.android.gms.location.LocationResult;
-import com.google.android.gms.location.LocationServices;
 import com.google.firebase.storage.FirebaseStorage;
 import com.google.firebase.storage.StorageReference;
 
@@ -132,7 +129,6 @@ public class InputDialog extends DialogFragment {
     private static final String ARG_PARAM1 = "param1";
     private static final String ARG_PARAM2 = "param2";
     private static final int AUTOCOMPLETE_REQUEST_CODE = 1;
-    private FusedLocationProviderClient fusedLocationClient;
     private static final int LOCATION_PERMISSION_REQUEST_CODE = 100;
 
     // TODO: Rename and change types of parameters
@@ -345,8 +341,6 @@ public class InputDialog extends DialogFragment {
             imagePickerLauncher.launch(new Intent(MediaStore.ACTION_PICK_IMAGES));
         });
 
-        fusedLocationClient = LocationServices.getFusedLocationProviderClient(requireContext());
-
         // Set up the "Use Current Location" button
         view.findViewById(R.id.use_current_location_button).setOnClickListener(v -> {
             setCurrentLocation();
@@ -358,7 +352,7 @@ public class InputDialog extends DialogFragment {
             moodEvent = (MoodEvent) getArguments().getSerializable("selected_mood_event");
 
             if (moodEvent != null && moodEvent.getImageUri() != null && !moodEvent.getImageUri().isEmpty()) {
-                Glide.with(requireContext())
+                Glide.with(this)
                         .load(moodEvent.getImageUri())
                         .into(imagePreview);
             }
@@ -518,8 +512,8 @@ public class InputDialog extends DialogFragment {
             return;
         }
 
-        // Request the current location
-        fusedLocationClient.getCurrentLocation(LocationRequest.PRIORITY_HIGH_ACCURACY, null)
+        // Use a recent cached fix if there is one, otherwise request a new one
+        LocationCache.getInstance().getLocation(requireContext(), LocationCache.Requirement.MOOD_LOCATION)
                 .addOnSuccessListener(location -> {
                     // Hide the progress bar once a response is received
                     progressBar.setVisibility(View.GONE);
@@ -0,0 +1,169 @@
+/**
+ * LocationCache - Process-wide access to the device location with a cached last fix.
+ *
+ * Design Pattern:
+ * - Singleton wrapping one FusedLocationProviderClient, so every screen shares the
+ *   same cached fix and the same in-flight requests
+ *
+ * Key Responsibilities:
+ * 1. Freshness:
+ *    - Each caller passes a Requirement: how old and how inaccurate a fix may be,
+ *      and the priority to use if a new fix is needed
+ *    - A cached fix that meets the requirement is returned without touching the provider
+ *
+ * 2. Power:
+ *    - New fixes are requested with getCurrentLocation and a max update age, so the
+ *      fused provider can also answer from its own recent fixes
+ *    - The presets use balanced-power priority (Wi-Fi and cell), which is accurate to
+ *      about a city block and answers in well under a second, instead of starting GPS
+ *
+ * 3. Coalescing:
+ *    - Concurrent requests with the same priority share one provider request
+ *
+ * Technical Implementation:
+ * - Ages use elapsed realtime, so changing the wall clock doesn't make a fix fresh
+ * - Callers check location permission first; without it the returned Task fails
+ * - Called on the main thread; results are delivered there
+ *
+ * Outstanding Issues:
+ * - A shared request is answered with one fix even if a waiting caller asked for
+ *   tighter accuracy than the fix has
+ *
+ * @see InputDialog
+ * @see Dashboard
+ */
+package com.example.unemployedavengers;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.location.Location;
+import android.os.SystemClock;
+
+import com.google.android.gms.location.CurrentLocationRequest;
+import com.google.android.gms.location.FusedLocationProviderClient;
+import com.google.android.gms.location.LocationServices;
+import com.google.android.gms.location.Priority;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class LocationCache {
+    // How long the provider may take before answering with null
+    private static final long REQUEST_TIMEOUT_MS = 10_000;
+
+    private static LocationCache instance;
+
+    /**
+     * What a caller needs from a fix.
+     */
+    public static class Requirement {
+        /** Tagging a mood: a recent fix accurate to about a block. */
+        public static final Requirement MOOD_LOCATION =
+                new Requirement(2 * 60_000, 100, Priority.PRIORITY_BALANCED_POWER_ACCURACY);
+        /** Filtering moods within 5 km: any fix from the last 10 minutes within a kilometre. */
+        public static final Requirement NEARBY_FILTER =
+                new Requirement(10 * 60_000, 1000, Priority.PRIORITY_BALANCED_POWER_ACCURACY);
+
+        final long maxAgeMs;
+        final float maxAccuracyMeters;
+        final int priority;
+
+        /**
+         * @param maxAgeMs The oldest fix the caller accepts
+         * @param maxAccuracyMeters The largest accuracy radius the caller accepts
+         * @param priority The Priority constant used if a new fix is requested
+         */
+        public Requirement(long maxAgeMs, float maxAccuracyMeters, int priority) {
+            this.maxAgeMs = maxAgeMs;
+            this.maxAccuracyMeters = maxAccuracyMeters;
+            this.priority = priority;
+        }
+    }
+
+    private FusedLocationProviderClient client;
+    private Location lastFix;
+    private final Map<Integer, Task<Location>> inFlight = new HashMap<>();
+
+    /**
+     * Returns the shared location cache.
+     */
+    public static synchronized LocationCache getInstance() {
+        if (instance == null) {
+            instance = new LocationCache();
+        }
+        return instance;
+    }
+
+    LocationCache() {
+    }
+
+    /**
+     * Returns a fix that meets the requirement, from the cache if possible.
+     *
+     * @param context Any context; only its application context is kept
+     * @param requirement The age and accuracy the caller needs
+     * @return The fix, or null if the provider couldn't get one in time
+     */
+    @SuppressLint("MissingPermission")
+    public Task<Location> getLocation(Context context, Requirement requirement) {
+        if (lastFix != null && isFresh(ageMs(lastFix), lastFix.hasAccuracy(), lastFix.getAccuracy(), requirement)) {
+            return Tasks.forResult(lastFix);
+        }
+
+        Task<Location> shared = inFlight.get(requirement.priority);
+        if (shared != null) {
+            return shared;
+        }
+
+        if (client == null) {
+            client = LocationServices.getFusedLocationProviderClient(context.getApplicationContext());
+        }
+        CurrentLocationRequest request = new CurrentLocationRequest.Builder()
+                .setPriority(requirement.priority)
+                .setMaxUpdateAgeMillis(requirement.maxAgeMs)
+                .setDurationMillis(REQUEST_TIMEOUT_MS)
+                .build();
+        Task<Location> task = client.getCurrentLocation(request, null)
+                .addOnCompleteListener(done -> {
+                    inFlight.remove(requirement.priority);
+                    if (done.isSuccessful() && done.getResult() != null) {
+                        remember(done.getResult());
+                    }
+                });
+        inFlight.put(requirement.priority, task);
+        return task;
+    }
+
+    /**
+     * Returns the cached fix whatever its age, or null if there is none.
+     */
+    public Location getLastFix() {
+        return lastFix;
+    }
+
+    private void remember(Location fix) {
+        if (lastFix == null || fix.getElapsedRealtimeNanos() >= lastFix.getElapsedRealtimeNanos()) {
+            lastFix = fix;
+        }
+    }
+
+    private static long ageMs(Location fix) {
+        return SystemClock.elapsedRealtime() - fix.getElapsedRealtimeNanos() / 1_000_000;
+    }
+
+    /**
+     * Checks whether a fix is recent and accurate enough for a requirement.
+     *
+     * @param ageMs How long ago the fix was taken
+     * @param hasAccuracy Whether the fix reports an accuracy
+     * @param accuracyMeters The fix's accuracy radius
+     * @param requirement The caller's requirement
+     * @return true if the fix can be used without requesting a new one
+     */
+    static boolean isFresh(long ageMs, boolean hasAccuracy, float accuracyMeters, Requirement requirement) {
+        return ageMs >= 0 && ageMs <= requirement.maxAgeMs
+                && hasAccuracy && accuracyMeters <= requirement.maxAccuracyMeters;
+    }
+}
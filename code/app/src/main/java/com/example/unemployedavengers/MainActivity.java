@@ -15,6 +15,7 @@
  * 2. UI State Management:
  *    - Controls visibility of bottom navigation bar
  *    - Manages app bar (toolbar) display and interactions
+ *    - Shows the unread follow request count as a badge on the notifications icon
  *    - Maintains consistent navigation experience
  *
  * 3. Authentication Flow:
@@ -52,29 +53,50 @@
 
 package com.example.unemployedavengers;
 
+import android.content.pm.ApplicationInfo;
 import android.os.Bundle;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
 import androidx.annotation.NonNull;
+import androidx.annotation.OptIn;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.navigation.NavController;
 import androidx.navigation.fragment.NavHostFragment;
 import androidx.navigation.ui.NavigationUI;
 import com.example.unemployedavengers.databinding.ActivityMainBinding;
 import com.google.android.material.appbar.MaterialToolbar;
+import com.google.android.material.badge.BadgeDrawable;
+import com.google.android.material.badge.BadgeUtils;
+import com.google.android.material.badge.ExperimentalBadgeUtils;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
 
 public class MainActivity extends AppCompatActivity {
     private ActivityMainBinding binding;
     private NavController navController;
     private MaterialToolbar toolbar;
+    private FirestoreMetricsOverlay metricsOverlay;
+    private BadgeDrawable requestBadge;
+    private final FollowRequestInbox requestInbox = FollowRequestInbox.getInstance();
+    private final Runnable requestInboxListener = () -> runOnUiThread(this::updateRequestBadge);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        // Before any fragment is restored, so feed rows can draw stored profiles on their first frame
+        ProfileStore.getInstance().init(this);
         super.onCreate(savedInstanceState);
         binding = ActivityMainBinding.inflate(getLayoutInflater());
         setContentView(binding.getRoot());
 
+        // Firestore read/write accounting is a debug-only tool
+        FirestoreMetrics metrics = FirestoreMetrics.getInstance();
+        if ((getApplicationInfo().flags & ApplicationInfo.FLAG_DEBUGGABLE) != 0) {
+            metrics.setEnabled(true);
+            metricsOverlay = new FirestoreMetricsOverlay(this, metrics);
+            metricsOverlay.attach();
+        }
+
         // Set up the Navigation Component with the NavHostFragment
         NavHostFragment navHostFragment = (NavHostFragment) getSupportFragmentManager().findFragmentById(R.id.nav_host_fragment);
         if (navHostFragment != null) {
@@ -107,6 +129,10 @@ public class MainActivity extends AppCompatActivity {
 
         // Manage the visibility of the BottomNavigationView and Toolbar based on the active fragment
         navController.addOnDestinationChangedListener((controller, destination, arguments) -> {
+            if (metrics.isEnabled()) {
+                metrics.setScreen(getResources().getResourceEntryName(destination.getId()));
+            }
+
             if (destination.getId() == R.id.loginFragment ||
                     destination.getId() == R.id.signUpFragment ||
                     destination.getId() == R.id.passwordReset1Fragment ||
@@ -115,21 +141,71 @@ public class MainActivity extends AppCompatActivity {
                 // Hide bottom navigation and toolbar in authentication-related fragments
                 toolbar.setVisibility(View.GONE);
                 binding.bottomNavigation.setVisibility(View.GONE);
+
+                // Signed out: the next account must not search this one's moods and comments
+                MoodSearchIndex.getInstance().clear();
             } else {
                 // Show bottom navigation and toolbar in other fragments
                 toolbar.setVisibility(View.VISIBLE);
                 binding.bottomNavigation.setVisibility(View.VISIBLE);
+
+                // Signed in: keep the follow graph and request inbox live for every screen,
+                // and keep the feed warm in the background
+                FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+                if (user != null) {
+                    FollowGraph.getInstance().start(this, user.getUid());
+                    MoodSearchIndex.getInstance().start(user.getUid());
+                    requestInbox.start(this, user.getUid());
+                    FeedPrefetchWorker.schedule(this);
+                }
             }
         });
+        requestInbox.addListener(requestInboxListener);
+    }
+
+    @Override
+    protected void onStop() {
+        // Send coalesced mood edits now rather than risk losing them in the background
+        MoodWriteQueue.getInstance().flushAll();
+        super.onStop();
+    }
+
+    @Override
+    protected void onDestroy() {
+        requestInbox.removeListener(requestInboxListener);
+        if (metricsOverlay != null) {
+            metricsOverlay.detach();
+        }
+        super.onDestroy();
     }
 
     // Inflates the top navigation menu only for the buttons on the right
     @Override
     public boolean onCreateOptionsMenu(Menu menu) {
         getMenuInflater().inflate(R.menu.top_navigation_menu, menu);
+        // The menu item views only exist after the toolbar lays them out
+        toolbar.post(this::attachRequestBadge);
         return true;
     }
 
+    @OptIn(markerClass = ExperimentalBadgeUtils.class)
+    private void attachRequestBadge() {
+        if (requestBadge == null) {
+            requestBadge = BadgeDrawable.create(this);
+        }
+        BadgeUtils.attachBadgeDrawable(requestBadge, toolbar, R.id.notificationsFragment);
+        updateRequestBadge();
+    }
+
+    private void updateRequestBadge() {
+        if (requestBadge == null) {
+            return;
+        }
+        int unread = requestInbox.getUnreadCount();
+        requestBadge.setNumber(unread);
+        requestBadge.setVisible(unread > 0);
+    }
+
     // Directs the buttons to its corresponding fragments
     @Override
     public boolean onOptionsItemSelected(@NonNull MenuItem item) {
@@ -0,0 +1,77 @@
+/**
+ * MoodChanges - Field-level differences between two versions of a mood event.
+ *
+ * Key Responsibilities:
+ * - Lists the Firestore fields whose values differ between two mood events, so an
+ *   edit can be sent as an update() of just those fields instead of a full set()
+ * - Copies mood events, so a queued edit isn't changed by later edits of the same object
+ *
+ * Technical Implementation:
+ * - Field names match the names Firestore derives from MoodEvent's getters
+ * - Static utility methods, no Android or Firestore dependencies
+ *
+ * @see MoodWriteQueue
+ * @see com.example.unemployedavengers.implementationDAO.MoodStatsManager#updateMood
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class MoodChanges {
+
+    /**
+     * Returns the fields of {@code after} that differ from {@code before}.
+     * The id, owner and existed flag aren't compared; they don't change on edit.
+     *
+     * @param before The stored version
+     * @param after The edited version
+     * @return Field name to new value, in a stable order; empty if nothing changed
+     */
+    public static Map<String, Object> diff(MoodEvent before, MoodEvent after) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "mood", before.getMood(), after.getMood());
+        putIfChanged(changes, "reason", before.getReason(), after.getReason());
+        putIfChanged(changes, "situation", before.getSituation(), after.getSituation());
+        putIfChanged(changes, "radioSituation", before.getRadioSituation(), after.getRadioSituation());
+        putIfChanged(changes, "imageUri", before.getImageUri(), after.getImageUri());
+        putIfChanged(changes, "time", before.getTime(), after.getTime());
+        putIfChanged(changes, "publicStatus", before.getPublicStatus(), after.getPublicStatus());
+        putIfChanged(changes, "hasLocation", before.getHasLocation(), after.getHasLocation());
+        putIfChanged(changes, "latitude", before.getLatitude(), after.getLatitude());
+        putIfChanged(changes, "longitude", before.getLongitude(), after.getLongitude());
+        putIfChanged(changes, "userName", before.getUserName(), after.getUserName());
+        return changes;
+    }
+
+    /**
+     * Returns a field-by-field copy of a mood event.
+     */
+    public static MoodEvent copy(MoodEvent event) {
+        MoodEvent copy = new MoodEvent();
+        copy.setId(event.getId());
+        copy.setUserId(event.getUserId());
+        copy.setUserName(event.getUserName());
+        copy.setMood(event.getMood());
+        copy.setReason(event.getReason());
+        copy.setSituation(event.getSituation());
+        copy.setRadioSituation(event.getRadioSituation());
+        copy.setImageUri(event.getImageUri());
+        copy.setTime(event.getTime());
+        copy.setExisted(event.getExisted());
+        copy.setPublicStatus(event.getPublicStatus());
+        copy.setHasLocation(event.getHasLocation());
+        copy.setLatitude(event.getLatitude());
+        copy.setLongitude(event.getLongitude());
+        return copy;
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String field, Object before, Object after) {
+        if (!Objects.equals(before, after)) {
+            changes.put(field, after);
+        }
+    }
+}
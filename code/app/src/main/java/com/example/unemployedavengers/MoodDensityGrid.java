@@ -0,0 +1,235 @@
+/**
+ * MoodDensityGrid - Multi-resolution counts of located mood events for heatmaps.
+ *
+ * Design Pattern:
+ * - Immutable pyramid built once per event list and mood, then queried per map tile
+ *
+ * Key Responsibilities:
+ * 1. Aggregation:
+ *    - Counts located events per grid cell at every zoom level from 0 to MAX_LEVEL,
+ *      with CELLS_PER_TILE x CELLS_PER_TILE cells per map tile
+ *    - Optionally counts only one mood
+ *
+ * 2. Tile Queries:
+ *    - tileIntensity() returns the smoothed density of one map tile in [0, 1], so a
+ *      tile costs about the same whether it covers ten events or a hundred thousand
+ *    - Zooms past MAX_LEVEL reuse the finest level, scaled up
+ *
+ * Technical Implementation:
+ * - Cells are addressed in Web Mercator, like Google Maps tiles
+ * - Each level is a sorted array of Morton (Z-order) cell codes with counts; a cell's
+ *   parent code is its code shifted right by two bits, so each level is built from
+ *   the one below in a single pass and cells are found by binary search
+ * - Densities are log-scaled against the busiest cell of the level, so a single
+ *   event still shows next to a cluster of hundreds
+ * - Pure Java, safe to query from several threads once built
+ *
+ * @see com.example.unemployedavengers.maps.MoodHeatmapTileProvider
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MoodDensityGrid {
+    // 4 px cells on a 256 px tile
+    public static final int CELLS_PER_TILE = 64;
+    // About 10 m cells; closer zooms reuse this level
+    static final int MAX_LEVEL = 16;
+    // Smoothing radius in cells
+    static final int KERNEL_RADIUS = 2;
+    private static final double MAX_LATITUDE = 85.05112878;
+    private static final int FINEST_BITS = MAX_LEVEL + 6;
+    private static final float[][] KERNEL = kernel();
+
+    private final long[][] codes = new long[MAX_LEVEL + 1][];
+    private final int[][] counts = new int[MAX_LEVEL + 1][];
+    private final int[] maxCount = new int[MAX_LEVEL + 1];
+    private final int size;
+
+    /**
+     * Builds the grid from a list of mood events.
+     *
+     * @param events The mood events; events without a location are ignored
+     * @param mood Only count events with this mood, or null for all moods
+     * @return The built grid
+     */
+    public static MoodDensityGrid build(List<MoodEvent> events, String mood) {
+        long[] finest = new long[events.size()];
+        int n = 0;
+        for (MoodEvent event : events) {
+            if (event == null || !event.getHasLocation()) continue;
+            if (mood != null && !mood.equals(event.getMood())) continue;
+            finest[n++] = interleave(cellX(event.getLongitude()), cellY(event.getLatitude()));
+        }
+        long[] sorted = Arrays.copyOf(finest, n);
+        Arrays.sort(sorted);
+        return new MoodDensityGrid(sorted);
+    }
+
+    private MoodDensityGrid(long[] sortedCodes) {
+        size = sortedCodes.length;
+        long[] levelCodes = sortedCodes;
+        int[] levelCounts = new int[sortedCodes.length];
+        Arrays.fill(levelCounts, 1);
+        for (int level = MAX_LEVEL; level >= 0; level--) {
+            // Merge equal codes; their counts add up
+            int cells = 0;
+            for (int i = 0; i < levelCodes.length; i++) {
+                if (cells > 0 && levelCodes[cells - 1] == levelCodes[i]) {
+                    levelCounts[cells - 1] += levelCounts[i];
+                } else {
+                    levelCodes[cells] = levelCodes[i];
+                    levelCounts[cells] = levelCounts[i];
+                    cells++;
+                }
+            }
+            codes[level] = Arrays.copyOf(levelCodes, cells);
+            counts[level] = Arrays.copyOf(levelCounts, cells);
+            for (int i = 0; i < cells; i++) {
+                maxCount[level] = Math.max(maxCount[level], levelCounts[i]);
+            }
+
+            // The parent level: shifting out one bit of x and y keeps the codes sorted
+            levelCodes = codes[level].clone();
+            levelCounts = counts[level].clone();
+            for (int i = 0; i < levelCodes.length; i++) {
+                levelCodes[i] >>>= 2;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of events in the grid.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of events in one cell.
+     *
+     * @param level The zoom level, 0 to MAX_LEVEL
+     * @param x The cell column at that level
+     * @param y The cell row at that level
+     */
+    int count(int level, int x, int y) {
+        int cellsPerSide = CELLS_PER_TILE << level;
+        if (x < 0 || y < 0 || x >= cellsPerSide || y >= cellsPerSide) {
+            return 0;
+        }
+        int index = Arrays.binarySearch(codes[level], interleave(x, y));
+        return index >= 0 ? counts[level][index] : 0;
+    }
+
+    /**
+     * Returns the smoothed density of one map tile.
+     *
+     * @param tileX The tile column
+     * @param tileY The tile row
+     * @param zoom The map zoom level
+     * @return CELLS_PER_TILE * CELLS_PER_TILE values in [0, 1], row by row,
+     *         or null if the tile is empty
+     */
+    public float[] tileIntensity(int tileX, int tileY, int zoom) {
+        if (size == 0 || zoom < 0) {
+            return null;
+        }
+        int level = Math.min(zoom, MAX_LEVEL);
+        int shift = zoom - level;
+        // Level cells covered by the tile, plus a margin for the kernel
+        long firstX = ((long) tileX * CELLS_PER_TILE) >> shift;
+        long firstY = ((long) tileY * CELLS_PER_TILE) >> shift;
+        int covered = ((CELLS_PER_TILE - 1) >> shift) + 1;
+        int width = covered + 2 * KERNEL_RADIUS;
+
+        int[] region = new int[width * width];
+        boolean any = false;
+        for (int dy = 0; dy < width; dy++) {
+            for (int dx = 0; dx < width; dx++) {
+                int count = count(level, (int) (firstX - KERNEL_RADIUS + dx), (int) (firstY - KERNEL_RADIUS + dy));
+                region[dy * width + dx] = count;
+                any |= count > 0;
+            }
+        }
+        if (!any) {
+            return null;
+        }
+
+        float[] smoothed = new float[covered * covered];
+        for (int cy = 0; cy < covered; cy++) {
+            for (int cx = 0; cx < covered; cx++) {
+                float sum = 0;
+                for (int ky = -KERNEL_RADIUS; ky <= KERNEL_RADIUS; ky++) {
+                    for (int kx = -KERNEL_RADIUS; kx <= KERNEL_RADIUS; kx++) {
+                        sum += KERNEL[ky + KERNEL_RADIUS][kx + KERNEL_RADIUS]
+                                * region[(cy + KERNEL_RADIUS + ky) * width + cx + KERNEL_RADIUS + kx];
+                    }
+                }
+                smoothed[cy * covered + cx] = sum;
+            }
+        }
+
+        double scale = Math.log1p(maxCount[level]);
+        float[] intensity = new float[CELLS_PER_TILE * CELLS_PER_TILE];
+        for (int y = 0; y < CELLS_PER_TILE; y++) {
+            int cy = (int) ((((long) tileY * CELLS_PER_TILE + y) >> shift) - firstY);
+            for (int x = 0; x < CELLS_PER_TILE; x++) {
+                int cx = (int) ((((long) tileX * CELLS_PER_TILE + x) >> shift) - firstX);
+                float value = smoothed[cy * covered + cx];
+                intensity[y * CELLS_PER_TILE + x] = (float) Math.min(1, Math.log1p(value) / scale);
+            }
+        }
+        return intensity;
+    }
+
+    private static int cellX(double longitude) {
+        double x = (longitude + 180) / 360;
+        return clampCell(x);
+    }
+
+    private static int cellY(double latitude) {
+        double clamped = Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude));
+        double sin = Math.sin(Math.toRadians(clamped));
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return clampCell(y);
+    }
+
+    private static int clampCell(double fraction) {
+        int cells = 1 << FINEST_BITS;
+        return (int) Math.max(0, Math.min(cells - 1, Math.floor(fraction * cells)));
+    }
+
+    /**
+     * Interleaves the bits of x and y into a Morton code, x in the even bits.
+     */
+    static long interleave(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static long spread(int value) {
+        long v = value & 0xFFFFFFFFL;
+        v = (v | (v << 16)) & 0x0000FFFF0000FFFFL;
+        v = (v | (v << 8)) & 0x00FF00FF00FF00FFL;
+        v = (v | (v << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        v = (v | (v << 2)) & 0x3333333333333333L;
+        v = (v | (v << 1)) & 0x5555555555555555L;
+        return v;
+    }
+
+    private static float[][] kernel() {
+        int width = 2 * KERNEL_RADIUS + 1;
+        float[][] kernel = new float[width][width];
+        double sigma = KERNEL_RADIUS / 2.0;
+        for (int y = 0; y < width; y++) {
+            for (int x = 0; x < width; x++) {
+                int dx = x - KERNEL_RADIUS;
+                int dy = y - KERNEL_RADIUS;
+                kernel[y][x] = (float) Math.exp(-(dx * dx + dy * dy) / (2 * sigma * sigma));
+            }
+        }
+        return kernel;
+    }
+}
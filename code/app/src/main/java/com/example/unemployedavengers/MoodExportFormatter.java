@@ -0,0 +1,173 @@
+/**
+ * MoodExportFormatter - Turns mood events into CSV or NDJSON export lines.
+ *
+ * Key Responsibilities:
+ * - Defines the export formats with their MIME type and file extension
+ * - Writes the header (CSV only) and one line per mood event
+ *
+ * Technical Implementation:
+ * - Lines are written straight to a Writer, so an export never holds more than
+ *   one page of mood events in memory
+ * - CSV follows RFC 4180: fields with commas, quotes or line breaks are quoted
+ * - NDJSON is one JSON object per line; strings are escaped here rather than
+ *   through org.json so the class has no Android dependencies
+ * - Times are written as ISO-8601 instants (UTC)
+ *
+ * @see com.example.unemployedavengers.implementationDAO.MoodExportManager
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.util.Locale;
+
+public class MoodExportFormatter {
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mimeType;
+        private final String extension;
+
+        Format(String mimeType, String extension) {
+            this.mimeType = mimeType;
+            this.extension = extension;
+        }
+
+        public String getMimeType() {
+            return mimeType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    static final String[] COLUMNS = {
+            "id", "time", "mood", "reason", "situation", "radioSituation",
+            "publicStatus", "hasLocation", "latitude", "longitude", "imageUri"
+    };
+
+    private final Format format;
+
+    public MoodExportFormatter(Format format) {
+        this.format = format;
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Writes whatever comes before the first row; the CSV header line, nothing for NDJSON.
+     */
+    public void writeHeader(Writer out) throws IOException {
+        if (format != Format.CSV) {
+            return;
+        }
+        for (int i = 0; i < COLUMNS.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(COLUMNS[i]);
+        }
+        out.write("\r\n");
+    }
+
+    /**
+     * Writes one mood event as a line.
+     */
+    public void writeRow(Writer out, MoodEvent event) throws IOException {
+        Object[] values = {
+                event.getId(),
+                Instant.ofEpochMilli(event.getTime()).toString(),
+                event.getMood(),
+                event.getReason(),
+                event.getSituation(),
+                event.getRadioSituation(),
+                event.getPublicStatus(),
+                event.getHasLocation(),
+                event.getHasLocation() ? event.getLatitude() : null,
+                event.getHasLocation() ? event.getLongitude() : null,
+                event.getImageUri()
+        };
+        if (format == Format.CSV) {
+            writeCsvRow(out, values);
+        } else {
+            writeJsonRow(out, values);
+        }
+    }
+
+    private static void writeCsvRow(Writer out, Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            if (values[i] != null) {
+                out.write(csvField(String.valueOf(values[i])));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static void writeJsonRow(Writer out, Object[] values) throws IOException {
+        out.write('{');
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write('"');
+            out.write(COLUMNS[i]);
+            out.write("\":");
+            Object value = values[i];
+            if (value == null || value instanceof Boolean || value instanceof Number) {
+                out.write(String.valueOf(value));
+            } else {
+                writeJsonString(out, value.toString());
+            }
+        }
+        out.write("}\n");
+    }
+
+    static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    static void writeJsonString(Writer out, String value) throws IOException {
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.write("\\\"");
+                    break;
+                case '\\':
+                    out.write("\\\\");
+                    break;
+                case '\n':
+                    out.write("\\n");
+                    break;
+                case '\r':
+                    out.write("\\r");
+                    break;
+                case '\t':
+                    out.write("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format(Locale.ROOT, "\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
@@ -0,0 +1,500 @@
+/**
+ * MoodImportParser - Reads mood events one record at a time from a CSV or JSON file.
+ *
+ * Key Responsibilities:
+ * 1. Parsing:
+ *    - Detects the format from the first character: '[' is a JSON array, '{' is
+ *      NDJSON (one object per line), anything else is CSV with a header row
+ *    - Reads one record per call, so memory doesn't grow with the file
+ *    - Column names match MoodExportFormatter, so exports can be imported again
+ *
+ * 2. Validation:
+ *    - A record needs a known mood and a time (epoch milliseconds or ISO-8601
+ *      with an offset); reasons longer than the input dialog allows are rejected
+ *    - Mood names are matched ignoring case and emoji, so "happiness" becomes the
+ *      spinner's value
+ *    - Invalid records are skipped and counted; malformed syntax fails with IOException
+ *
+ * 3. Resuming:
+ *    - getOffset() counts every record read, valid or not; skip(offset) continues
+ *      a partial import from the same file
+ *
+ * @see com.example.unemployedavengers.implementationDAO.MoodImportManager
+ * @see MoodExportFormatter
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.io.IOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class MoodImportParser {
+    // Same limit as the reason field in input_dialog.xml
+    public static final int MAX_REASON_LENGTH = 200;
+
+    private enum Mode { UNKNOWN, CSV, JSON_ARRAY, NDJSON, DONE }
+
+    private final PushbackReader in;
+    private final Map<String, String> moodsByKey = new HashMap<>();
+    private Mode mode = Mode.UNKNOWN;
+    private List<String> header;
+    private long offset = 0;
+    private long skipped = 0;
+    private String lastError;
+
+    /**
+     * @param reader The file's contents; buffered by the caller
+     * @param knownMoods The moods the app offers, e.g. the spinner_items array
+     */
+    public MoodImportParser(Reader reader, List<String> knownMoods) {
+        in = new PushbackReader(reader, 2);
+        for (String mood : knownMoods) {
+            moodsByKey.put(moodKey(mood), mood);
+        }
+    }
+
+    /**
+     * Returns the next valid mood event, skipping invalid records.
+     *
+     * @return The mood event, or null at the end of the input
+     * @throws IOException If reading fails or the file isn't valid CSV/JSON
+     */
+    public MoodEvent next() throws IOException {
+        Map<String, Object> record;
+        while ((record = nextRecord()) != null) {
+            MoodEvent moodEvent = toMoodEvent(record);
+            if (moodEvent != null) {
+                return moodEvent;
+            }
+            skipped++;
+        }
+        return null;
+    }
+
+    /**
+     * Reads and discards up to {@code count} records without validating them.
+     */
+    public void skip(long count) throws IOException {
+        for (long i = 0; i < count && nextRecord() != null; i++) {
+            // Only the offset matters
+        }
+    }
+
+    /**
+     * Returns the number of records read so far, valid or not.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Returns the number of invalid records skipped by next().
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Returns why the most recent invalid record was skipped, or null.
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * Reads the next raw record as a map of column name to value.
+     *
+     * @return The record, or null at the end of the input
+     */
+    Map<String, Object> nextRecord() throws IOException {
+        if (mode == Mode.UNKNOWN) {
+            detectMode();
+        }
+        Map<String, Object> record;
+        switch (mode) {
+            case CSV:
+                record = nextCsvRecord();
+                break;
+            case JSON_ARRAY:
+            case NDJSON:
+                record = nextJsonRecord();
+                break;
+            default:
+                record = null;
+        }
+        if (record == null) {
+            mode = Mode.DONE;
+        } else {
+            offset++;
+        }
+        return record;
+    }
+
+    /**
+     * Validates a raw record and turns it into a mood event.
+     *
+     * @return The mood event, or null if the record is invalid (see getLastError())
+     */
+    MoodEvent toMoodEvent(Map<String, Object> record) {
+        String mood = moodsByKey.get(moodKey(text(record.get("mood"))));
+        if (mood == null) {
+            return invalid("unknown mood \"" + text(record.get("mood")) + "\"");
+        }
+        Long time = parseTime(record.get("time"));
+        if (time == null) {
+            return invalid("time must be epoch milliseconds or ISO-8601 with an offset");
+        }
+        String reason = text(record.get("reason")).trim();
+        if (reason.length() > MAX_REASON_LENGTH) {
+            return invalid("reason is longer than " + MAX_REASON_LENGTH + " characters");
+        }
+
+        MoodEvent moodEvent = new MoodEvent();
+        moodEvent.setMood(mood);
+        moodEvent.setTime(time);
+        moodEvent.setReason(reason);
+        moodEvent.setSituation(text(record.get("situation")).trim());
+        String radioSituation = text(record.get("radioSituation")).trim();
+        moodEvent.setRadioSituation(radioSituation.isEmpty() ? "Not Set" : radioSituation);
+        Boolean publicStatus = parseBoolean(record.get("publicStatus"));
+        if (publicStatus != null) {
+            moodEvent.setPublicStatus(publicStatus);
+        }
+        Double latitude = parseDouble(record.get("latitude"));
+        Double longitude = parseDouble(record.get("longitude"));
+        if (latitude != null && longitude != null
+                && Math.abs(latitude) <= 90 && Math.abs(longitude) <= 180) {
+            moodEvent.setHasLocation(true);
+            moodEvent.setLatitude(latitude);
+            moodEvent.setLongitude(longitude);
+        }
+        // Only keep links to hosted images; local URIs from another device don't resolve
+        String imageUri = text(record.get("imageUri")).trim();
+        moodEvent.setImageUri(imageUri.startsWith("https://") || imageUri.startsWith("http://") ? imageUri : "");
+        return moodEvent;
+    }
+
+    private MoodEvent invalid(String reason) {
+        lastError = "Record " + offset + ": " + reason;
+        return null;
+    }
+
+    private void detectMode() throws IOException {
+        int c = skipWhitespace();
+        if (c == '\uFEFF') {
+            c = skipWhitespace();
+        }
+        if (c == -1) {
+            mode = Mode.DONE;
+        } else if (c == '[') {
+            mode = Mode.JSON_ARRAY;
+        } else {
+            in.unread(c);
+            mode = c == '{' ? Mode.NDJSON : Mode.CSV;
+        }
+    }
+
+    // CSV (RFC 4180)
+
+    private Map<String, Object> nextCsvRecord() throws IOException {
+        if (header == null) {
+            header = readCsvRow();
+            if (header == null) {
+                return null;
+            }
+            for (int i = 0; i < header.size(); i++) {
+                header.set(i, header.get(i).trim());
+            }
+        }
+        List<String> row;
+        do {
+            row = readCsvRow();
+        } while (row != null && row.size() == 1 && row.get(0).isEmpty());
+        if (row == null) {
+            return null;
+        }
+        Map<String, Object> record = new HashMap<>();
+        for (int i = 0; i < header.size() && i < row.size(); i++) {
+            record.put(header.get(i), row.get(i));
+        }
+        return record;
+    }
+
+    private List<String> readCsvRow() throws IOException {
+        int c = in.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field in record " + (offset + 1));
+                }
+                if (c == '"') {
+                    int next = in.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            in.unread(next);
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int next = in.read();
+                if (next != '\n' && next != -1) {
+                    in.unread(next);
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = in.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // JSON
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> nextJsonRecord() throws IOException {
+        int c = skipWhitespace();
+        if (mode == Mode.JSON_ARRAY && c == ',' && offset > 0) {
+            c = skipWhitespace();
+        }
+        if (c == -1 || (mode == Mode.JSON_ARRAY && c == ']')) {
+            return null;
+        }
+        if (c != '{') {
+            throw new IOException("Expected a JSON object for record " + (offset + 1));
+        }
+        in.unread(c);
+        return (Map<String, Object>) readJsonValue();
+    }
+
+    private Object readJsonValue() throws IOException {
+        int c = skipWhitespace();
+        switch (c) {
+            case '{': {
+                Map<String, Object> object = new HashMap<>();
+                c = skipWhitespace();
+                if (c == '}') {
+                    return object;
+                }
+                while (true) {
+                    if (c != '"') {
+                        throw syntaxError();
+                    }
+                    String key = readJsonString();
+                    if (skipWhitespace() != ':') {
+                        throw syntaxError();
+                    }
+                    object.put(key, readJsonValue());
+                    c = skipWhitespace();
+                    if (c == '}') {
+                        return object;
+                    }
+                    if (c != ',') {
+                        throw syntaxError();
+                    }
+                    c = skipWhitespace();
+                }
+            }
+            case '[': {
+                List<Object> array = new ArrayList<>();
+                c = skipWhitespace();
+                if (c == ']') {
+                    return array;
+                }
+                in.unread(c);
+                while (true) {
+                    array.add(readJsonValue());
+                    c = skipWhitespace();
+                    if (c == ']') {
+                        return array;
+                    }
+                    if (c != ',') {
+                        throw syntaxError();
+                    }
+                }
+            }
+            case '"':
+                return readJsonString();
+            case -1:
+                throw syntaxError();
+            default: {
+                StringBuilder literal = new StringBuilder();
+                while (c != -1 && ",}] \t\r\n".indexOf(c) < 0) {
+                    literal.append((char) c);
+                    c = in.read();
+                }
+                if (c != -1) {
+                    in.unread(c);
+                }
+                String value = literal.toString();
+                if (value.equals("null")) {
+                    return null;
+                } else if (value.equals("true") || value.equals("false")) {
+                    return Boolean.valueOf(value);
+                }
+                try {
+                    return Double.valueOf(value);
+                } catch (NumberFormatException e) {
+                    throw syntaxError();
+                }
+            }
+        }
+    }
+
+    private String readJsonString() throws IOException {
+        StringBuilder value = new StringBuilder();
+        while (true) {
+            int c = in.read();
+            if (c == -1) {
+                throw syntaxError();
+            }
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append((char) c);
+                continue;
+            }
+            c = in.read();
+            switch (c) {
+                case 'n': value.append('\n'); break;
+                case 'r': value.append('\r'); break;
+                case 't': value.append('\t'); break;
+                case 'b': value.append('\b'); break;
+                case 'f': value.append('\f'); break;
+                case 'u': {
+                    char[] hex = new char[4];
+                    for (int i = 0; i < 4; i++) {
+                        int h = in.read();
+                        if (h == -1) {
+                            throw syntaxError();
+                        }
+                        hex[i] = (char) h;
+                    }
+                    try {
+                        value.append((char) Integer.parseInt(new String(hex), 16));
+                    } catch (NumberFormatException e) {
+                        throw syntaxError();
+                    }
+                    break;
+                }
+                case -1:
+                    throw syntaxError();
+                default:
+                    value.append((char) c);
+            }
+        }
+    }
+
+    private IOException syntaxError() {
+        return new IOException("Malformed JSON in record " + (offset + 1));
+    }
+
+    private int skipWhitespace() throws IOException {
+        int c;
+        do {
+            c = in.read();
+        } while (c == ' ' || c == '\t' || c == '\r' || c == '\n');
+        return c;
+    }
+
+    // Values
+
+    private static String text(Object value) {
+        return value == null ? "" : value.toString();
+    }
+
+    private static String moodKey(String mood) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < mood.length(); i++) {
+            char c = mood.charAt(i);
+            if (Character.isLetter(c)) {
+                key.append(c);
+            }
+        }
+        return key.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static Long parseTime(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        String time = text(value).trim();
+        if (time.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(time);
+        } catch (NumberFormatException ignored) {
+            // Not epoch milliseconds
+        }
+        try {
+            return Instant.parse(time).toEpochMilli();
+        } catch (DateTimeParseException ignored) {
+            // Not a UTC instant
+        }
+        try {
+            return OffsetDateTime.parse(time).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Boolean parseBoolean(Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String text = text(value).trim().toLowerCase(Locale.ROOT);
+        if (text.equals("true") || text.equals("1")) {
+            return true;
+        } else if (text.equals("false") || text.equals("0")) {
+            return false;
+        }
+        return null;
+    }
+
+    private static Double parseDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        String text = text(value).trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            double parsed = Double.parseDouble(text);
+            return Double.isNaN(parsed) || Double.isInfinite(parsed) ? null : parsed;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
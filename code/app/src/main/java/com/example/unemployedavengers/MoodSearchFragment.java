@@ -0,0 +1,112 @@
+/**
+ * MoodSearchFragment - Searches the user's moods, followed moods and comments.
+ *
+ * Design Pattern:
+ * - Thin view over MoodSearchIndex; everything it searches was already loaded by
+ *   the other screens, so no query goes to Firestore
+ *
+ * Key Responsibilities:
+ * 1. Search:
+ *    - Re-runs the search on every keystroke; the last word matches as a prefix, so
+ *      results narrow while typing
+ *    - Shows the best MAX_RESULTS hits with the matched words highlighted
+ *
+ * 2. Navigation:
+ *    - Tapping a mood, or a comment whose mood is indexed, opens its details
+ *
+ * Outstanding Issues:
+ * 1. Only moods and comments loaded since the app started are found
+ *
+ * @see MoodSearchIndex
+ * @see com.example.unemployedavengers.arrayadapters.SearchResultAdapter
+ */
+package com.example.unemployedavengers;
+
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.unemployedavengers.arrayadapters.SearchResultAdapter;
+import com.example.unemployedavengers.databinding.MoodSearchBinding;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoodSearchFragment extends BaseFragment {
+    private static final int MAX_RESULTS = 50;
+
+    private MoodSearchBinding binding;
+    private final List<MoodSearchIndex.Result> results = new ArrayList<>();
+    private SearchResultAdapter adapter;
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater,
+                             @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        binding = MoodSearchBinding.inflate(inflater, container, false);
+        return binding.getRoot();
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        adapter = new SearchResultAdapter(requireContext(), results);
+        binding.searchResults.setAdapter(adapter);
+
+        binding.searchInput.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                // Not trimmed: a trailing space ends the prefix match on the last word
+                runSearch(s.toString());
+            }
+        });
+
+        binding.searchResults.setOnItemClickListener((parent, v, position, id) -> {
+            MoodEvent moodEvent = results.get(position).getMoodEvent();
+            if (moodEvent == null) {
+                Toast.makeText(getContext(), "This comment's mood isn't loaded", Toast.LENGTH_SHORT).show();
+                return;
+            }
+            Bundle args = new Bundle();
+            args.putSerializable("selected_mood_event", moodEvent);
+            args.putString("source", "MoodSearch");
+            safeNavigate(v, R.id.action_moodSearchFragment_to_moodDetailFragment, args);
+        });
+
+        runSearch("");
+    }
+
+    private void runSearch(String query) {
+        results.clear();
+        if (query.trim().isEmpty()) {
+            binding.searchStatus.setText(MoodSearchIndex.getInstance().size() + " moods and comments searchable");
+        } else {
+            results.addAll(MoodSearchIndex.getInstance().search(query, MAX_RESULTS));
+            binding.searchStatus.setText(results.isEmpty() ? "No matches" : results.size() + " matches");
+        }
+        adapter.notifyDataSetChanged();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        binding = null;
+    }
+}
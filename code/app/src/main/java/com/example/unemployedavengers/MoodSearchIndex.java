@@ -0,0 +1,501 @@
+/**
+ * MoodSearchIndex - Local ranked full-text search over mood reasons, situations and comments.
+ *
+ * Design Pattern:
+ * - Process-wide singleton that screens feed as they load data, so a search covers
+ *   everything the app has seen without querying Firestore
+ *
+ * Key Responsibilities:
+ * 1. Indexing:
+ *    - Tokenizes text on letters and digits, drops common English stop words and
+ *      reduces words to a stem ("stressed", "stresses" and "stress" all match)
+ *    - Documents are keyed by mood or comment ID; putting a document again replaces
+ *      its postings, so updates are incremental
+ *
+ * 2. Ranking:
+ *    - Scores documents with BM25 (k1 = 1.2, b = 0.75)
+ *    - The last query word also matches as a prefix, for search-as-you-type
+ *
+ * 3. Snippets:
+ *    - Each result carries a short excerpt around the first match and the ranges
+ *      of every matched word in it, for highlighting
+ *
+ * Technical Implementation:
+ * - Inverted index from stem to document to term frequency; stems are kept sorted
+ *   so prefix matches are a range lookup
+ * - Methods are synchronized; queries only touch the postings of the query terms
+ * - Holds one signed-in user's data: start() forgets everything when another user
+ *   signs in and clear() on sign-out, since private moods and comments are indexed
+ * - Pure Java so it can run in unit tests
+ *
+ * Outstanding Issues/TODOs:
+ * 1. Kept in memory only; the index is rebuilt from whatever loads after a restart
+ * 2. The stemmer is a small English suffix stripper, not a full Porter stemmer
+ *
+ * @see MoodSearchFragment
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.Comment;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class MoodSearchIndex {
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+    // Characters of context on each side of the first match
+    static final int SNIPPET_CONTEXT = 40;
+    private static final int MAX_PREFIX_TERMS = 50;
+    private static final String MOOD_KEY = "mood:";
+    private static final String COMMENT_KEY = "comment:";
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+            "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "if", "in", "into", "is",
+            "it", "its", "me", "my", "no", "not", "of", "on", "or", "so", "such", "that", "the",
+            "their", "then", "there", "these", "they", "this", "to", "was", "were", "will", "with"));
+
+    private static MoodSearchIndex instance;
+
+    public enum Type { MOOD, COMMENT }
+
+    /**
+     * One search hit.
+     */
+    public static class Result {
+        private final Type type;
+        private final MoodEvent moodEvent;
+        private final Comment comment;
+        private final double score;
+        private final String snippet;
+        private final List<int[]> highlights;
+
+        Result(Type type, MoodEvent moodEvent, Comment comment, double score, String snippet, List<int[]> highlights) {
+            this.type = type;
+            this.moodEvent = moodEvent;
+            this.comment = comment;
+            this.score = score;
+            this.snippet = snippet;
+            this.highlights = highlights;
+        }
+
+        public Type getType() {
+            return type;
+        }
+
+        /**
+         * Returns the matched mood, or for a comment the mood it was made on if that
+         * mood is indexed too; otherwise null.
+         */
+        public MoodEvent getMoodEvent() {
+            return moodEvent;
+        }
+
+        /**
+         * Returns the matched comment, or null for a mood.
+         */
+        public Comment getComment() {
+            return comment;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public String getSnippet() {
+            return snippet;
+        }
+
+        /**
+         * Returns the {start, end} character ranges of matched words in the snippet.
+         */
+        public List<int[]> getHighlights() {
+            return highlights;
+        }
+    }
+
+    static class Token {
+        final String term;
+        final int start;
+        final int end;
+
+        Token(String term, int start, int end) {
+            this.term = term;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private static class Doc {
+        final Type type;
+        final MoodEvent moodEvent;
+        final Comment comment;
+        final String text;
+        final Map<String, Integer> termFreqs = new HashMap<>();
+        int length;
+
+        Doc(Type type, MoodEvent moodEvent, Comment comment, String text) {
+            this.type = type;
+            this.moodEvent = moodEvent;
+            this.comment = comment;
+            this.text = text;
+        }
+    }
+
+    private final Map<String, Doc> docs = new HashMap<>();
+    private final TreeMap<String, Map<String, Integer>> postings = new TreeMap<>();
+    private long totalLength;
+    // The signed-in user whose data is indexed, or null
+    private String userId;
+
+    /**
+     * Returns the shared index.
+     */
+    public static synchronized MoodSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new MoodSearchIndex();
+        }
+        return instance;
+    }
+
+    MoodSearchIndex() {
+    }
+
+    /**
+     * Starts indexing for a signed-in user. Everything indexed for another user is
+     * forgotten first, so no account can search a previous one's private moods.
+     * Does nothing if the index already belongs to that user.
+     *
+     * @param userId The signed-in user's ID
+     */
+    public synchronized void start(String userId) {
+        if (userId == null || userId.equals(this.userId)) {
+            return;
+        }
+        clear();
+        this.userId = userId;
+    }
+
+    /**
+     * Forgets every indexed mood and comment, e.g. on sign-out.
+     */
+    public synchronized void clear() {
+        docs.clear();
+        postings.clear();
+        totalLength = 0;
+        userId = null;
+    }
+
+    /**
+     * Adds or replaces a mood event.
+     */
+    public synchronized void putMood(MoodEvent moodEvent) {
+        if (moodEvent == null || moodEvent.getId() == null) return;
+        StringBuilder text = new StringBuilder();
+        if (moodEvent.getReason() != null) {
+            text.append(moodEvent.getReason().trim());
+        }
+        if (moodEvent.getSituation() != null && !moodEvent.getSituation().trim().isEmpty()) {
+            if (text.length() > 0) {
+                text.append(" · ");
+            }
+            text.append(moodEvent.getSituation().trim());
+        }
+        put(MOOD_KEY + moodEvent.getId(), new Doc(Type.MOOD, moodEvent, null, text.toString()));
+    }
+
+    /**
+     * Adds or replaces several mood events.
+     */
+    public synchronized void putMoods(Collection<MoodEvent> moodEvents) {
+        for (MoodEvent moodEvent : moodEvents) {
+            putMood(moodEvent);
+        }
+    }
+
+    /**
+     * Replaces all indexed moods of one user, e.g. after loading their full history,
+     * so moods deleted elsewhere drop out of the index.
+     *
+     * @param userId The owner of the moods
+     * @param moodEvents Every current mood of the user
+     */
+    public synchronized void replaceUserMoods(String userId, Collection<MoodEvent> moodEvents) {
+        Set<String> current = new HashSet<>();
+        for (MoodEvent moodEvent : moodEvents) {
+            current.add(MOOD_KEY + moodEvent.getId());
+        }
+        for (String key : new ArrayList<>(docs.keySet())) {
+            Doc doc = docs.get(key);
+            if (doc.type == Type.MOOD && userId != null && userId.equals(doc.moodEvent.getUserId())
+                    && !current.contains(key)) {
+                remove(key);
+            }
+        }
+        putMoods(moodEvents);
+    }
+
+    public synchronized void removeMood(String moodId) {
+        remove(MOOD_KEY + moodId);
+    }
+
+    /**
+     * Adds or replaces a comment.
+     */
+    public synchronized void putComment(Comment comment) {
+        if (comment == null || comment.getId() == null) return;
+        String text = comment.getContent() != null ? comment.getContent().trim() : "";
+        put(COMMENT_KEY + comment.getId(), new Doc(Type.COMMENT, null, comment, text));
+    }
+
+    /**
+     * Adds or replaces several comments.
+     */
+    public synchronized void putComments(Collection<Comment> comments) {
+        for (Comment comment : comments) {
+            putComment(comment);
+        }
+    }
+
+    public synchronized void removeComment(String commentId) {
+        remove(COMMENT_KEY + commentId);
+    }
+
+    /**
+     * Returns the number of indexed moods and comments.
+     */
+    public synchronized int size() {
+        return docs.size();
+    }
+
+    /**
+     * Finds the best matching moods and comments.
+     *
+     * @param query Words to search for; the last one also matches as a prefix
+     *              unless the query ends with a space
+     * @param limit Maximum number of results
+     * @return Results, best first
+     */
+    public synchronized List<Result> search(String query, int limit) {
+        List<Token> queryTokens = tokenize(query);
+        if (queryTokens.isEmpty() || docs.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        Set<String> terms = new HashSet<>();
+        for (Token token : queryTokens) {
+            terms.add(token.term);
+        }
+        // Search-as-you-type: the word being typed matches any word starting with it
+        Token last = queryTokens.get(queryTokens.size() - 1);
+        if (last.end == query.length()) {
+            String prefix = query.substring(last.start, last.end).toLowerCase(Locale.ROOT);
+            int added = 0;
+            for (String term : postings.subMap(prefix, prefix + Character.MAX_VALUE).keySet()) {
+                if (added++ >= MAX_PREFIX_TERMS) break;
+                terms.add(term);
+            }
+        }
+
+        double avgLength = Math.max(1, (double) totalLength / docs.size());
+        Map<String, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting == null) continue;
+            double idf = Math.log(1 + (docs.size() - posting.size() + 0.5) / (posting.size() + 0.5));
+            for (Map.Entry<String, Integer> entry : posting.entrySet()) {
+                int tf = entry.getValue();
+                int length = docs.get(entry.getKey()).length;
+                double score = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                scores.merge(entry.getKey(), score, Double::sum);
+            }
+        }
+
+        // Keep the best `limit` in a min-heap instead of sorting every match
+        PriorityQueue<Map.Entry<String, Double>> best = new PriorityQueue<>(limit + 1,
+                (a, b) -> a.getValue().equals(b.getValue())
+                        ? b.getKey().compareTo(a.getKey())
+                        : Double.compare(a.getValue(), b.getValue()));
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            best.add(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        List<Result> results = new ArrayList<>();
+        while (!best.isEmpty()) {
+            Map.Entry<String, Double> entry = best.poll();
+            results.add(0, toResult(docs.get(entry.getKey()), entry.getValue(), terms));
+        }
+        return results;
+    }
+
+    private Result toResult(Doc doc, double score, Set<String> terms) {
+        List<Token> tokens = tokenize(doc.text);
+        Token first = null;
+        for (Token token : tokens) {
+            if (terms.contains(token.term)) {
+                first = token;
+                break;
+            }
+        }
+
+        int start = 0;
+        int end = doc.text.length();
+        if (first != null) {
+            start = Math.max(0, first.start - SNIPPET_CONTEXT);
+            end = Math.min(doc.text.length(), first.end + SNIPPET_CONTEXT);
+            // Don't cut words in half
+            while (start > 0 && start < first.start && !Character.isWhitespace(doc.text.charAt(start - 1))) {
+                start++;
+            }
+            while (end < doc.text.length() && end > first.end && !Character.isWhitespace(doc.text.charAt(end))) {
+                end--;
+            }
+        } else {
+            end = Math.min(doc.text.length(), 2 * SNIPPET_CONTEXT);
+        }
+
+        String prefix = start > 0 ? "…" : "";
+        String snippet = prefix + doc.text.substring(start, end) + (end < doc.text.length() ? "…" : "");
+        List<int[]> highlights = new ArrayList<>();
+        for (Token token : tokens) {
+            if (token.start >= start && token.end <= end && terms.contains(token.term)) {
+                int offset = prefix.length() - start;
+                highlights.add(new int[]{token.start + offset, token.end + offset});
+            }
+        }
+
+        MoodEvent moodEvent = doc.moodEvent;
+        if (doc.type == Type.COMMENT) {
+            Doc mood = docs.get(MOOD_KEY + doc.comment.getMoodEventId());
+            moodEvent = mood != null ? mood.moodEvent : null;
+        }
+        return new Result(doc.type, moodEvent, doc.comment, score, snippet, highlights);
+    }
+
+    private void put(String key, Doc doc) {
+        remove(key);
+        for (Token token : tokenize(doc.text)) {
+            doc.termFreqs.merge(token.term, 1, Integer::sum);
+            doc.length++;
+        }
+        docs.put(key, doc);
+        totalLength += doc.length;
+        for (Map.Entry<String, Integer> entry : doc.termFreqs.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(key, entry.getValue());
+        }
+    }
+
+    private void remove(String key) {
+        Doc doc = docs.remove(key);
+        if (doc == null) return;
+        totalLength -= doc.length;
+        for (String term : doc.termFreqs.keySet()) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(key);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits text into stemmed terms with their character ranges, skipping stop words.
+     */
+    static List<Token> tokenize(String text) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        int i = 0;
+        while (i < text.length()) {
+            while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!STOP_WORDS.contains(word)) {
+                    tokens.add(new Token(stem(word), start, i));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Reduces a lowercase word to its stem by stripping common English suffixes.
+     */
+    static String stem(String word) {
+        String w = word;
+        if (w.length() <= 3) return w;
+
+        // Plurals
+        if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("ies")) {
+            w = w.substring(0, w.length() - 3) + "y";
+        } else if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        // Past tense and progressive
+        for (String suffix : new String[]{"ing", "ed"}) {
+            if (w.endsWith(suffix) && w.length() - suffix.length() >= 3
+                    && hasVowel(w, w.length() - suffix.length())) {
+                w = w.substring(0, w.length() - suffix.length());
+                int n = w.length();
+                char c = w.charAt(n - 1);
+                if (c == w.charAt(n - 2) && !isVowel(c) && c != 'l' && c != 's' && c != 'z') {
+                    // "running" -> "run"
+                    w = w.substring(0, n - 1);
+                } else if (n == 3 && !isVowel(w.charAt(0)) && isVowel(w.charAt(1))
+                        && !isVowel(c) && c != 'w' && c != 'x' && c != 'y') {
+                    // "hoped" -> "hope"
+                    w = w + "e";
+                }
+                break;
+            }
+        }
+
+        // Derived words
+        for (String suffix : new String[]{"ness", "ful", "ly"}) {
+            if (w.endsWith(suffix) && w.length() - suffix.length() >= 3) {
+                w = w.substring(0, w.length() - suffix.length());
+                break;
+            }
+        }
+
+        // "happy", "happily" and "happiness" share "happi"
+        int n = w.length();
+        if (n > 2 && w.charAt(n - 1) == 'y' && !isVowel(w.charAt(n - 2))) {
+            w = w.substring(0, n - 1) + "i";
+        }
+        return w;
+    }
+
+    private static boolean hasVowel(String w, int end) {
+        for (int i = 0; i < end; i++) {
+            if (isVowel(w.charAt(i))) return true;
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u';
+    }
+}
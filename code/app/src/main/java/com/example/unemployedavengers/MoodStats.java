@@ -0,0 +1,328 @@
+/**
+ * MoodStats - Per-user mood statistics stored in one aggregate document.
+ *
+ * Key Responsibilities:
+ * 1. Contributions:
+ *    - Turns one mood event into the counters it adds to (or, with a negative
+ *      sign, removes from) the aggregate
+ *    - Counters: total, per mood, per weekday, per hour of day, per day and mood,
+ *      and per day and reason token
+ *
+ * 2. Reading:
+ *    - Wraps the aggregate document's data and answers the stats screen's
+ *      questions (distributions, rolling 7/30-day windows, top reason tokens)
+ *
+ * 3. Bounded Size:
+ *    - Only the last KEEP_DAYS days are counted per day; older days are left out of
+ *      contributions, and every write deletes the ROLL_OFF_DAYS days that most
+ *      recently left the window
+ *    - Reason tokens are counted per day, so the vocabulary rolls off with the days,
+ *      and an event counts at most MAX_EVENT_TOKENS tokens
+ *
+ * Technical Implementation:
+ * - Contributions are nested maps with Long leaves; MoodStatsManager turns the
+ *   leaves into FieldValue.increment so writes never need to read the aggregate
+ * - Rolling windows are summed from the per-day counters at read time, since a
+ *   stored window count would go stale as days pass
+ * - Weekdays are ISO numbers (1 = Monday) and days are ISO dates in the device zone
+ * - Static helpers and the reader have no Android or Firestore dependencies
+ *
+ * Outstanding Issues/TODOs:
+ * 1. A day that leaves the window while no mood is written for ROLL_OFF_DAYS days
+ *    stays in the document until the next rebuild; reads ignore it
+ * 2. Events are bucketed in the zone of the device that wrote them
+ *
+ * @see com.example.unemployedavengers.implementationDAO.MoodStatsManager
+ * @see MoodStatsFragment
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+public class MoodStats {
+    public static final String TOTAL = "total";
+    public static final String BY_MOOD = "byMood";
+    public static final String BY_WEEKDAY = "byWeekday";
+    public static final String BY_HOUR = "byHour";
+    public static final String BY_DAY = "byDay";
+    public static final String REASON_TOKENS = "reasonTokens";
+    public static final String VERSION = "version";
+    public static final String REBUILT_AT = "rebuiltAt";
+
+    // Bump when the layout changes so old aggregates are rebuilt
+    public static final long CURRENT_VERSION = 2;
+    // Per-day counters and reason tokens older than this are dropped
+    public static final int KEEP_DAYS = 30;
+    // Days past the window that every write deletes
+    public static final int ROLL_OFF_DAYS = 14;
+    // Tokens counted per event; a 200-character reason has about 40
+    static final int MAX_EVENT_TOKENS = 10;
+
+    private static final String UNKNOWN_MOOD = "Unknown";
+    private static final int MIN_TOKEN_LENGTH = 3;
+
+    private final Map<String, Object> data;
+
+    /**
+     * Wraps the data of an aggregate document.
+     *
+     * @param data The document data, or null if the document doesn't exist
+     */
+    public MoodStats(Map<String, Object> data) {
+        this.data = data == null ? new HashMap<>() : data;
+    }
+
+    /**
+     * Returns the counters one mood event contributes.
+     *
+     * @param event The mood event
+     * @param sign +1 to add the event, -1 to remove it
+     * @param zone Zone used for weekday, hour and day buckets
+     * @return Nested maps with Long leaves
+     */
+    public static Map<String, Object> contribution(MoodEvent event, long sign, ZoneId zone) {
+        ZonedDateTime time = Instant.ofEpochMilli(event.getTime()).atZone(zone);
+        String mood = event.getMood() == null || event.getMood().isEmpty() ? UNKNOWN_MOOD : event.getMood();
+
+        Map<String, Object> delta = new HashMap<>();
+        delta.put(TOTAL, sign);
+        delta.put(BY_MOOD, single(mood, sign));
+        delta.put(BY_WEEKDAY, single(String.valueOf(time.getDayOfWeek().getValue()), sign));
+        delta.put(BY_HOUR, single(String.valueOf(time.getHour()), sign));
+        String day = time.toLocalDate().toString();
+        delta.put(BY_DAY, single(day, single(mood, sign)));
+        Map<String, Object> tokens = new HashMap<>();
+        for (String token : reasonTokens(event.getReason())) {
+            if (tokens.size() == MAX_EVENT_TOKENS) {
+                break;
+            }
+            tokens.put(token, sign);
+        }
+        if (!tokens.isEmpty()) {
+            delta.put(REASON_TOKENS, single(day, tokens));
+        }
+        return delta;
+    }
+
+    /**
+     * Adds the leaves of {@code delta} into {@code target}, creating nested maps as needed.
+     */
+    @SuppressWarnings("unchecked")
+    public static void mergeInto(Map<String, Object> target, Map<String, Object> delta) {
+        for (Map.Entry<String, Object> entry : delta.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                Object existing = target.get(entry.getKey());
+                Map<String, Object> child;
+                if (existing instanceof Map) {
+                    child = (Map<String, Object>) existing;
+                } else {
+                    child = new HashMap<>();
+                    target.put(entry.getKey(), child);
+                }
+                mergeInto(child, (Map<String, Object>) value);
+            } else if (value instanceof Number) {
+                Object existing = target.get(entry.getKey());
+                long sum = (existing instanceof Number ? ((Number) existing).longValue() : 0)
+                        + ((Number) value).longValue();
+                target.put(entry.getKey(), sum);
+            }
+        }
+    }
+
+    /**
+     * Removes zero leaves and the maps they leave empty, so a diff of two identical
+     * events produces no write at all.
+     *
+     * @return True if nothing is left
+     */
+    @SuppressWarnings("unchecked")
+    public static boolean pruneZeros(Map<String, Object> delta) {
+        delta.entrySet().removeIf(entry -> {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                return pruneZeros((Map<String, Object>) value);
+            }
+            return value instanceof Number && ((Number) value).longValue() == 0;
+        });
+        return delta.isEmpty();
+    }
+
+    /**
+     * Drops per-day counters and reason tokens older than {@link #KEEP_DAYS} days before
+     * {@code today}, from an aggregate or from a contribution about to be written.
+     */
+    @SuppressWarnings("unchecked")
+    public static void trimDays(Map<String, Object> aggregate, LocalDate today) {
+        String oldest = today.minusDays(KEEP_DAYS - 1).toString();
+        for (String key : new String[]{BY_DAY, REASON_TOKENS}) {
+            Object days = aggregate.get(key);
+            if (days instanceof Map) {
+                // ISO dates sort chronologically as strings
+                ((Map<String, Object>) days).keySet().removeIf(day -> day.compareTo(oldest) < 0);
+            }
+        }
+    }
+
+    /**
+     * Returns the days a write deletes: the {@link #ROLL_OFF_DAYS} days just before the
+     * window, newest first.
+     */
+    public static List<String> rollOffDays(LocalDate today) {
+        List<String> days = new ArrayList<>();
+        for (int i = 0; i < ROLL_OFF_DAYS; i++) {
+            days.add(today.minusDays(KEEP_DAYS + i).toString());
+        }
+        return days;
+    }
+
+    /**
+     * Splits a reason into distinct lowercase word tokens of at least three characters.
+     */
+    public static List<String> reasonTokens(String reason) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (reason != null) {
+            for (String word : reason.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (word.length() >= MIN_TOKEN_LENGTH) {
+                    tokens.add(word);
+                }
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    public long getTotal() {
+        Object total = data.get(TOTAL);
+        return total instanceof Number ? ((Number) total).longValue() : 0;
+    }
+
+    public long getVersion() {
+        Object version = data.get(VERSION);
+        return version instanceof Number ? ((Number) version).longValue() : 0;
+    }
+
+    /**
+     * Returns the positive per-mood counts, sorted by mood name.
+     */
+    public Map<String, Long> getByMood() {
+        return positiveCounts(data.get(BY_MOOD));
+    }
+
+    /**
+     * Returns counts per ISO weekday; index 0 is Monday.
+     */
+    public long[] getByWeekday() {
+        return toArray(data.get(BY_WEEKDAY), 7, 1);
+    }
+
+    /**
+     * Returns counts per hour of day; index 0 is midnight.
+     */
+    public long[] getByHour() {
+        return toArray(data.get(BY_HOUR), 24, 0);
+    }
+
+    /**
+     * Returns per-mood counts over the last {@code days} days, today included.
+     *
+     * @param days Window length, e.g. 7 or 30
+     * @param today The current date in the zone used for the buckets
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> getWindow(int days, LocalDate today) {
+        Map<String, Long> window = new TreeMap<>();
+        Object byDay = data.get(BY_DAY);
+        if (!(byDay instanceof Map)) {
+            return window;
+        }
+        String oldest = today.minusDays(days - 1).toString();
+        String newest = today.toString();
+        for (Map.Entry<String, Object> day : ((Map<String, Object>) byDay).entrySet()) {
+            if (day.getKey().compareTo(oldest) < 0 || day.getKey().compareTo(newest) > 0) {
+                continue;
+            }
+            for (Map.Entry<String, Long> mood : positiveCounts(day.getValue()).entrySet()) {
+                Long sum = window.get(mood.getKey());
+                window.put(mood.getKey(), (sum == null ? 0 : sum) + mood.getValue());
+            }
+        }
+        return window;
+    }
+
+    /**
+     * Returns the {@code limit} most frequent reason tokens of the last {@link #KEEP_DAYS}
+     * days, most frequent first.
+     *
+     * @param limit Maximum number of tokens
+     * @param today The current date in the zone used for the buckets
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map.Entry<String, Long>> getTopReasons(int limit, LocalDate today) {
+        Map<String, Long> counts = new TreeMap<>();
+        Object byDay = data.get(REASON_TOKENS);
+        if (byDay instanceof Map) {
+            String oldest = today.minusDays(KEEP_DAYS - 1).toString();
+            for (Map.Entry<String, Object> day : ((Map<String, Object>) byDay).entrySet()) {
+                if (day.getKey().compareTo(oldest) < 0) {
+                    continue;
+                }
+                for (Map.Entry<String, Long> token : positiveCounts(day.getValue()).entrySet()) {
+                    Long sum = counts.get(token.getKey());
+                    counts.put(token.getKey(), (sum == null ? 0 : sum) + token.getValue());
+                }
+            }
+        }
+        List<Map.Entry<String, Long>> tokens = new ArrayList<>(counts.entrySet());
+        tokens.sort((a, b) -> {
+            int byCount = Long.compare(b.getValue(), a.getValue());
+            return byCount != 0 ? byCount : a.getKey().compareTo(b.getKey());
+        });
+        return tokens.subList(0, Math.min(limit, tokens.size()));
+    }
+
+    private static Map<String, Object> single(String key, Object value) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(key, value);
+        return map;
+    }
+
+    private static Map<String, Long> positiveCounts(Object value) {
+        Map<String, Long> counts = new TreeMap<>();
+        if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getValue() instanceof Number && ((Number) entry.getValue()).longValue() > 0) {
+                    counts.put(String.valueOf(entry.getKey()), ((Number) entry.getValue()).longValue());
+                }
+            }
+        }
+        return counts;
+    }
+
+    private static long[] toArray(Object value, int size, int firstKey) {
+        long[] counts = new long[size];
+        for (Map.Entry<String, Long> entry : positiveCounts(value).entrySet()) {
+            try {
+                int index = Integer.parseInt(entry.getKey()) - firstKey;
+                if (index >= 0 && index < size) {
+                    counts[index] = entry.getValue();
+                }
+            } catch (NumberFormatException ignored) {
+                // Not a bucket key
+            }
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,267 @@
+/**
+ * MoodStatsFragment - Shows the signed-in user's mood statistics.
+ *
+ * Design Pattern:
+ * - Reads one precomputed aggregate document through MoodStatsManager instead of
+ *   loading every mood event
+ *
+ * Key Responsibilities:
+ * 1. Display:
+ *    - Total moods, counts per mood, rolling 7 and 30-day windows, day of week,
+ *      busiest hours and most common reason words
+ *
+ * 2. Drift Check:
+ *    - After showing the stored aggregate, compares its total with a count() query
+ *      and rebuilds it if they differ or its layout is outdated
+ *    - "Recalculate" forces a rebuild
+ *
+ * 3. Timeline:
+ *    - Opens on the last INITIAL_WINDOW_DAYS days of history and loads older moods
+ *      only when the user pans or zooms to them, each range page by page into a
+ *      MoodTimeline charted by MoodTimelineView, which redraws as each page arrives
+ *
+ * Outstanding Issues/TODOs:
+ * 1. Counts other than the timeline are plain text
+ *
+ * @see MoodStats
+ * @see MoodTimelineView
+ * @see com.example.unemployedavengers.implementationDAO.MoodStatsManager
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Bundle;
+import android.util.Log;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.unemployedavengers.databinding.MoodStatsBinding;
+import com.example.unemployedavengers.implementationDAO.MoodStatsManager;
+import com.example.unemployedavengers.implementationDAO.MoodTimelineManager;
+import com.google.android.gms.tasks.CancellationTokenSource;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+
+public class MoodStatsFragment extends BaseFragment {
+    private static final String TAG = "MoodStatsFragment";
+    private static final int TOP_HOURS = 3;
+    private static final int TOP_REASONS = 5;
+    private static final long INITIAL_WINDOW_DAYS = 90;
+
+    private MoodStatsBinding binding;
+    private MoodStatsManager statsManager;
+    private String userID;
+    private boolean rebuilding = false;
+    private final MoodTimeline timeline = new MoodTimeline();
+    private CancellationTokenSource timelineLoad;
+    private MoodTimelineManager timelineManager;
+    private long historyStart;
+    // Moods at or after this time are loaded
+    private long loadedFrom = Long.MAX_VALUE;
+
+    @Nullable
+    @Override
+    public View onCreateView(@NonNull LayoutInflater inflater,
+                             @Nullable ViewGroup container,
+                             @Nullable Bundle savedInstanceState) {
+        binding = MoodStatsBinding.inflate(inflater, container, false);
+        return binding.getRoot();
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        SharedPreferences sharedPreferences = requireActivity().getSharedPreferences("user_preferences", Context.MODE_PRIVATE);
+        userID = sharedPreferences.getString("userID", null);
+        statsManager = new MoodStatsManager();
+
+        binding.recalculateButton.setOnClickListener(v -> {
+            if (!isClickTooSoon()) {
+                rebuild();
+            }
+        });
+
+        if (userID == null) {
+            binding.statusText.setText("Not signed in");
+            return;
+        }
+        loadStats();
+        loadTimeline();
+    }
+
+    private void loadTimeline() {
+        timeline.clear();
+        loadedFrom = Long.MAX_VALUE;
+        timelineManager = new MoodTimelineManager();
+        binding.timelineView.setTimeline(timeline);
+        binding.timelineView.setWindowListener((start, end) -> loadBefore(start));
+        timelineManager.getFirstTime(userID).addOnCompleteListener(task -> {
+            if (binding == null) return;
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to load timeline", task.getException());
+                return;
+            }
+            if (task.getResult() == null) {
+                return; // no moods; the chart says so
+            }
+            historyStart = task.getResult();
+            long now = System.currentTimeMillis();
+            binding.timelineView.setRange(historyStart, now);
+            binding.timelineView.showWindow(now - INITIAL_WINDOW_DAYS * 24 * 60 * 60 * 1000L, now);
+        });
+    }
+
+    /**
+     * Loads the moods between the window's start and the oldest loaded time, plus as much
+     * again further back, so a slow pan doesn't start a query on every frame.
+     */
+    private void loadBefore(long windowStart) {
+        if (timelineLoad != null || windowStart >= loadedFrom || loadedFrom <= historyStart) return;
+        long to = loadedFrom;
+        long from = to == Long.MAX_VALUE ? windowStart : Math.max(historyStart, windowStart - (to - windowStart));
+        timelineLoad = new CancellationTokenSource();
+        timelineManager.load(userID, from, to, (times, moods) -> {
+            timeline.addAll(times, moods);
+            if (binding != null) {
+                binding.timelineView.onTimelineChanged();
+            }
+        }, timelineLoad.getToken()).addOnCompleteListener(task -> {
+            timelineLoad = null;
+            if (!task.isSuccessful()) {
+                if (!(task.getException() instanceof CancellationException)) {
+                    Log.e(TAG, "Failed to load timeline", task.getException());
+                }
+                // The next pan loads the whole range again, so drop the pages it already added
+                timeline.removeRange(from, to);
+                if (binding != null) {
+                    binding.timelineView.onTimelineChanged();
+                }
+                return;
+            }
+            loadedFrom = from;
+            if (binding != null) {
+                // The user may have panned further while this range loaded
+                loadBefore(binding.timelineView.getWindowStart());
+            }
+        });
+    }
+
+    private void loadStats() {
+        statsManager.getStats(userID).addOnCompleteListener(task -> {
+            if (binding == null || !isValidFragment()) return;
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to load stats", task.getException());
+                binding.statusText.setText("Failed to load stats");
+                return;
+            }
+            MoodStats stats = task.getResult();
+            render(stats);
+            statsManager.isStale(userID, stats).addOnCompleteListener(check -> {
+                if (binding == null || !isValidFragment()) return;
+                if (check.isSuccessful() && Boolean.TRUE.equals(check.getResult())) {
+                    rebuild();
+                } else {
+                    binding.statusText.setText("");
+                }
+            });
+        });
+    }
+
+    private void rebuild() {
+        if (userID == null || rebuilding) return;
+        rebuilding = true;
+        binding.statusText.setText("Recalculating...");
+        statsManager.rebuild(userID).addOnCompleteListener(task -> {
+            rebuilding = false;
+            if (binding == null || !isValidFragment()) return;
+            if (!task.isSuccessful()) {
+                Log.e(TAG, "Failed to rebuild stats", task.getException());
+                binding.statusText.setText("Failed to recalculate stats");
+                return;
+            }
+            binding.statusText.setText("");
+            render(task.getResult());
+        });
+    }
+
+    private void render(MoodStats stats) {
+        LocalDate today = LocalDate.now();
+        binding.totalText.setText(stats.getTotal() + " moods recorded");
+        binding.byMoodText.setText(formatCounts(stats.getByMood()));
+        binding.weekText.setText(formatCounts(stats.getWindow(7, today)));
+        binding.monthText.setText(formatCounts(stats.getWindow(30, today)));
+
+        long[] weekdays = stats.getByWeekday();
+        StringBuilder weekdayText = new StringBuilder();
+        for (int i = 0; i < weekdays.length; i++) {
+            String name = DayOfWeek.of(i + 1).getDisplayName(TextStyle.SHORT, Locale.getDefault());
+            appendLine(weekdayText, name + ": " + weekdays[i]);
+        }
+        binding.weekdayText.setText(weekdayText.toString());
+
+        binding.hourText.setText(formatTopHours(stats.getByHour()));
+
+        StringBuilder reasonText = new StringBuilder();
+        for (Map.Entry<String, Long> reason : stats.getTopReasons(TOP_REASONS, today)) {
+            appendLine(reasonText, reason.getKey() + ": " + reason.getValue());
+        }
+        binding.reasonsText.setText(reasonText.length() == 0 ? "None yet" : reasonText.toString());
+    }
+
+    private static String formatCounts(Map<String, Long> counts) {
+        if (counts.isEmpty()) {
+            return "None yet";
+        }
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            appendLine(text, entry.getKey() + ": " + entry.getValue());
+        }
+        return text.toString();
+    }
+
+    private static String formatTopHours(long[] hours) {
+        List<Integer> order = new ArrayList<>();
+        for (int hour = 0; hour < hours.length; hour++) {
+            if (hours[hour] > 0) {
+                order.add(hour);
+            }
+        }
+        if (order.isEmpty()) {
+            return "None yet";
+        }
+        order.sort((a, b) -> Long.compare(hours[b], hours[a]));
+        StringBuilder text = new StringBuilder();
+        for (int hour : order.subList(0, Math.min(TOP_HOURS, order.size()))) {
+            appendLine(text, String.format(Locale.getDefault(), "%02d:00: %d", hour, hours[hour]));
+        }
+        return text.toString();
+    }
+
+    private static void appendLine(StringBuilder text, String line) {
+        if (text.length() > 0) {
+            text.append('\n');
+        }
+        text.append(line);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (timelineLoad != null) {
+            timelineLoad.cancel();
+        }
+        binding = null;
+    }
+}
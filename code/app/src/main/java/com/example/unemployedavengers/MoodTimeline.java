@@ -0,0 +1,274 @@
+/**
+ * MoodTimeline - Time-sorted store of mood scores for the timeline chart.
+ *
+ * Design Pattern:
+ * - Column store: parallel arrays of times and scores, kept sorted by time, so a
+ *   window is found by binary search instead of scanning every event
+ *
+ * Key Responsibilities:
+ * 1. Storage:
+ *    - Maps each mood to a score from -2 (sadness, anger) to +2 (happiness)
+ *    - Appends in time order; out-of-order points are inserted in place
+ *    - addAll() merges a whole page in one pass, for pages older than what is stored
+ *    - removeRange() drops the points of a time range, e.g. of a range whose load
+ *      failed partway, so loading it again doesn't count its moods twice
+ *
+ * 2. Downsampling:
+ *    - downsample() returns at most a given number of points for a time window,
+ *      chosen with Largest-Triangle-Three-Buckets (LTTB), which keeps the peaks and
+ *      dips a plain average would flatten
+ *    - The point just outside each end of the window is included, so the line
+ *      reaches the edges of the chart
+ *
+ * Technical Implementation:
+ * - 12 bytes per event, so 100k events take about 1.2 MB
+ * - A window query costs O(log n) to find plus O(points in window) to downsample
+ * - Not thread-safe; the chart uses it on the main thread
+ *
+ * @see MoodTimelineView
+ */
+package com.example.unemployedavengers;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+public class MoodTimeline {
+    public static final float MIN_SCORE = -2;
+    public static final float MAX_SCORE = 2;
+
+    private long[] times = new long[256];
+    private float[] scores = new float[256];
+    private int size;
+
+    /**
+     * A downsampled window: the first {@code size} entries of each array.
+     */
+    public static class Points {
+        public final long[] times;
+        public final float[] scores;
+        public final int size;
+
+        Points(long[] times, float[] scores, int size) {
+            this.times = times;
+            this.scores = scores;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Returns the chart score of a mood, or NaN for an unknown mood.
+     *
+     * @param mood A mood as stored, e.g. "😄Happiness"; emoji and case are ignored
+     */
+    public static float score(String mood) {
+        if (mood == null) {
+            return Float.NaN;
+        }
+        String name = mood.replaceAll("[^\\p{L}]", "").toLowerCase(Locale.ROOT);
+        switch (name) {
+            case "happiness":
+                return 2;
+            case "surprise":
+                return 1;
+            case "confusion":
+                return 0;
+            case "fear":
+            case "shame":
+            case "disgust":
+                return -1;
+            case "sadness":
+            case "anger":
+                return -2;
+            default:
+                return Float.NaN;
+        }
+    }
+
+    /**
+     * Adds a mood event.
+     *
+     * @param time Epoch milliseconds
+     * @param mood The mood as stored; unknown moods are ignored
+     */
+    public void add(long time, String mood) {
+        float score = score(mood);
+        if (Float.isNaN(score)) {
+            return;
+        }
+        if (size == times.length) {
+            times = Arrays.copyOf(times, size * 2);
+            scores = Arrays.copyOf(scores, size * 2);
+        }
+        int index = size == 0 || time >= times[size - 1] ? size : lowerBound(time + 1);
+        System.arraycopy(times, index, times, index + 1, size - index);
+        System.arraycopy(scores, index, scores, index + 1, size - index);
+        times[index] = time;
+        scores[index] = score;
+        size++;
+    }
+
+    /**
+     * Adds a page of mood events, merging it with the stored points in one pass instead
+     * of shifting them once per event.
+     *
+     * @param pageTimes Epoch milliseconds, in ascending order
+     * @param moods The moods as stored, in the same order; unknown moods are ignored
+     */
+    public void addAll(long[] pageTimes, String[] moods) {
+        long[] newTimes = new long[pageTimes.length];
+        float[] newScores = new float[pageTimes.length];
+        int count = 0;
+        for (int i = 0; i < pageTimes.length; i++) {
+            float score = score(moods[i]);
+            if (!Float.isNaN(score)) {
+                newTimes[count] = pageTimes[i];
+                newScores[count++] = score;
+            }
+        }
+        if (size + count > times.length) {
+            int capacity = Math.max(size + count, times.length * 2);
+            times = Arrays.copyOf(times, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+        // Merge from the back so every stored point moves at most once; equal times keep
+        // the stored point first, like add()
+        int stored = size - 1;
+        int added = count - 1;
+        for (int out = size + count - 1; added >= 0; out--) {
+            if (stored >= 0 && times[stored] > newTimes[added]) {
+                times[out] = times[stored];
+                scores[out] = scores[stored--];
+            } else {
+                times[out] = newTimes[added];
+                scores[out] = newScores[added--];
+            }
+        }
+        size += count;
+    }
+
+    /**
+     * Removes the points in a time range, shifting the later ones down once.
+     *
+     * @param from Start of the range, inclusive, epoch milliseconds
+     * @param to End of the range, exclusive; Long.MAX_VALUE for no end
+     */
+    public void removeRange(long from, long to) {
+        int start = lowerBound(from);
+        int end = to == Long.MAX_VALUE ? size : lowerBound(to);
+        if (start >= end) {
+            return;
+        }
+        System.arraycopy(times, end, times, start, size - end);
+        System.arraycopy(scores, end, scores, start, size - end);
+        size -= end - start;
+    }
+
+    /**
+     * Removes every point.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the time of the first point; only valid if size() > 0.
+     */
+    public long getStart() {
+        return times[0];
+    }
+
+    /**
+     * Returns the time of the last point; only valid if size() > 0.
+     */
+    public long getEnd() {
+        return times[size - 1];
+    }
+
+    /**
+     * Returns at most {@code threshold} points covering a time window.
+     *
+     * @param from Start of the window, epoch milliseconds
+     * @param to End of the window, epoch milliseconds
+     * @param threshold The most points to return, e.g. the chart's width in pixels
+     * @return The selected points in time order
+     */
+    public Points downsample(long from, long to, int threshold) {
+        int lo = Math.max(0, lowerBound(from) - 1);
+        int hi = Math.min(size, lowerBound(to == Long.MAX_VALUE ? to : to + 1) + 1);
+        int n = Math.max(0, hi - lo);
+
+        if (threshold < 3 || n <= threshold) {
+            return new Points(Arrays.copyOfRange(times, lo, lo + n), Arrays.copyOfRange(scores, lo, lo + n), n);
+        }
+
+        long[] outTimes = new long[threshold];
+        float[] outScores = new float[threshold];
+        int out = 0;
+        double every = (double) (n - 2) / (threshold - 2);
+        long origin = times[lo];
+
+        // Always keep the first point
+        int a = lo;
+        outTimes[out] = times[a];
+        outScores[out++] = scores[a];
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // Average of the next bucket is the third corner of the triangle
+            int avgStart = lo + (int) Math.floor((bucket + 1) * every) + 1;
+            int avgEnd = Math.min(lo + (int) Math.floor((bucket + 2) * every) + 1, hi);
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = avgStart; i < avgEnd; i++) {
+                avgX += times[i] - origin;
+                avgY += scores[i];
+            }
+            int avgCount = avgEnd - avgStart;
+            avgX /= avgCount;
+            avgY /= avgCount;
+
+            // Keep the point of this bucket that forms the largest triangle
+            int start = lo + (int) Math.floor(bucket * every) + 1;
+            int end = lo + (int) Math.floor((bucket + 1) * every) + 1;
+            double ax = times[a] - origin;
+            double ay = scores[a];
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((ax - avgX) * (scores[i] - ay) - (ax - (times[i] - origin)) * (avgY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            outTimes[out] = times[chosen];
+            outScores[out++] = scores[chosen];
+            a = chosen;
+        }
+
+        // Always keep the last point
+        outTimes[out] = times[hi - 1];
+        outScores[out++] = scores[hi - 1];
+        return new Points(outTimes, outScores, out);
+    }
+
+    /**
+     * Returns the index of the first point at or after {@code time}.
+     */
+    int lowerBound(long time) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] < time) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
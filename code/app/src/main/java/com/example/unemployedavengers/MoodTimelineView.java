@@ -0,0 +1,300 @@
+/**
+ * MoodTimelineView - Line chart of mood scores over time with pan and zoom.
+ *
+ * Design Pattern:
+ * - Custom View that draws straight from a MoodTimeline; the whole chart is one
+ *   onDraw pass with a single Path
+ *
+ * Key Responsibilities:
+ * 1. Drawing:
+ *    - Score grid lines from -2 to +2, the line through the visible moods, and the
+ *      dates at both ends of the window
+ *
+ * 2. Interaction:
+ *    - Drag pans, pinch zooms around the fingers, double tap shows everything
+ *    - Touches are kept from the parent ScrollView while the chart is dragged
+ *    - With setRange() the user can pan across moods that aren't loaded yet; a
+ *      WindowListener hears every window change so the owner can load them
+ *
+ * Technical Implementation:
+ * - Every change of window or size re-queries only the visible window, downsampled
+ *   to one point per pixel of width, so drawing cost doesn't grow with the history
+ * - The Path and Paints are reused between frames
+ *
+ * @see MoodTimeline
+ * @see MoodStatsFragment
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+public class MoodTimelineView extends View {
+    // Closest zoom: one hour across the chart
+    private static final long MIN_WINDOW_MS = 60 * 60 * 1000L;
+
+    private MoodTimeline timeline;
+    private MoodTimeline.Points points;
+    private long windowStart;
+    private long windowEnd;
+    // True until the user pans or zooms
+    private boolean showingAll = true;
+    // Span the user can pan across when set; otherwise the loaded points' span
+    private boolean hasRange;
+    private long rangeStart;
+    private long rangeEnd;
+    private WindowListener windowListener;
+
+    private final Path path = new Path();
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint gridPaint = new Paint();
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final ScaleGestureDetector scaleDetector;
+    private final GestureDetector gestureDetector;
+
+    /**
+     * Told on the main thread whenever the visible window changes.
+     */
+    public interface WindowListener {
+        void onWindowChanged(long start, long end);
+    }
+
+    public MoodTimelineView(Context context) {
+        this(context, null);
+    }
+
+    public MoodTimelineView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        float density = getResources().getDisplayMetrics().density;
+        linePaint.setColor(Color.parseColor("#F88379"));
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeWidth(2 * density);
+        linePaint.setStrokeJoin(Paint.Join.ROUND);
+        gridPaint.setColor(Color.parseColor("#E0E0E0"));
+        gridPaint.setStrokeWidth(density);
+        textPaint.setColor(Color.parseColor("#808080"));
+        textPaint.setTextSize(12 * density);
+
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(@NonNull ScaleGestureDetector detector) {
+                zoom(detector.getScaleFactor(), detector.getFocusX());
+                return true;
+            }
+        });
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(@Nullable MotionEvent e1, @NonNull MotionEvent e2, float distanceX, float distanceY) {
+                if (!scaleDetector.isInProgress()) {
+                    pan(distanceX);
+                }
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(@NonNull MotionEvent e) {
+                showAll();
+                return true;
+            }
+        });
+    }
+
+    /**
+     * Sets the moods to chart and shows all of them.
+     */
+    public void setTimeline(MoodTimeline timeline) {
+        this.timeline = timeline;
+        showAll();
+    }
+
+    /**
+     * Sets the span the user can pan and zoom across, which may reach past the loaded
+     * points, e.g. from the user's first mood to now.
+     */
+    public void setRange(long start, long end) {
+        hasRange = true;
+        rangeStart = start;
+        rangeEnd = end;
+    }
+
+    public void setWindowListener(WindowListener listener) {
+        windowListener = listener;
+    }
+
+    /**
+     * Shows a time window, kept inside the range.
+     */
+    public void showWindow(long start, long end) {
+        if (!hasSpan()) return;
+        setWindow(start, Math.max(MIN_WINDOW_MS, end - start));
+    }
+
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Redraws after points were added to the timeline. The window follows new points
+     * until the user pans or zooms.
+     */
+    public void onTimelineChanged() {
+        if (showingAll) {
+            showAll();
+        } else {
+            requery();
+        }
+    }
+
+    /**
+     * Shows the whole history.
+     */
+    public void showAll() {
+        showingAll = true;
+        if (hasSpan()) {
+            windowStart = fullStart();
+            windowEnd = Math.max(fullEnd(), windowStart + MIN_WINDOW_MS);
+        }
+        windowChanged();
+    }
+
+    private boolean hasSpan() {
+        return timeline != null && (hasRange || timeline.size() > 0);
+    }
+
+    private long fullStart() {
+        if (!hasRange) return timeline.getStart();
+        return timeline.size() > 0 ? Math.min(rangeStart, timeline.getStart()) : rangeStart;
+    }
+
+    private long fullEnd() {
+        if (!hasRange) return timeline.getEnd();
+        return timeline.size() > 0 ? Math.max(rangeEnd, timeline.getEnd()) : rangeEnd;
+    }
+
+    private void zoom(float factor, float focusX) {
+        if (!hasSpan() || chartWidth() <= 0) return;
+        long duration = windowEnd - windowStart;
+        long fullDuration = Math.max(fullEnd() - fullStart(), MIN_WINDOW_MS);
+        long newDuration = (long) Math.max(MIN_WINDOW_MS, Math.min(fullDuration, duration / factor));
+        float fraction = (focusX - getPaddingLeft()) / chartWidth();
+        long focusTime = windowStart + (long) (fraction * duration);
+        setWindow(focusTime - (long) (fraction * newDuration), newDuration);
+    }
+
+    private void pan(float distanceX) {
+        if (!hasSpan() || chartWidth() <= 0) return;
+        long duration = windowEnd - windowStart;
+        setWindow(windowStart + (long) (distanceX / chartWidth() * duration), duration);
+    }
+
+    private void setWindow(long start, long duration) {
+        // Keep the window inside the history
+        long first = fullStart();
+        long last = Math.max(fullEnd(), first + duration);
+        start = Math.max(first, Math.min(last - duration, start));
+        windowStart = start;
+        windowEnd = start + duration;
+        showingAll = false;
+        windowChanged();
+    }
+
+    private void windowChanged() {
+        requery();
+        if (windowListener != null && hasSpan()) {
+            windowListener.onWindowChanged(windowStart, windowEnd);
+        }
+    }
+
+    private void requery() {
+        int width = chartWidth();
+        if (timeline == null || width <= 0 || windowEnd <= windowStart) {
+            points = null;
+        } else {
+            points = timeline.downsample(windowStart, windowEnd, width);
+        }
+        invalidate();
+    }
+
+    private int chartWidth() {
+        return getWidth() - getPaddingLeft() - getPaddingRight();
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        requery();
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        if (event.getActionMasked() == MotionEvent.ACTION_DOWN && getParent() != null) {
+            getParent().requestDisallowInterceptTouchEvent(true);
+        }
+        boolean handled = scaleDetector.onTouchEvent(event);
+        handled |= gestureDetector.onTouchEvent(event);
+        return handled || super.onTouchEvent(event);
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        float left = getPaddingLeft();
+        float right = getWidth() - getPaddingRight();
+        float textHeight = textPaint.getTextSize();
+        float top = getPaddingTop() + textHeight / 2;
+        float bottom = getHeight() - getPaddingBottom() - textHeight * 1.5f;
+        if (right <= left || bottom <= top) return;
+
+        for (int score = (int) MoodTimeline.MIN_SCORE; score <= MoodTimeline.MAX_SCORE; score++) {
+            float y = scoreY(score, top, bottom);
+            canvas.drawLine(left, y, right, y, gridPaint);
+        }
+
+        if (points == null || points.size == 0) {
+            canvas.drawText(hasSpan() ? "No moods in this range" : "No moods yet", left, (top + bottom) / 2, textPaint);
+            return;
+        }
+
+        double pxPerMs = (right - left) / (double) (windowEnd - windowStart);
+        path.rewind();
+        for (int i = 0; i < points.size; i++) {
+            float x = left + (float) ((points.times[i] - windowStart) * pxPerMs);
+            float y = scoreY(points.scores[i], top, bottom);
+            if (i == 0) {
+                path.moveTo(x, y);
+            } else {
+                path.lineTo(x, y);
+            }
+        }
+        canvas.save();
+        canvas.clipRect(left, 0, right, getHeight());
+        canvas.drawPath(path, linePaint);
+        canvas.restore();
+
+        DateFormatHelper dates = DateFormatHelper.getInstance();
+        String endLabel = dates.formatAbsolute(windowEnd);
+        canvas.drawText(dates.formatAbsolute(windowStart), left, getHeight() - getPaddingBottom(), textPaint);
+        canvas.drawText(endLabel, right - textPaint.measureText(endLabel), getHeight() - getPaddingBottom(), textPaint);
+    }
+
+    private static float scoreY(float score, float top, float bottom) {
+        float fraction = (score - MoodTimeline.MIN_SCORE) / (MoodTimeline.MAX_SCORE - MoodTimeline.MIN_SCORE);
+        return bottom - fraction * (bottom - top);
+    }
+}
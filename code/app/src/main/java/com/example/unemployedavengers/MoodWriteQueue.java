@@ -0,0 +1,268 @@
+/**
+ * MoodWriteQueue - Coalesces rapid edits of the same mood event into one write.
+ *
+ * Design Pattern:
+ * - Process-wide singleton, so an edit made on one screen is still written after
+ *   the screen is gone, and any screen can overlay edits that haven't been sent yet
+ *
+ * Key Responsibilities:
+ * 1. Coalescing:
+ *    - Each edit replaces the pending version of its document and restarts a short
+ *      debounce window; when the window ends, one write is sent
+ *    - The write is MoodStatsManager.updateMood, which updates only the fields that
+ *      differ from the previous version (and its stats counters)
+ *    - The previous version is read from the local cache before the first write of a
+ *      mood; after that it is the version the queue last sent
+ *    - Writes are batches that land in the local cache at once, so an edit is sent
+ *      without waiting for the server to confirm the one before, even offline
+ *
+ * 2. Optimistic Updates:
+ *    - Screens show an edit right away and call overlay() after reloading, so a reload
+ *      during the window doesn't show the old values
+ *    - If the write fails, every listener of the coalesced edits is told so it can
+ *      reload, which rolls the screen back to what Firestore has
+ *    - An edit of a mood that no longer exists is dropped and reported as failed
+ *    - Deleting a mood cancels its waiting edit, so the edit can't be sent after the delete
+ *
+ * Technical Implementation:
+ * - State is only touched on the main thread; the window uses a main-looper Handler
+ * - flushAll() sends everything immediately, e.g. when the app goes to the background
+ *
+ * @see MoodChanges
+ * @see com.example.unemployedavengers.implementationDAO.MoodStatsManager#updateMood
+ */
+package com.example.unemployedavengers;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.unemployedavengers.implementationDAO.MoodStatsManager;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MoodWriteQueue {
+    private static final String TAG = "MoodWriteQueue";
+    // Edits within this window of each other become one write
+    static final long WINDOW_MS = 600;
+
+    private static MoodWriteQueue instance;
+
+    /**
+     * Told once the write that includes an edit completes, on the main thread.
+     */
+    public interface Listener {
+        void onWritten(MoodEvent moodEvent);
+
+        void onFailed(MoodEvent moodEvent, Exception error);
+    }
+
+    private static class Entry {
+        final String userId;
+        final DocumentReference moodDoc;
+        // The version the next write diffs against; null until read from the cache
+        MoodEvent written;
+        MoodEvent pending;
+        List<Listener> listeners = new ArrayList<>();
+        Runnable flush;
+        boolean loading;
+        int inFlight;
+
+        Entry(String userId, DocumentReference moodDoc) {
+            this.userId = userId;
+            this.moodDoc = moodDoc;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private MoodStatsManager statsManager;
+
+    /**
+     * Returns the shared queue.
+     */
+    public static synchronized MoodWriteQueue getInstance() {
+        if (instance == null) {
+            instance = new MoodWriteQueue();
+        }
+        return instance;
+    }
+
+    MoodWriteQueue() {
+    }
+
+    /**
+     * Queues an edited mood event. Must be called on the main thread.
+     *
+     * @param userId The owner of the mood event
+     * @param moodEvent The edited mood event; copied, so the caller may keep changing it
+     * @param listener Told when the write completes, may be null
+     */
+    public void enqueue(String userId, MoodEvent moodEvent, Listener listener) {
+        String key = key(userId, moodEvent.getId());
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            DocumentReference moodDoc = FirebaseFirestore.getInstance()
+                    .collection("users").document(userId)
+                    .collection("moods").document(moodEvent.getId());
+            entry = new Entry(userId, moodDoc);
+            entries.put(key, entry);
+        }
+        entry.pending = MoodChanges.copy(moodEvent);
+        if (listener != null) {
+            entry.listeners.add(listener);
+        }
+        if (entry.flush != null) {
+            handler.removeCallbacks(entry.flush);
+        }
+        Entry scheduled = entry;
+        entry.flush = () -> flush(key, scheduled);
+        handler.postDelayed(entry.flush, WINDOW_MS);
+    }
+
+    /**
+     * Replaces loaded mood events that have an edit waiting with the edited version.
+     *
+     * @param userId The owner of the mood events
+     * @param moodEvents Mood events just loaded from Firestore; changed in place
+     */
+    public void overlay(String userId, List<MoodEvent> moodEvents) {
+        for (int i = 0; i < moodEvents.size(); i++) {
+            Entry entry = entries.get(key(userId, moodEvents.get(i).getId()));
+            if (entry == null) {
+                continue;
+            }
+            // Sent edits are already in the local cache; only waiting ones are missing
+            if (entry.pending != null) {
+                moodEvents.set(i, MoodChanges.copy(entry.pending));
+            }
+        }
+    }
+
+    /**
+     * Discards the waiting edit of a mood event, e.g. because it is being deleted. Writes
+     * already sent aren't undone, and the edit's listeners aren't told. Must be called on
+     * the main thread.
+     *
+     * @param userId The owner of the mood event
+     * @param moodId The mood event's ID
+     */
+    public void cancel(String userId, String moodId) {
+        String key = key(userId, moodId);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        if (entry.flush != null) {
+            handler.removeCallbacks(entry.flush);
+            entry.flush = null;
+        }
+        entry.pending = null;
+        entry.listeners = new ArrayList<>();
+        removeIfIdle(key, entry);
+    }
+
+    /**
+     * Sends every waiting edit now instead of at the end of its window.
+     */
+    public void flushAll() {
+        for (Map.Entry<String, Entry> entry : new ArrayList<>(entries.entrySet())) {
+            if (entry.getValue().flush != null) {
+                handler.removeCallbacks(entry.getValue().flush);
+                flush(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void flush(String key, Entry entry) {
+        entry.flush = null;
+        if (entry.loading || entry.pending == null) {
+            // Sent once the previous version is loaded
+            return;
+        }
+        if (statsManager == null) {
+            statsManager = new MoodStatsManager();
+        }
+        if (entry.written == null) {
+            entry.loading = true;
+            statsManager.loadMood(entry.moodDoc).addOnCompleteListener(task -> {
+                entry.loading = false;
+                if (task.isSuccessful() && task.getResult() != null) {
+                    entry.written = task.getResult();
+                    if (entry.flush == null) {
+                        flush(key, entry);
+                    }
+                    // Cancelled while loading
+                    removeIfIdle(key, entry);
+                    return;
+                }
+                Exception error = task.isSuccessful()
+                        ? new FirebaseFirestoreException("Mood was deleted", FirebaseFirestoreException.Code.NOT_FOUND)
+                        : task.getException();
+                drop(key, entry, error);
+            });
+            return;
+        }
+
+        MoodEvent previous = entry.written;
+        MoodEvent sending = entry.pending;
+        List<Listener> listeners = entry.listeners;
+        entry.written = sending;
+        entry.pending = null;
+        entry.listeners = new ArrayList<>();
+        entry.inFlight++;
+
+        statsManager.updateMood(entry.userId, entry.moodDoc, previous, sending).addOnCompleteListener(task -> {
+            entry.inFlight--;
+            if (task.isSuccessful()) {
+                for (Listener listener : listeners) {
+                    listener.onWritten(sending);
+                }
+            } else {
+                Log.e(TAG, "Failed to write mood " + sending.getId(), task.getException());
+                for (Listener listener : listeners) {
+                    listener.onFailed(sending, task.getException());
+                }
+            }
+            removeIfIdle(key, entry);
+        });
+    }
+
+    /**
+     * Drops the waiting edit of a mood that can't be written and tells its listeners.
+     */
+    private void drop(String key, Entry entry, Exception error) {
+        MoodEvent dropped = entry.pending;
+        List<Listener> listeners = entry.listeners;
+        if (entry.flush != null) {
+            handler.removeCallbacks(entry.flush);
+            entry.flush = null;
+        }
+        entry.pending = null;
+        entry.listeners = new ArrayList<>();
+        Log.w(TAG, "Dropped edit of mood " + entry.moodDoc.getId(), error);
+        if (dropped != null) {
+            for (Listener listener : listeners) {
+                listener.onFailed(dropped, error);
+            }
+        }
+        removeIfIdle(key, entry);
+    }
+
+    private void removeIfIdle(String key, Entry entry) {
+        if (entry.inFlight == 0 && !entry.loading && entry.pending == null && entries.get(key) == entry) {
+            entries.remove(key);
+        }
+    }
+
+    private static String key(String userId, String moodId) {
+        return userId + "/" + moodId;
+    }
+}
@@ -8,9 +8,11 @@
  *
  * Key Responsibilities:
  * 1. Follow Request Management:
- *    - Retrieves pending follow requests from Firestore
+ *    - Shows the live request list kept by FollowRequestInbox
  *    - Displays requesters' profiles in a scrollable list
  *    - Handles request acceptance/rejection through FollowRequestAdapter
+ *    - Marks requests as seen while the screen is open, which clears the toolbar badge
+ *    - "Accept all" accepts every visible request with IUserDAO.acceptFollowRequests
  *
  * 2. User Authentication:
  *    - Verifies current user session
@@ -23,7 +25,7 @@
  *    - Handles error states and empty views
  *
  * Technical Implementation:
- * - Uses Firestore for real-time request data
+ * - Uses a Firestore snapshot listener (via FollowRequestInbox) for real-time request data
  * - Implements custom FollowRequestAdapter
  * - Leverages Firebase Authentication
  * - Follows Fragment lifecycle
@@ -48,6 +50,7 @@
  * - Cleans up resources in onDestroyView
  *
  * @see FollowRequestAdapter
+ * @see FollowRequestInbox
  * @see User
  */
 
@@ -58,7 +61,9 @@ import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Button;
 import android.widget.ListView;
+import android.widget.Toast;
 
 
 import androidx.annotation.NonNull;
@@ -71,18 +76,17 @@ import com.example.unemployedavengers.implementationDAO.UserDAOImplement;
 import com.example.unemployedavengers.models.User;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.firestore.CollectionReference;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
 
 public class Notifications extends Fragment {
     private ListView notificationsList;
+    private Button acceptAllButton;
     private IUserDAO userDAO;
     private FirebaseAuth auth;
-    private FirebaseFirestore db;
+    private final FollowRequestInbox inbox = FollowRequestInbox.getInstance();
+    private final Runnable inboxListener = this::refreshRequests;
     private FollowRequestAdapter adapter;
     private List<User> followRequests;
     private String currentUserId;
@@ -92,18 +96,20 @@ public class Notifications extends Fragment {
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
         View view = inflater.inflate(R.layout.notifications, container, false);
         notificationsList = view.findViewById(R.id.notifications_list);
+        acceptAllButton = view.findViewById(R.id.accept_all_button);
         userDAO = new UserDAOImplement();
         auth = FirebaseAuth.getInstance();
-        db = FirebaseFirestore.getInstance();
         followRequests = new ArrayList<>();
 
-        adapter = new FollowRequestAdapter(requireContext(), followRequests, "");
-        notificationsList.setAdapter(adapter);
-
         FirebaseUser currentUser = auth.getCurrentUser();
         if (currentUser != null) {
             currentUserId = currentUser.getUid();
-            loadFollowRequests();
+            adapter = new FollowRequestAdapter(requireContext(), followRequests, currentUserId);
+            notificationsList.setAdapter(adapter);
+            inbox.start(requireContext(), currentUserId);
+            inbox.addListener(inboxListener);
+            acceptAllButton.setOnClickListener(v -> acceptAll());
+            refreshRequests();
         } else {
             Log.e("Notifications", "No user is logged in");
         }
@@ -111,45 +117,71 @@ public class Notifications extends Fragment {
         return view;
     }
 
-    private void loadFollowRequests() {
-        if (currentUserId == null) {
-            Log.e("Notifications", "currentUserId is null");
-            return;
-        }
-
-        CollectionReference requestsRef = db.collection("users").document(currentUserId).collection("requests");
-        requestsRef.get().addOnSuccessListener(queryDocumentSnapshots -> {
-            followRequests.clear();
+    @Override
+    public void onResume() {
+        super.onResume();
+        inbox.markAllSeen();
+    }
 
-            if (queryDocumentSnapshots.isEmpty()) {
-                Log.d("Notifications", "No follow requests found");
-                adapter.notifyDataSetChanged();
-                return;
-            }
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        inbox.removeListener(inboxListener);
+        notificationsList = null;
+        acceptAllButton = null;
+    }
 
-            for (QueryDocumentSnapshot document : queryDocumentSnapshots) {
-                String requesterId = document.getId();
-                Log.d("Notifications", "Found follow request from: " + requesterId);
+    /**
+     * Accepts every request on screen in as few batches as possible. Rows disappear
+     * right away; requests in a failed batch come back.
+     */
+    private void acceptAll() {
+        List<String> requesterIds = new ArrayList<>();
+        for (User requester : followRequests) {
+            requesterIds.add(requester.getUserId());
+        }
+        if (requesterIds.isEmpty()) {
+            return;
+        }
+        for (String requesterId : requesterIds) {
+            inbox.hide(requesterId);
+        }
 
-                db.collection("users").document(requesterId).get()
-                        .addOnSuccessListener(userDoc -> {
-                            if (userDoc.exists()) {
-                                User user = userDoc.toObject(User.class);
-                                if (user != null) {
-                                    followRequests.add(user);
-                                    adapter.notifyDataSetChanged();
-                                }
-                            } else {
-                                Log.e("Notifications", "User document does not exist: " + requesterId);
-                            }
-                        })
-                        .addOnFailureListener(e -> Log.e("Notifications", "Error fetching user data", e));
-            }
+        userDAO.acceptFollowRequests(requesterIds, currentUserId)
+                .addOnSuccessListener(failed -> {
+                    for (String requesterId : failed) {
+                        inbox.show(requesterId);
+                    }
+                    if (getContext() == null) return;
+                    int accepted = requesterIds.size() - failed.size();
+                    String message = failed.isEmpty()
+                            ? "Accepted " + accepted + " follow requests"
+                            : "Accepted " + accepted + ", " + failed.size() + " failed";
+                    Toast.makeText(getContext(), message, Toast.LENGTH_SHORT).show();
+                })
+                .addOnFailureListener(e -> {
+                    for (String requesterId : requesterIds) {
+                        inbox.show(requesterId);
+                    }
+                    if (getContext() == null) return;
+                    Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                });
+    }
 
-            adapter = new FollowRequestAdapter(requireContext(), followRequests, currentUserId);
-            notificationsList.setAdapter(adapter);
-        }).addOnFailureListener(e ->
-                Log.e("Notifications", "Failed to load follow requests", e)
-        );
+    /**
+     * Copies the inbox into the adapter's list. Requests that arrive while the screen
+     * is in front count as seen.
+     */
+    private void refreshRequests() {
+        if (notificationsList == null || adapter == null) {
+            return;
+        }
+        followRequests.clear();
+        followRequests.addAll(inbox.getRequests());
+        adapter.notifyDataSetChanged();
+        acceptAllButton.setVisibility(followRequests.size() > 1 ? View.VISIBLE : View.GONE);
+        if (isResumed()) {
+            inbox.markAllSeen();
+        }
     }
 }
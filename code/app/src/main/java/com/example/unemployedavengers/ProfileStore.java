@@ -0,0 +1,224 @@
+/**
+ * ProfileStore - Persistent cache of other users' usernames and avatars.
+ *
+ * Design Pattern:
+ * - Process-wide singleton, filled by every screen and DAO call that reads a user
+ *   profile and read first wherever a username or avatar is drawn
+ * - Persisted to SharedPreferences like FollowGraph, so a cold start or an offline
+ *   session can draw complete rows before any profile read returns
+ *
+ * Key Responsibilities:
+ * 1. Storage:
+ *    - One Summary per user: username, avatar URL and version (the time it was read)
+ *    - A put with an older version than the stored one is ignored, so a slow read
+ *      can't overwrite a newer one
+ *    - At most MAX_ENTRIES users; the least recently used are evicted
+ *
+ * 2. Freshness:
+ *    - isFresh() tells callers whether a summary is recent enough to skip the
+ *      network read; stale summaries are still shown while the read is in flight
+ *
+ * Technical Implementation:
+ * - Each user is one preference key, written with apply() only when the username
+ *   or avatar actually changed
+ * - Entries are encoded as "version:usernameLength:username" followed by the avatar,
+ *   which needs no escaping and no JSON library
+ * - Profiles are public, so the store is shared across accounts on the device
+ *
+ * Outstanding Issues/TODOs:
+ * 1. A user who deletes their avatar keeps the old one here until their profile
+ *    is read again
+ *
+ * @see FollowGraph
+ * @see com.example.unemployedavengers.arrayadapters.FollowedUserMoodEventAdapter
+ */
+package com.example.unemployedavengers;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import com.example.unemployedavengers.models.User;
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ProfileStore {
+    private static final String PREFS = "profile_store";
+    static final int MAX_ENTRIES = 500;
+    // Summaries younger than this are shown without re-reading the profile
+    public static final long FRESH_MS = 10 * 60 * 1000L;
+
+    private static ProfileStore instance;
+
+    private final LinkedHashMap<String, Summary> summaries = new LinkedHashMap<>(16, 0.75f, true);
+    private SharedPreferences prefs;
+
+    /**
+     * What the app needs to draw another user: their name and picture.
+     */
+    public static class Summary {
+        public final String userId;
+        public final String username;
+        // Empty if the user has no avatar
+        public final String avatar;
+        // Epoch milliseconds when the profile was read
+        public final long version;
+
+        Summary(String userId, String username, String avatar, long version) {
+            this.userId = userId;
+            this.username = username;
+            this.avatar = avatar;
+            this.version = version;
+        }
+
+        public boolean hasAvatar() {
+            return !avatar.isEmpty();
+        }
+    }
+
+    ProfileStore() {
+    }
+
+    public static synchronized ProfileStore getInstance() {
+        if (instance == null) {
+            instance = new ProfileStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Loads the persisted summaries. Only the first call does anything.
+     *
+     * @param context Any context; only the application context is kept
+     */
+    public synchronized void init(Context context) {
+        if (prefs != null) {
+            return;
+        }
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            if (entry.getValue() instanceof String) {
+                Summary summary = decode(entry.getKey(), (String) entry.getValue());
+                if (summary != null) {
+                    Summary current = summaries.get(entry.getKey());
+                    if (current == null || current.version < summary.version) {
+                        summaries.put(entry.getKey(), summary);
+                    }
+                }
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Returns the stored summary of a user, or null.
+     */
+    public synchronized Summary get(String userId) {
+        return userId == null ? null : summaries.get(userId);
+    }
+
+    /**
+     * Returns whether a summary was read recently enough to skip re-reading it.
+     */
+    public static boolean isFresh(Summary summary, long now) {
+        return summary != null && now - summary.version < FRESH_MS;
+    }
+
+    /**
+     * Stores a user document just read from Firestore.
+     *
+     * @return True if the username or avatar changed
+     */
+    public boolean put(DocumentSnapshot document) {
+        return document != null && document.exists()
+                && put(document.getId(), document.getString("username"), document.getString("avatar"));
+    }
+
+    /**
+     * Stores a user object read from Firestore.
+     *
+     * @return True if the username or avatar changed
+     */
+    public boolean put(User user) {
+        return user != null && put(user.getUserId(), user.getUsername(), user.getAvatar());
+    }
+
+    /**
+     * Stores a user's username and avatar as read now.
+     *
+     * @return True if the username or avatar changed
+     */
+    public boolean put(String userId, String username, String avatar) {
+        return put(userId, username, avatar, System.currentTimeMillis());
+    }
+
+    /**
+     * Stores a summary unless a newer one is already stored.
+     *
+     * @return True if the username or avatar changed
+     */
+    synchronized boolean put(String userId, String username, String avatar, long version) {
+        if (userId == null || username == null) {
+            return false;
+        }
+        Summary current = summaries.get(userId);
+        if (current != null && current.version > version) {
+            return false;
+        }
+        Summary summary = new Summary(userId, username, avatar != null ? avatar : "", version);
+        summaries.put(userId, summary);
+        boolean changed = current == null || !current.username.equals(summary.username)
+                || !current.avatar.equals(summary.avatar);
+        // Unchanged summaries only get a newer version in memory; not worth a disk write
+        if (changed && prefs != null) {
+            prefs.edit().putString(userId, encode(summary)).apply();
+        }
+        evict();
+        return changed;
+    }
+
+    synchronized int size() {
+        return summaries.size();
+    }
+
+    private void evict() {
+        if (summaries.size() <= MAX_ENTRIES) {
+            return;
+        }
+        SharedPreferences.Editor editor = prefs != null ? prefs.edit() : null;
+        Iterator<String> eldest = summaries.keySet().iterator();
+        while (summaries.size() > MAX_ENTRIES) {
+            String userId = eldest.next();
+            eldest.remove();
+            if (editor != null) {
+                editor.remove(userId);
+            }
+        }
+        if (editor != null) {
+            editor.apply();
+        }
+    }
+
+    static String encode(Summary summary) {
+        return summary.version + ":" + summary.username.length() + ":" + summary.username + summary.avatar;
+    }
+
+    /**
+     * Decodes a stored entry, or returns null if it is malformed.
+     */
+    static Summary decode(String userId, String encoded) {
+        try {
+            int first = encoded.indexOf(':');
+            int second = encoded.indexOf(':', first + 1);
+            long version = Long.parseLong(encoded.substring(0, first));
+            int usernameLength = Integer.parseInt(encoded.substring(first + 1, second));
+            int usernameEnd = second + 1 + usernameLength;
+            return new Summary(userId, encoded.substring(second + 1, usernameEnd),
+                    encoded.substring(usernameEnd), version);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -3,28 +3,302 @@
  *
  * This fragment is responsible for:
  * - Inflating the settings layout (`settings.xml`) and displaying the settings options for the user.
+ * - Exporting the user's mood history as CSV or NDJSON, optionally gzipped.
+ * - Importing mood history from a CSV or JSON file.
  *
  * Features:
- * - Displays various user settings options (e.g., notification preferences, privacy settings, etc.).
- * - Currently, no specific settings functionality has been implemented within this fragment.
+ * - Export asks for a destination with the Storage Access Framework and streams moods
+ *   to it page by page through MoodExportManager, showing progress.
+ * - Import reads the chosen file (gzipped or not) through MoodImportParser and writes it
+ *   in batches through MoodImportManager. The committed offset is saved per file, so
+ *   picking the same file after an interrupted import continues where it stopped. Moods
+ *   get IDs derived from the file's URI, so batches written twice are not duplicated.
+ * - A running export or import can be cancelled; cancelled or failed exports delete the
+ *   partial file.
+ * - Leaving the screen cancels a running export or import.
  *
+ * @see com.example.unemployedavengers.implementationDAO.MoodExportManager
+ * @see com.example.unemployedavengers.implementationDAO.MoodImportManager
 */
 
 package com.example.unemployedavengers;
 
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
 import android.os.Bundle;
+import android.provider.DocumentsContract;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.Toast;
+
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 
+import com.example.unemployedavengers.databinding.SettingsBinding;
+import com.example.unemployedavengers.implementationDAO.MoodExportManager;
+import com.example.unemployedavengers.implementationDAO.MoodImportManager;
+import com.google.android.gms.tasks.CancellationTokenSource;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.zip.GZIPInputStream;
+
 public class Settings extends Fragment {
+    private static final String TAG = "Settings";
+    private static final String GZIP_MIME_TYPE = "application/gzip";
+    private static final String IMPORT_PREFS = "mood_import";
+    private static final String KEY_IMPORT_OFFSET = "offset_";
+    private static final String[] IMPORT_MIME_TYPES = {
+            "text/*", "application/json", "application/x-ndjson", GZIP_MIME_TYPE, "application/octet-stream"
+    };
+
+    private SettingsBinding binding;
+    private MoodExportManager exportManager;
+    private MoodImportManager importManager;
+    private MoodExportFormatter.Format pendingFormat;
+    private boolean pendingGzip;
+    private CancellationTokenSource cancellation;
+
+    private final ActivityResultLauncher<String> createCsv = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(MoodExportFormatter.Format.CSV.getMimeType()), this::startExport);
+    private final ActivityResultLauncher<String> createNdjson = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(MoodExportFormatter.Format.NDJSON.getMimeType()), this::startExport);
+    private final ActivityResultLauncher<String> createGzip = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument(GZIP_MIME_TYPE), this::startExport);
+    private final ActivityResultLauncher<String[]> openImport = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), this::startImport);
 
     @Nullable
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater, @Nullable ViewGroup container, @Nullable Bundle savedInstanceState) {
-        return inflater.inflate(R.layout.settings, container, false);
+        binding = SettingsBinding.inflate(inflater, container, false);
+        return binding.getRoot();
+    }
+
+    @Override
+    public void onViewCreated(@NonNull View view, @Nullable Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        exportManager = new MoodExportManager();
+        importManager = new MoodImportManager();
+
+        binding.exportCsvButton.setOnClickListener(v -> chooseDestination(MoodExportFormatter.Format.CSV));
+        binding.exportJsonButton.setOnClickListener(v -> chooseDestination(MoodExportFormatter.Format.NDJSON));
+        binding.importButton.setOnClickListener(v -> {
+            if (cancellation == null) {
+                openImport.launch(IMPORT_MIME_TYPES);
+            }
+        });
+        binding.exportCancelButton.setOnClickListener(v -> {
+            if (cancellation != null) {
+                cancellation.cancel();
+                binding.exportStatusText.setText("Cancelling...");
+            }
+        });
+    }
+
+    private void chooseDestination(MoodExportFormatter.Format format) {
+        if (cancellation != null) return;
+        pendingFormat = format;
+        pendingGzip = binding.gzipCheckbox.isChecked();
+        String fileName = "moods-" + LocalDate.now() + "." + format.getExtension();
+        if (pendingGzip) {
+            createGzip.launch(fileName + ".gz");
+        } else if (format == MoodExportFormatter.Format.CSV) {
+            createCsv.launch(fileName);
+        } else {
+            createNdjson.launch(fileName);
+        }
+    }
+
+    private void startExport(@Nullable Uri uri) {
+        if (uri == null || pendingFormat == null || binding == null) return;
+
+        String userID = getUserId();
+        if (userID == null) {
+            Toast.makeText(getContext(), "Not signed in", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        ContentResolver resolver = requireContext().getApplicationContext().getContentResolver();
+        OutputStream out;
+        try {
+            out = resolver.openOutputStream(uri);
+        } catch (FileNotFoundException e) {
+            out = null;
+        }
+        if (out == null) {
+            Toast.makeText(getContext(), "Could not open file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        cancellation = new CancellationTokenSource();
+        showRunning(true, "Exporting...");
+        exportManager.export(userID, out, pendingFormat, pendingGzip, this::postExportProgress, cancellation.getToken())
+                .addOnCompleteListener(task -> {
+                    cancellation = null;
+                    boolean cancelled = task.getException() instanceof CancellationException;
+                    if (!task.isSuccessful()) {
+                        Log.e(TAG, "Export failed", task.getException());
+                        deletePartialFile(resolver, uri);
+                    }
+                    if (binding == null || !isAdded()) return;
+                    showRunning(false, null);
+                    if (task.isSuccessful()) {
+                        binding.exportStatusText.setText("Exported " + task.getResult() + " moods");
+                    } else {
+                        binding.exportStatusText.setText(cancelled ? "Export cancelled" : "Export failed");
+                    }
+                });
+    }
+
+    private void startImport(@Nullable Uri uri) {
+        if (uri == null || binding == null) return;
+
+        String userID = getUserId();
+        if (userID == null) {
+            Toast.makeText(getContext(), "Not signed in", Toast.LENGTH_SHORT).show();
+            return;
+        }
+        String username = requireActivity().getSharedPreferences("user_preferences", Context.MODE_PRIVATE)
+                .getString("username", null);
+
+        Reader reader;
+        try {
+            reader = openImportReader(requireContext().getContentResolver(), uri);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open import file", e);
+            Toast.makeText(getContext(), "Could not open file", Toast.LENGTH_SHORT).show();
+            return;
+        }
+
+        SharedPreferences importPrefs = requireContext().getApplicationContext()
+                .getSharedPreferences(IMPORT_PREFS, Context.MODE_PRIVATE);
+        String offsetKey = KEY_IMPORT_OFFSET + userID + "_" + uri;
+        long startOffset = importPrefs.getLong(offsetKey, 0);
+
+        MoodImportParser parser = new MoodImportParser(reader,
+                Arrays.asList(getResources().getStringArray(R.array.spinner_items)));
+        cancellation = new CancellationTokenSource();
+        showRunning(true, startOffset > 0 ? "Resuming after record " + startOffset + "..." : "Importing...");
+        importManager.importMoods(userID, username, uri.toString(), parser, startOffset, (offset, imported, skipped) -> {
+            importPrefs.edit().putLong(offsetKey, offset).apply();
+            if (binding == null) return;
+            binding.exportStatusText.setText("Imported " + imported + " moods"
+                    + (skipped > 0 ? ", skipped " + skipped : ""));
+        }, cancellation.getToken()).addOnCompleteListener(task -> {
+            cancellation = null;
+            closeQuietly(reader);
+            if (task.isSuccessful()) {
+                importPrefs.edit().remove(offsetKey).apply();
+            } else {
+                Log.e(TAG, "Import failed", task.getException());
+            }
+            if (binding == null || !isAdded()) return;
+            showRunning(false, null);
+            if (task.isSuccessful()) {
+                MoodImportManager.ImportResult result = task.getResult();
+                String status = "Imported " + result.getImported() + " moods";
+                if (result.getSkipped() > 0) {
+                    status += ", skipped " + result.getSkipped() + " (" + result.getLastError() + ")";
+                }
+                binding.exportStatusText.setText(status);
+            } else if (task.getException() instanceof CancellationException) {
+                binding.exportStatusText.setText("Import paused; pick the same file to continue");
+            } else {
+                binding.exportStatusText.setText("Import failed; pick the same file to retry");
+            }
+        });
+    }
+
+    /**
+     * Opens the import file as UTF-8 text, unzipping it if it starts with the gzip magic number.
+     */
+    private static Reader openImportReader(ContentResolver resolver, Uri uri) throws IOException {
+        InputStream raw = resolver.openInputStream(uri);
+        if (raw == null) {
+            throw new FileNotFoundException(uri.toString());
+        }
+        BufferedInputStream in = new BufferedInputStream(raw);
+        in.mark(2);
+        boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+        in.reset();
+        InputStream content = gzip ? new GZIPInputStream(in) : in;
+        return new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+    }
+
+    private String getUserId() {
+        SharedPreferences sharedPreferences = requireActivity().getSharedPreferences("user_preferences", Context.MODE_PRIVATE);
+        return sharedPreferences.getString("userID", null);
+    }
+
+    private void postExportProgress(long written, long total) {
+        View root = binding == null ? null : binding.getRoot();
+        if (root == null) return;
+        root.post(() -> {
+            if (binding == null) return;
+            if (total > 0) {
+                binding.exportProgress.setIndeterminate(false);
+                binding.exportProgress.setMax((int) Math.min(Integer.MAX_VALUE, total));
+                binding.exportProgress.setProgress((int) Math.min(total, written));
+                binding.exportStatusText.setText("Exported " + written + " of " + total);
+            } else {
+                binding.exportStatusText.setText("Exported " + written);
+            }
+        });
+    }
+
+    private void showRunning(boolean running, @Nullable String status) {
+        binding.exportProgress.setVisibility(running ? View.VISIBLE : View.GONE);
+        binding.exportProgress.setIndeterminate(true);
+        binding.exportCancelButton.setVisibility(running ? View.VISIBLE : View.GONE);
+        binding.exportCsvButton.setEnabled(!running);
+        binding.exportJsonButton.setEnabled(!running);
+        binding.importButton.setEnabled(!running);
+        if (status != null) {
+            binding.exportStatusText.setText(status);
+        }
+    }
+
+    private static void deletePartialFile(ContentResolver resolver, Uri uri) {
+        try {
+            DocumentsContract.deleteDocument(resolver, uri);
+        } catch (Exception e) {
+            Log.w(TAG, "Could not delete partial export", e);
+        }
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            Log.w(TAG, "Could not close import file", e);
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (cancellation != null) {
+            cancellation.cancel();
+        }
+        binding = null;
     }
 }
@@ -0,0 +1,297 @@
+/**
+ * UsernameSearchIndex - Local search index over recently seen users for search-as-you-type.
+ *
+ * Design Pattern:
+ * - Process-wide cache shared by UserSearch instances
+ * - LRU eviction bounds memory to the most recently seen users
+ *
+ * Key Responsibilities:
+ * 1. Normalization:
+ *    - Lowercases usernames for case-insensitive search (the "username_lower" field)
+ *    - Produces the trigram set stored in "username_trigrams" for substring queries
+ *
+ * 2. Local Search:
+ *    - Prefix matches come from a character trie
+ *    - Substring matches come from a trigram index, verified with contains()
+ *    - Prefix matches are listed before substring matches
+ *
+ * Technical Implementation:
+ * - Users are keyed by user ID, so a renamed user replaces its old entry
+ * - Queries shorter than 3 characters only use the trie
+ * - Pure Java so it can run in unit tests
+ *
+ * Outstanding Issues/TODOs:
+ * 1. Results are only as fresh as the last server response that contained the user
+ *
+ * @see com.example.unemployedavengers.friendSection.UserSearch
+ * @see com.example.unemployedavengers.implementationDAO.UserDAOImplement#searchUsers(String)
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class UsernameSearchIndex {
+    public static final int GRAM = 3;
+    private static final int DEFAULT_CAPACITY = 1000;
+
+    private static UsernameSearchIndex instance;
+
+    private final int capacity;
+    private final TrieNode root = new TrieNode();
+    private final Map<String, Set<String>> trigramIndex = new HashMap<>();
+    private final LinkedHashMap<String, User> users;
+
+    private static class TrieNode {
+        final Map<Character, TrieNode> children = new HashMap<>();
+        final Set<String> userIds = new HashSet<>();
+    }
+
+    /**
+     * Returns the shared index.
+     */
+    public static synchronized UsernameSearchIndex getInstance() {
+        if (instance == null) {
+            instance = new UsernameSearchIndex(DEFAULT_CAPACITY);
+        }
+        return instance;
+    }
+
+    /**
+     * Creates an index that keeps at most {@code capacity} users.
+     *
+     * @param capacity Maximum number of cached users
+     */
+    public UsernameSearchIndex(int capacity) {
+        this.capacity = capacity;
+        this.users = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Normalizes a username or query for case-insensitive matching.
+     *
+     * @param username The raw username
+     * @return The trimmed, lowercased username
+     */
+    public static String normalize(String username) {
+        return username == null ? "" : username.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the distinct trigrams of a normalized string, sorted.
+     *
+     * @param normalized A string returned by {@link #normalize(String)}
+     * @return The trigrams, or an empty list if the string is shorter than 3 characters
+     */
+    public static List<String> trigrams(String normalized) {
+        Set<String> grams = new TreeSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return new ArrayList<>(grams);
+    }
+
+    /**
+     * Returns up to {@code max} distinct trigrams of a normalized string, taken from evenly
+     * spaced positions so they cover the start, middle and end of the string.
+     *
+     * @param normalized A string returned by {@link #normalize(String)}
+     * @param max Maximum number of trigrams
+     * @return The trigrams in position order, or an empty list if the string is shorter than 3 characters
+     */
+    public static List<String> spreadTrigrams(String normalized, int max) {
+        Set<String> grams = new LinkedHashSet<>();
+        int positions = normalized.length() - GRAM + 1;
+        if (positions <= 0 || max <= 0) {
+            return new ArrayList<>();
+        }
+        if (positions <= max) {
+            for (int i = 0; i < positions; i++) {
+                grams.add(normalized.substring(i, i + GRAM));
+            }
+        } else {
+            for (int k = 0; k < max; k++) {
+                int i = max == 1 ? 0 : k * (positions - 1) / (max - 1);
+                grams.add(normalized.substring(i, i + GRAM));
+            }
+        }
+        return new ArrayList<>(grams);
+    }
+
+    /**
+     * Adds or refreshes users in the index.
+     *
+     * @param newUsers Users returned by a server search
+     */
+    public synchronized void addAll(Collection<User> newUsers) {
+        for (User user : newUsers) {
+            if (user == null || user.getUserId() == null || user.getUsername() == null) {
+                continue;
+            }
+            remove(user.getUserId());
+            users.put(user.getUserId(), user);
+            String lower = normalize(user.getUsername());
+            insertTrie(lower, user.getUserId());
+            for (String gram : trigrams(lower)) {
+                Set<String> ids = trigramIndex.get(gram);
+                if (ids == null) {
+                    ids = new HashSet<>();
+                    trigramIndex.put(gram, ids);
+                }
+                ids.add(user.getUserId());
+            }
+        }
+        while (users.size() > capacity) {
+            remove(users.keySet().iterator().next());
+        }
+    }
+
+    /**
+     * Searches the cached users.
+     *
+     * @param query Raw query text
+     * @param excludeUserId User ID to leave out (the current user), or null
+     * @param limit Maximum number of results
+     * @return Prefix matches sorted by username, then substring matches
+     */
+    public synchronized List<User> search(String query, String excludeUserId, int limit) {
+        String q = normalize(query);
+        List<User> results = new ArrayList<>();
+        if (q.isEmpty()) {
+            return results;
+        }
+
+        Set<String> seen = new HashSet<>();
+        List<User> prefixMatches = new ArrayList<>();
+        TrieNode node = root;
+        for (int i = 0; i < q.length() && node != null; i++) {
+            node = node.children.get(q.charAt(i));
+        }
+        if (node != null) {
+            collect(node, prefixMatches, seen);
+        }
+        prefixMatches.sort((a, b) -> normalize(a.getUsername()).compareTo(normalize(b.getUsername())));
+        addResults(prefixMatches, excludeUserId, limit, results);
+
+        if (q.length() >= GRAM && results.size() < limit) {
+            List<User> substringMatches = new ArrayList<>();
+            for (String id : candidatesFor(q)) {
+                User user = users.get(id);
+                if (user != null && !seen.contains(id) && normalize(user.getUsername()).contains(q)) {
+                    substringMatches.add(user);
+                }
+            }
+            substringMatches.sort((a, b) -> normalize(a.getUsername()).compareTo(normalize(b.getUsername())));
+            addResults(substringMatches, excludeUserId, limit, results);
+        }
+        return results;
+    }
+
+    public synchronized int size() {
+        return users.size();
+    }
+
+    private static void addResults(List<User> matches, String excludeUserId, int limit, List<User> results) {
+        for (User user : matches) {
+            if (results.size() >= limit) {
+                return;
+            }
+            if (!user.getUserId().equals(excludeUserId)) {
+                results.add(user);
+            }
+        }
+    }
+
+    /**
+     * Intersects the ID sets of every trigram in the query, smallest set first.
+     */
+    private Set<String> candidatesFor(String q) {
+        List<Set<String>> sets = new ArrayList<>();
+        for (String gram : trigrams(q)) {
+            Set<String> ids = trigramIndex.get(gram);
+            if (ids == null) {
+                return new HashSet<>();
+            }
+            sets.add(ids);
+        }
+        sets.sort((a, b) -> Integer.compare(a.size(), b.size()));
+        Set<String> candidates = new HashSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(sets.get(i));
+        }
+        return candidates;
+    }
+
+    private void collect(TrieNode node, List<User> out, Set<String> seen) {
+        for (String id : node.userIds) {
+            if (seen.add(id)) {
+                out.add(users.get(id));
+            }
+        }
+        for (TrieNode child : node.children.values()) {
+            collect(child, out, seen);
+        }
+    }
+
+    private void insertTrie(String lower, String userId) {
+        TrieNode node = root;
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            TrieNode child = node.children.get(c);
+            if (child == null) {
+                child = new TrieNode();
+                node.children.put(c, child);
+            }
+            node = child;
+        }
+        node.userIds.add(userId);
+    }
+
+    private void remove(String userId) {
+        User old = users.remove(userId);
+        if (old == null) {
+            return;
+        }
+        String lower = normalize(old.getUsername());
+
+        // Walk down, then prune nodes left empty on the way back up
+        List<TrieNode> path = new ArrayList<>();
+        TrieNode node = root;
+        path.add(node);
+        for (int i = 0; i < lower.length() && node != null; i++) {
+            node = node.children.get(lower.charAt(i));
+            path.add(node);
+        }
+        if (node != null) {
+            node.userIds.remove(userId);
+            for (int i = lower.length(); i > 0; i--) {
+                TrieNode current = path.get(i);
+                if (!current.userIds.isEmpty() || !current.children.isEmpty()) {
+                    break;
+                }
+                path.get(i - 1).children.remove(lower.charAt(i - 1));
+            }
+        }
+
+        for (String gram : trigrams(lower)) {
+            Set<String> ids = trigramIndex.get(gram);
+            if (ids != null) {
+                ids.remove(userId);
+                if (ids.isEmpty()) {
+                    trigramIndex.remove(gram);
+                }
+            }
+        }
+    }
+}
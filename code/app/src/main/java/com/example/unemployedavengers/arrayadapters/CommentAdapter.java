@@ -6,6 +6,8 @@
  * - Threaded replies by mapping parent comments to their replies.
  * - Retrieve and store user profile pictures from Firebase.
  * - Updates the UI when new replies are added.
+ * - Replies are loaded a page at a time; a "View replies" link under a comment asks the listener for the next page.
+ * - refreshRows() rebinds only the rows a live change touched, instead of the whole list.
  *
  * Known Issues:
  * - There is a potential issue with handling nested replies and dynamically loading them as the number of replies increases. The current implementation could lead to performance degradation in large datasets.
@@ -29,6 +31,7 @@ import android.widget.ArrayAdapter;
 import android.widget.Button;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
+import android.widget.ListView;
 import android.widget.TextView;
 import android.widget.Toast;
 
@@ -38,6 +41,9 @@ import androidx.appcompat.app.AlertDialog;
 import androidx.core.content.ContextCompat;
 
 import com.bumptech.glide.Glide;
+import com.example.unemployedavengers.DateFormatHelper;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.ProfileStore;
 import com.example.unemployedavengers.R;
 import com.example.unemployedavengers.implementationDAO.CommentManager;
 import com.example.unemployedavengers.models.Comment;
@@ -46,12 +52,11 @@ import com.google.firebase.firestore.FirebaseFirestore;
 
 import org.w3c.dom.Text;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -61,8 +66,12 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
 
     private Context context;
     private Map<String, List<Comment>> repliesMap; // Maps parent comment ID to replies
+    private final Set<String> parentsWithMoreReplies = new HashSet<>(); // Parents with unloaded reply pages
+    private OnLoadMoreRepliesListener loadMoreRepliesListener;
     private Map<String, String> userProfilePictures = new HashMap<>(); // Cache profile pics
     private String user;
+    private final DateFormatHelper dateFormatHelper = DateFormatHelper.getInstance();
+    private final FirestoreMetrics metrics = FirestoreMetrics.getInstance();
     // In CommentAdapter.java
     /**
      * Constructor for CommentAdapter
@@ -78,6 +87,17 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
         this.user = currentUser;
     }
 
+    /**
+     * Receives taps on a comment's "View replies" link
+     */
+    public interface OnLoadMoreRepliesListener {
+        void onLoadMoreReplies(String parentId);
+    }
+
+    public void setOnLoadMoreRepliesListener(OnLoadMoreRepliesListener listener) {
+        this.loadMoreRepliesListener = listener;
+    }
+
     /**
      * Add replies to a specific parent comment
      *
@@ -85,10 +105,75 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
      * @param replies List of reply comments
      */
     public void setReplies(String parentId, List<Comment> replies) {
-        repliesMap.put(parentId, replies);
+        putReplies(parentId, replies, false);
         notifyDataSetChanged();
     }
 
+    /**
+     * Record the loaded replies of a parent comment without redrawing; follow with
+     * refreshRows() or notifyDataSetChanged()
+     *
+     * @param parentId ID of the parent comment
+     * @param replies Replies loaded so far, oldest first
+     * @param hasMore Whether more replies remain to be loaded
+     */
+    public void putReplies(String parentId, List<Comment> replies, boolean hasMore) {
+        repliesMap.put(parentId, replies);
+        if (hasMore) {
+            parentsWithMoreReplies.add(parentId);
+        } else {
+            parentsWithMoreReplies.remove(parentId);
+        }
+    }
+
+    /**
+     * Rebinds the on-screen rows of the given comments, leaving every other row alone.
+     * Rows that are off screen pick up the change when they are next bound.
+     *
+     * @param listView The ListView this adapter is attached to
+     * @param commentIds IDs of the top-level comments to rebind
+     */
+    public void refreshRows(ListView listView, Set<String> commentIds) {
+        int first = listView.getFirstVisiblePosition();
+        for (int i = 0; i < listView.getChildCount(); i++) {
+            int position = first + i;
+            if (position >= getCount()) break;
+            Comment comment = getItem(position);
+            if (comment != null && commentIds.contains(comment.getId())) {
+                getView(position, listView.getChildAt(i), listView);
+            }
+        }
+    }
+
+    /**
+     * Rebinds only the relative timestamps of the rows currently on screen.
+     * Called on each DateFormatHelper tick so labels like "5 min ago" stay current
+     * without rebinding whole rows (which would re-run their Firestore reads).
+     *
+     * @param listView The ListView this adapter is attached to
+     */
+    public void refreshTimestamps(ListView listView) {
+        for (int i = 0; i < listView.getChildCount(); i++) {
+            View row = listView.getChildAt(i);
+            refreshTimestamp(row.findViewById(R.id.comment_timestamp), R.id.comment_timestamp);
+
+            LinearLayout repliesContainer = row.findViewById(R.id.replies_container);
+            if (repliesContainer != null) {
+                for (int j = 0; j < repliesContainer.getChildCount(); j++) {
+                    refreshTimestamp(repliesContainer.getChildAt(j).findViewById(R.id.reply_timestamp), R.id.reply_timestamp);
+                }
+            }
+        }
+    }
+
+    private void refreshTimestamp(@Nullable TextView timestampView, int tagKey) {
+        if (timestampView == null) return;
+        Object timestamp = timestampView.getTag(tagKey);
+        if (timestamp instanceof Long) {
+            timestampView.setText(dateFormatHelper.formatRelative((Long) timestamp));
+        }
+    }
+
     @NonNull
     @Override
     public View getView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
@@ -107,6 +192,7 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
         ImageView profileImage = view.findViewById(R.id.comment_avatar);
         ImageView replyButton = view.findViewById(R.id.reply_button);
         LinearLayout repliesContainer = view.findViewById(R.id.replies_container);
+        TextView moreReplies = view.findViewById(R.id.more_replies);
         Button likeButton = view.findViewById(R.id.btnLike);
         TextView likesView = view.findViewById(R.id.tvLikeCount);
 
@@ -114,17 +200,26 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
         usernameText.setText(comment.getUsername());
         contentText.setText(comment.getContent());
 
-        // Format timestamp
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-        String formattedTime = sdf.format(new Date(comment.getTimestamp()));
-        timestampText.setText(formattedTime);
+        // Format timestamp relative to now; the tag lets refreshTimestamps() rebind it later
+        timestampText.setText(dateFormatHelper.formatRelative(comment.getTimestamp()));
+        timestampText.setTag(R.id.comment_timestamp, comment.getTimestamp());
 
         // Load Profile Picture
         String userId = comment.getUserId();
+        profileImage.setTag(R.id.comment_avatar, userId);
+        ProfileStore.Summary profile = ProfileStore.getInstance().get(userId);
+        if (!userProfilePictures.containsKey(userId) && profile != null && profile.hasAvatar()
+                && ProfileStore.isFresh(profile, System.currentTimeMillis())) {
+            userProfilePictures.put(userId, profile.avatar);
+        }
         if (userProfilePictures.containsKey(userId)) {
             // Load cached image
-            Glide.with(context).load(userProfilePictures.get(userId)).into(profileImage);
+            Glide.with(profileImage).load(userProfilePictures.get(userId)).into(profileImage);
         } else {
+            if (profile != null && profile.hasAvatar()) {
+                // Show the stored avatar until the profile is re-read
+                Glide.with(profileImage).load(profile.avatar).into(profileImage);
+            }
             // Fetch from Firebase
             fetchUserProfilePicture(userId, profileImage);
         }
@@ -144,30 +239,31 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
 
                 replyUsername.setText(reply.getUsername());
                 replyContent.setText(reply.getContent());
-                String replyFormattedTime = sdf.format(new Date(reply.getTimestamp()));
-                replyTimestamp.setText(replyFormattedTime);
+                replyTimestamp.setText(dateFormatHelper.formatRelative(reply.getTimestamp()));
+                replyTimestamp.setTag(R.id.reply_timestamp, reply.getTimestamp());
 
                 repliesContainer.addView(replyView);
             }
         }
+        bindMoreReplies(moreReplies, comment, replies);
 
         // Check if the current user has liked this comment
         FirebaseFirestore db = FirebaseFirestore.getInstance();
         DocumentReference commentRef = db.collection("comments").document(comment.getId());
 
         AtomicInteger likes = new AtomicInteger();
-        commentRef.get().addOnSuccessListener(documentSnapshot -> {
+        metrics.track("CommentAdapter.loadLikeCount", commentRef.get()).addOnSuccessListener(documentSnapshot -> {
             if (documentSnapshot.getLong("likeCount") != null) {
                 likes.set(Math.toIntExact(documentSnapshot.getLong("likeCount")));
             }  else {
                 likes.set(0);
-                commentRef.update("likeCount", 0);
+                metrics.track("CommentAdapter.loadLikeCount", commentRef.update("likeCount", 0));
             }
         });
 
         likesView.setText(String.valueOf(comment.getLikeCount()));
 
-        commentRef.collection("likes").document(user).get().addOnSuccessListener(documentSnapshot -> {
+        metrics.track("CommentAdapter.loadIsLiked", commentRef.collection("likes").document(user).get()).addOnSuccessListener(documentSnapshot -> {
             final boolean[] isLiked = {documentSnapshot.exists()};
 
             if (isLiked[0]) {
@@ -194,8 +290,8 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
             likeButton.setText("Like");
             likeButton.setCompoundDrawablesWithIntrinsicBounds(R.drawable.ic_thumb_up, 0, 0, 0);
             likesView.setText(String.valueOf(likes.get() - 1));
-            commentRef.collection("likes").document(user).delete().addOnSuccessListener(aVoid -> {
-                commentRef.update("likeCount", com.google.firebase.firestore.FieldValue.increment(-1));
+            metrics.track("CommentAdapter.unlike", commentRef.collection("likes").document(user).delete()).addOnSuccessListener(aVoid -> {
+                metrics.track("CommentAdapter.unlike", commentRef.update("likeCount", com.google.firebase.firestore.FieldValue.increment(-1)));
                 Log.d("CommentAdapter", "Like removed successfully");
             }).addOnFailureListener(e -> {
                 Log.e("CommentAdapter", "Failed to remove like", e);
@@ -208,8 +304,8 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
             likeData.put("userId", user);
             likeData.put("timestamp", System.currentTimeMillis());
 
-            commentRef.collection("likes").document(user).set(likeData).addOnSuccessListener(aVoid -> {
-                commentRef.update("likeCount", com.google.firebase.firestore.FieldValue.increment(1));
+            metrics.track("CommentAdapter.like", commentRef.collection("likes").document(user).set(likeData)).addOnSuccessListener(aVoid -> {
+                metrics.track("CommentAdapter.like", commentRef.update("likeCount", com.google.firebase.firestore.FieldValue.increment(1)));
                 Log.d("CommentAdapter", "Like added successfully");
             }).addOnFailureListener(e -> {
                 Log.e("CommentAdapter", "Failed to add like", e);
@@ -217,15 +313,42 @@ public class CommentAdapter extends ArrayAdapter<Comment> {
         }
     }
 
+    /**
+     * Shows "View N replies" while a comment has replies that aren't loaded yet.
+     * Replies are only fetched when asked for, so a thread costs nothing until opened.
+     */
+    private void bindMoreReplies(TextView moreReplies, Comment comment, @Nullable List<Comment> loaded) {
+        int total = comment.getReplyIds() != null ? comment.getReplyIds().size() : 0;
+        int remaining = total - (loaded != null ? loaded.size() : 0);
+        boolean unloaded = loaded == null || parentsWithMoreReplies.contains(comment.getId());
+        if (!unloaded || remaining <= 0 || loadMoreRepliesListener == null) {
+            moreReplies.setVisibility(View.GONE);
+            moreReplies.setOnClickListener(null);
+            return;
+        }
+        String label = loaded == null ? "View " : "View more ";
+        moreReplies.setText(label + remaining + (remaining == 1 ? " reply" : " replies"));
+        moreReplies.setVisibility(View.VISIBLE);
+        moreReplies.setOnClickListener(v -> {
+            moreReplies.setText("Loading...");
+            moreReplies.setOnClickListener(null);
+            loadMoreRepliesListener.onLoadMoreReplies(comment.getId());
+        });
+    }
+
     private void fetchUserProfilePicture(String userId, ImageView profileImage) {
         FirebaseFirestore db = FirebaseFirestore.getInstance();
         DocumentReference userDocRef = db.collection("users").document(userId);
-        userDocRef.get().addOnSuccessListener(documentSnapshot -> {
+        metrics.track("CommentAdapter.fetchUserProfilePicture", userDocRef.get()).addOnSuccessListener(documentSnapshot -> {
             if (documentSnapshot.exists()) {
+                ProfileStore.getInstance().put(documentSnapshot);
                 String profilePicUrl = documentSnapshot.getString("avatar");
                 if (profilePicUrl != null && !profilePicUrl.isEmpty()) {
                     userProfilePictures.put(userId, profilePicUrl); // Cache it
-                    Glide.with(context).load(profilePicUrl).into(profileImage);
+                    // The row may have been recycled for another comment while this loaded
+                    if (userId.equals(profileImage.getTag(R.id.comment_avatar))) {
+                        Glide.with(profileImage).load(profilePicUrl).into(profileImage);
+                    }
                 }
             }
         }).addOnFailureListener(e -> {
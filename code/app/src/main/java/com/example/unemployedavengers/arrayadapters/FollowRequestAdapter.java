@@ -4,7 +4,7 @@
  * Purpose:
  * - Displays a list of follow requests in a `ListView`, where each request contains a user's username and options to either accept or ignore the request.
  * - Interacts with the `IUserDAO` interface to process follow requests (accept or reject) using the `UserDAOImplement` class.
- * - Dynamically updates the UI by removing the request from the list once it is accepted or ignored.
+ * - Hides the request through FollowRequestInbox as soon as it is accepted or ignored, and shows it again if the write fails.
  * - Utilizes `Toast` messages to provide feedback to the user when a request is processed.
  *
  * Design Pattern:
@@ -33,6 +33,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import com.example.unemployedavengers.DAO.IUserDAO;
+import com.example.unemployedavengers.FollowRequestInbox;
 import com.example.unemployedavengers.R;
 import com.example.unemployedavengers.implementationDAO.UserDAOImplement;
 import com.example.unemployedavengers.models.User;
@@ -66,26 +67,30 @@ public class FollowRequestAdapter extends ArrayAdapter<User> {
 
         usernameText.setText(requester.getUsername());
 
+        FollowRequestInbox inbox = FollowRequestInbox.getInstance();
+
         addButton.setOnClickListener(v -> {
-            userDAO.acceptFollowRequest(requester.getUserId(), currentUserId)
+            String requesterId = requester.getUserId();
+            inbox.hide(requesterId);
+            userDAO.acceptFollowRequest(requesterId, currentUserId)
                     .addOnSuccessListener(aVoid -> {
-                        requests.remove(position);
-                        notifyDataSetChanged();
                         Toast.makeText(getContext(), "Follow request accepted", Toast.LENGTH_SHORT).show();
                     })
                     .addOnFailureListener(e -> {
+                        inbox.show(requesterId);
                         Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     });
         });
 
         ignoreButton.setOnClickListener(v -> {
-            userDAO.rejectFollowRequest(requester.getUserId(), currentUserId)
+            String requesterId = requester.getUserId();
+            inbox.hide(requesterId);
+            userDAO.rejectFollowRequest(requesterId, currentUserId)
                     .addOnSuccessListener(aVoid -> {
-                        requests.remove(position);
-                        notifyDataSetChanged();
                         Toast.makeText(getContext(), "Follow request ignored", Toast.LENGTH_SHORT).show();
                     })
                     .addOnFailureListener(e -> {
+                        inbox.show(requesterId);
                         Toast.makeText(getContext(), "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
                     });
         });
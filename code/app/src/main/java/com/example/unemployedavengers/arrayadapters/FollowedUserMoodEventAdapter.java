@@ -13,12 +13,14 @@
  * - Fetches user information (username and profile picture) dynamically from Firestore in real-time, ensuring up-to-date data for each followed user.
  * - Supports dynamic updates by modifying the `userIdToUsernameMap` to allow the association of user IDs with usernames.
  * - Uses the `Glide` library to efficiently load and display user profile pictures from a URL.
+ * - createPreloader() returns a scroll listener that fetches the avatars and mood images of the rows
+ *   just below the visible ones, so they are usually cached by the time they scroll into view.
+ * - Usernames and avatars are drawn from `ProfileStore` first, so rows are complete on the first frame
+ *   even offline; a profile is only re-read when its stored copy is stale, once per user, and the
+ *   list is redrawn if it changed.
  *
  * Outstanding Issues:
- * - The asynchronous loading of usernames and profile pictures from Firestore might lead to delays in displaying complete information, causing a potential lag in rendering the `ListView`.
- * - The use of `getView` for database access in the UI thread could cause performance bottlenecks, especially with a large number of `MoodEvent` objects.
- * - Error handling is minimal: If Firestore retrieval fails, it defaults to the username "Unknown User", but further feedback or fallbacks might be needed to improve the user experience.
- * - The code could be optimized to avoid fetching user data multiple times if the user already exists in the `userIdToUsernameMap`.
+ * - Users seen for the first time while offline still show as "Unknown User" until their profile can be read.
  */
 
 package com.example.unemployedavengers.arrayadapters;
@@ -29,6 +31,7 @@ import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
 import android.widget.ArrayAdapter;
 
 import android.widget.ImageView;
@@ -39,30 +42,93 @@ import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
 
 import com.bumptech.glide.Glide;
+import com.bumptech.glide.ListPreloader;
+import com.bumptech.glide.RequestBuilder;
+import com.bumptech.glide.RequestManager;
+import com.bumptech.glide.request.RequestOptions;
+import com.bumptech.glide.request.target.Target;
+import com.example.unemployedavengers.DateFormatHelper;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.ProfileStore;
 import com.example.unemployedavengers.R;
 import com.example.unemployedavengers.models.MoodEvent;
-import com.google.android.gms.tasks.OnFailureListener;
-import com.google.android.gms.tasks.OnSuccessListener;
-import com.google.firebase.firestore.DocumentReference;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 public class FollowedUserMoodEventAdapter extends ArrayAdapter<MoodEvent> {
 
     private Context context;
     private Map<String, String> userIdToUsernameMap;
+    private final FirestoreMetrics metrics = FirestoreMetrics.getInstance();
+    private final ProfileStore profiles = ProfileStore.getInstance();
+    // Avatar URLs handed to Glide, so the preloader can size them like the row does
+    private final Set<String> avatarUrls = new HashSet<>();
+    // Users whose profile was already re-read, so each is read once however many rows they have
+    private final Set<String> refreshed = new HashSet<>();
+    // How many rows below the visible ones to preload
+    private static final int PRELOAD_ROWS = 6;
+    private static final int AVATAR_SIZE_DP = 36;
+    // Shared by the row and the preloader; Glide's memory cache key includes size and transformation
+    private final int avatarPx;
+    private final RequestOptions avatarOptions;
 
     public FollowedUserMoodEventAdapter(Context context, List<MoodEvent> moodEvents) {
         super(context, 0, moodEvents);
         this.context = context;
         this.userIdToUsernameMap = new HashMap<>();
+        this.avatarPx = Math.round(AVATAR_SIZE_DP * context.getResources().getDisplayMetrics().density);
+        // Matches the view's centerCrop, which Glide would otherwise add to the row's load only
+        this.avatarOptions = new RequestOptions().override(avatarPx).centerCrop();
+    }
+
+    /**
+     * Creates a scroll listener that preloads the images of upcoming rows: avatars at
+     * their row size into memory, and mood images into the disk cache for the detail view.
+     * @param requestManager Request manager of the fragment showing the list
+     * @return Listener to set on the ListView
+     */
+    public AbsListView.OnScrollListener createPreloader(RequestManager requestManager) {
+        ListPreloader.PreloadModelProvider<String> models = new ListPreloader.PreloadModelProvider<String>() {
+            @NonNull
+            @Override
+            public List<String> getPreloadItems(int position) {
+                if (position >= getCount()) return Collections.emptyList();
+                MoodEvent moodEvent = getItem(position);
+                if (moodEvent == null) return Collections.emptyList();
+                List<String> urls = new ArrayList<>(2);
+                ProfileStore.Summary summary = profiles.get(moodEvent.getUserId());
+                if (summary != null && summary.hasAvatar()) {
+                    avatarUrls.add(summary.avatar);
+                    urls.add(summary.avatar);
+                }
+                if (moodEvent.getImageUri() != null && !moodEvent.getImageUri().isEmpty()) {
+                    urls.add(moodEvent.getImageUri());
+                }
+                return urls;
+            }
+
+            @Nullable
+            @Override
+            public RequestBuilder<?> getPreloadRequestBuilder(@NonNull String url) {
+                if (avatarUrls.contains(url)) {
+                    // Same options as the row's own load, so the row hits the memory cache
+                    return requestManager.load(url).apply(avatarOptions);
+                }
+                return requestManager.download(url);
+            }
+        };
+        ListPreloader.PreloadSizeProvider<String> sizes = (url, adapterPosition, perItemPosition) ->
+                avatarUrls.contains(url)
+                        ? new int[]{avatarPx, avatarPx}
+                        : new int[]{Target.SIZE_ORIGINAL, Target.SIZE_ORIGINAL};
+        return new ListPreloader<>(requestManager, models, sizes, PRELOAD_ROWS);
     }
 
     /**
@@ -105,66 +171,47 @@ public class FollowedUserMoodEventAdapter extends ArrayAdapter<MoodEvent> {
         moodText.setText(moodEvent.getMood());
         moodText.setTextColor(getMoodColor(getContext(), moodEvent.getMood()));
 
-        // Format and set the date
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-        String formattedTime = sdf.format(new Date(moodEvent.getTime()));
-        dateText.setText(formattedTime);
+        // Format and set the date using the shared formatter
+        dateText.setText(DateFormatHelper.getInstance().formatAbsolute(moodEvent.getTime()));
 
-        // Set username
+        // Set username and avatar from the stored profile, re-reading it in the background if stale
         String userId = moodEvent.getUserId();
-        final String[] username = new String[]{"Unknown User"}; // Use array to allow modification within listener
-
-        if (userId != null) {
-
-            FirebaseFirestore db = FirebaseFirestore.getInstance();
-            DocumentReference userDocRef = db.collection("users").document(userId);
-
-            ImageView image = (ImageView) view.findViewById(R.id.profileIcon);
-
-            userDocRef.get().addOnSuccessListener(documentSnapshot -> {
-                if (documentSnapshot.exists()) {
-                    String profilePicUrl = documentSnapshot.getString("avatar");
-                    if (profilePicUrl != null && !profilePicUrl.isEmpty()) {
-                        Glide.with(context).load(profilePicUrl).into(image);
-                    }
-                }
-            }).addOnFailureListener(e -> {
-                Log.e("CommentAdapter", "Failed to load profile picture", e);
-            });
-
-            userDocRef.get()
-                    .addOnSuccessListener(new OnSuccessListener<DocumentSnapshot>() {
-                        @Override
-                        public void onSuccess(DocumentSnapshot documentSnapshot) {
-                            if (documentSnapshot.exists()) {
-                                // Get the username from the document
-                                String fetchedUsername = documentSnapshot.getString("username");
-                                if (fetchedUsername != null) {
-                                    username[0] = fetchedUsername;
-                                } else {
-                                    Log.d("GetUserID", "Username not found in document");
-                                }
-                            } else {
-                                Log.d("GetUserID", "No document found for userId: " + userId);
-                            }
-                            usernameText.setText(username[0]);
-                        }
-                    })
-                    .addOnFailureListener(new OnFailureListener() {
-                        @Override
-                        public void onFailure(Exception e) {
-                            Log.d("GetUserID", "Error getting document: " + e.getMessage());
-                            // On failure, set the default username
-                            usernameText.setText(username[0]);
-                        }
-                    });
+        ProfileStore.Summary summary = profiles.get(userId);
+        String username = summary != null ? summary.username : userIdToUsernameMap.get(userId);
+        usernameText.setText(username != null ? username : "Unknown User");
+
+        ImageView image = view.findViewById(R.id.profileIcon);
+        if (summary != null && summary.hasAvatar()) {
+            avatarUrls.add(summary.avatar);
+            Glide.with(image).load(summary.avatar).apply(avatarOptions).into(image);
         } else {
-            usernameText.setText(username[0]);
+            Glide.with(image).clear(image);
+            image.setImageResource(R.drawable.ic_person);
+        }
+
+        if (userId != null && !ProfileStore.isFresh(summary, System.currentTimeMillis())) {
+            refreshProfile(userId);
         }
 
         return view;
     }
 
+    /**
+     * Re-reads a user's profile into the store and redraws the list if it changed.
+     * @param userId The user to read
+     */
+    private void refreshProfile(String userId) {
+        if (!refreshed.add(userId)) return;
+        metrics.track("FollowedUserMoodEventAdapter.loadProfile",
+                        FirebaseFirestore.getInstance().collection("users").document(userId).get())
+                .addOnSuccessListener(documentSnapshot -> {
+                    if (profiles.put(documentSnapshot)) {
+                        notifyDataSetChanged();
+                    }
+                })
+                .addOnFailureListener(e -> Log.d("GetUserID", "Error getting document: " + e.getMessage()));
+    }
+
     // Method to return a color based on mood
     private int getMoodColor(Context context, String mood) {
         String lowerMood = mood.toLowerCase(); // Normalize case
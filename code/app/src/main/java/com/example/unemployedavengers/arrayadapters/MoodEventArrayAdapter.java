@@ -5,7 +5,7 @@
  * - Binds `MoodEvent` objects to a custom layout (`mood_event.xml`) for display in a `ListView`.
  * - Displays the mood and its timestamp for each event.
  * - Applies color styling to the mood text based on the mood type (e.g., red for anger, blue for fear).
- * - Utilizes `SimpleDateFormat` to format the timestamp for each `MoodEvent` for better readability.
+ * - Utilizes the shared `DateFormatHelper` to format the timestamp for each `MoodEvent` for better readability.
  *
  * Design Pattern:
  * - Implements the `ArrayAdapter` design pattern to efficiently display a list of objects in a `ListView`.
@@ -30,15 +30,13 @@ import android.widget.ArrayAdapter;
 
 import androidx.core.content.ContextCompat;
 
+import com.example.unemployedavengers.DateFormatHelper;
 import com.example.unemployedavengers.R;
 
 
 import com.example.unemployedavengers.models.MoodEvent;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.List;
-import java.util.Locale;
 
 /*
  An array adapter that takes moodevent objects and format them according to mood_event.xml (showing only mood and date)
@@ -67,10 +65,8 @@ public class MoodEventArrayAdapter extends ArrayAdapter<MoodEvent> {
             moodTextView.setText(moodEvent.getMood());
             moodTextView.setTextColor(getMoodColor(getContext(), moodEvent.getMood()));
 
-            // Format time using SimpleDateFormat
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-            String formattedTime = sdf.format(new Date(moodEvent.getTime()));
-            timeTextView.setText(formattedTime);
+            // Format time using the shared formatter
+            timeTextView.setText(DateFormatHelper.getInstance().formatAbsolute(moodEvent.getTime()));
         }
 
         return convertView;
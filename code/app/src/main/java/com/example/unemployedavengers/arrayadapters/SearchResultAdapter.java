@@ -0,0 +1,85 @@
+/**
+ * SearchResultAdapter - Shows mood and comment search results in a ListView.
+ *
+ * Purpose:
+ * - Displays each result's mood or comment author and time, with a snippet of the
+ *   matching text where the matched words are bold and in the theme colour.
+ *
+ * Known Issues:
+ * - Results are only as fresh as the local search index; moods that haven't been
+ *   loaded on this device aren't found.
+ *
+ * Design Patterns:
+ * - Follows the Adapter design pattern like the other adapters; highlighting uses
+ *   the character ranges computed by MoodSearchIndex, so no text is re-matched here.
+ */
+
+package com.example.unemployedavengers.arrayadapters;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.Typeface;
+import android.text.SpannableString;
+import android.text.Spanned;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.example.unemployedavengers.DateFormatHelper;
+import com.example.unemployedavengers.MoodSearchIndex;
+import com.example.unemployedavengers.R;
+import com.example.unemployedavengers.models.Comment;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.List;
+
+public class SearchResultAdapter extends ArrayAdapter<MoodSearchIndex.Result> {
+    private static final int HIGHLIGHT_COLOR = Color.parseColor("#F88379");
+
+    public SearchResultAdapter(Context context, List<MoodSearchIndex.Result> results) {
+        super(context, 0, results);
+    }
+
+    @NonNull
+    @Override
+    public View getView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
+        View view = convertView;
+        if (view == null) {
+            view = LayoutInflater.from(getContext()).inflate(R.layout.search_result_item, parent, false);
+        }
+        MoodSearchIndex.Result result = getItem(position);
+        TextView title = view.findViewById(R.id.result_title);
+        TextView snippet = view.findViewById(R.id.result_snippet);
+        if (result == null) {
+            return view;
+        }
+
+        DateFormatHelper dates = DateFormatHelper.getInstance();
+        if (result.getType() == MoodSearchIndex.Type.COMMENT) {
+            Comment comment = result.getComment();
+            title.setText("💬 " + comment.getUsername() + " · " + dates.formatRelative(comment.getTimestamp()));
+        } else {
+            MoodEvent moodEvent = result.getMoodEvent();
+            title.setText(moodEvent.getMood() + " · " + moodEvent.getUserName()
+                    + " · " + dates.formatRelative(moodEvent.getTime()));
+        }
+        snippet.setText(highlight(result));
+        return view;
+    }
+
+    private static SpannableString highlight(MoodSearchIndex.Result result) {
+        SpannableString text = new SpannableString(result.getSnippet());
+        for (int[] range : result.getHighlights()) {
+            text.setSpan(new StyleSpan(Typeface.BOLD), range[0], range[1], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+            text.setSpan(new ForegroundColorSpan(HIGHLIGHT_COLOR), range[0], range[1], Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        }
+        return text;
+    }
+}
@@ -96,9 +96,9 @@ public class Profile extends Fragment {
         userDAO = new UserDAOImplement();
         userDAO.getCurrentUserProfile()
                 .addOnSuccessListener(user -> {
-                    if (user.getAvatar() != null && !user.getAvatar().isEmpty()) {
-                        Glide.with(requireContext())
-                                .load(Uri.parse(user.getAvatar()))
+                    if (isAdded() && user.getAvatar() != null && !user.getAvatar().isEmpty()) {
+                        Glide.with(this)
+                                .load(user.getAvatar())
                                 .into(imagePreview);
                     }
                 })
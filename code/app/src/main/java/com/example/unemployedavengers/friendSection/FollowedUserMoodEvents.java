@@ -10,14 +10,17 @@
  * Architecture:
  * - Follows MVVM pattern using FriendMoodEventsViewModel
  * - Uses Firestore for real-time data
- * - Implements efficient loading with pagination (limit 10 docs per user)
+ * - Loads a bounded number of docs per user and picks the feed with FeedSelector
+ * - Reads through FeedManager; after a background prefetch (FeedPrefetchWorker) the cached feed
+ *   shows at once and only newer moods are fetched
  *
  * Outstanding Issues/TODOs:
  * 1. No pagination/infinite scrolling implementation for large mood histories
  * 2. Filtering could be optimized by moving to server-side queries
  * 3. No error handling for cases where username lookup fails
  * 4. Could benefit from pull-to-refresh functionality
- * 5. Hardcoded limit of 3 moods per user in aggregate view
+ * 5. The aggregate view shows either the newest moods of each followee or the newest overall (FeedSelector);
+ *    filters apply to that selection, not to each followee's full history
  *
  * Dependencies:
  * - Requires Firestore database structure with 'users' and 'moods' collections
@@ -33,6 +36,7 @@ import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
 import android.widget.Button;
 import android.widget.Toast;
 
@@ -42,11 +46,21 @@ import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 import androidx.navigation.Navigation;
 
+import com.bumptech.glide.Glide;
+import com.bumptech.glide.RequestManager;
+import com.example.unemployedavengers.FeedModeStore;
+import com.example.unemployedavengers.FeedPrefetchWorker;
+import com.example.unemployedavengers.FeedSelector;
+import com.example.unemployedavengers.MoodSearchIndex;
 import com.example.unemployedavengers.Filter;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.FollowGraph;
+import com.example.unemployedavengers.ProfileStore;
 import com.example.unemployedavengers.R;
 import com.example.unemployedavengers.arrayadapters.FollowedUserMoodEventAdapter;
 
 import com.example.unemployedavengers.databinding.FollowedUserMoodEventsBinding;
+import com.example.unemployedavengers.implementationDAO.FeedManager;
 import com.example.unemployedavengers.models.FriendMoodEventsViewModel;
 import com.example.unemployedavengers.models.MoodEvent;
 import com.example.unemployedavengers.models.MoodEventsViewModel;
@@ -61,7 +75,6 @@ import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -69,6 +82,7 @@ import java.util.Map;
 public class FollowedUserMoodEvents extends Fragment {
     private FollowedUserMoodEventsBinding binding;
     private FirebaseFirestore db;
+    private final FirestoreMetrics metrics = FirestoreMetrics.getInstance();
     private String currentUserId;
     private ArrayList<MoodEvent> followedUserMoodEvents;
     private FollowedUserMoodEventAdapter moodAdapter;
@@ -80,6 +94,10 @@ public class FollowedUserMoodEvents extends Fragment {
     private FollowedUserMoodEventAdapter filteredMoodAdapter;
     private List<String> followedUserIds;
     private boolean isFiltered = false;
+    private FeedSelector.Mode feedMode;
+    private final FeedManager feedManager = new FeedManager();
+    // Bumped by every feed load, so callbacks of a replaced load are ignored
+    private int feedGeneration;
     private boolean isMood, isReason,isWeek, seeAllSelect;
 
     @Override
@@ -108,6 +126,7 @@ public class FollowedUserMoodEvents extends Fragment {
         filteredMoodList = new ArrayList<>();
         filteredMoodAdapter = new FollowedUserMoodEventAdapter(requireContext(), filteredMoodList);
         binding.followedUsersListView.setAdapter(moodAdapter);
+        setUpPreloading();
 
         // Check if we're in single user view mode
         singleUserView = false;
@@ -120,15 +139,31 @@ public class FollowedUserMoodEvents extends Fragment {
             singleUsername = getArguments().getString("followedUsername");
         }
 
-        // Hide the button if we are in single view
+        // Hide the buttons if we are in single view
         if (singleUserView) {
             binding.filterButton.setVisibility(View.GONE);
             binding.filterButton.setEnabled(false);
+            binding.feedModeButton.setVisibility(View.GONE);
         } else {
             binding.filterButton.setVisibility(View.VISIBLE);
             binding.filterButton.setEnabled(true);
+            binding.feedModeButton.setVisibility(View.VISIBLE);
         }
 
+        // Feed mode the user chose last time; switching it reloads the feed
+        feedMode = FeedModeStore.load(requireContext());
+        binding.feedModeButton.setText(feedMode.label);
+        binding.feedModeButton.setOnClickListener(v -> {
+            feedMode = feedMode.next();
+            FeedModeStore.save(requireContext(), feedMode);
+            binding.feedModeButton.setText(feedMode.label);
+            if (followedUserIds != null && !followedUserIds.isEmpty()) {
+                isFiltered = false;
+                binding.progressBar.setVisibility(View.VISIBLE);
+                loadMoodEvents(followedUserIds);
+            }
+        });
+
         // Update UI title based on view mode
         if (singleUserView && singleUsername != null) {
             binding.tvFriendsMoodTitle.setText(singleUsername + "'s Mood History");
@@ -202,14 +237,23 @@ public class FollowedUserMoodEvents extends Fragment {
                     for (MoodEvent event : filterMoodList) {
                         if (event.getUserId() != null) {
                             String userId = event.getUserId();
+                            // Use the stored username; re-read it only if it is stale
+                            ProfileStore.Summary stored = ProfileStore.getInstance().get(userId);
+                            if (stored != null) {
+                                event.setUserName(stored.username);
+                                if (ProfileStore.isFresh(stored, System.currentTimeMillis())) {
+                                    continue;
+                                }
+                            }
                             FirebaseFirestore db = FirebaseFirestore.getInstance();
                             DocumentReference userDocRef = db.collection("users").document(userId);
 
-                            userDocRef.get()
+                            metrics.track("FollowedUserMoodEvents.loadFilteredUsername", userDocRef.get())
                                     .addOnSuccessListener(new OnSuccessListener<DocumentSnapshot>() {
                                         @Override
                                         public void onSuccess(DocumentSnapshot documentSnapshot) {
                                             if (documentSnapshot.exists()) {
+                                                ProfileStore.getInstance().put(documentSnapshot);
                                                 String username = documentSnapshot.getString("username");
                                                 if (username != null) {
                                                     event.setUserName(username);
@@ -281,6 +325,31 @@ public class FollowedUserMoodEvents extends Fragment {
         });
     }
 
+    /**
+     * Preloads images for rows below the visible ones, using the preloader of
+     * whichever adapter (all moods or filtered) the list currently shows.
+     */
+    private void setUpPreloading() {
+        RequestManager requestManager = Glide.with(this);
+        AbsListView.OnScrollListener allPreloader = moodAdapter.createPreloader(requestManager);
+        AbsListView.OnScrollListener filteredPreloader = filteredMoodAdapter.createPreloader(requestManager);
+        binding.followedUsersListView.setOnScrollListener(new AbsListView.OnScrollListener() {
+            private AbsListView.OnScrollListener current(AbsListView view) {
+                return view.getAdapter() == filteredMoodAdapter ? filteredPreloader : allPreloader;
+            }
+
+            @Override
+            public void onScrollStateChanged(AbsListView view, int scrollState) {
+                current(view).onScrollStateChanged(view, scrollState);
+            }
+
+            @Override
+            public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+                current(view).onScroll(view, firstVisibleItem, visibleItemCount, totalItemCount);
+            }
+        });
+    }
+
     /**
      * Loads mood events from a single user
      * Only shows public mood events
@@ -297,11 +366,11 @@ public class FollowedUserMoodEvents extends Fragment {
         followedUserMoodEvents.clear();
 
         // Get the user's mood events
-        db.collection("users")
+        metrics.track("FollowedUserMoodEvents.loadSingleUserMoods", db.collection("users")
                 .document(userId)
                 .collection("moods")
                 .orderBy("time", Query.Direction.DESCENDING) // Sort by time descending (newest first)
-                .get()
+                .get())
                 .addOnSuccessListener(querySnapshot -> {
                     // Check if the fragment is still active
                     if (binding == null) {
@@ -326,6 +395,7 @@ public class FollowedUserMoodEvents extends Fragment {
                             }
 
                             followedUserMoodEvents.add(moodEvent);
+                            MoodSearchIndex.getInstance().putMood(moodEvent);
                         }
                     }
 
@@ -374,24 +444,16 @@ public class FollowedUserMoodEvents extends Fragment {
             return;
         }
 
-        db.collection("users")
-                .document(currentUserId)
-                .collection("following")
-                .get()
-                .addOnSuccessListener(querySnapshot -> {
+        FollowGraph followGraph = FollowGraph.getInstance();
+        followGraph.start(requireContext(), currentUserId);
+        followGraph.getFollowing(currentUserId)
+                .addOnSuccessListener(followingIds -> {
                     // Check if the fragment is still active
                     if (binding == null) {
                         return;
                     }
 
-                    followedUserIds = new ArrayList<>();
-
-                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
-                        String followedId = document.getString("followedId");
-                        if (followedId != null) {
-                            followedUserIds.add(followedId);
-                        }
-                    }
+                    followedUserIds = new ArrayList<>(followingIds);
 
                     if (followedUserIds.isEmpty()) {
                         if (binding == null) return;
@@ -425,18 +487,35 @@ public class FollowedUserMoodEvents extends Fragment {
      * @param userIds List of user IDs to load usernames for
      */
     private void loadUsernames(List<String> userIds) {
+        // With every followed user stored, show the feed now; the adapter re-reads stale profiles
+        ProfileStore profiles = ProfileStore.getInstance();
+        boolean allStored = true;
+        for (String userId : userIds) {
+            ProfileStore.Summary stored = profiles.get(userId);
+            if (stored != null) {
+                userIdToUsernameMap.put(userId, stored.username);
+            } else {
+                allStored = false;
+            }
+        }
+        if (allStored) {
+            loadMoodEvents(userIds);
+            return;
+        }
+
         int[] completedCount = {0}; // Use array to allow modification in lambda
 
         for (String userId : userIds) {
-            db.collection("users")
+            metrics.track("FollowedUserMoodEvents.loadUsernames", db.collection("users")
                     .document(userId)
-                    .get()
+                    .get())
                     .addOnSuccessListener(documentSnapshot -> {
                         // Check if the fragment is still active
                         if (binding == null) {
                             return;
                         }
 
+                        profiles.put(documentSnapshot);
                         User user = documentSnapshot.toObject(User.class);
                         if (user != null && user.getUsername() != null) {
                             // Store username mapping
@@ -478,86 +557,79 @@ public class FollowedUserMoodEvents extends Fragment {
         }
 
         followedUserMoodEvents.clear();
-        int[] completedCount = {0}; // Use array to allow modification in lambda
-
-        for (String userId : userIds) {
-            // Get all mood events and filter client-side if needed
-            db.collection("users")
-                    .document(userId)
-                    .collection("moods")
-                    .orderBy("time", Query.Direction.DESCENDING) // Sort by time descending (newest first)
-                    .limit(10) // Get more than we need in case some are private
-                    .get()
-                    .addOnSuccessListener(querySnapshot -> {
-                        // Check if the fragment is still active
-                        if (binding == null) {
+        FeedSelector selector = new FeedSelector(feedMode);
+        int generation = ++feedGeneration;
+
+        // After a background prefetch the cached feed is shown first, then only newer moods are fetched
+        boolean warm = FeedPrefetchWorker.isWarm(requireContext(), currentUserId);
+        feedManager.loadFeed(userIds, selector.getFetchLimit(), warm, "FollowedUserMoodEvents.loadMoodEvents",
+                new FeedManager.FeedListener() {
+                    @Override
+                    public void onMoods(String userId, List<MoodEvent> moods) {
+                        // Check if the fragment is still active and this is still the current load
+                        if (binding == null || generation != feedGeneration) {
                             return;
                         }
 
-                        int count = 0;
-                        for (QueryDocumentSnapshot doc : querySnapshot) {
-                            MoodEvent moodEvent = doc.toObject(MoodEvent.class);
-
-                            // Only add public mood events
-                            // If publicStatus doesn't exist or is true, show the mood
-                            Boolean isPublic = doc.contains("publicStatus") ?
-                                    doc.getBoolean("publicStatus") : true;
-
-                            if (isPublic != null && isPublic) {
-                                // Set the user ID so we can display the username
-                                moodEvent.setUserId(userId);
-
-                                // Set username for the mood event for easier access later
-                                if (userIdToUsernameMap.containsKey(userId)) {
-                                    moodEvent.setUserName(userIdToUsernameMap.get(userId));
-                                }
+                        setUserNames(userId, moods);
 
-                                followedUserMoodEvents.add(moodEvent);
-                                count++;
+                        // Keep this followee's share of the feed for the chosen mode
+                        // (a missing publicStatus field deserializes as public)
+                        selector.offerAll(userId, moods);
+                    }
 
-                                // Only take the 3 most recent public moods
-                                if (count >= 3) {
-                                    break;
-                                }
-                            }
+                    @Override
+                    public void onReplaced(String userId, List<MoodEvent> moods) {
+                        if (binding == null || generation != feedGeneration) {
+                            return;
                         }
+                        setUserNames(userId, moods);
 
-                        completedCount[0]++;
-
-                        // When all mood events are loaded, update the UI
-                        if (completedCount[0] >= userIds.size()) {
-                            // Sort all mood events by time in reverse chronological order
-                            Collections.sort(followedUserMoodEvents, new Comparator<MoodEvent>() {
-                                @Override
-                                public int compare(MoodEvent event1, MoodEvent event2) {
-                                    // Compare in reverse order for descending sort (newest first)
-                                    return Long.compare(event2.getTime(), event1.getTime());
-                                }
-                            });
+                        // The server's moods replace the cached ones, which may be deleted or private by now
+                        selector.replaceAll(userId, moods);
+                    }
 
-                            updateUI();
-                        }
-                    })
-                    .addOnFailureListener(e -> {
-                        // Check if the fragment is still active
-                        if (binding == null) {
+                    @Override
+                    public void onSettled(boolean fromCache) {
+                        if (binding == null || generation != feedGeneration) {
                             return;
                         }
-
-                        completedCount[0]++;
-
-                        // Continue updating UI even if some mood events fail to load
-                        if (completedCount[0] >= userIds.size()) {
-                            updateUI();
+                        showSelectedFeed(selector);
+                        // Only the final feed is searchable; earlier offers may since have been pushed out
+                        if (!fromCache) {
+                            MoodSearchIndex.getInstance().putMoods(followedUserMoodEvents);
                         }
-                    });
-        }
+                    }
+                });
 
         binding.followedUsersListView.setAdapter(moodAdapter);
         moodAdapter.notifyDataSetChanged();
 
     }
 
+    /**
+     * Sets the username on mood events for easier access later
+     * @param userId The followee the mood events belong to
+     * @param moods The followee's mood events
+     */
+    private void setUserNames(String userId, List<MoodEvent> moods) {
+        if (userIdToUsernameMap.containsKey(userId)) {
+            for (MoodEvent moodEvent : moods) {
+                moodEvent.setUserName(userIdToUsernameMap.get(userId));
+            }
+        }
+    }
+
+    /**
+     * Shows the selected feed, newest first
+     * @param selector Selector every followee's mood events were offered to
+     */
+    private void showSelectedFeed(FeedSelector selector) {
+        followedUserMoodEvents.clear();
+        followedUserMoodEvents.addAll(selector.result());
+        updateUI();
+    }
+
     /**
      * Updates the UI with loaded mood events
      */
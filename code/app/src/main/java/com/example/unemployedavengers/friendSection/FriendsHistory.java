@@ -35,6 +35,9 @@ import androidx.annotation.Nullable;
 import androidx.fragment.app.Fragment;
 import androidx.navigation.Navigation;
 
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.FollowGraph;
+import com.example.unemployedavengers.ProfileStore;
 import com.example.unemployedavengers.R;
 import com.example.unemployedavengers.databinding.FriendsHistoryBinding;
 import com.example.unemployedavengers.models.User;
@@ -49,6 +52,7 @@ import java.util.List;
 public class FriendsHistory extends Fragment {
     private FriendsHistoryBinding binding;
     private FirebaseFirestore db;
+    private final FirestoreMetrics metrics = FirestoreMetrics.getInstance();
     private String currentUserId;
     private List<User> followedUsers;
     private ArrayAdapter<String> friendsAdapter;
@@ -102,10 +106,9 @@ public class FriendsHistory extends Fragment {
     }
 
     private void loadFriendsList() {
-        db.collection("users")
-                .document(currentUserId)
-                .collection("following")
-                .get()
+        FollowGraph followGraph = FollowGraph.getInstance();
+        followGraph.start(requireContext(), currentUserId);
+        followGraph.getFollowing(currentUserId)
                 .addOnCompleteListener(task -> {
                     // Check if the fragment is still active
                     if (binding == null) {
@@ -113,18 +116,7 @@ public class FriendsHistory extends Fragment {
                     }
 
                     if (task.isSuccessful()) {
-                        if (task.getResult().isEmpty()) {
-                            updateUIForEmptyFriendsList();
-                            return;
-                        }
-
-                        List<String> followedUserIds = new ArrayList<>();
-                        for (DocumentSnapshot doc : task.getResult().getDocuments()) {
-                            String followedUserId = doc.getString("followedId");
-                            if (followedUserId != null) {
-                                followedUserIds.add(followedUserId);
-                            }
-                        }
+                        List<String> followedUserIds = task.getResult();
 
                         // Only fetch details if we have followed user IDs
                         if (!followedUserIds.isEmpty()) {
@@ -142,9 +134,9 @@ public class FriendsHistory extends Fragment {
         List<Task<DocumentSnapshot>> tasks = new ArrayList<>();
 
         for (String userId : followedUserIds) {
-            Task<DocumentSnapshot> task = db.collection("users")
+            Task<DocumentSnapshot> task = metrics.track("FriendsHistory.fetchFollowedUser", db.collection("users")
                     .document(userId)
-                    .get();
+                    .get());
             tasks.add(task);
         }
 
@@ -165,6 +157,7 @@ public class FriendsHistory extends Fragment {
                                 DocumentSnapshot documentSnapshot = task.getResult();
 
                                 if (documentSnapshot != null && documentSnapshot.exists()) {
+                                    ProfileStore.getInstance().put(documentSnapshot);
                                     User user = documentSnapshot.toObject(User.class);
 
                                     if (user != null) {
@@ -10,15 +10,18 @@
  * - Display mood event details (mood, time, reason, situation, and image).
  * - Allow users to add top-level comments or replies to existing comments.
  * - Display comments and replies dynamically from Firebase Firestore.
+ * - Comments load a page at a time, newest first; the next page is fetched as the list nears its end or
+ *   when "Load more comments" is tapped. Replies stay unloaded until their "View replies" link is tapped.
  * - Handle comment deletion and update the UI accordingly.
+ * - Every loaded page keeps a snapshot listener; changes are patched into a CommentThread and only the rows
+ *   they touch are redrawn, so other users' comments, replies and likes appear without reloading.
  * - Allows navigation back to the previous screen with context-aware routing.
  *
  * Outstanding Issues:
- * - Ensure the UI updates in real-time when other users add comments or replies (currently, only the user
- *   who adds comments sees their changes immediately).
+ * - If more new comments arrive than fit in the first page while the thread is open, the oldest comments
+ *   pushed out of it stop updating live until the fragment is reopened.
  * - Handle potential edge cases related to missing or incomplete mood event data (e.g., missing image URL,
  *   username, etc.).
- * - Optimize comment loading performance, particularly for mood events with a large number of comments.
  */
 
 
@@ -37,6 +40,7 @@ import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.AbsListView;
 import android.widget.Button;
 import android.widget.EditText;
 import android.widget.ImageView;
@@ -53,6 +57,10 @@ import androidx.navigation.Navigation;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.request.target.Target;
+import com.example.unemployedavengers.CommentThread;
+import com.example.unemployedavengers.DateFormatHelper;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.ProfileStore;
 import com.example.unemployedavengers.R;
 import com.example.unemployedavengers.arrayadapters.CommentAdapter;
 import com.example.unemployedavengers.databinding.MoodDetailBinding;
@@ -60,26 +68,32 @@ import com.example.unemployedavengers.implementationDAO.CommentManager;
 import com.example.unemployedavengers.models.Comment;
 import com.example.unemployedavengers.models.MoodEvent;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Fragment for displaying a mood event's details and comments
  */
 public class MoodDetailFragment extends Fragment {
+    private static final int COMMENT_PAGE_SIZE = 20;
+    private static final int REPLY_PAGE_SIZE = 10;
+    // Start loading the next page once the list is this many rows from its end
+    private static final int PREFETCH_ROWS = 5;
+
     private MoodDetailBinding binding;
     private MoodEvent moodEvent;
     private CommentAdapter commentAdapter;
     private CommentManager commentManager;
+    private final CommentThread thread = new CommentThread();
     private List<Comment> comments;
-    private Map<String, List<Comment>> repliesMap;
     private String currentUserId;
     private String currentUsername;
     private EditText commentInput;
@@ -87,6 +101,21 @@ public class MoodDetailFragment extends Fragment {
     private String replyingToCommentId;
     private View replyView;
     private String source;
+    private Runnable timestampTicker;
+
+    // Paging state; commentGeneration is bumped whenever the listeners are removed so late snapshots are dropped
+    private final List<ListenerRegistration> pageRegistrations = new ArrayList<>();
+    private DocumentSnapshot commentCursor;
+    private int commentPages;
+    private boolean hasMoreComments;
+    private boolean loadingComments;
+    private int commentGeneration;
+    private long commentTotal;
+    private final Set<String> expandedReplies = new HashSet<>();
+    private final Map<String, DocumentSnapshot> replyCursors = new HashMap<>();
+    private final Map<String, Integer> replyPages = new HashMap<>();
+    private final Map<String, Boolean> replyHasMore = new HashMap<>();
+    private final Set<String> loadingReplies = new HashSet<>();
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater,
@@ -102,8 +131,8 @@ public class MoodDetailFragment extends Fragment {
 
         // Initialize CommentManager
         commentManager = new CommentManager();
-        comments = new ArrayList<>();
-        repliesMap = new HashMap<>();
+        // The adapter shows the thread's live top-level list
+        comments = thread.getTopLevel();
 
         // Get current user info
         SharedPreferences sharedPreferences = requireActivity().getSharedPreferences("user_preferences", Context.MODE_PRIVATE);
@@ -119,6 +148,26 @@ public class MoodDetailFragment extends Fragment {
         // Set up comment adapter
         commentAdapter = new CommentAdapter(requireContext(), comments, currentUserId);
         commentsList.setAdapter(commentAdapter);
+        commentAdapter.setOnLoadMoreRepliesListener(this::loadMoreReplies);
+
+        // Prefetch the next page before the user reaches the end of the list
+        commentsList.setOnScrollListener(new AbsListView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(AbsListView view, int scrollState) {
+            }
+
+            @Override
+            public void onScroll(AbsListView view, int firstVisibleItem, int visibleItemCount, int totalItemCount) {
+                if (totalItemCount > 0 && firstVisibleItem + visibleItemCount >= totalItemCount - PREFETCH_ROWS) {
+                    loadNextCommentPage();
+                }
+            }
+        });
+        binding.loadMoreComments.setOnClickListener(v -> loadNextCommentPage());
+
+        // Keep "5 min ago" labels current without rebinding whole rows
+        timestampTicker = () -> commentAdapter.refreshTimestamps(commentsList);
+        DateFormatHelper.getInstance().addTickListener(timestampTicker);
 
         // Get mood event from arguments
         if (getArguments() != null) {
@@ -166,10 +215,10 @@ public class MoodDetailFragment extends Fragment {
                 builder.setMessage("Are you sure you want to delete this comment?");
                 builder.setPositiveButton("Delete", (dialog, which) -> {
                     CommentManager commentManager = new CommentManager();
+                    // The page listener removes it from the list
                     commentManager.deleteComment(comments.get(i).getId())
                             .addOnSuccessListener(aVoid -> {
                                 Toast.makeText(getActivity(), "Comment deleted", Toast.LENGTH_SHORT).show();
-                                loadComments();
                             })
                             .addOnFailureListener(e -> {
                                 Toast.makeText(getActivity(), "Failed to delete comment", Toast.LENGTH_SHORT).show();
@@ -185,13 +234,23 @@ public class MoodDetailFragment extends Fragment {
                 return true;
         });
 
+        // Show the stored avatar at once; re-read the profile only if it is stale
+        ImageView authorPicture = view.findViewById(R.id.event_author_picture);
+        ProfileStore.Summary author = ProfileStore.getInstance().get(moodEvent.getUserId());
+        if (author != null && author.hasAvatar()) {
+            Glide.with(this).load(author.avatar).into(authorPicture);
+        }
+        if (ProfileStore.isFresh(author, System.currentTimeMillis())) {
+            return;
+        }
         FirebaseFirestore db = FirebaseFirestore.getInstance();
         DocumentReference userDocRef = db.collection("users").document(moodEvent.getUserId());
-        userDocRef.get().addOnSuccessListener(documentSnapshot -> {
+        FirestoreMetrics.getInstance().track("MoodDetailFragment.loadAvatar", userDocRef.get()).addOnSuccessListener(documentSnapshot -> {
             if (documentSnapshot.exists()) {
+                ProfileStore.getInstance().put(documentSnapshot);
                 String profilePicUrl = documentSnapshot.getString("avatar");
-                if (profilePicUrl != null && !profilePicUrl.isEmpty()) {
-                    Glide.with(getActivity()).load(profilePicUrl).into((ImageView) view.findViewById(R.id.event_author_picture));
+                if (isAdded() && profilePicUrl != null && !profilePicUrl.isEmpty()) {
+                    Glide.with(this).load(profilePicUrl).into(authorPicture);
                 }
             }
         }).addOnFailureListener(e -> {
@@ -207,9 +266,7 @@ public class MoodDetailFragment extends Fragment {
         binding.tvMoodType.setTextColor(getMoodColor(requireContext(), moodEvent.getMood()));
 
         // Format timestamp
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm", Locale.getDefault());
-        String formattedTime = sdf.format(new Date(moodEvent.getTime()));
-        binding.tvMoodTime.setText(formattedTime);
+        binding.tvMoodTime.setText(DateFormatHelper.getInstance().formatAbsolute(moodEvent.getTime()));
 
         // Set username
         binding.tvMoodUsername.setText(moodEvent.getUserName());
@@ -237,7 +294,7 @@ public class MoodDetailFragment extends Fragment {
         // Load image if available
         if (moodEvent.getImageUri() != null && !moodEvent.getImageUri().isEmpty()) {
             binding.ivMoodImage.setVisibility(VISIBLE);
-            Glide.with(requireContext())
+            Glide.with(this)
                     .load(moodEvent.getImageUri())
                     .into(binding.ivMoodImage);
         } else {
@@ -266,44 +323,164 @@ public class MoodDetailFragment extends Fragment {
         return ContextCompat.getColor(context, R.color.black); // Default color
     }
 
+    /**
+     * Drops any loaded comments and listens to the first page, plus the total count.
+     */
     private void loadComments() {
         if (moodEvent == null || moodEvent.getId() == null) {
             return;
         }
 
-        commentManager.getCommentsForMoodEvent(moodEvent.getId(), false)
-                .addOnSuccessListener(topLevelComments -> {
-                    comments.clear();
-                    comments.addAll(topLevelComments);
+        removePageListeners();
+        thread.clear();
+        expandedReplies.clear();
+        replyCursors.clear();
+        replyPages.clear();
+        replyHasMore.clear();
+        loadingReplies.clear();
+        commentCursor = null;
+        commentPages = 0;
+        hasMoreComments = true;
+        loadingComments = false;
+        commentAdapter.notifyDataSetChanged();
+        loadNextCommentPage();
+        refreshCommentCount();
+    }
+
+    private void refreshCommentCount() {
+        int generation = commentGeneration;
+        commentManager.countComments(moodEvent.getId())
+                .addOnSuccessListener(count -> {
+                    if (binding == null || generation != commentGeneration) return;
+                    commentTotal = count;
+                    updateCommentCount();
+                })
+                .addOnFailureListener(e -> Log.d("MoodDetailFragment", "Comment count failed", e));
+    }
 
-                    // Update comment count
-                    View view = getView();
-                    if (view != null) {
-                        TextView commentCount = view.findViewById(R.id.comment_count);
-                        commentCount.setText(String.valueOf(comments.size()));
+    /**
+     * Listens to the next page of top-level comments, unless one is loading or none are left.
+     * Every page keeps its listener, so edits anywhere in the loaded thread show up live;
+     * the first page also receives new comments.
+     */
+    private void loadNextCommentPage() {
+        if (moodEvent == null || moodEvent.getId() == null || loadingComments || !hasMoreComments) {
+            return;
+        }
+        loadingComments = true;
+        int page = commentPages++;
+        int generation = commentGeneration;
+        pageRegistrations.add(commentManager.listenToCommentPage(moodEvent.getId(), commentCursor, COMMENT_PAGE_SIZE,
+                new CommentManager.PageListener() {
+                    @Override
+                    public void onChanges(List<CommentThread.Change> changes, boolean initial,
+                                          DocumentSnapshot cursor, boolean hasMore) {
+                        if (binding == null || generation != commentGeneration) return;
+                        if (initial) {
+                            loadingComments = false;
+                            commentCursor = cursor;
+                        }
+                        // Only the oldest page knows whether older comments exist
+                        if (page == commentPages - 1) {
+                            hasMoreComments = hasMore;
+                        }
+                        CommentThread.Patch patch = thread.apply(changes);
+                        if (!initial && patch.structural) {
+                            refreshCommentCount();
+                        }
+                        commentTotal = Math.max(commentTotal, comments.size());
+                        updateCommentCount();
+                        updateLoadMoreComments();
+                        applyPatch(patch);
                     }
 
-                    // Load replies for each comment
-                    for (Comment comment : comments) {
-                        loadRepliesForComment(comment.getId());
+                    @Override
+                    public void onError(Exception e) {
+                        if (binding == null || generation != commentGeneration) return;
+                        loadingComments = false;
+                        Toast.makeText(requireContext(), "Error loading comments: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                        updateLoadMoreComments();
                     }
+                }));
+        updateLoadMoreComments();
+    }
 
-                    commentAdapter.notifyDataSetChanged();
-                })
-                .addOnFailureListener(e -> {
-                    Toast.makeText(requireContext(), "Error loading comments: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                });
+    /**
+     * Listens to the next page of a comment's replies.
+     */
+    private void loadMoreReplies(String parentId) {
+        if (!loadingReplies.add(parentId)) {
+            return;
+        }
+        expandedReplies.add(parentId);
+        Integer pages = replyPages.get(parentId);
+        int page = pages == null ? 0 : pages;
+        replyPages.put(parentId, page + 1);
+        int generation = commentGeneration;
+        pageRegistrations.add(commentManager.listenToReplyPage(parentId, replyCursors.get(parentId), REPLY_PAGE_SIZE,
+                new CommentManager.PageListener() {
+                    @Override
+                    public void onChanges(List<CommentThread.Change> changes, boolean initial,
+                                          DocumentSnapshot cursor, boolean hasMore) {
+                        if (binding == null || generation != commentGeneration) return;
+                        if (initial) {
+                            loadingReplies.remove(parentId);
+                            replyCursors.put(parentId, cursor);
+                        }
+                        if (page == replyPages.get(parentId) - 1) {
+                            replyHasMore.put(parentId, hasMore);
+                        }
+                        CommentThread.Patch patch = thread.apply(changes);
+                        // Also redraw when the page was empty, to replace "Loading..."
+                        patch.changedRows.add(parentId);
+                        applyPatch(patch);
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (binding == null || generation != commentGeneration) return;
+                        loadingReplies.remove(parentId);
+                        Log.d("Comment Replies not found", parentId);
+                        Toast.makeText(requireContext(), "Error loading replies", Toast.LENGTH_SHORT).show();
+                        // Rebind so the link stops saying "Loading..."
+                        commentAdapter.notifyDataSetChanged();
+                    }
+                }));
     }
 
-    private void loadRepliesForComment(String commentId) {
-        commentManager.getRepliesForComment(commentId)
-                .addOnSuccessListener(replyList -> {
-                    repliesMap.put(commentId, replyList);
-                    commentAdapter.setReplies(commentId, replyList);
-                })
-                .addOnFailureListener(e -> {
-                    Log.d("Comment Replies not found", commentId);
-                });
+    /**
+     * Redraws what a batch of changes touched: the whole list if comments were added,
+     * removed or moved, otherwise only the changed rows that are on screen.
+     */
+    private void applyPatch(CommentThread.Patch patch) {
+        for (String parentId : patch.changedRows) {
+            if (expandedReplies.contains(parentId)) {
+                Boolean hasMore = replyHasMore.get(parentId);
+                commentAdapter.putReplies(parentId, thread.getReplies(parentId), hasMore == null || hasMore);
+            }
+        }
+        if (patch.structural) {
+            commentAdapter.notifyDataSetChanged();
+        } else if (!patch.changedRows.isEmpty()) {
+            commentAdapter.refreshRows(binding.commentsList, patch.changedRows);
+        }
+    }
+
+    private void removePageListeners() {
+        commentGeneration++;
+        for (ListenerRegistration registration : pageRegistrations) {
+            registration.remove();
+        }
+        pageRegistrations.clear();
+    }
+
+    private void updateCommentCount() {
+        binding.commentCount.setText(String.valueOf(commentTotal));
+    }
+
+    private void updateLoadMoreComments() {
+        binding.loadMoreComments.setVisibility(hasMoreComments && !comments.isEmpty() ? VISIBLE : GONE);
+        binding.loadMoreComments.setText(loadingComments ? "Loading..." : "Load more comments");
     }
 
     private void addComment(String content) {
@@ -316,9 +493,8 @@ public class MoodDetailFragment extends Fragment {
 
         commentManager.addComment(newComment)
                 .addOnSuccessListener(aVoid -> {
-                    // Clear input and refresh comments
+                    // Clear input; the first page's listener shows the new comment
                     commentInput.setText("");
-                    loadComments();
                     Toast.makeText(requireContext(), "Comment added", Toast.LENGTH_SHORT).show();
                 })
                 .addOnFailureListener(e -> {
@@ -336,10 +512,9 @@ public class MoodDetailFragment extends Fragment {
 
         commentManager.addComment(newReply)
                 .addOnSuccessListener(aVoid -> {
-                    // Clear input, exit reply mode, and refresh comments
+                    // Clear input and exit reply mode; the listeners show the new reply
                     commentInput.setText("");
                     exitReplyMode();
-                    loadRepliesForComment(parentCommentId);
                     Toast.makeText(requireContext(), "Reply added", Toast.LENGTH_SHORT).show();
                 })
                 .addOnFailureListener(e -> {
@@ -367,6 +542,11 @@ public class MoodDetailFragment extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (timestampTicker != null) {
+            DateFormatHelper.getInstance().removeTickListener(timestampTicker);
+            timestampTicker = null;
+        }
+        removePageListeners();
         binding = null;
     }
 }
\ No newline at end of file
@@ -13,7 +13,8 @@
  * Outstanding Issues:
  * - Error handling: If fetching user data fails, UI feedback could be improved.
  * - UI performance: Profile picture loading might need optimization for better performance.
- * - Follow status: Consider implementing real-time updates instead of fetching on view load.
+ * - Follow status is kept live by FollowGraph; if the graph hasn't loaded yet, the first
+ *   answer comes from two document reads in the DAO.
  */
 
 package com.example.unemployedavengers.friendSection;
@@ -32,6 +33,8 @@ import androidx.navigation.Navigation;
 
 import com.bumptech.glide.Glide;
 import com.example.unemployedavengers.DAO.IUserDAO;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.FollowGraph;
 import com.example.unemployedavengers.R;
 import com.example.unemployedavengers.databinding.UserProfileBinding;
 import com.example.unemployedavengers.implementationDAO.UserDAOImplement;
@@ -44,6 +47,8 @@ public class UserProfile extends Fragment {
     private IUserDAO userDAO;
     private User currentUser;
     private User viewedUser;
+    private final FollowGraph followGraph = FollowGraph.getInstance();
+    private final Runnable followGraphListener = this::refreshFollowStatus;
 
     @Override
     public View onCreateView(@NonNull android.view.LayoutInflater inflater,
@@ -70,6 +75,7 @@ public class UserProfile extends Fragment {
 
         userDAO.getCurrentUserProfile().addOnSuccessListener(current -> {
             currentUser = current;
+            followGraph.start(requireContext(), currentUser.getUserId());
 
             userDAO.getUserByUsername(selectedUsername).addOnSuccessListener(target -> {
                 viewedUser = target;
@@ -79,11 +85,11 @@ public class UserProfile extends Fragment {
 
                     FirebaseFirestore db = FirebaseFirestore.getInstance();
                     DocumentReference userDocRef = db.collection("users").document(viewedUser.getUserId());
-                    userDocRef.get().addOnSuccessListener(documentSnapshot -> {
+                    FirestoreMetrics.getInstance().track("UserProfile.loadAvatar", userDocRef.get()).addOnSuccessListener(documentSnapshot -> {
                         if (documentSnapshot.exists()) {
                             String profilePicUrl = documentSnapshot.getString("avatar");
-                            if (profilePicUrl != null && !profilePicUrl.isEmpty()) {
-                                Glide.with(requireContext()).load(profilePicUrl).into(userImage);
+                            if (isAdded() && profilePicUrl != null && !profilePicUrl.isEmpty()) {
+                                Glide.with(this).load(profilePicUrl).into(userImage);
                             }
                         }
                     }).addOnFailureListener(e -> {
@@ -92,23 +98,7 @@ public class UserProfile extends Fragment {
 
 
                     userDAO.getFollowStatus(currentUser.getUserId(), viewedUser.getUserId())
-                            .addOnSuccessListener(status -> {
-                                switch (status) {
-                                    case "following":
-                                        binding.followButton.setText("Following");
-                                        binding.followButton.setEnabled(false);
-                                        break;
-                                    case "requested":
-                                        binding.followButton.setText("Requested");
-                                        binding.followButton.setEnabled(false);
-                                        break;
-                                    case "none":
-                                        binding.followButton.setText("Follow");
-                                        binding.followButton.setVisibility(View.VISIBLE);
-                                        setupFollowLogic();
-                                        break;
-                                }
-                            })
+                            .addOnSuccessListener(this::showFollowStatus)
                             .addOnFailureListener(e -> {
                                 Toast.makeText(getContext(), "Error checking follow status", Toast.LENGTH_SHORT).show();
                             });
@@ -118,12 +108,47 @@ public class UserProfile extends Fragment {
                 }
             });
         });
+        followGraph.addListener(followGraphListener);
 
         binding.userBackButton.setOnClickListener(v ->
                 Navigation.findNavController(v).popBackStack()
         );
     }
 
+    /**
+     * Re-renders the follow button when the follow graph changes, e.g. when the viewed
+     * user accepts the request while this screen is open.
+     */
+    private void refreshFollowStatus() {
+        if (binding == null || currentUser == null || viewedUser == null
+                || !followGraph.hasFollowStatus(currentUser.getUserId())) {
+            return;
+        }
+        showFollowStatus(followGraph.getFollowStatus(viewedUser.getUserId()));
+    }
+
+    private void showFollowStatus(String status) {
+        if (binding == null) {
+            return;
+        }
+        switch (status) {
+            case "following":
+                binding.followButton.setText("Following");
+                binding.followButton.setEnabled(false);
+                break;
+            case "requested":
+                binding.followButton.setText("Requested");
+                binding.followButton.setEnabled(false);
+                break;
+            case "none":
+                binding.followButton.setText("Follow");
+                binding.followButton.setEnabled(true);
+                binding.followButton.setVisibility(View.VISIBLE);
+                setupFollowLogic();
+                break;
+        }
+    }
+
     private void setupFollowLogic() {
         binding.followButton.setOnClickListener(v -> {
             if (currentUser == null || viewedUser == null) {
@@ -146,6 +171,7 @@ public class UserProfile extends Fragment {
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        followGraph.removeListener(followGraphListener);
         binding = null;
     }
 }
@@ -2,22 +2,22 @@
  * UserSearch Fragment allows users to search for other users by username.
  *
  * Key functionalities:
- * - Allows the current user to input a search query (username).
- * - Queries the user database for matching usernames and displays the results.
+ * - Searches as the user types: cached matches from UsernameSearchIndex appear immediately,
+ *   and a server search runs once typing pauses for {@link #DEBOUNCE_MS} milliseconds.
+ * - Matching is case-insensitive and covers prefixes and substrings.
+ * - Responses to superseded queries are dropped, so results never flash back to an older query.
+ * - The search button skips the debounce and searches right away.
  * - Allows the user to select a username from the search results to view their profile.
- * - Provides feedback for invalid or failed searches.
+ * - Provides feedback for failed searches.
  *
  * Outstanding Issues:
  * 1. UI Responsiveness:
- *    - No loading indicator while searching, which may leave users uncertain if the app is working.
- *    - Consider adding a progress bar or loading spinner during search execution.
+ *    - No loading indicator while the server search is in flight.
  *
  * 2. Error Handling:
  *    - No feedback when no users are found; should display a "No users found" message.
- *    - Potential crash if `getContext()` is null when displaying Toast messages.
  *
  * 3. Performance Optimization:
- *    - Searching a large user database might cause lag. Implement a debounce mechanism to delay execution until typing stops.
  *    - Consider using a `RecyclerView` instead of `ListView` for better performance with large datasets.
  *
  * 4. Navigation Issue:
@@ -26,7 +26,13 @@
 
 package com.example.unemployedavengers.friendSection;
 
+import android.content.Context;
+import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Editable;
+import android.text.TextWatcher;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -40,6 +46,7 @@ import androidx.navigation.Navigation;
 
 import com.example.unemployedavengers.DAO.IUserDAO;
 import com.example.unemployedavengers.R;
+import com.example.unemployedavengers.UsernameSearchIndex;
 import com.example.unemployedavengers.databinding.UserSearchBinding;
 import com.example.unemployedavengers.implementationDAO.UserDAOImplement;
 import com.example.unemployedavengers.models.User;
@@ -48,8 +55,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class  UserSearch extends Fragment {
+    private static final long DEBOUNCE_MS = 300;
+    private static final int MAX_RESULTS = 20;
+
     private UserSearchBinding binding;
     private IUserDAO userDAO;
+    private UsernameSearchIndex searchIndex;
+    private String currentUserId;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private Runnable pendingSearch;
+    private int searchGeneration = 0; // Bumped on every keystroke; older responses are ignored
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater,
@@ -64,6 +79,25 @@ public class  UserSearch extends Fragment {
                               @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         userDAO = new UserDAOImplement();
+        searchIndex = UsernameSearchIndex.getInstance();
+
+        SharedPreferences sharedPreferences = requireActivity().getSharedPreferences("user_preferences", Context.MODE_PRIVATE);
+        currentUserId = sharedPreferences.getString("userID", null);
+
+        binding.etUsername.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                onQueryChanged(s.toString().trim(), DEBOUNCE_MS);
+            }
+        });
 
         binding.searchButton.setOnClickListener(v -> {
             String searchQuery = binding.etUsername.getText().toString().trim();
@@ -71,25 +105,7 @@ public class  UserSearch extends Fragment {
                 Toast.makeText(getContext(), "Please enter a username to search", Toast.LENGTH_SHORT).show();
                 return;
             }
-
-            userDAO.searchUsers(searchQuery)
-                    .addOnSuccessListener(userList -> {
-                        List<String> usernames = new ArrayList<>();
-                        for (User user : userList) {
-                            usernames.add(user.getUsername());
-                        }
-
-                        ArrayAdapter<String> adapter = new ArrayAdapter<>(
-                                getContext(),
-                                R.layout.search_item,
-                                R.id.username_text,
-                                usernames
-                        );
-                        binding.searchList.setAdapter(adapter);
-                    })
-                    .addOnFailureListener(e -> {
-                        Toast.makeText(getContext(), "Search failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-                    });
+            onQueryChanged(searchQuery, 0);
         });
 
         binding.searchList.setOnItemClickListener((parent, v, position, id) -> {
@@ -102,9 +118,71 @@ public class  UserSearch extends Fragment {
         });
     }
 
+    /**
+     * Shows cached matches right away and schedules a server search, replacing any
+     * search still waiting for its debounce.
+     *
+     * @param query The trimmed query text
+     * @param delayMs How long to wait before querying the server
+     */
+    private void onQueryChanged(String query, long delayMs) {
+        final int generation = ++searchGeneration;
+        if (pendingSearch != null) {
+            handler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
+        if (query.isEmpty()) {
+            showResults(new ArrayList<>());
+            return;
+        }
+
+        showResults(searchIndex.search(query, currentUserId, MAX_RESULTS));
+
+        pendingSearch = () -> {
+            pendingSearch = null;
+            runServerSearch(query, generation);
+        };
+        handler.postDelayed(pendingSearch, delayMs);
+    }
+
+    private void runServerSearch(String query, int generation) {
+        userDAO.searchUsers(query)
+                .addOnSuccessListener(userList -> {
+                    searchIndex.addAll(userList);
+                    // A newer keystroke has already replaced this query
+                    if (binding == null || generation != searchGeneration) return;
+                    showResults(searchIndex.search(query, currentUserId, MAX_RESULTS));
+                })
+                .addOnFailureListener(e -> {
+                    if (binding == null || generation != searchGeneration) return;
+                    Toast.makeText(getContext(), "Search failed: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                });
+    }
+
+    private void showResults(List<User> users) {
+        if (binding == null || getContext() == null) return;
+
+        List<String> usernames = new ArrayList<>();
+        for (User user : users) {
+            usernames.add(user.getUsername());
+        }
+
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(
+                getContext(),
+                R.layout.search_item,
+                R.id.username_text,
+                usernames
+        );
+        binding.searchList.setAdapter(adapter);
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
+        if (pendingSearch != null) {
+            handler.removeCallbacks(pendingSearch);
+            pendingSearch = null;
+        }
         binding = null;
     }
 }
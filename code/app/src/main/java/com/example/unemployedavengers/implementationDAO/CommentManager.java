@@ -8,8 +8,10 @@
  * - Manages the update and removal of reply references when deleting comments.
  *
  * Key Methods:
- * - getCommentsForMoodEvent: Fetches comments for a specific mood event, with an option to include replies.
- * - getRepliesForComment: Retrieves replies for a given comment.
+ * - countComments: Counts a mood event's top-level comments with an aggregate query.
+ * - listenToCommentPage / listenToReplyPage: Listen to one page of top-level comments (newest first) or of a
+ *   comment's replies (oldest first), continuing from the cursor of the previous page, and report each change
+ *   of the page as CommentThread changes.
  * - addComment: Adds a new comment (either top-level or a reply), and manages replies for parent comments.
  * - deleteComment: Deletes a comment, including handling the deletion of replies if it's a top-level comment.
  *
@@ -21,19 +23,31 @@
  * Design Patterns:
  * - This class follows the Data Access Object (DAO) design pattern, isolating the application logic from the data persistence layer (Firestore).
  * - The operations are asynchronous, using Firebase Tasks to handle the database interactions, allowing for non-blocking UI updates.
+ * - Loaded, added and deleted comments are mirrored into MoodSearchIndex so comment text is searchable offline.
+ * - Pages use the last document of the previous page as a startAfter cursor, like MoodExportManager. One extra
+ *   document is requested per page to tell whether another page exists without a further round trip.
+ * - A listened page is a limit query, so a newer comment pushes the page's oldest one out of its window. Such a
+ *   comment arrives as REMOVED although it still exists; these are told apart from deletions by their position
+ *   and are not reported.
  */
 
 
 package com.example.unemployedavengers.implementationDAO;
 
+import com.example.unemployedavengers.CommentThread;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.MoodSearchIndex;
 import com.example.unemployedavengers.models.Comment;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
 import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
 import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
 import com.google.firebase.firestore.Query;
-import com.google.firebase.firestore.QueryDocumentSnapshot;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -44,73 +58,143 @@ import java.util.List;
 public class CommentManager {
     private static final String TAG = "CommentManager";
     private final FirebaseFirestore db;
+    private final FirestoreMetrics metrics;
+
+    /**
+     * Receives the changes of a listened page on the main thread.
+     */
+    public interface PageListener {
+        /**
+         * @param changes Comments added, modified or deleted since the last call
+         * @param initial True for the first call, which holds the whole page
+         * @param cursor Last document of the page; pass it to the next page request
+         * @param hasMore Whether comments exist after this page
+         */
+        void onChanges(List<CommentThread.Change> changes, boolean initial, DocumentSnapshot cursor, boolean hasMore);
+
+        void onError(Exception e);
+    }
 
     public CommentManager() {
         db = FirebaseFirestore.getInstance();
+        metrics = FirestoreMetrics.getInstance();
     }
 
     /**
-     * Get comments for a specific mood event
+     * Listen to one page of a mood event's top-level comments, newest first
      *
      * @param moodEventId The ID of the mood event
-     * @param includeReplies Whether to include replies in the result
-     * @return Task containing list of comments
+     * @param after Cursor of the previous page, or null for the first page, which also receives new comments
+     * @param pageSize Maximum number of comments in the page
+     * @param listener Told about the page and every later change to it
+     * @return Registration to remove when the page is no longer shown
      */
-    public Task<List<Comment>> getCommentsForMoodEvent(String moodEventId, boolean includeReplies) {
-        Query query;
-        if (includeReplies) {
-            // Get all comments for the mood event
-            query = db.collection("comments")
-                    .whereEqualTo("moodEventId", moodEventId)
-                    .orderBy("timestamp", Query.Direction.DESCENDING);
-        } else {
-            // Get only top-level comments
-            query = db.collection("comments")
-                    .whereEqualTo("moodEventId", moodEventId)
-                    .whereEqualTo("parentId", null)
-                    .orderBy("timestamp", Query.Direction.DESCENDING);
-        }
+    public ListenerRegistration listenToCommentPage(String moodEventId, DocumentSnapshot after, int pageSize,
+                                                    PageListener listener) {
+        Query query = db.collection("comments")
+                .whereEqualTo("moodEventId", moodEventId)
+                .whereEqualTo("parentId", null)
+                .orderBy("timestamp", Query.Direction.DESCENDING);
+        return listenToPage(query, true, after, pageSize, listener);
+    }
 
-        return query.get().continueWith(task -> {
-            if (!task.isSuccessful()) {
-                throw task.getException();
+    /**
+     * Listen to one page of a comment's replies, oldest first
+     *
+     * @param parentId The ID of the parent comment
+     * @param after Cursor of the previous page, or null for the first page
+     * @param pageSize Maximum number of replies in the page
+     * @param listener Told about the page and every later change to it
+     * @return Registration to remove when the replies are no longer shown
+     */
+    public ListenerRegistration listenToReplyPage(String parentId, DocumentSnapshot after, int pageSize,
+                                                  PageListener listener) {
+        Query query = db.collection("comments")
+                .whereEqualTo("parentId", parentId)
+                .orderBy("timestamp", Query.Direction.ASCENDING);
+        return listenToPage(query, false, after, pageSize, listener);
+    }
+
+    private ListenerRegistration listenToPage(Query query, boolean newestFirst, DocumentSnapshot after,
+                                              int pageSize, PageListener listener) {
+        Query page = query.limit(pageSize + 1);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        boolean[] initial = {true};
+        return page.addSnapshotListener((snapshot, error) -> {
+            if (error != null) {
+                listener.onError(error);
+                return;
+            }
+            if (snapshot == null) {
+                return;
             }
 
-            List<Comment> comments = new ArrayList<>();
-            for (QueryDocumentSnapshot document : task.getResult()) {
-                Comment comment = document.toObject(Comment.class);
-                comment.setId(document.getId());
-                comments.add(comment);
+            List<DocumentSnapshot> documents = snapshot.getDocuments();
+            boolean full = documents.size() > pageSize;
+            Comment last = documents.isEmpty() ? null : toComment(documents.get(documents.size() - 1));
+            MoodSearchIndex searchIndex = MoodSearchIndex.getInstance();
+            List<CommentThread.Change> changes = new ArrayList<>();
+            for (DocumentChange change : snapshot.getDocumentChanges()) {
+                Comment comment = toComment(change.getDocument());
+                if (change.getType() == DocumentChange.Type.REMOVED) {
+                    // Pushed out of a full window by a newer comment, not deleted
+                    if (full && last != null && sortsAfter(comment, last, newestFirst)) {
+                        continue;
+                    }
+                    searchIndex.removeComment(comment.getId());
+                    changes.add(new CommentThread.Change(CommentThread.ChangeType.REMOVED, comment));
+                } else {
+                    searchIndex.putComment(comment);
+                    changes.add(new CommentThread.Change(change.getType() == DocumentChange.Type.ADDED
+                            ? CommentThread.ChangeType.ADDED : CommentThread.ChangeType.MODIFIED, comment));
+                }
             }
 
-            return comments;
+            DocumentSnapshot cursor = documents.isEmpty() ? after
+                    : documents.get(Math.min(pageSize, documents.size()) - 1);
+            boolean first = initial[0];
+            initial[0] = false;
+            listener.onChanges(changes, first, cursor, full);
         });
     }
 
+    private static Comment toComment(DocumentSnapshot document) {
+        Comment comment = document.toObject(Comment.class);
+        if (comment == null) {
+            comment = new Comment();
+        }
+        comment.setId(document.getId());
+        return comment;
+    }
+
+    // Whether a comment comes after another in the page's order
+    private static boolean sortsAfter(Comment comment, Comment other, boolean newestFirst) {
+        int byTime = Long.compare(comment.getTimestamp(), other.getTimestamp());
+        if (byTime == 0) {
+            byTime = comment.getId().compareTo(other.getId());
+        }
+        return newestFirst ? byTime < 0 : byTime > 0;
+    }
+
     /**
-     * Get replies for a specific comment
+     * Count a mood event's top-level comments without reading them
      *
-     * @param parentId The ID of the parent comment
-     * @return Task containing list of reply comments
+     * @param moodEventId The ID of the mood event
+     * @return Task containing the number of top-level comments
      */
-    public Task<List<Comment>> getRepliesForComment(String parentId) {
-        return db.collection("comments")
-                .whereEqualTo("parentId", parentId)
-                .orderBy("timestamp", Query.Direction.ASCENDING)
-                .get()
+    public Task<Long> countComments(String moodEventId) {
+        return metrics.track("CommentManager.countComments", db.collection("comments")
+                .whereEqualTo("moodEventId", moodEventId)
+                .whereEqualTo("parentId", null)
+                .count()
+                .get(AggregateSource.SERVER))
                 .continueWith(task -> {
                     if (!task.isSuccessful()) {
                         throw task.getException();
                     }
-
-                    List<Comment> replies = new ArrayList<>();
-                    for (QueryDocumentSnapshot document : task.getResult()) {
-                        Comment reply = document.toObject(Comment.class);
-                        reply.setId(document.getId());
-                        replies.add(reply);
-                    }
-
-                    return replies;
+                    return task.getResult().getCount();
                 });
     }
 
@@ -123,7 +207,7 @@ public class CommentManager {
     public Task<Void> addComment(Comment comment) {
         CollectionReference commentsRef = db.collection("comments");
 
-        return commentsRef.add(comment)
+        return metrics.track("CommentManager.addComment", commentsRef.add(comment))
                 .continueWithTask(task -> {
                     if (!task.isSuccessful()) {
                         throw task.getException();
@@ -131,11 +215,12 @@ public class CommentManager {
 
                     DocumentReference commentRef = task.getResult();
                     comment.setId(commentRef.getId());
+                    MoodSearchIndex.getInstance().putComment(comment);
 
                     // If this is a reply, update the parent comment's replyIds
                     if (comment.getParentId() != null) {
                         DocumentReference parentRef = commentsRef.document(comment.getParentId());
-                        return parentRef.get().continueWithTask(parentTask -> {
+                        return metrics.track("CommentManager.addComment", parentRef.get()).continueWithTask(parentTask -> {
                             if (!parentTask.isSuccessful()) {
                                 throw parentTask.getException();
                             }
@@ -143,7 +228,8 @@ public class CommentManager {
                             Comment parentComment = parentTask.getResult().toObject(Comment.class);
                             if (parentComment != null) {
                                 parentComment.addReplyId(commentRef.getId());
-                                return parentRef.update("replyIds", parentComment.getReplyIds());
+                                return metrics.track("CommentManager.addComment",
+                                        parentRef.update("replyIds", parentComment.getReplyIds()));
                             }
 
                             return Tasks.forResult(null);
@@ -163,7 +249,7 @@ public class CommentManager {
     public Task<Void> deleteComment(String commentId) {
         DocumentReference commentRef = db.collection("comments").document(commentId);
 
-        return commentRef.get().continueWithTask(task -> {
+        return metrics.track("CommentManager.deleteComment", commentRef.get()).continueWithTask(task -> {
             if (!task.isSuccessful()) {
                 throw task.getException();
             }
@@ -173,39 +259,50 @@ public class CommentManager {
                 return null;
             }
 
+            MoodSearchIndex searchIndex = MoodSearchIndex.getInstance();
+            searchIndex.removeComment(commentId);
+            if (comment.getReplyIds() != null) {
+                for (String replyId : comment.getReplyIds()) {
+                    searchIndex.removeComment(replyId);
+                }
+            }
+
             // If it has replies, delete them first
             if (comment.getReplyIds() != null && !comment.getReplyIds().isEmpty()) {
                 List<Task<Void>> deleteTasks = new ArrayList<>();
                 for (String replyId : comment.getReplyIds()) {
-                    deleteTasks.add(db.collection("comments").document(replyId).delete());
+                    deleteTasks.add(metrics.track("CommentManager.deleteComment",
+                            db.collection("comments").document(replyId).delete()));
                 }
 
                 // Wait for all reply deletions to complete, then delete the parent comment
-                return Tasks.whenAll(deleteTasks).continueWithTask(t -> commentRef.delete());
+                return Tasks.whenAll(deleteTasks).continueWithTask(t ->
+                        metrics.track("CommentManager.deleteComment", commentRef.delete()));
             }
 
             // If it's a reply, update the parent's replyIds
             if (comment.getParentId() != null) {
                 DocumentReference parentRef = db.collection("comments").document(comment.getParentId());
-                return parentRef.get().continueWithTask(parentTask -> {
+                return metrics.track("CommentManager.deleteComment", parentRef.get()).continueWithTask(parentTask -> {
                     if (!parentTask.isSuccessful() || !parentTask.getResult().exists()) {
                         // Parent doesn't exist, just delete the comment
-                        return commentRef.delete();
+                        return metrics.track("CommentManager.deleteComment", commentRef.delete());
                     }
 
                     Comment parentComment = parentTask.getResult().toObject(Comment.class);
                     if (parentComment != null && parentComment.getReplyIds() != null) {
                         parentComment.getReplyIds().remove(commentId);
-                        return parentRef.update("replyIds", parentComment.getReplyIds())
-                                .continueWithTask(t -> commentRef.delete());
+                        return metrics.track("CommentManager.deleteComment",
+                                        parentRef.update("replyIds", parentComment.getReplyIds()))
+                                .continueWithTask(t -> metrics.track("CommentManager.deleteComment", commentRef.delete()));
                     }
 
-                    return commentRef.delete();
+                    return metrics.track("CommentManager.deleteComment", commentRef.delete());
                 });
             }
 
             // Simple case: no replies, not a reply
-            return commentRef.delete();
+            return metrics.track("CommentManager.deleteComment", commentRef.delete());
         });
     }
 }
\ No newline at end of file
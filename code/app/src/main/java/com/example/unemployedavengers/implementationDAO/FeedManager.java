@@ -0,0 +1,213 @@
+/**
+ * FeedManager - Reads the followee mood feed, from the local cache first when it is warm.
+ *
+ * Purpose:
+ * - Runs the per-followee mood queries behind the Dashboard feed and the followee mood history.
+ * - Prefetches the feed, followees' profiles and the user's own recent moods in the background, so the
+ *   screens can draw from Firestore's local cache before the network answers.
+ *
+ * Key Methods:
+ * - loadFeed: Streams each followee's newest moods to a FeedListener. When warm, every followee is
+ *   read from the cache first and then re-read from the server, and the server's moods replace the
+ *   cached ones, so moods deleted, edited or made private since the prefetch drop out.
+ * - prefetch: Reads everything the feed screens need from the server, which fills the local cache
+ *   and ProfileStore. Called by FeedPrefetchWorker.
+ *
+ * Design Patterns:
+ * - Follows the Data Access Object (DAO) pattern like CommentManager.
+ * - Results are streamed per followee instead of collected, so screens can redraw as they arrive;
+ *   FeedSelector decides which of them make the feed.
+ * - Cached moods that fail the server read (deleted, private, or pushed out of the window) are also
+ *   removed from MoodSearchIndex, like CommentManager mirrors deleted comments.
+ *
+ * Known Issues:
+ * - A warm load reads as many documents as a cold one; the cache saves the wait, not the reads. A
+ *   newer-than query alone would be cheaper but cannot see deletions or privacy changes.
+ * - If the server read fails (e.g. offline), the cached moods stay shown as they were prefetched.
+ */
+package com.example.unemployedavengers.implementationDAO;
+
+import android.util.Log;
+
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.MoodSearchIndex;
+import com.example.unemployedavengers.ProfileStore;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.Source;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class FeedManager {
+    private static final String TAG = "FeedManager";
+    // Own moods prefetched; enough for the first screens of Dashboard and History
+    static final int OWN_MOODS_LIMIT = 50;
+    private final FirebaseFirestore db;
+    private final FirestoreMetrics metrics;
+
+    /**
+     * Receives the feed on the main thread.
+     */
+    public interface FeedListener {
+        /**
+         * @param followeeId The followee the moods belong to
+         * @param moods Some of the followee's moods, newest first; a followee can deliver
+         *              several batches, which never overlap
+         */
+        void onMoods(String followeeId, List<MoodEvent> moods);
+
+        /**
+         * @param followeeId The followee the moods belong to
+         * @param moods The followee's newest moods as the server has them now, newest first; they
+         *              replace every batch delivered before for this followee
+         */
+        void onReplaced(String followeeId, List<MoodEvent> moods);
+
+        /**
+         * @param fromCache True once every followee was read from the cache, false once every
+         *                  followee was read from the server (or failed)
+         */
+        void onSettled(boolean fromCache);
+    }
+
+    public FeedManager() {
+        db = FirebaseFirestore.getInstance();
+        metrics = FirestoreMetrics.getInstance();
+    }
+
+    /**
+     * Loads the newest moods of every followee.
+     *
+     * @param followeeIds The followees; must not be empty
+     * @param fetchLimit How many moods to read per followee
+     * @param warm Whether a recent prefetch filled the cache; if so, the cache is read first and
+     *             the server's read then replaces it
+     * @param site Metrics site of the server reads
+     * @param listener Told about every batch and when each pass is done
+     */
+    public void loadFeed(List<String> followeeIds, int fetchLimit, boolean warm, String site, FeedListener listener) {
+        int[] cached = {0};
+        int[] fetched = {0};
+        int total = followeeIds.size();
+        for (String followeeId : followeeIds) {
+            Query recent = recentMoods(followeeId, fetchLimit);
+            if (!warm) {
+                fetch(followeeId, recent, null, site, listener, fetched, total);
+                continue;
+            }
+            recent.get(Source.CACHE).addOnCompleteListener(task -> {
+                List<MoodEvent> moods = task.isSuccessful() ? toMoods(followeeId, task.getResult()) : null;
+                if (moods != null && moods.isEmpty()) {
+                    moods = null;
+                }
+                if (moods != null) {
+                    listener.onMoods(followeeId, moods);
+                }
+                if (++cached[0] == total) {
+                    listener.onSettled(true);
+                }
+                // The same window from the server, since a newer-than query can't see deletions or privacy changes
+                fetch(followeeId, recent, moods, site, listener, fetched, total);
+            });
+        }
+    }
+
+    /**
+     * Reads the user's newest moods, the people they follow, and each followee's newest moods and
+     * profile from the server. The results land in Firestore's local cache and in ProfileStore.
+     *
+     * @param userId The signed-in user's ID
+     * @param fetchLimit How many moods to read per followee
+     * @return A task that completes when every read has finished, failing if any failed
+     */
+    public Task<Void> prefetch(String userId, int fetchLimit) {
+        DocumentReference userDoc = db.collection("users").document(userId);
+        Task<QuerySnapshot> ownMoods = metrics.track("FeedManager.prefetchOwnMoods",
+                recentMoods(userId, OWN_MOODS_LIMIT).get(Source.SERVER));
+        Task<Void> followees = metrics.track("FeedManager.prefetchFollowing",
+                        userDoc.collection("following").get(Source.SERVER))
+                .continueWithTask(task -> {
+                    List<Task<?>> reads = new ArrayList<>();
+                    for (DocumentSnapshot doc : task.getResult().getDocuments()) {
+                        String followeeId = doc.getId();
+                        reads.add(metrics.track("FeedManager.prefetchMoods",
+                                recentMoods(followeeId, fetchLimit).get(Source.SERVER)));
+                        reads.add(metrics.track("FeedManager.prefetchProfile",
+                                        db.collection("users").document(followeeId).get(Source.SERVER))
+                                .addOnSuccessListener(profile -> ProfileStore.getInstance().put(profile)));
+                    }
+                    return Tasks.whenAll(reads);
+                });
+        return Tasks.whenAll(ownMoods, followees);
+    }
+
+    private Query recentMoods(String userId, int limit) {
+        return db.collection("users")
+                .document(userId)
+                .collection("moods")
+                .orderBy("time", Query.Direction.DESCENDING)
+                .limit(limit);
+    }
+
+    /**
+     * Reads a followee's moods from the server.
+     *
+     * @param cachedMoods Moods already delivered from the cache, which the result replaces; null if none
+     */
+    private void fetch(String followeeId, Query query, List<MoodEvent> cachedMoods, String site,
+                       FeedListener listener, int[] fetched, int total) {
+        metrics.track(site, query.get()).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) {
+                List<MoodEvent> moods = toMoods(followeeId, task.getResult());
+                if (cachedMoods != null) {
+                    dropStale(cachedMoods, moods);
+                    listener.onReplaced(followeeId, moods);
+                } else if (!moods.isEmpty()) {
+                    listener.onMoods(followeeId, moods);
+                }
+            } else {
+                Log.e(TAG, "Error loading moods of " + followeeId, task.getException());
+            }
+            if (++fetched[0] == total) {
+                listener.onSettled(false);
+            }
+        });
+    }
+
+    // Removes cached moods the server no longer returns as public from the search index
+    private static void dropStale(List<MoodEvent> cachedMoods, List<MoodEvent> moods) {
+        Set<String> current = new HashSet<>();
+        for (MoodEvent moodEvent : moods) {
+            if (moodEvent.getPublicStatus()) {
+                current.add(moodEvent.getId());
+            }
+        }
+        MoodSearchIndex searchIndex = MoodSearchIndex.getInstance();
+        for (MoodEvent moodEvent : cachedMoods) {
+            if (!current.contains(moodEvent.getId())) {
+                searchIndex.removeMood(moodEvent.getId());
+            }
+        }
+    }
+
+    private static List<MoodEvent> toMoods(String followeeId, QuerySnapshot snapshot) {
+        List<MoodEvent> moods = new ArrayList<>();
+        for (DocumentSnapshot doc : snapshot.getDocuments()) {
+            MoodEvent moodEvent = doc.toObject(MoodEvent.class);
+            if (moodEvent != null) {
+                moodEvent.setUserId(followeeId);
+                moods.add(moodEvent);
+            }
+        }
+        return moods;
+    }
+}
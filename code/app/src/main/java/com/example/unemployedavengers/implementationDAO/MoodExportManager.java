@@ -0,0 +1,174 @@
+/**
+ * MoodExportManager - Streams a user's mood history to an output stream.
+ *
+ * Purpose:
+ * - Exports users/{uid}/moods as CSV or NDJSON, optionally gzipped, without loading
+ *   the whole collection into memory.
+ *
+ * Key Methods:
+ * - export: Pages through the moods oldest first and writes each page as it arrives.
+ *
+ * Design Patterns:
+ * - Follows the Data Access Object (DAO) pattern like CommentManager.
+ * - Pages are chained with continueWithTask; each page is written on a background
+ *   executor and dropped before the next one is requested, so memory stays at one
+ *   page no matter how many moods there are.
+ * - Pages are ordered by time and then document ID and continue with startAfter, so
+ *   moods with equal times are neither skipped nor repeated.
+ *
+ * Known Issues:
+ * - Moods added or changed while an export runs may or may not be included.
+ */
+package com.example.unemployedavengers.implementationDAO;
+
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.MoodExportFormatter;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+public class MoodExportManager {
+    private static final int PAGE_SIZE = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Keeps stream writes off the main thread
+    private static final Executor IO_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    /**
+     * Receives export progress on a background thread.
+     */
+    public interface ProgressListener {
+        /**
+         * @param written Mood events written so far
+         * @param total Mood events to write, or -1 if unknown
+         */
+        void onProgress(long written, long total);
+    }
+
+    private final FirebaseFirestore db;
+    private final FirestoreMetrics metrics;
+
+    public MoodExportManager() {
+        db = FirebaseFirestore.getInstance();
+        metrics = FirestoreMetrics.getInstance();
+    }
+
+    /**
+     * Writes every mood event of a user to {@code out} and closes it.
+     *
+     * @param userId The user whose moods are exported
+     * @param out Destination, e.g. from ContentResolver.openOutputStream; always closed
+     * @param format CSV or NDJSON
+     * @param gzip True to gzip the output
+     * @param listener Progress callback, may be null
+     * @param token Cancels the export between pages; the task then fails with a CancellationException
+     * @return Task with the number of mood events written
+     */
+    public Task<Long> export(String userId, OutputStream out, MoodExportFormatter.Format format,
+                             boolean gzip, ProgressListener listener, CancellationToken token) {
+        CollectionReference moods = db.collection("users").document(userId).collection("moods");
+        MoodExportFormatter formatter = new MoodExportFormatter(format);
+        long[] progress = {0, -1};
+
+        Task<Writer> opened = Tasks.call(IO_EXECUTOR, () -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : out;
+            Writer writer = new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8), BUFFER_SIZE);
+            formatter.writeHeader(writer);
+            return writer;
+        });
+
+        // The total is only for the progress bar, so a failed count doesn't stop the export
+        Task<Long> counted = moods.count().get(AggregateSource.SERVER)
+                .continueWith(task -> task.isSuccessful() ? task.getResult().getCount() : -1L);
+
+        return Tasks.whenAllComplete(opened, counted).continueWithTask(ready -> {
+            if (!opened.isSuccessful()) {
+                closeQuietly(out);
+                throw opened.getException();
+            }
+            Writer writer = opened.getResult();
+            progress[1] = counted.getResult();
+            return exportPage(moods, null, writer, formatter, progress, listener, token)
+                    .continueWith(IO_EXECUTOR, done -> {
+                        if (!done.isSuccessful()) {
+                            closeQuietly(writer);
+                            throw done.getException();
+                        }
+                        // Closing finishes the gzip trailer
+                        writer.close();
+                        return progress[0];
+                    });
+        });
+    }
+
+    private Task<Void> exportPage(CollectionReference moods, DocumentSnapshot after, Writer writer,
+                                  MoodExportFormatter formatter, long[] progress,
+                                  ProgressListener listener, CancellationToken token) {
+        if (token != null && token.isCancellationRequested()) {
+            return Tasks.forException(new CancellationException("Export cancelled"));
+        }
+        Query page = moods.orderBy("time").orderBy(FieldPath.documentId()).limit(PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        return metrics.track("MoodExportManager.exportPage", page.get())
+                .continueWith(IO_EXECUTOR, task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    List<DocumentSnapshot> docs = task.getResult().getDocuments();
+                    for (DocumentSnapshot doc : docs) {
+                        MoodEvent moodEvent = doc.toObject(MoodEvent.class);
+                        if (moodEvent != null) {
+                            if (moodEvent.getId() == null) {
+                                moodEvent.setId(doc.getId());
+                            }
+                            formatter.writeRow(writer, moodEvent);
+                            progress[0]++;
+                        }
+                    }
+                    if (listener != null) {
+                        listener.onProgress(progress[0], progress[1]);
+                    }
+                    return docs.size() < PAGE_SIZE ? null : docs.get(docs.size() - 1);
+                })
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        return Tasks.forException(task.getException());
+                    }
+                    DocumentSnapshot last = task.getResult();
+                    if (last == null) {
+                        return Tasks.forResult(null);
+                    }
+                    return exportPage(moods, last, writer, formatter, progress, listener, token);
+                });
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException ignored) {
+            // Already failing; the original error is reported
+        }
+    }
+}
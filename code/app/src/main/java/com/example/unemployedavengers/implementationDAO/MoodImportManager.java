@@ -0,0 +1,362 @@
+/**
+ * MoodImportManager - Writes mood events from an import file in large batches.
+ *
+ * Purpose:
+ * - Imports mood history from other trackers (or from our own export) without
+ *   going through Dashboard.addMoodEvent one entry at a time.
+ *
+ * Key Methods:
+ * - importMoods: Reads mood events from a MoodImportParser and commits them in
+ *   WriteBatches of up to 499 moods plus one stats aggregate update.
+ *
+ * Design Patterns:
+ * - Follows the Data Access Object (DAO) pattern like CommentManager.
+ * - IDs are derived from the user, the import file and the record's offset in it, so
+ *   each mood is a single set() with its id field already filled in, and importing the
+ *   same record again overwrites it instead of adding a copy.
+ * - A WriteBatch commits all or nothing, and a resumed import cuts the file into the
+ *   same batches again. So a batch whose first mood already exists (in the local cache,
+ *   which includes writes still queued from before a restart, or on the server) was
+ *   committed before and is skipped whole, and its counters are never added twice.
+ * - Backpressure: at most MAX_IN_FLIGHT commits wait for acknowledgement; parsing
+ *   pauses until the oldest one completes, so memory stays at a few batches and
+ *   the offline write queue doesn't fill up with the whole file.
+ * - Progress is reported as the parser offset of the last batch committed in order,
+ *   so an interrupted import can continue with parser.skip(offset).
+ *
+ * Known Issues:
+ * - If an earlier batch fails while a later one succeeds, or the process dies before a
+ *   batch's acknowledgement, resuming starts before that batch. It is then found by its
+ *   first mood and skipped, at the cost of one document read per batch.
+ * - A batch is also skipped if the user edited its first mood since; it was written
+ *   before, so nothing is lost. One whose first mood the user has deleted is written again.
+ */
+package com.example.unemployedavengers.implementationDAO;
+
+import com.example.unemployedavengers.BatchHelper;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.MoodImportParser;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+public class MoodImportManager {
+    // One write per mood plus one for the stats aggregate
+    static final int MOODS_PER_BATCH = BatchHelper.MAX_BATCH_WRITES - 1;
+    // Commits waiting for acknowledgement before parsing pauses
+    private static final int MAX_IN_FLIGHT = 2;
+    // Same length as a Firestore auto ID
+    private static final int ID_LENGTH = 20;
+
+    // Keeps file reads off the main thread
+    private static final Executor IO_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    /**
+     * Receives progress on the main thread after each batch commits.
+     */
+    public interface ProgressListener {
+        /**
+         * @param offset Records of the file handled so far; pass to skip() to resume
+         * @param imported Mood events written so far
+         * @param skipped Invalid records skipped so far
+         */
+        void onProgress(long offset, long imported, long skipped);
+    }
+
+    /**
+     * Outcome of a completed import.
+     */
+    public static class ImportResult {
+        private final long offset;
+        private final long imported;
+        private final long skipped;
+        private final String lastError;
+
+        ImportResult(long offset, long imported, long skipped, String lastError) {
+            this.offset = offset;
+            this.imported = imported;
+            this.skipped = skipped;
+            this.lastError = lastError;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * Returns why the last invalid record was skipped, or null if none were.
+         */
+        public String getLastError() {
+            return lastError;
+        }
+    }
+
+    private static class Chunk {
+        final List<MoodEvent> moodEvents;
+        // Parser offset just after each mood's record
+        final List<Long> recordOffsets;
+        final long endOffset;
+        final long skipped;
+        final boolean last;
+
+        Chunk(List<MoodEvent> moodEvents, List<Long> recordOffsets, long endOffset, long skipped, boolean last) {
+            this.moodEvents = moodEvents;
+            this.recordOffsets = recordOffsets;
+            this.endOffset = endOffset;
+            this.skipped = skipped;
+            this.last = last;
+        }
+    }
+
+    private static class Pending {
+        final Task<Void> commit;
+        final int count;
+        final long endOffset;
+        final long skipped;
+
+        Pending(Task<Void> commit, int count, long endOffset, long skipped) {
+            this.commit = commit;
+            this.count = count;
+            this.endOffset = endOffset;
+            this.skipped = skipped;
+        }
+    }
+
+    /**
+     * State of one import; only touched from main-thread continuations.
+     */
+    private static class Run {
+        final String userId;
+        final String userName;
+        final String sourceId;
+        final MoodImportParser parser;
+        final ProgressListener listener;
+        final CancellationToken token;
+        final ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+        long offset;
+        long imported = 0;
+        long skipped = 0;
+        Exception failure;
+
+        Run(String userId, String userName, String sourceId, MoodImportParser parser,
+            ProgressListener listener, CancellationToken token) {
+            this.userId = userId;
+            this.userName = userName;
+            this.sourceId = sourceId;
+            this.parser = parser;
+            this.listener = listener;
+            this.token = token;
+        }
+    }
+
+    private final FirebaseFirestore db;
+    private final FirestoreMetrics metrics;
+    private final MoodStatsManager statsManager;
+
+    public MoodImportManager() {
+        db = FirebaseFirestore.getInstance();
+        metrics = FirestoreMetrics.getInstance();
+        statsManager = new MoodStatsManager();
+    }
+
+    /**
+     * Imports every valid mood event the parser returns.
+     *
+     * @param userId The user who owns the imported moods
+     * @param userName The user's username, stored on each mood
+     * @param sourceId Identifies the import file, e.g. its URI; part of every mood's ID
+     * @param parser Parser over the import file; the caller closes the file
+     * @param startOffset Records to skip, from a previous import's progress
+     * @param listener Progress callback, may be null
+     * @param token Stops reading between batches; the task then fails with a
+     *              CancellationException after in-flight batches finish
+     * @return Task with the import totals
+     */
+    public Task<ImportResult> importMoods(String userId, String userName, String sourceId, MoodImportParser parser,
+                                          long startOffset, ProgressListener listener, CancellationToken token) {
+        Run run = new Run(userId, userName, sourceId, parser, listener, token);
+        return Tasks.call(IO_EXECUTOR, () -> {
+            parser.skip(startOffset);
+            return parser.getOffset();
+        }).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            run.offset = task.getResult();
+            return pump(run);
+        }).continueWith(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            return new ImportResult(run.offset, run.imported, run.skipped, parser.getLastError());
+        });
+    }
+
+    private Task<Void> pump(Run run) {
+        if (run.token != null && run.token.isCancellationRequested()) {
+            return finish(run, new CancellationException("Import cancelled"));
+        }
+        return Tasks.call(IO_EXECUTOR, () -> readChunk(run.parser)).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                return finish(run, task.getException());
+            }
+            Chunk chunk = task.getResult();
+            run.inFlight.add(submit(run, chunk));
+            if (chunk.last) {
+                return finish(run, null);
+            }
+            return awaitWindow(run).continueWithTask(ready -> {
+                if (run.failure != null) {
+                    return finish(run, null);
+                }
+                return pump(run);
+            });
+        });
+    }
+
+    private static Chunk readChunk(MoodImportParser parser) throws Exception {
+        List<MoodEvent> moodEvents = new ArrayList<>();
+        List<Long> recordOffsets = new ArrayList<>();
+        MoodEvent moodEvent = null;
+        while (moodEvents.size() < MOODS_PER_BATCH && (moodEvent = parser.next()) != null) {
+            moodEvents.add(moodEvent);
+            recordOffsets.add(parser.getOffset());
+        }
+        return new Chunk(moodEvents, recordOffsets, parser.getOffset(), parser.getSkipped(), moodEvent == null);
+    }
+
+    private Pending submit(Run run, Chunk chunk) {
+        if (chunk.moodEvents.isEmpty()) {
+            return new Pending(Tasks.forResult(null), 0, chunk.endOffset, chunk.skipped);
+        }
+        CollectionReference moods = db.collection("users").document(run.userId).collection("moods");
+        List<DocumentReference> moodRefs = new ArrayList<>();
+        for (long recordOffset : chunk.recordOffsets) {
+            moodRefs.add(moods.document(recordId(run.userId, run.sourceId, recordOffset)));
+        }
+        DocumentReference first = moodRefs.get(0);
+        Task<Void> commit = first.get(Source.CACHE)
+                .continueWithTask(cached -> cached.isSuccessful() && cached.getResult().exists()
+                        ? cached
+                        : metrics.track("MoodImportManager.checkBatch", first.get()))
+                .continueWithTask(check -> {
+                    // Offline with nothing cached the check fails; the batch was never written from here
+                    DocumentSnapshot existing = check.isSuccessful() ? check.getResult() : null;
+                    if (existing != null && existing.exists()) {
+                        // Committed by an earlier run that stopped before its acknowledgement
+                        return Tasks.forResult(null);
+                    }
+                    WriteBatch batch = db.batch();
+                    for (int i = 0; i < moodRefs.size(); i++) {
+                        MoodEvent moodEvent = chunk.moodEvents.get(i);
+                        moodEvent.setId(moodRefs.get(i).getId());
+                        moodEvent.setUserId(run.userId);
+                        moodEvent.setUserName(run.userName);
+                        moodEvent.setExisted(true);
+                        batch.set(moodRefs.get(i), moodEvent);
+                    }
+                    int writes = moodRefs.size() + (statsManager.addToBatch(batch, run.userId, chunk.moodEvents) ? 1 : 0);
+                    return metrics.track("MoodImportManager.commit", batch.commit(), writes);
+                });
+        return new Pending(commit, chunk.moodEvents.size(), chunk.endOffset, chunk.skipped);
+    }
+
+    /**
+     * Derives the document ID of an imported record, so the same record of the same file
+     * always lands on the same document.
+     *
+     * @param userId The user who owns the imported moods
+     * @param sourceId Identifies the import file
+     * @param recordOffset Parser offset just after the record
+     * @return A 20-character ID of lowercase hex digits
+     */
+    static String recordId(String userId, String sourceId, long recordOffset) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+        byte[] hash = digest.digest((userId + "\n" + sourceId + "\n" + recordOffset)
+                .getBytes(StandardCharsets.UTF_8));
+        StringBuilder id = new StringBuilder(ID_LENGTH);
+        for (int i = 0; id.length() < ID_LENGTH; i++) {
+            id.append(Character.forDigit((hash[i] >> 4) & 0xf, 16));
+            id.append(Character.forDigit(hash[i] & 0xf, 16));
+        }
+        return id.toString();
+    }
+
+    /**
+     * Waits for the oldest commits until fewer than MAX_IN_FLIGHT are outstanding.
+     */
+    private Task<Void> awaitWindow(Run run) {
+        if (run.inFlight.size() < MAX_IN_FLIGHT) {
+            return Tasks.forResult(null);
+        }
+        return awaitOldest(run).continueWithTask(task -> awaitWindow(run));
+    }
+
+    private Task<Void> awaitOldest(Run run) {
+        Pending oldest = run.inFlight.peek();
+        return oldest.commit.continueWith(task -> {
+            run.inFlight.poll();
+            if (!task.isSuccessful()) {
+                if (run.failure == null) {
+                    run.failure = task.getException();
+                }
+            } else if (run.failure == null) {
+                // Only advance while every earlier batch has committed
+                run.offset = oldest.endOffset;
+                run.imported += oldest.count;
+                run.skipped = oldest.skipped;
+                if (run.listener != null) {
+                    run.listener.onProgress(run.offset, run.imported, run.skipped);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Waits for every outstanding commit, then completes with the first failure, if any.
+     * A read error or cancellation is applied afterwards, so batches already sent still
+     * count towards the resume offset.
+     */
+    private Task<Void> finish(Run run, Exception error) {
+        if (!run.inFlight.isEmpty()) {
+            return awaitOldest(run).continueWithTask(task -> finish(run, error));
+        }
+        Exception failure = run.failure != null ? run.failure : error;
+        if (failure != null) {
+            return Tasks.forException(failure);
+        }
+        return Tasks.forResult(null);
+    }
+}
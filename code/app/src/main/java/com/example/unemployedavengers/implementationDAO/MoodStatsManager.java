@@ -0,0 +1,369 @@
+/**
+ * MoodStatsManager - Writes mood events together with the user's statistics aggregate.
+ *
+ * Purpose:
+ * - Keeps users/{uid}/stats/moods in step with users/{uid}/moods, so the stats screen
+ *   reads one document instead of every mood.
+ * - Recomputes the aggregate from scratch when it has drifted.
+ *
+ * Key Methods:
+ * - createMood: Writes a new mood event and its counters in one commit.
+ * - addToBatch: Adds many new mood events to the aggregate with one write in a WriteBatch.
+ * - loadMood: Reads the version of a mood event the device has, from the local cache first.
+ * - updateMood: Updates the fields of a mood event that changed and moves its counters.
+ * - deleteMood: Deletes a mood event and removes it from the aggregate.
+ * - getStats / isStale / rebuild: Read, check and recompute the aggregate.
+ *
+ * Design Patterns:
+ * - Follows the Data Access Object (DAO) pattern like CommentManager.
+ * - Counters are applied with FieldValue.increment in a merge set, so no write reads the
+ *   aggregate. Updates and deletes subtract the version of the mood the device already
+ *   has (the caller's, or the local cache's), so every write is a WriteBatch that
+ *   commits to the local cache while offline.
+ * - Every counter write also deletes the days that just left MoodStats' window, so the
+ *   document stays bounded without a read.
+ * - A delete is guarded by an update precondition in the same batch, so two deletes of
+ *   the same mood decrement the counters once.
+ *
+ * Known Issues:
+ * - The aggregate can drift if a mood is changed by something that bypasses this class,
+ *   or from another device after the caller loaded it; isStale compares the stored total
+ *   with a count() aggregation query to catch that.
+ */
+package com.example.unemployedavengers.implementationDAO;
+
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.MoodChanges;
+import com.example.unemployedavengers.MoodStats;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+public class MoodStatsManager {
+    private static final int REBUILD_PAGE_SIZE = 500;
+    // Rebuilds that lost a race with a mood write before giving up
+    private static final int MAX_REBUILD_ATTEMPTS = 3;
+
+    private final FirebaseFirestore db;
+    private final FirestoreMetrics metrics;
+    private final ZoneId zone;
+
+    public MoodStatsManager() {
+        db = FirebaseFirestore.getInstance();
+        metrics = FirestoreMetrics.getInstance();
+        zone = ZoneId.systemDefault();
+    }
+
+    /**
+     * Returns the aggregate document of a user.
+     */
+    public DocumentReference statsRef(String userId) {
+        return db.collection("users").document(userId).collection("stats").document("moods");
+    }
+
+    /**
+     * Writes a new mood event and adds it to the aggregate in one batch commit.
+     *
+     * @param userId The owner of the mood event
+     * @param moodDoc The new document, e.g. from moods.document()
+     * @param moodEvent The new mood event, with its id already set
+     * @return Task that completes when the batch commits
+     */
+    public Task<Void> createMood(String userId, DocumentReference moodDoc, MoodEvent moodEvent) {
+        WriteBatch batch = db.batch();
+        batch.set(moodDoc, moodEvent);
+        int writes = addToBatch(batch, userId, Collections.singletonList(moodEvent)) ? 2 : 1;
+        return metrics.track("MoodStatsManager.createMood", batch.commit(), writes);
+    }
+
+    /**
+     * Adds the counters of mood events written in the same batch as one merge write.
+     *
+     * @param batch The batch that creates the mood events
+     * @param userId The owner of the mood events
+     * @param moodEvents The new mood events
+     * @return True if the aggregate is written, false if the events change no counter
+     */
+    public boolean addToBatch(WriteBatch batch, String userId, List<MoodEvent> moodEvents) {
+        Map<String, Object> delta = new HashMap<>();
+        for (MoodEvent moodEvent : moodEvents) {
+            MoodStats.mergeInto(delta, MoodStats.contribution(moodEvent, 1, zone));
+        }
+        return addStatsWrite(batch, userId, delta);
+    }
+
+    /**
+     * Reads a mood event from the local cache, or from the server if it isn't cached.
+     * Cached writes that haven't reached the server yet are included.
+     *
+     * @param moodDoc The mood event's document
+     * @return Task with the mood event, or null if it doesn't exist
+     */
+    public Task<MoodEvent> loadMood(DocumentReference moodDoc) {
+        return moodDoc.get(Source.CACHE)
+                .continueWithTask(cached -> cached.isSuccessful()
+                        ? cached
+                        : metrics.track("MoodStatsManager.loadMood", moodDoc.get()))
+                .continueWith(task -> {
+                    DocumentSnapshot doc = task.getResult();
+                    return doc.exists() ? doc.toObject(MoodEvent.class) : null;
+                });
+    }
+
+    /**
+     * Updates only the fields of a mood event that differ from the version the caller
+     * loaded and moves its counters from that version to the new one. Nothing is written
+     * if no field changed.
+     * <p>
+     * The update fails with NOT_FOUND if the mood was deleted in the meantime, and the
+     * counters fail with it, so a deleted mood is never written back.
+     * </p>
+     *
+     * @param userId The owner of the mood event
+     * @param moodDoc The mood event's document
+     * @param previous The version of the mood event the edit started from
+     * @param moodEvent The new version of the mood event
+     * @return Task with the updated fields; empty if nothing changed
+     */
+    public Task<Map<String, Object>> updateMood(String userId, DocumentReference moodDoc,
+                                                MoodEvent previous, MoodEvent moodEvent) {
+        Map<String, Object> changes = MoodChanges.diff(previous, moodEvent);
+        if (changes.isEmpty()) {
+            return Tasks.forResult(changes);
+        }
+        Map<String, Object> delta = MoodStats.contribution(moodEvent, 1, zone);
+        MoodStats.mergeInto(delta, MoodStats.contribution(previous, -1, zone));
+
+        WriteBatch batch = db.batch();
+        batch.update(moodDoc, changes);
+        int writes = addStatsWrite(batch, userId, delta) ? 2 : 1;
+        return metrics.track("MoodStatsManager.updateMood", batch.commit(), writes)
+                .continueWith(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    return changes;
+                });
+    }
+
+    /**
+     * Deletes a mood event and removes the version the device has from the aggregate.
+     * A mood that is already gone is left alone.
+     * <p>
+     * The batch starts with an update of the mood, which carries Firestore's must-exist
+     * precondition. If another delete of the same mood (another screen, a retry, another
+     * device) commits first, the whole batch fails with NOT_FOUND, so the counters are
+     * only ever decremented once. Unlike a transaction, this still queues while offline.
+     * </p>
+     *
+     * @param userId The owner of the mood event
+     * @param moodDoc The mood event's document
+     * @return Task that completes when the batch commits
+     */
+    public Task<Void> deleteMood(String userId, DocumentReference moodDoc) {
+        return loadMood(moodDoc).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            MoodEvent previous = task.getResult();
+            if (previous == null) {
+                return Tasks.forResult(null);
+            }
+            WriteBatch batch = db.batch();
+            // Rewrites a field with its own value only to fail the batch if the mood is gone
+            batch.update(moodDoc, "time", previous.getTime());
+            batch.delete(moodDoc);
+            int writes = addStatsWrite(batch, userId, MoodStats.contribution(previous, -1, zone)) ? 3 : 2;
+            return metrics.track("MoodStatsManager.deleteMood", batch.commit(), writes);
+        }).continueWith(task -> {
+            Exception e = task.getException();
+            if (e instanceof FirebaseFirestoreException && ((FirebaseFirestoreException) e).getCode()
+                    == FirebaseFirestoreException.Code.NOT_FOUND) {
+                return null; // deleted by someone else first
+            }
+            if (!task.isSuccessful()) {
+                throw e;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Reads the aggregate document.
+     *
+     * @param userId The user whose statistics are wanted
+     * @return Task with the statistics; empty if the aggregate doesn't exist yet
+     */
+    public Task<MoodStats> getStats(String userId) {
+        return metrics.track("MoodStatsManager.getStats", statsRef(userId).get())
+                .continueWith(task -> new MoodStats(task.getResult().getData()));
+    }
+
+    /**
+     * Checks whether an aggregate needs a rebuild: it is missing, has an older layout,
+     * or its total no longer matches the number of mood documents.
+     *
+     * @param userId The owner of the aggregate
+     * @param stats The aggregate as last read
+     * @return Task with true if {@link #rebuild(String)} should run
+     */
+    public Task<Boolean> isStale(String userId, MoodStats stats) {
+        if (stats.getVersion() < MoodStats.CURRENT_VERSION) {
+            return Tasks.forResult(true);
+        }
+        // A count() query is billed as one read per 1000 documents
+        return db.collection("users").document(userId).collection("moods")
+                .count()
+                .get(AggregateSource.SERVER)
+                .continueWith(task -> task.getResult().getCount() != stats.getTotal());
+    }
+
+    /**
+     * Recomputes the aggregate from every mood event and replaces the stored document.
+     * Moods are read a page at a time, so only the running totals stay in memory.
+     * <p>
+     * The replacement runs in a transaction that first checks the aggregate is still as it
+     * was before the first page; if a mood was written meanwhile, the rebuild starts over,
+     * so counters incremented during the rebuild are never overwritten.
+     * </p>
+     *
+     * @param userId The owner of the aggregate
+     * @return Task with the rebuilt statistics
+     */
+    public Task<MoodStats> rebuild(String userId) {
+        return rebuild(userId, 1);
+    }
+
+    private Task<MoodStats> rebuild(String userId, int attempt) {
+        DocumentReference stats = statsRef(userId);
+        return metrics.track("MoodStatsManager.rebuildStart", stats.get(Source.SERVER)).continueWithTask(start -> {
+            if (!start.isSuccessful()) {
+                throw start.getException();
+            }
+            Map<String, Object> before = start.getResult().getData();
+            Map<String, Object> aggregate = new HashMap<>();
+            aggregate.put(MoodStats.TOTAL, 0L);
+            return rebuildPage(userId, null, aggregate).continueWithTask(task -> {
+                if (!task.isSuccessful()) {
+                    throw task.getException();
+                }
+                MoodStats.trimDays(aggregate, LocalDate.now(zone));
+                aggregate.put(MoodStats.VERSION, MoodStats.CURRENT_VERSION);
+                aggregate.put(MoodStats.REBUILT_AT, System.currentTimeMillis());
+                Task<Boolean> replace = db.runTransaction(transaction -> {
+                    if (!Objects.equals(before, transaction.get(stats).getData())) {
+                        return false;
+                    }
+                    transaction.set(stats, aggregate);
+                    return true;
+                });
+                return metrics.track("MoodStatsManager.rebuild", replace, replaced -> replaced ? 1 : 0)
+                        .continueWithTask(write -> {
+                            if (!write.isSuccessful()) {
+                                throw write.getException();
+                            }
+                            if (write.getResult()) {
+                                return Tasks.forResult(new MoodStats(aggregate));
+                            }
+                            if (attempt == MAX_REBUILD_ATTEMPTS) {
+                                throw new FirebaseFirestoreException("Moods kept changing during the rebuild",
+                                        FirebaseFirestoreException.Code.ABORTED);
+                            }
+                            return rebuild(userId, attempt + 1);
+                        });
+            });
+        });
+    }
+
+    private Task<Void> rebuildPage(String userId, DocumentSnapshot after, Map<String, Object> aggregate) {
+        Query page = db.collection("users").document(userId).collection("moods")
+                .orderBy(FieldPath.documentId())
+                .limit(REBUILD_PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        return metrics.track("MoodStatsManager.rebuildPage", page.get()).continueWithTask(task -> {
+            if (!task.isSuccessful()) {
+                throw task.getException();
+            }
+            QuerySnapshot snapshot = task.getResult();
+            List<DocumentSnapshot> docs = snapshot.getDocuments();
+            for (DocumentSnapshot doc : docs) {
+                MoodEvent moodEvent = doc.toObject(MoodEvent.class);
+                if (moodEvent != null) {
+                    MoodStats.mergeInto(aggregate, MoodStats.contribution(moodEvent, 1, zone));
+                }
+            }
+            if (docs.size() < REBUILD_PAGE_SIZE) {
+                return Tasks.forResult(null);
+            }
+            return rebuildPage(userId, docs.get(docs.size() - 1), aggregate);
+        });
+    }
+
+    /**
+     * Adds a counter delta to a batch as one merge write, together with deletes of the
+     * days that just left the window.
+     *
+     * @return True if the aggregate is written, false if the delta changes no counter
+     */
+    @SuppressWarnings("unchecked")
+    private boolean addStatsWrite(WriteBatch batch, String userId, Map<String, Object> delta) {
+        LocalDate today = LocalDate.now(zone);
+        // Days already outside the window aren't counted
+        MoodStats.trimDays(delta, today);
+        if (MoodStats.pruneZeros(delta)) {
+            return false;
+        }
+        Map<String, Object> write = toIncrements(delta);
+        for (String key : new String[]{MoodStats.BY_DAY, MoodStats.REASON_TOKENS}) {
+            Map<String, Object> days = (Map<String, Object>) write.get(key);
+            if (days == null) {
+                days = new HashMap<>();
+                write.put(key, days);
+            }
+            for (String day : MoodStats.rollOffDays(today)) {
+                days.put(day, FieldValue.delete());
+            }
+        }
+        batch.set(statsRef(userId), write, SetOptions.merge());
+        return true;
+    }
+
+    /**
+     * Replaces the Long leaves of a contribution with FieldValue.increment.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> toIncrements(Map<String, Object> delta) {
+        Map<String, Object> increments = new HashMap<>();
+        for (Map.Entry<String, Object> entry : delta.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Map) {
+                increments.put(entry.getKey(), toIncrements((Map<String, Object>) value));
+            } else if (value instanceof Number) {
+                increments.put(entry.getKey(), FieldValue.increment(((Number) value).longValue()));
+            }
+        }
+        return increments;
+    }
+}
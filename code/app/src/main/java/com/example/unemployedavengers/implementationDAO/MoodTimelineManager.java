@@ -0,0 +1,127 @@
+/**
+ * MoodTimelineManager - Loads a user's mood history for the timeline chart.
+ *
+ * Purpose:
+ * - Reads the moods of one time range of users/{uid}/moods, oldest first, one page at a
+ *   time, and hands each page's times and moods to the chart so it can draw before the
+ *   range is loaded. The chart asks for older ranges only when they come into view.
+ *
+ * Key Methods:
+ * - getFirstTime: Reads the time of the oldest mood, so the chart knows how far back it
+ *   can pan without loading the history.
+ * - load: Pages through the moods of a time range and reports every page to a listener.
+ *
+ * Design Patterns:
+ * - Follows the Data Access Object (DAO) pattern like MoodExportManager, and pages
+ *   the same way: ordered by time and document ID, continuing with startAfter.
+ * - The SDK downloads whole documents, so each page costs its full size in bandwidth;
+ *   only the time and mood of each document are kept, in primitive arrays, instead of
+ *   mapping whole MoodEvent objects.
+ *
+ * Known Issues:
+ * - Moods edited while a range loads may be drawn with their old values until the
+ *   next open.
+ */
+package com.example.unemployedavengers.implementationDAO;
+
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.google.android.gms.tasks.CancellationToken;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+public class MoodTimelineManager {
+    private static final int PAGE_SIZE = 500;
+
+    /**
+     * Receives each loaded page on the main thread.
+     */
+    public interface PageListener {
+        /**
+         * @param times Epoch milliseconds of the page's moods, oldest first
+         * @param moods The moods, in the same order
+         */
+        void onPage(long[] times, String[] moods);
+    }
+
+    private final FirebaseFirestore db;
+    private final FirestoreMetrics metrics;
+
+    public MoodTimelineManager() {
+        db = FirebaseFirestore.getInstance();
+        metrics = FirestoreMetrics.getInstance();
+    }
+
+    /**
+     * Reads the time of a user's oldest mood.
+     *
+     * @param userId The user whose moods are charted
+     * @return Task with the time in epoch milliseconds, or null if the user has no moods
+     */
+    public Task<Long> getFirstTime(String userId) {
+        Query first = moods(userId).orderBy("time").limit(1);
+        return metrics.track("MoodTimelineManager.getFirstTime", first.get()).continueWith(task -> {
+            List<DocumentSnapshot> docs = task.getResult().getDocuments();
+            return docs.isEmpty() ? null : docs.get(0).getLong("time");
+        });
+    }
+
+    /**
+     * Loads the moods of a user in a time range, page by page.
+     *
+     * @param userId The user whose moods are loaded
+     * @param from Start of the range, inclusive, epoch milliseconds
+     * @param to End of the range, exclusive; Long.MAX_VALUE for no end
+     * @param listener Told about each page as it arrives
+     * @param token Stops loading between pages; the task then fails with a CancellationException
+     * @return Task that completes after the last page
+     */
+    public Task<Void> load(String userId, long from, long to, PageListener listener, CancellationToken token) {
+        Query range = moods(userId).whereGreaterThanOrEqualTo("time", from);
+        if (to != Long.MAX_VALUE) {
+            range = range.whereLessThan("time", to);
+        }
+        return loadPage(range.orderBy("time").orderBy(FieldPath.documentId()), null, listener, token);
+    }
+
+    private CollectionReference moods(String userId) {
+        return db.collection("users").document(userId).collection("moods");
+    }
+
+    private Task<Void> loadPage(Query range, DocumentSnapshot after,
+                                PageListener listener, CancellationToken token) {
+        if (token != null && token.isCancellationRequested()) {
+            return Tasks.forException(new CancellationException("Timeline load cancelled"));
+        }
+        Query page = range.limit(PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        return metrics.track("MoodTimelineManager.loadPage", page.get())
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        return Tasks.forException(task.getException());
+                    }
+                    List<DocumentSnapshot> docs = task.getResult().getDocuments();
+                    long[] times = new long[docs.size()];
+                    String[] moodNames = new String[docs.size()];
+                    for (int i = 0; i < docs.size(); i++) {
+                        Long time = docs.get(i).getLong("time");
+                        times[i] = time != null ? time : 0;
+                        moodNames[i] = docs.get(i).getString("mood");
+                    }
+                    listener.onPage(times, moodNames);
+                    if (docs.size() < PAGE_SIZE) {
+                        return Tasks.forResult(null);
+                    }
+                    return loadPage(range, docs.get(docs.size() - 1), listener, token);
+                });
+    }
+}
@@ -36,6 +36,14 @@
  * - IUserDAO interface contract
  * - User model class
  *
+ * Username Reservations:
+ * - usernames/{lowercase name} holds {uid, username} and is the source of truth
+ *   for who owns a name; signUpUser and changeUsername claim it in a transaction
+ * - Existence checks and username-to-uid lookups are single-document gets, and
+ *   resolved uids are cached for the rest of the process
+ * - Accounts created before reservations existed fall back to the old
+ *   "username" query and get their reservation backfilled on profile load
+ *
  * Performance Notes:
  * - Some queries could benefit from Firestore indexes
  * - Search operations use client-side filtering
@@ -51,7 +59,12 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import com.example.unemployedavengers.BatchHelper;
 import com.example.unemployedavengers.DAO.IUserDAO;
+import com.example.unemployedavengers.FollowGraph;
+import com.example.unemployedavengers.FirestoreMetrics;
+import com.example.unemployedavengers.ProfileStore;
+import com.example.unemployedavengers.UsernameSearchIndex;
 import com.example.unemployedavengers.models.User;
 import com.google.android.gms.tasks.Task;
 import com.google.android.gms.tasks.Tasks;
@@ -60,29 +73,52 @@ import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.DocumentReference;
 import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
 import com.google.firebase.firestore.QuerySnapshot;
 import com.google.firebase.firestore.WriteBatch;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
 public class UserDAOImplement implements IUserDAO {
+    private static final int SEARCH_LIMIT = 20;
+    // Trigram queries per substring search
+    private static final int SEARCH_TRIGRAMS = 3;
+    // Deleting the request, plus the following and followers entries
+    private static final int ACCEPT_WRITES = 3;
+    private static final int UID_CACHE_SIZE = 256;
+    private static final String USERNAME_TAKEN = "Username already taken";
+
+    // Lowercase username -> uid, shared by every DAO instance in the process
+    private static final Map<String, String> uidCache = Collections.synchronizedMap(
+            new LinkedHashMap<String, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > UID_CACHE_SIZE;
+                }
+            });
 
     private final FirebaseAuth auth;
     private final FirebaseFirestore db;
+    private final FirestoreMetrics metrics;
 
     public UserDAOImplement() {
         auth = FirebaseAuth.getInstance();
         db = FirebaseFirestore.getInstance();
+        metrics = FirestoreMetrics.getInstance();
     }
 
     /**
      * Registers a new user in Firebase Authentication and stores user details in Firestore.
      * <p>
      * Since Firebase Authentication requires an email, a dummy email is generated using the username.
-     * After user creation, the details are stored in the Firestore database.
+     * After user creation, the profile and the username reservation are written in one transaction.
+     * If the name is already reserved by someone else, the new Auth account is deleted again.
      * </p>
      *
      * @param username The desired username for the user.
@@ -114,9 +150,30 @@ public class UserDAOImplement implements IUserDAO {
                     // Create a User object
                     User user = new User(userId, username, dummyEmail, password, "");
 
-                    // Store user in Firestore
+                    // Store the profile and claim the username together
                     DocumentReference userDoc = db.collection("users").document(userId);
-                    return userDoc.set(user);
+                    DocumentReference reservation = reservationFor(username);
+                    Task<Void> claim = db.runTransaction(transaction -> {
+                        DocumentSnapshot existing = transaction.get(reservation);
+                        if (existing.exists() && !userId.equals(existing.getString("uid"))) {
+                            throw new FirebaseFirestoreException(USERNAME_TAKEN,
+                                    FirebaseFirestoreException.Code.ALREADY_EXISTS);
+                        }
+                        transaction.set(reservation, reservationData(userId, username));
+                        transaction.set(userDoc, user);
+                        return null;
+                    });
+                    return metrics.track("UserDAO.signUpUser", claim, 2)
+                            .continueWithTask(claimTask -> {
+                                if (!claimTask.isSuccessful()) {
+                                    // Don't leave an Auth account without a profile behind
+                                    Exception error = claimTask.getException();
+                                    return firebaseUser.delete()
+                                            .continueWithTask(deleteTask -> Tasks.<Void>forException(error));
+                                }
+                                uidCache.put(UsernameSearchIndex.normalize(username), userId);
+                                return Tasks.forResult(null);
+                            });
                 });
     }
 
@@ -152,8 +209,8 @@ public class UserDAOImplement implements IUserDAO {
     /**
      * Checks if a user exists in Firestore.
      * <p>
-     * This method queries the Firestore database for a document in the "users" collection
-     * where the "username" field matches the provided username.
+     * This method reads the username's reservation document, so the check costs at most
+     * one document read and nothing once the name has been resolved in this process.
      * </p>
      *
      * @param username The username to check for existence.
@@ -165,19 +222,15 @@ public class UserDAOImplement implements IUserDAO {
      */
     @Override
     public Task<Boolean> checkUserExists(@NonNull String username) {
-        // Query the database to check if the user exists
-        return db.collection("users")
-                .whereEqualTo("username", username)
-                .limit(1)
-                .get()
+        return resolveUserId(username, true)
                 .continueWith(task -> {
-                    if (!task.isSuccessful() || task.getResult() == null) {
+                    if (!task.isSuccessful()) {
                         throw task.getException() != null
                                 ? task.getException()
                                 : new Exception("Error fetching user record.");
                     }
-                    // If the query returns at least one document, the user exists.
-                    return !task.getResult().isEmpty();
+                    // The user exists if the name resolves to a uid
+                    return task.getResult() != null;
                 });
     }
     /**
@@ -221,7 +274,7 @@ public class UserDAOImplement implements IUserDAO {
                     DocumentReference userDoc = db.collection("users").document(uid);
                     Map<String, Object> updates = new HashMap<>();
                     updates.put("password", newPassword);
-                    return userDoc.update(updates);
+                    return metrics.track("UserDAO.changePassword", userDoc.update(updates));
                 });
     }
 
@@ -241,7 +294,7 @@ public class UserDAOImplement implements IUserDAO {
         DocumentReference userDoc = db.collection("users").document(uid);
         Map<String, Object> updates = new HashMap<>();
         updates.put("avatar", avatarUrl);
-        return userDoc.update(updates)
+        return metrics.track("UserDAO.updateUserAvatar", userDoc.update(updates))
                 .addOnSuccessListener(aVoid -> {
                     // Log or perform further operations if needed.
                     Log.d("UserDAOImplement", "Avatar updated successfully.");
@@ -256,8 +309,8 @@ public class UserDAOImplement implements IUserDAO {
      * Resets the password of a user in Firebase Authentication and updates it in Firestore.
      * <p>
      * This method follows these steps:
-     * - Queries Firestore to check if the username exists.
-     * - Retrieves the stored password from Firestore.
+     * - Resolves the username to a user ID through its reservation.
+     * - Retrieves the stored password from the user's document.
      * - Signs in the user using Firebase Authentication with the retrieved password.
      * - Retrieves the user's profile from Firestore.
      * - Updates the user's password in both Firebase Authentication and Firestore.
@@ -274,17 +327,14 @@ public class UserDAOImplement implements IUserDAO {
     public Task<Void> resetPassword(@NonNull String username, @NonNull String newPassword) {
         final String dummyEmail = username.toLowerCase() + "@example.com";
 
-        return db.collection("users")
-                .whereEqualTo("username", username)
-                .limit(1)
-                .get()
+        return getUserDocument(username)
                 .continueWithTask(task -> {
-                    if (!task.isSuccessful() || task.getResult() == null || task.getResult().isEmpty()) {
+                    if (!task.isSuccessful() || task.getResult() == null) {
                         throw new Exception("User record not found in Firestore.");
                     }
 
                     // Retrieve the stored password from Firestore
-                    String storedPassword = task.getResult().getDocuments().get(0).getString("password");
+                    String storedPassword = task.getResult().getString("password");
                     if (storedPassword == null) {
                         throw new Exception("Stored password not found.");
                     }
@@ -330,11 +380,28 @@ public class UserDAOImplement implements IUserDAO {
         DocumentReference userDoc = db.collection("users").document(userId);
 
         // Fetch the user profile from Firestore and convert it to a User object
-        return userDoc.get().continueWith(task -> {
+        return metrics.track("UserDAO.getCurrentUserProfile", userDoc.get()).continueWith(task -> {
             if (!task.isSuccessful() || task.getResult() == null) {
                 throw new Exception("Failed to fetch user profile");
             }
-            return task.getResult().toObject(User.class);
+            DocumentSnapshot snapshot = task.getResult();
+            ProfileStore.getInstance().put(snapshot);
+            User user = snapshot.toObject(User.class);
+
+            // Profiles created before case-insensitive search lack the search fields; backfill them
+            if (user != null && user.getUsername() != null && !snapshot.contains("username_lower")) {
+                Map<String, Object> searchFields = new HashMap<>();
+                searchFields.put("username_lower", user.getUsernameLower());
+                searchFields.put("username_trigrams", user.getUsernameTrigrams());
+                metrics.track("UserDAO.backfillSearchFields", userDoc.update(searchFields));
+            }
+
+            // Profiles created before username reservations may not own their reservation yet
+            if (user != null && user.getUsername() != null
+                    && !userId.equals(uidCache.get(user.getUsernameLower()))) {
+                backfillReservation(userId, user.getUsername());
+            }
+            return user;
         });
     }
 
@@ -344,14 +411,16 @@ public class UserDAOImplement implements IUserDAO {
      * This method:
      * - Generates a new dummy email based on the new username.
      * - Updates the user's email in Firebase Authentication.
-     * - Updates the username and dummy email in Firestore.
+     * - In one transaction, claims the new username's reservation, releases the old one
+     *   and updates the username fields, so two users can't end up with the same name.
+     * - Restores the old Auth email if the transaction fails.
      * </p>
      *
      * @param newUsername The new username to be assigned to the user.
      * @return A {@link Task<Void>} indicating the success or failure of the username change.
      *         - On success, the username and dummy email are updated in both Firebase Authentication and Firestore.
      *         - On failure, an exception is thrown.
-     * @throws Exception If no user is signed in or if the update operation fails.
+     * @throws Exception If no user is signed in, the name is taken or the update operation fails.
      */
     @Override
     public Task<Void> changeUsername(@NonNull String newUsername) {
@@ -363,6 +432,10 @@ public class UserDAOImplement implements IUserDAO {
             return Tasks.forException(new Exception("No user is signed in."));
         }
 
+        final String oldEmail = currentUser.getEmail();
+        final String uid = currentUser.getUid();
+        final String newLower = UsernameSearchIndex.normalize(newUsername);
+
         // Update the user's email in Firebase Authentication
         return currentUser.updateEmail(newDummyEmail)
                 .continueWithTask(task -> {
@@ -370,13 +443,54 @@ public class UserDAOImplement implements IUserDAO {
                         throw task.getException();
                     }
 
-                    // Update the username and dummy email in Firestore
-                    String uid = currentUser.getUid();
                     DocumentReference userDoc = db.collection("users").document(uid);
+                    DocumentReference newReservation = reservationFor(newUsername);
                     Map<String, Object> updates = new HashMap<>();
                     updates.put("username", newUsername);
                     updates.put("dummyEmail", newDummyEmail);
-                    return userDoc.update(updates);
+                    updates.put("username_lower", newLower);
+                    updates.put("username_trigrams", UsernameSearchIndex.trigrams(newLower));
+
+                    // Set by the attempt that commits; the old reservation is not always deleted
+                    int[] writes = {0};
+                    // All reads happen before any write, as Firestore transactions require
+                    Task<String> rename = db.runTransaction(transaction -> {
+                        DocumentSnapshot profile = transaction.get(userDoc);
+                        DocumentSnapshot claimed = transaction.get(newReservation);
+                        if (claimed.exists() && !uid.equals(claimed.getString("uid"))) {
+                            throw new FirebaseFirestoreException(USERNAME_TAKEN,
+                                    FirebaseFirestoreException.Code.ALREADY_EXISTS);
+                        }
+
+                        String oldLower = UsernameSearchIndex.normalize(profile.getString("username"));
+                        writes[0] = 2;
+                        if (!oldLower.isEmpty() && !oldLower.equals(newLower)) {
+                            DocumentReference oldReservation = db.collection("usernames").document(oldLower);
+                            DocumentSnapshot old = transaction.get(oldReservation);
+                            if (old.exists() && uid.equals(old.getString("uid"))) {
+                                transaction.delete(oldReservation);
+                                writes[0]++;
+                            }
+                        }
+                        transaction.set(newReservation, reservationData(uid, newUsername));
+                        transaction.update(userDoc, updates);
+                        return oldLower;
+                    });
+                    return metrics.track("UserDAO.changeUsername", rename, oldLower -> writes[0])
+                            .continueWithTask(renameTask -> {
+                                if (!renameTask.isSuccessful()) {
+                                    // Put the Auth email back so it keeps matching the stored username
+                                    Exception error = renameTask.getException();
+                                    if (oldEmail == null) {
+                                        return Tasks.<Void>forException(error);
+                                    }
+                                    return currentUser.updateEmail(oldEmail)
+                                            .continueWithTask(revertTask -> Tasks.<Void>forException(error));
+                                }
+                                uidCache.remove(renameTask.getResult());
+                                uidCache.put(newLower, uid);
+                                return Tasks.forResult(null);
+                            });
                 });
     }
 
@@ -409,7 +523,13 @@ public class UserDAOImplement implements IUserDAO {
         requestData.put("requesterId", requesterId); // Store requester ID
 
         // Store the follow request in Firestore
-        return requestDocRef.set(requestData);
+        return metrics.track("UserDAO.requestFollow", requestDocRef.set(requestData))
+                .addOnSuccessListener(aVoid -> {
+                    FollowGraph graph = FollowGraph.getInstance();
+                    if (requesterId.equals(graph.getUserId())) {
+                        graph.markRequested(targetId);
+                    }
+                });
     }
 
 
@@ -431,6 +551,104 @@ public class UserDAOImplement implements IUserDAO {
      */
     @Override
     public Task<Void> acceptFollowRequest(@NonNull String requesterId, @NonNull String targetId) {
+        // Use a Firestore batch to execute all operations atomically
+        WriteBatch batch = db.batch();
+        addAcceptOperations(batch, requesterId, targetId, System.currentTimeMillis());
+
+        return metrics.track("UserDAO.acceptFollowRequest", batch.commit(), ACCEPT_WRITES)
+                .addOnSuccessListener(aVoid -> {
+                    Log.d("FollowRequest", "Follow request accepted successfully");
+                })
+                .addOnFailureListener(e -> {
+                    Log.e("FollowRequest", "Failed to accept follow request", e);
+                });
+    }
+
+    /**
+     * Rejects a follow request by deleting the request document from Firestore.
+     * <p>
+     * This method:
+     * - Locates the follow request document in the target user's "requests" subcollection.
+     * - Deletes the request document, effectively rejecting the follow request.
+     * </p>
+     *
+     * @param requesterId The user ID of the user who sent the follow request.
+     * @param targetId The user ID of the user rejecting the follow request.
+     * @return A {@link Task<Void>} indicating the success or failure of the operation.
+     *         - On success, the follow request is deleted.
+     *         - On failure, an exception is thrown.
+     */
+    @Override
+    public Task<Void> rejectFollowRequest(@NonNull String requesterId, @NonNull String targetId) {
+        // Reference to the follow request document in Firestore
+        DocumentReference requestDocRef = db.collection("users")
+                .document(targetId)
+                .collection("requests")
+                .document(requesterId);
+
+        // Delete the follow request document
+        return metrics.track("UserDAO.rejectFollowRequest", requestDocRef.delete());
+    }
+
+    /**
+     * Accepts many follow requests at once.
+     * <p>
+     * This method:
+     * - Packs the three operations of each acceptance into shared batches, up to the
+     *   batch write limit (166 requests per batch).
+     * - Commits the batches in parallel.
+     * - Reports the requesters of any batch that failed, so the caller can retry or show them again.
+     * </p>
+     *
+     * @param requesterIds The user IDs of the users who sent the follow requests.
+     * @param targetId The user ID of the user accepting the follow requests.
+     * @return A {@link Task} with the requester IDs that were not accepted; empty if all were.
+     */
+    @Override
+    public Task<List<String>> acceptFollowRequests(@NonNull List<String> requesterIds, @NonNull String targetId) {
+        long timestamp = System.currentTimeMillis();
+        List<List<String>> chunks = BatchHelper.partition(
+                new ArrayList<>(new LinkedHashSet<>(requesterIds)), BatchHelper.itemsPerBatch(ACCEPT_WRITES));
+        List<Task<Void>> commits = new ArrayList<>();
+        for (List<String> chunk : chunks) {
+            WriteBatch batch = db.batch();
+            for (String requesterId : chunk) {
+                addAcceptOperations(batch, requesterId, targetId, timestamp);
+            }
+            commits.add(metrics.track("UserDAO.acceptFollowRequests", batch.commit(), chunk.size() * ACCEPT_WRITES));
+        }
+        return collectFailures(chunks, commits);
+    }
+
+    /**
+     * Rejects many follow requests at once, deleting up to 500 request documents per batch.
+     *
+     * @param requesterIds The user IDs of the users who sent the follow requests.
+     * @param targetId The user ID of the user rejecting the follow requests.
+     * @return A {@link Task} with the requester IDs that were not rejected; empty if all were.
+     */
+    @Override
+    public Task<List<String>> rejectFollowRequests(@NonNull List<String> requesterIds, @NonNull String targetId) {
+        List<List<String>> chunks = BatchHelper.partition(
+                new ArrayList<>(new LinkedHashSet<>(requesterIds)), BatchHelper.MAX_BATCH_WRITES);
+        List<Task<Void>> commits = new ArrayList<>();
+        for (List<String> chunk : chunks) {
+            WriteBatch batch = db.batch();
+            for (String requesterId : chunk) {
+                batch.delete(db.collection("users")
+                        .document(targetId)
+                        .collection("requests")
+                        .document(requesterId));
+            }
+            commits.add(metrics.track("UserDAO.rejectFollowRequests", batch.commit(), chunk.size()));
+        }
+        return collectFailures(chunks, commits);
+    }
+
+    /**
+     * Adds the operations that turn one follow request into a follow relationship.
+     */
+    private void addAcceptOperations(WriteBatch batch, String requesterId, String targetId, long timestamp) {
         // Reference to the follow request document to be deleted
         DocumentReference requestDocRef = db.collection("users")
                 .document(targetId)
@@ -449,8 +667,6 @@ public class UserDAOImplement implements IUserDAO {
                 .collection("followers")
                 .document(requesterId);
 
-        long timestamp = System.currentTimeMillis();
-
         // Data to be stored in the requester's "following" subcollection
         Map<String, Object> followingData = new HashMap<>();
         followingData.put("followedId", targetId);
@@ -461,45 +677,26 @@ public class UserDAOImplement implements IUserDAO {
         followerData.put("followerId", requesterId);
         followerData.put("followedAt", timestamp);
 
-        // Use a Firestore batch to execute all operations atomically
-        WriteBatch batch = db.batch();
         batch.delete(requestDocRef); // Remove the follow request
         batch.set(followerFollowingRef, followingData); // Add target to requester's following list
         batch.set(followedFollowersRef, followerData); // Add requester to target's followers list
-
-        return batch.commit()
-                .addOnSuccessListener(aVoid -> {
-                    Log.d("FollowRequest", "Follow request accepted successfully");
-                })
-                .addOnFailureListener(e -> {
-                    Log.e("FollowRequest", "Failed to accept follow request", e);
-                });
     }
 
     /**
-     * Rejects a follow request by deleting the request document from Firestore.
-     * <p>
-     * This method:
-     * - Locates the follow request document in the target user's "requests" subcollection.
-     * - Deletes the request document, effectively rejecting the follow request.
-     * </p>
-     *
-     * @param requesterId The user ID of the user who sent the follow request.
-     * @param targetId The user ID of the user rejecting the follow request.
-     * @return A {@link Task<Void>} indicating the success or failure of the operation.
-     *         - On success, the follow request is deleted.
-     *         - On failure, an exception is thrown.
+     * Waits for every batch and returns the items of the batches that failed.
      */
-    @Override
-    public Task<Void> rejectFollowRequest(@NonNull String requesterId, @NonNull String targetId) {
-        // Reference to the follow request document in Firestore
-        DocumentReference requestDocRef = db.collection("users")
-                .document(targetId)
-                .collection("requests")
-                .document(requesterId);
-
-        // Delete the follow request document
-        return requestDocRef.delete();
+    private static Task<List<String>> collectFailures(List<List<String>> chunks, List<Task<Void>> commits) {
+        return Tasks.whenAllComplete(commits).continueWith(task -> {
+            List<String> failed = new ArrayList<>();
+            for (int i = 0; i < commits.size(); i++) {
+                if (!commits.get(i).isSuccessful()) {
+                    Log.e("FollowRequest", "Batch of " + chunks.get(i).size() + " requests failed",
+                            commits.get(i).getException());
+                    failed.addAll(chunks.get(i));
+                }
+            }
+            return failed;
+        });
     }
 
 
@@ -537,56 +734,81 @@ public class UserDAOImplement implements IUserDAO {
         batch.delete(followerFollowingRef); // Remove from follower's "following"
         batch.delete(followedFollowersRef); // Remove from followed user's "followers"
 
-        return batch.commit(); // Execute the batch operation
+        return metrics.track("UserDAO.unfollowUser", batch.commit(), 2); // Execute the batch operation
     }
 
 
 
     /**
-     * Searches for users in Firestore whose usernames match or start with the given search term.
+     * Searches for users whose usernames start with or contain the given search term, ignoring case.
      * <p>
      * This method:
-     * - Queries the Firestore "users" collection for usernames matching the search term.
-     * - Retrieves the current user's profile to exclude them from the search results.
-     * - Uses Firestore's `orderBy` and range filtering (`startAt` and `endAt`) to efficiently find matching users.
-     * - Returns a list of users who match the search query, excluding the currently signed-in user.
+     * - Runs a prefix range query on the normalized "username_lower" field.
+     * - Runs the legacy case-sensitive prefix query on "username" as well, because profiles created
+     *   before case-insensitive search have no "username_lower" until their owner signs in again.
+     * - For terms of 3+ characters, also runs one array-contains query on "username_trigrams" for each
+     *   of up to {@link #SEARCH_TRIGRAMS} trigrams spread across the term, and keeps only users whose
+     *   username really contains the term. Every match holds every trigram, so as soon as one trigram
+     *   is rare enough for its query to come back under the limit, no match can be missed; a common
+     *   trigram no longer hides matches behind its first results.
+     * - Excludes the signed-in user by comparing against the Firebase Auth UID in memory.
+     * - Returns prefix matches first, each query capped at {@link #SEARCH_LIMIT} documents.
      * </p>
      *
      * @param userName The search term to find matching usernames.
      * @return A {@link Task<List<User>>} containing the list of matching users.
-     *         - On success, returns a list of users whose usernames start with the given search term.
+     *         - On success, returns prefix matches followed by substring matches.
      *         - On failure, an exception is thrown.
      */
     @Override
     public Task<List<User>> searchUsers(@NonNull String userName) {
-        // Query Firestore for users whose usernames match the search term
-        Task<QuerySnapshot> queryTask = db.collection("users")
-                .orderBy("username")
-                .startAt(userName)
-                .endAt(userName + "\uf8ff") // Firestore range filtering to get usernames that start with the given term
-                .get();
-
-        // Retrieve the current user's profile to exclude them from the results
-        Task<User> currentUserTask = getCurrentUserProfile();
-
-        // Execute both tasks and process results when all tasks complete successfully
-        return Tasks.whenAllSuccess(queryTask, currentUserTask)
+        final String query = UsernameSearchIndex.normalize(userName);
+        FirebaseUser firebaseUser = auth.getCurrentUser();
+        final String currentUid = firebaseUser != null ? firebaseUser.getUid() : null;
+
+        List<Task<QuerySnapshot>> queries = new ArrayList<>();
+        queries.add(metrics.track("UserDAO.searchUsers", db.collection("users")
+                .orderBy("username_lower")
+                .startAt(query)
+                .endAt(query + "\uf8ff") // Firestore range filtering to get usernames that start with the given term
+                .limit(SEARCH_LIMIT)
+                .get()));
+        // Profiles without "username_lower" are left out of the query above; find them by "username"
+        String term = userName.trim();
+        if (!term.isEmpty()) {
+            queries.add(metrics.track("UserDAO.searchUsersLegacy", db.collection("users")
+                    .orderBy("username")
+                    .startAt(term)
+                    .endAt(term + "\uf8ff")
+                    .limit(SEARCH_LIMIT)
+                    .get()));
+        }
+
+        // Each trigram narrows the candidates; contains() below does the exact check
+        for (String gram : UsernameSearchIndex.spreadTrigrams(query, SEARCH_TRIGRAMS)) {
+            queries.add(metrics.track("UserDAO.searchUsers", db.collection("users")
+                    .whereArrayContains("username_trigrams", gram)
+                    .limit(SEARCH_LIMIT)
+                    .get()));
+        }
+
+        return Tasks.whenAllSuccess(queries)
                 .continueWith(task -> {
-                    // Extract the results from both tasks
-                    List<Object> results = task.getResult();
-                    QuerySnapshot querySnapshot = (QuerySnapshot) results.get(0); // Retrieved user list
-                    User currentUser = (User) results.get(1); // Current user profile
-                    String currentUid = currentUser.getUserId();
-
-                    // Filter out the current user and add matching users to the result list
-                    List<User> userList = new ArrayList<>();
-                    for (DocumentSnapshot doc : querySnapshot.getDocuments()) {
-                        User user = doc.toObject(User.class);
-                        if (user != null && !user.getUserId().equals(currentUid)) {
-                            userList.add(user);
+                    // Merge by user ID so a user matched by several queries appears once
+                    Map<String, User> matches = new LinkedHashMap<>();
+                    for (Object result : task.getResult()) {
+                        for (DocumentSnapshot doc : ((QuerySnapshot) result).getDocuments()) {
+                            ProfileStore.getInstance().put(doc);
+                            User user = doc.toObject(User.class);
+                            if (user == null || user.getUserId() == null || user.getUserId().equals(currentUid)) {
+                                continue;
+                            }
+                            if (UsernameSearchIndex.normalize(user.getUsername()).contains(query)) {
+                                matches.put(user.getUserId(), user);
+                            }
                         }
                     }
-                    return userList;
+                    return new ArrayList<>(matches.values());
                 });
     }
 
@@ -607,20 +829,145 @@ public class UserDAOImplement implements IUserDAO {
      */
     @Override
     public Task<User> getUserByUsername(@NonNull String username) {
-        return db.collection("users")
-                .whereEqualTo("username", username) // Query Firestore for the given username
-                .limit(1) // Limit the query to return only one user
-                .get()
+        return getUserDocument(username)
                 .continueWith(task -> {
-                    if (!task.isSuccessful() || task.getResult() == null || task.getResult().isEmpty()) {
+                    if (!task.isSuccessful() || task.getResult() == null) {
                         return null; // Return null if the user is not found
                     }
-                    return task.getResult().getDocuments().get(0).toObject(User.class); // Convert Firestore document to User object
+                    ProfileStore.getInstance().put(task.getResult());
+                    return task.getResult().toObject(User.class); // Convert Firestore document to User object
                 });
     }
 
+    /**
+     * Fetches the user document that owns a username.
+     * <p>
+     * A cached uid whose document no longer carries the name (the user was renamed from
+     * another device) is dropped and the name is resolved again from the server.
+     * </p>
+     *
+     * @param username The username to look up, in any case
+     * @return A task with the user's document, or null if no user has that name
+     */
+    private Task<DocumentSnapshot> getUserDocument(@NonNull String username) {
+        final String lower = UsernameSearchIndex.normalize(username);
+        final boolean wasCached = uidCache.containsKey(lower);
+        return resolveUserId(username, true)
+                .continueWithTask(idTask -> fetchOwnedDocument(lower, idTask.getResult()))
+                .continueWithTask(docTask -> {
+                    if (docTask.getResult() != null || !wasCached) {
+                        return docTask;
+                    }
+                    uidCache.remove(lower);
+                    return resolveUserId(username, false)
+                            .continueWithTask(idTask -> fetchOwnedDocument(lower, idTask.getResult()));
+                });
+    }
+
+    private Task<DocumentSnapshot> fetchOwnedDocument(String lower, String userId) {
+        if (userId == null) {
+            return Tasks.forResult(null);
+        }
+        return metrics.track("UserDAO.getUserDocument", db.collection("users").document(userId).get())
+                .continueWith(task -> {
+                    DocumentSnapshot doc = task.getResult();
+                    if (!doc.exists() || !lower.equals(UsernameSearchIndex.normalize(doc.getString("username")))) {
+                        return null;
+                    }
+                    return doc;
+                });
+    }
+
+    /**
+     * Resolves a username to the uid that owns it.
+     * <p>
+     * Reads usernames/{lowercase name}. Names without a reservation (accounts that haven't
+     * signed in since reservations were introduced) fall back to the legacy equality query
+     * on "username".
+     * </p>
+     *
+     * @param username The username, in any case
+     * @param useCache Whether a cached uid may be returned without a read
+     * @return A task with the uid, or null if no user has that name
+     */
+    private Task<String> resolveUserId(@NonNull String username, boolean useCache) {
+        final String lower = UsernameSearchIndex.normalize(username);
+        if (lower.isEmpty()) {
+            return Tasks.forResult(null);
+        }
+        if (useCache) {
+            String cached = uidCache.get(lower);
+            if (cached != null) {
+                return Tasks.forResult(cached);
+            }
+        }
+        return metrics.track("UserDAO.resolveUserId", db.collection("usernames").document(lower).get())
+                .continueWithTask(task -> {
+                    if (!task.isSuccessful()) {
+                        throw task.getException();
+                    }
+                    String uid = task.getResult().getString("uid");
+                    if (uid != null) {
+                        uidCache.put(lower, uid);
+                        return Tasks.forResult(uid);
+                    }
+                    return metrics.track("UserDAO.resolveUserIdLegacy", db.collection("users")
+                            .whereEqualTo("username", username)
+                            .limit(1)
+                            .get())
+                            .continueWith(legacyTask -> {
+                                if (!legacyTask.isSuccessful()) {
+                                    throw legacyTask.getException();
+                                }
+                                if (legacyTask.getResult().isEmpty()) {
+                                    return null;
+                                }
+                                String legacyUid = legacyTask.getResult().getDocuments().get(0).getId();
+                                uidCache.put(lower, legacyUid);
+                                return legacyUid;
+                            });
+                });
+    }
+
+    /**
+     * Creates the reservation for a signed-in user's current name if nobody owns it yet.
+     */
+    private void backfillReservation(String userId, String username) {
+        final String lower = UsernameSearchIndex.normalize(username);
+        DocumentReference reservation = reservationFor(username);
+        metrics.track("UserDAO.backfillReservation", db.runTransaction(transaction -> {
+            DocumentSnapshot existing = transaction.get(reservation);
+            if (!existing.exists()) {
+                transaction.set(reservation, reservationData(userId, username));
+            }
+            return existing.exists() ? existing.getString("uid") : userId;
+        })).addOnSuccessListener(owner -> {
+            if (userId.equals(owner)) {
+                uidCache.put(lower, userId);
+            } else {
+                Log.w("UserDAOImplement", "Username " + lower + " is reserved by another user");
+            }
+        });
+    }
+
+    private DocumentReference reservationFor(String username) {
+        return db.collection("usernames").document(UsernameSearchIndex.normalize(username));
+    }
+
+    private static Map<String, Object> reservationData(String userId, String username) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("uid", userId);
+        data.put("username", username);
+        return data;
+    }
+
     @Override
     public Task<String> getFollowStatus(@NonNull String requesterId, @NonNull String targetId) {
+        FollowGraph graph = FollowGraph.getInstance();
+        if (graph.hasFollowStatus(requesterId)) {
+            return Tasks.forResult(graph.getFollowStatus(targetId));
+        }
+
         DocumentReference requestDoc = db.collection("users")
                 .document(targetId)
                 .collection("requests")
@@ -631,8 +978,8 @@ public class UserDAOImplement implements IUserDAO {
                 .collection("following")
                 .document(targetId);
 
-        Task<DocumentSnapshot> requestTask = requestDoc.get();
-        Task<DocumentSnapshot> followTask = followDoc.get();
+        Task<DocumentSnapshot> requestTask = metrics.track("UserDAO.getFollowStatus", requestDoc.get());
+        Task<DocumentSnapshot> followTask = metrics.track("UserDAO.getFollowStatus", followDoc.get());
 
         return Tasks.whenAllSuccess(requestTask, followTask)
                 .continueWith(task -> {
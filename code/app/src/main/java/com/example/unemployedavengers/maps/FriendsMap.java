@@ -13,6 +13,7 @@
  * - onViewCreated: Observes the mood events from the ViewModel and triggers the map update.
  * - onMapReady: Adds mood event markers to the map when it is ready.
  * - createCustomMarker: Creates a custom bitmap marker that includes the mood and username.
+ * - The heatmap toggle, mood spinner and overlay (an alternative to markers when there are many events) are handled by MoodHeatmapControls, shared with PersonalMap.
  *
  * Known Issues:
  * - If the list of mood events is empty or null, the camera will not move, but no error is shown to the user.
@@ -63,6 +64,8 @@ import java.util.ArrayList;
 public class FriendsMap extends Fragment implements OnMapReadyCallback {
     private FriendsMapBinding binding;
     private ArrayList<MoodEvent> moodEvents;
+    private GoogleMap googleMap;
+    private MoodHeatmapControls heatmap;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater,
@@ -77,6 +80,9 @@ public class FriendsMap extends Fragment implements OnMapReadyCallback {
                               @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         Log.d("MapDebug", "reached");
+        // Heatmap mode and mood; a change redraws the map like new events do
+        heatmap = new MoodHeatmapControls(binding.heatmapToggle, binding.heatmapMoodSpinner, this::refreshMap);
+
         // Get the shared ViewModel from the Activity
         FriendMoodEventsViewModel vm = new ViewModelProvider(requireActivity()).get(FriendMoodEventsViewModel.class);
 
@@ -86,6 +92,7 @@ public class FriendsMap extends Fragment implements OnMapReadyCallback {
                 Log.d("MapDebug", "reached");
                 // Update the local list (creating a copy if needed)
                 moodEvents = new ArrayList<>(events);
+                heatmap.setEvents(moodEvents);
                 // Refresh the map markers by requesting the map asynchronously
                 SupportMapFragment mapFragment = (SupportMapFragment)
                         getChildFragmentManager().findFragmentById(R.id.map2_fragment);
@@ -99,6 +106,12 @@ public class FriendsMap extends Fragment implements OnMapReadyCallback {
     @Override
     public void onMapReady(@NonNull GoogleMap googleMap) {
         Log.d("MapDebug", "reached");
+        this.googleMap = googleMap;
+        googleMap.clear();
+        if (heatmap.isEnabled()) {
+            heatmap.show(googleMap);
+            return;
+        }
         // Loop through moodEvents and add markers for those with locations
         if (moodEvents != null) {
             for (MoodEvent event : moodEvents) {
@@ -125,6 +138,12 @@ public class FriendsMap extends Fragment implements OnMapReadyCallback {
     }
 
 
+    private void refreshMap() {
+        if (googleMap != null) {
+            onMapReady(googleMap);
+        }
+    }
+
     private Bitmap createCustomMarker(Context context, String mood,String userName) {
         // Inflate with a dummy parent to help with layout measurement
         FrameLayout dummyParent = new FrameLayout(context);
@@ -164,6 +183,8 @@ public class FriendsMap extends Fragment implements OnMapReadyCallback {
         super.onDestroyView();
         // Prevent memory leaks by nullifying the binding
         binding = null;
+        heatmap = null;
+        googleMap = null;
     }
 
 }
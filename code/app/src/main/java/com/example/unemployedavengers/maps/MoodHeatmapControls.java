@@ -0,0 +1,120 @@
+/**
+ * MoodHeatmapControls - The heatmap toggle and mood spinner shared by the mood maps.
+ *
+ * Purpose:
+ * - Keeps the heatmap mode, the chosen mood and the MoodHeatmapTileProvider of one map
+ *   in one place, so PersonalMap and FriendsMap behave the same.
+ *
+ * Key Methods:
+ * - setEvents: Takes a new event list; the next overlay is built from it.
+ * - isEnabled: Whether the map should show the heatmap instead of markers.
+ * - show: Adds the heatmap overlay for the chosen mood to a map.
+ *
+ * Design Patterns:
+ * - Plain helper owned by the fragment, like the view binding; the fragment drops it
+ *   in onDestroyView. A change of mode or mood calls back into the fragment, which
+ *   redraws the map the same way it does for new events.
+ * - The tile provider is built once per event list and mood and reused while the map
+ *   redraws, so its rendered tiles stay cached.
+ *
+ * Known Issues:
+ * - The mode and mood are not kept across a configuration change.
+ */
+package com.example.unemployedavengers.maps;
+
+import android.view.View;
+import android.widget.AdapterView;
+import android.widget.ArrayAdapter;
+import android.widget.Button;
+import android.widget.Spinner;
+
+import com.example.unemployedavengers.R;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.google.android.gms.maps.GoogleMap;
+import com.google.android.gms.maps.model.TileOverlayOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+public class MoodHeatmapControls {
+    private final Button toggle;
+    private final Spinner moodSpinner;
+    private final Runnable onChanged;
+    private boolean enabled;
+    // Mood shown in heatmap mode, null for all moods
+    private String mood;
+    private List<MoodEvent> events;
+    private MoodHeatmapTileProvider provider;
+
+    /**
+     * Wires the toggle and the spinner.
+     *
+     * @param toggle Switches between markers and heatmap
+     * @param moodSpinner Picks the mood drawn, or all moods; shown only in heatmap mode
+     * @param onChanged Redraws the map after the mode or mood changed
+     */
+    public MoodHeatmapControls(Button toggle, Spinner moodSpinner, Runnable onChanged) {
+        this.toggle = toggle;
+        this.moodSpinner = moodSpinner;
+        this.onChanged = onChanged;
+
+        List<String> moods = new ArrayList<>();
+        moods.add("All moods");
+        moods.addAll(Arrays.asList(toggle.getResources().getStringArray(R.array.spinner_items)));
+        ArrayAdapter<String> adapter = new ArrayAdapter<>(toggle.getContext(),
+                android.R.layout.simple_spinner_item, moods);
+        adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        moodSpinner.setAdapter(adapter);
+        moodSpinner.setOnItemSelectedListener(new AdapterView.OnItemSelectedListener() {
+            @Override
+            public void onItemSelected(AdapterView<?> parent, View view, int position, long id) {
+                String selected = position == 0 ? null : moods.get(position);
+                if (!Objects.equals(selected, mood)) {
+                    mood = selected;
+                    provider = null;
+                    onChanged.run();
+                }
+            }
+
+            @Override
+            public void onNothingSelected(AdapterView<?> parent) {
+            }
+        });
+
+        toggle.setOnClickListener(v -> {
+            enabled = !enabled;
+            toggle.setText(enabled ? "Markers" : "Heatmap");
+            moodSpinner.setVisibility(enabled ? View.VISIBLE : View.GONE);
+            onChanged.run();
+        });
+    }
+
+    /**
+     * Takes the events to draw from now on.
+     */
+    public void setEvents(List<MoodEvent> events) {
+        this.events = events;
+        provider = null;
+    }
+
+    /**
+     * Returns whether the map shows the heatmap instead of markers.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Adds the heatmap overlay to a map that was just cleared.
+     */
+    public void show(GoogleMap googleMap) {
+        if (events == null) return;
+        // Tiles render on the map's background threads
+        if (provider == null) {
+            provider = new MoodHeatmapTileProvider(events, mood);
+        }
+        googleMap.addTileOverlay(new TileOverlayOptions().tileProvider(provider));
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * MoodHeatmapTileProvider - Draws mood event density as map tiles.
+ *
+ * Purpose:
+ * - Lets the maps show thousands of located mood events as one heatmap overlay
+ *   instead of one marker per event.
+ *
+ * Key Methods:
+ * - getTile: Returns a cached tile, or renders one from the MoodDensityGrid.
+ *
+ * Design Patterns:
+ * - Implements the Maps SDK TileProvider, which calls getTile on its own background
+ *   threads, so neither building the grid nor rendering tiles blocks the UI.
+ * - Rendered tiles are kept in an LRU cache sized in bytes, so panning back and
+ *   forth doesn't render the same tiles again.
+ *
+ * Known Issues:
+ * - The grid is built from a snapshot of the events; a new provider is needed when
+ *   the events change.
+ */
+package com.example.unemployedavengers.maps;
+
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.util.LruCache;
+
+import com.example.unemployedavengers.MoodDensityGrid;
+import com.example.unemployedavengers.models.MoodEvent;
+import com.google.android.gms.maps.model.Tile;
+import com.google.android.gms.maps.model.TileProvider;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MoodHeatmapTileProvider implements TileProvider {
+    private static final int TILE_SIZE = 256;
+    private static final int CACHE_BYTES = 4 * 1024 * 1024;
+    // Density at which each color is reached, from sparse to dense
+    private static final float[] STOPS = {0f, 0.15f, 0.5f, 1f};
+    private static final int[] COLORS = {
+            Color.argb(0, 0, 200, 80),
+            Color.argb(140, 0, 200, 80),
+            Color.argb(190, 255, 210, 0),
+            Color.argb(230, 230, 30, 30)
+    };
+    private static final int[] PALETTE = palette(256);
+
+    private final List<MoodEvent> events;
+    private final String mood;
+    private MoodDensityGrid grid;
+    private final LruCache<String, Tile> cache = new LruCache<String, Tile>(CACHE_BYTES) {
+        @Override
+        protected int sizeOf(String key, Tile tile) {
+            return tile.data.length;
+        }
+    };
+
+    /**
+     * @param events The mood events to draw; copied
+     * @param mood Only draw events with this mood, or null for all moods
+     */
+    public MoodHeatmapTileProvider(List<MoodEvent> events, String mood) {
+        this.events = new ArrayList<>(events);
+        this.mood = mood;
+    }
+
+    @Override
+    public Tile getTile(int x, int y, int zoom) {
+        String key = zoom + "/" + x + "/" + y;
+        Tile cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        float[] intensity = getGrid().tileIntensity(x, y, zoom);
+        if (intensity == null) {
+            return NO_TILE;
+        }
+
+        int cells = MoodDensityGrid.CELLS_PER_TILE;
+        int[] pixels = new int[cells * cells];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = PALETTE[Math.round(intensity[i] * (PALETTE.length - 1))];
+        }
+        Bitmap small = Bitmap.createBitmap(pixels, cells, cells, Bitmap.Config.ARGB_8888);
+        // Bilinear scaling smooths the cells into a continuous gradient
+        Bitmap full = Bitmap.createScaledBitmap(small, TILE_SIZE, TILE_SIZE, true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        full.compress(Bitmap.CompressFormat.PNG, 100, out);
+        small.recycle();
+        full.recycle();
+
+        Tile tile = new Tile(TILE_SIZE, TILE_SIZE, out.toByteArray());
+        cache.put(key, tile);
+        return tile;
+    }
+
+    private synchronized MoodDensityGrid getGrid() {
+        if (grid == null) {
+            grid = MoodDensityGrid.build(events, mood);
+        }
+        return grid;
+    }
+
+    private static int[] palette(int size) {
+        int[] palette = new int[size];
+        for (int i = 0; i < size; i++) {
+            float t = i / (float) (size - 1);
+            int stop = 1;
+            while (stop < STOPS.length - 1 && t > STOPS[stop]) {
+                stop++;
+            }
+            float f = (t - STOPS[stop - 1]) / (STOPS[stop] - STOPS[stop - 1]);
+            palette[i] = blend(COLORS[stop - 1], COLORS[stop], Math.max(0, Math.min(1, f)));
+        }
+        return palette;
+    }
+
+    private static int blend(int from, int to, float f) {
+        return Color.argb(
+                Math.round(Color.alpha(from) + (Color.alpha(to) - Color.alpha(from)) * f),
+                Math.round(Color.red(from) + (Color.red(to) - Color.red(from)) * f),
+                Math.round(Color.green(from) + (Color.green(to) - Color.green(from)) * f),
+                Math.round(Color.blue(from) + (Color.blue(to) - Color.blue(from)) * f));
+    }
+}
@@ -13,12 +13,14 @@
  * - Displays mood events as markers on a Google Map, where each marker's color and text represent the mood.
  * - Uses custom bitmaps for markers, where the mood influences the marker's design (e.g., color coding for different moods).
  * - Optionally adjusts the camera to the location of the first mood event on the map for an optimal user experience.
+ * - A heatmap mode draws event density, for all moods or one, as a tile overlay instead of markers.
  *
  * Methods:
  * - onCreateView: Inflates the layout and sets up the binding for this Fragment.
  * - onViewCreated: Observes mood events from the ViewModel and updates the map markers accordingly.
  * - onMapReady: Adds the mood event markers to the map based on the locations provided.
  * - createCustomMarker: Creates a custom bitmap for each mood event marker, with the mood influencing the marker's design.
+ * - The heatmap toggle, mood spinner and overlay are handled by MoodHeatmapControls, shared with FriendsMap.
  * - onDestroyView: Nullifies the binding to prevent memory leaks when the view is destroyed.
  *
  * Known Issues:
@@ -71,6 +73,8 @@ public class PersonalMap extends Fragment implements OnMapReadyCallback {
 
     private PersonalMapBinding binding;
     private ArrayList<MoodEvent> moodEvents;
+    private GoogleMap googleMap;
+    private MoodHeatmapControls heatmap;
 
     @Override
     public View onCreateView(@NonNull LayoutInflater inflater,
@@ -85,6 +89,9 @@ public class PersonalMap extends Fragment implements OnMapReadyCallback {
                               @Nullable Bundle savedInstanceState) {
         super.onViewCreated(view, savedInstanceState);
         Log.d("MapDebug", "reached");
+        // Heatmap mode and mood; a change redraws the map like new events do
+        heatmap = new MoodHeatmapControls(binding.heatmapToggle, binding.heatmapMoodSpinner, this::refreshMap);
+
         // Get the shared ViewModel from the Activity
         MoodEventsViewModel vm = new ViewModelProvider(requireActivity()).get(MoodEventsViewModel.class);
 
@@ -94,6 +101,7 @@ public class PersonalMap extends Fragment implements OnMapReadyCallback {
                 Log.d("MapDebug", "reached");
                 // Update the local list (creating a copy if needed)
                 moodEvents = new ArrayList<>(events);
+                heatmap.setEvents(moodEvents);
                 // Refresh the map markers by requesting the map asynchronously
                 SupportMapFragment mapFragment = (SupportMapFragment)
                         getChildFragmentManager().findFragmentById(R.id.map2_fragment);
@@ -107,6 +115,12 @@ public class PersonalMap extends Fragment implements OnMapReadyCallback {
     @Override
     public void onMapReady(@NonNull GoogleMap googleMap) {
         Log.d("MapDebug", "reached");
+        this.googleMap = googleMap;
+        googleMap.clear();
+        if (heatmap.isEnabled()) {
+            heatmap.show(googleMap);
+            return;
+        }
         // Loop through moodEvents and add markers for those with locations
         if (moodEvents != null) {
             for (MoodEvent event : moodEvents) {
@@ -133,6 +147,12 @@ public class PersonalMap extends Fragment implements OnMapReadyCallback {
     }
 
 
+    private void refreshMap() {
+        if (googleMap != null) {
+            onMapReady(googleMap);
+        }
+    }
+
     private Bitmap createCustomMarker(Context context, String mood) {
         // Inflate with a dummy parent to help with layout measurement
         FrameLayout dummyParent = new FrameLayout(context);
@@ -171,6 +191,8 @@ public class PersonalMap extends Fragment implements OnMapReadyCallback {
         super.onDestroyView();
         // Prevent memory leaks by nullifying the binding
         binding = null;
+        heatmap = null;
+        googleMap = null;
     }
 
 
@@ -9,7 +9,11 @@
  */
 package com.example.unemployedavengers.models;
 
+import com.example.unemployedavengers.UsernameSearchIndex;
+import com.google.firebase.firestore.PropertyName;
+
 import java.io.Serializable;
+import java.util.List;
 
 /**
  * Model class representing a user in the mood tracking application.
@@ -26,6 +30,8 @@ public class User implements Serializable {
     private String dummyEmail;  // Email address constructed from username for Firebase Auth
     private String password;    // User's password (note: storing in plaintext is not ideal for security)
     private String avatar; // User's avatar
+    private String usernameLower;          // Normalized username for case-insensitive prefix search
+    private List<String> usernameTrigrams; // Trigrams of usernameLower for substring search
 
 
 
@@ -54,10 +60,10 @@ public class User implements Serializable {
      */
     public User(String userId, String username, String dummyEmail, String password, String avatar) {
         this.userId = userId;
-        this.username = username;
         this.dummyEmail = dummyEmail;
         this.password = password;
         this.avatar = avatar;
+        setUsername(username);
     }
 
     /**
@@ -90,6 +96,44 @@ public class User implements Serializable {
      */
     public void setUsername(String username) {
         this.username = username;
+        this.usernameLower = UsernameSearchIndex.normalize(username);
+        this.usernameTrigrams = UsernameSearchIndex.trigrams(usernameLower);
+    }
+
+    /**
+     * @return The lowercased username, stored as "username_lower" for search queries
+     */
+    @PropertyName("username_lower")
+    public String getUsernameLower() {
+        return usernameLower;
+    }
+
+    /**
+     * Sets the lowercased username. Used by Firestore deserialization.
+     *
+     * @param usernameLower The normalized username
+     */
+    @PropertyName("username_lower")
+    public void setUsernameLower(String usernameLower) {
+        this.usernameLower = usernameLower;
+    }
+
+    /**
+     * @return The trigrams of the lowercased username, stored as "username_trigrams"
+     */
+    @PropertyName("username_trigrams")
+    public List<String> getUsernameTrigrams() {
+        return usernameTrigrams;
+    }
+
+    /**
+     * Sets the username trigrams. Used by Firestore deserialization.
+     *
+     * @param usernameTrigrams The trigrams of the normalized username
+     */
+    @PropertyName("username_trigrams")
+    public void setUsernameTrigrams(List<String> usernameTrigrams) {
+        this.usernameTrigrams = usernameTrigrams;
     }
 
     /**
@@ -4,6 +4,8 @@ import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.ViewModel;
 
+import com.example.unemployedavengers.DistanceFilterHelper;
+
 import java.util.List;
 
 /**
@@ -12,9 +14,17 @@ import java.util.List;
  * This ViewModel holds a list of mood events that are located within 5 km of the user's current location.
  * It uses LiveData to observe changes in the list of events and provides methods to retrieve and update the data.
  * </p>
+ * <p>
+ * The friends' mood events and the user's location arrive independently; the nearby list is
+ * recomputed whenever either changes, once both are known.
+ * </p>
  */
 public class WithinFiveKmViewModel extends ViewModel {
     private final MutableLiveData<List<MoodEvent>> fiveKmEvents = new MutableLiveData<>();
+    private List<MoodEvent> friendEvents;
+    private boolean hasLocation;
+    private double latitude;
+    private double longitude;
 
     /**
      * Gets the LiveData for the list of mood events within 5 km.
@@ -41,4 +51,35 @@ public class WithinFiveKmViewModel extends ViewModel {
     public void setMoodEvents(List<MoodEvent> events) {
         fiveKmEvents.setValue(events);
     }
+
+    /**
+     * Sets the friends' mood events to filter, e.g. as they finish loading.
+     *
+     * @param events All loaded friend mood events, near or not.
+     */
+    public void setFriendMoodEvents(List<MoodEvent> events) {
+        friendEvents = events;
+        updateNearby();
+    }
+
+    /**
+     * Sets the user's current location.
+     *
+     * @param latitude Latitude in degrees.
+     * @param longitude Longitude in degrees.
+     */
+    public void setCurrentLocation(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        hasLocation = true;
+        updateNearby();
+    }
+
+    private void updateNearby() {
+        if (friendEvents == null || !hasLocation) {
+            return;
+        }
+        fiveKmEvents.setValue(DistanceFilterHelper.filterWithin(friendEvents, latitude, longitude,
+                DistanceFilterHelper.FIVE_KM_METERS));
+    }
 }
@@ -0,0 +1,56 @@
+/**
+ * BatchHelperTest.java
+ *
+ * Unit tests for BatchHelper.
+ * Tests verify:
+ * - Lists split into ordered chunks with a short last chunk
+ * - Items per batch respect the 500 write limit
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class BatchHelperTest {
+
+    @Test
+    public void partition_SplitsInOrderWithShortLastChunk() {
+        // Arrange
+        List<Integer> items = Arrays.asList(1, 2, 3, 4, 5, 6, 7);
+
+        // Act
+        List<List<Integer>> chunks = BatchHelper.partition(items, 3);
+
+        // Assert
+        assertEquals(3, chunks.size());
+        assertEquals(Arrays.asList(1, 2, 3), chunks.get(0));
+        assertEquals(Arrays.asList(4, 5, 6), chunks.get(1));
+        assertEquals(Collections.singletonList(7), chunks.get(2));
+    }
+
+    @Test
+    public void partition_EmptyListHasNoChunks() {
+        assertTrue(BatchHelper.partition(new ArrayList<String>(), 10).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void partition_RejectsNonPositiveSize() {
+        BatchHelper.partition(Arrays.asList("a"), 0);
+    }
+
+    @Test
+    public void itemsPerBatch_RespectsWriteLimit() {
+        assertEquals(500, BatchHelper.itemsPerBatch(1));
+        assertEquals(166, BatchHelper.itemsPerBatch(3));
+        assertEquals(1, BatchHelper.itemsPerBatch(1000));
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * CommentThreadTest.java
+ *
+ * Unit tests for CommentThread, the live comment tree behind MoodDetailFragment.
+ * Tests verify:
+ * - Added comments are kept in thread order, and duplicates from overlapping pages are stored once
+ * - Pages merge into one thread whatever order they arrive in, with timestamp ties ordered by ID
+ * - A modified comment only marks its own row, while a moved or new comment is structural
+ * - Reply changes mark the parent's row
+ * - Removing a comment drops it and its replies
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.unemployedavengers.models.Comment;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class CommentThreadTest {
+
+    private Comment comment(String id, String parentId, long timestamp) {
+        Comment comment = new Comment("mood1", "user1", "tester", "content " + id, parentId);
+        comment.setId(id);
+        comment.setTimestamp(timestamp);
+        return comment;
+    }
+
+    private CommentThread.Change added(Comment comment) {
+        return new CommentThread.Change(CommentThread.ChangeType.ADDED, comment);
+    }
+
+    @Test
+    public void apply_AddedComments_KeepsThreadOrder() {
+        // Arrange
+        CommentThread thread = new CommentThread();
+        Comment older = comment("a", null, 100);
+        Comment newer = comment("b", null, 200);
+        Comment lateReply = comment("r2", "a", 400);
+        Comment earlyReply = comment("r1", "a", 300);
+
+        // Act
+        CommentThread.Patch patch = thread.apply(Arrays.asList(
+                added(lateReply), added(older), added(newer), added(earlyReply)));
+
+        // Assert
+        assertTrue(patch.structural);
+        assertEquals(2, patch.topLevelAdded);
+        assertEquals(Arrays.asList(newer, older), thread.getTopLevel());
+        assertEquals(Arrays.asList(earlyReply, lateReply), thread.getReplies("a"));
+        assertEquals(1, thread.indexOf("a"));
+    }
+
+    @Test
+    public void apply_OverlappingPagesOutOfOrder_MergeIntoThreadOrder() {
+        // Arrange
+        CommentThread thread = new CommentThread();
+        Comment newest = comment("d", null, 400);
+        Comment tiedHigh = comment("c", null, 300);
+        Comment tiedLow = comment("b", null, 300);
+        Comment oldest = comment("a", null, 100);
+        Comment firstReply = comment("r1", "c", 500);
+        Comment secondReply = comment("r2", "c", 600);
+        // The second page starts at the first page's last comment, and its reply listener answered first
+        CommentThread.Change[] secondPage = {added(tiedLow), added(oldest), added(tiedHigh), added(secondReply)};
+        CommentThread.Change[] firstPage = {added(newest), added(tiedHigh), added(firstReply)};
+
+        // Act
+        CommentThread.Patch second = thread.apply(Arrays.asList(secondPage));
+        CommentThread.Patch first = thread.apply(Arrays.asList(firstPage));
+
+        // Assert
+        assertEquals(3, second.topLevelAdded);
+        assertEquals(1, first.topLevelAdded);
+        assertEquals(Arrays.asList(newest, tiedHigh, tiedLow, oldest), thread.getTopLevel());
+        assertEquals(Arrays.asList(firstReply, secondReply), thread.getReplies("c"));
+        assertEquals(1, thread.indexOf("c"));
+        assertEquals(2, thread.indexOf("b"));
+        assertEquals(3, thread.indexOf("a"));
+    }
+
+    @Test
+    public void apply_SameCommentFromTwoPages_StoredOnce() {
+        // Arrange
+        CommentThread thread = new CommentThread();
+        thread.apply(Arrays.asList(added(comment("a", null, 100)), added(comment("b", null, 200))));
+
+        // Act
+        CommentThread.Patch patch = thread.apply(Collections.singletonList(added(comment("a", null, 100))));
+
+        // Assert
+        assertEquals(2, thread.getTopLevel().size());
+        assertEquals(0, patch.topLevelAdded);
+        assertFalse(patch.structural);
+        assertEquals(Collections.singleton("a"), patch.changedRows);
+    }
+
+    @Test
+    public void apply_LikeCountChange_OnlyMarksThatRow() {
+        // Arrange
+        CommentThread thread = new CommentThread();
+        thread.apply(Arrays.asList(added(comment("a", null, 100)), added(comment("b", null, 200))));
+        Comment liked = comment("a", null, 100);
+        liked.setLikeCount(5);
+
+        // Act
+        CommentThread.Patch patch = thread.apply(Collections.singletonList(
+                new CommentThread.Change(CommentThread.ChangeType.MODIFIED, liked)));
+
+        // Assert
+        assertFalse(patch.structural);
+        assertEquals(Collections.singleton("a"), patch.changedRows);
+        assertSame(liked, thread.getTopLevel().get(1));
+        assertSame(liked, thread.get("a"));
+    }
+
+    @Test
+    public void apply_NewReply_MarksParentRow() {
+        // Arrange
+        CommentThread thread = new CommentThread();
+        thread.apply(Arrays.asList(added(comment("a", null, 100)), added(comment("b", null, 200))));
+
+        // Act
+        CommentThread.Patch patch = thread.apply(Collections.singletonList(added(comment("r1", "b", 300))));
+
+        // Assert
+        assertFalse(patch.structural);
+        assertEquals(Collections.singleton("b"), patch.changedRows);
+        assertEquals(1, thread.getReplies("b").size());
+    }
+
+    @Test
+    public void apply_RemovedComment_DropsItAndItsReplies() {
+        // Arrange
+        CommentThread thread = new CommentThread();
+        thread.apply(Arrays.asList(added(comment("a", null, 100)), added(comment("r1", "a", 300)),
+                added(comment("b", null, 200)), added(comment("r2", "b", 400))));
+
+        // Act
+        CommentThread.Patch removedParent = thread.apply(Collections.singletonList(
+                new CommentThread.Change(CommentThread.ChangeType.REMOVED, comment("a", null, 100))));
+        CommentThread.Patch removedReply = thread.apply(Collections.singletonList(
+                new CommentThread.Change(CommentThread.ChangeType.REMOVED, comment("r2", "b", 400))));
+
+        // Assert
+        assertTrue(removedParent.structural);
+        assertEquals(1, removedParent.topLevelRemoved);
+        assertNull(thread.get("r1"));
+        assertEquals(-1, thread.indexOf("a"));
+        assertEquals(Collections.singleton("b"), removedReply.changedRows);
+        assertTrue(thread.getReplies("b").isEmpty());
+    }
+}
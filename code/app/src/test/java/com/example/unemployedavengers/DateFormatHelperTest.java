@@ -0,0 +1,68 @@
+/**
+ * DateFormatHelperTest.java
+ *
+ * Unit tests for the shared DateFormatHelper used by the list adapters.
+ *
+ * Tests verify:
+ * - Absolute formatting matches the previous "yyyy-MM-dd HH:mm" output
+ * - Timestamps in the same minute share one cached string
+ * - Relative labels for minutes, hours and the fallback after one day
+ *
+ * Testing Approach:
+ * - Uses a fixed UTC zone and US locale so results do not depend on the machine
+ * - Passes an explicit "now" so no ticking clock (and no Looper) is needed
+ */
+package com.example.unemployedavengers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.ZoneOffset;
+import java.util.Locale;
+
+public class DateFormatHelperTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    // 2025-03-01 12:30:00 UTC
+    private static final long BASE = 1740832200000L;
+
+    private DateFormatHelper helper;
+
+    @Before
+    public void setUp() {
+        helper = new DateFormatHelper(ZoneOffset.UTC, Locale.US);
+    }
+
+    @Test
+    public void formatAbsolute_UsesExpectedPattern() {
+        assertEquals("2025-03-01 12:30", helper.formatAbsolute(BASE));
+    }
+
+    @Test
+    public void formatAbsolute_SameMinute_ReturnsCachedString() {
+        String first = helper.formatAbsolute(BASE + 1_000);
+        String second = helper.formatAbsolute(BASE + 59_000);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void formatRelative_RecentTimestamps() {
+        assertEquals("just now", helper.formatRelative(BASE, BASE + 30_000));
+        assertEquals("5 min ago", helper.formatRelative(BASE, BASE + 5 * MINUTE));
+        assertEquals("3 h ago", helper.formatRelative(BASE, BASE + 3 * HOUR + 10 * MINUTE));
+    }
+
+    @Test
+    public void formatRelative_OlderThanADay_FallsBackToAbsolute() {
+        assertEquals("2025-03-01 12:30", helper.formatRelative(BASE, BASE + 25 * HOUR));
+    }
+
+    @Test
+    public void formatRelative_FutureTimestamp_FallsBackToAbsolute() {
+        assertEquals("2025-03-01 12:30", helper.formatRelative(BASE, BASE - 2 * MINUTE));
+    }
+}
@@ -0,0 +1,63 @@
+/**
+ * DistanceFilterHelperTest.java
+ *
+ * Unit tests for the DistanceFilterHelper utility class used by the "within 5 km" feature.
+ * Tests verify:
+ * - Great-circle distances for known coordinates
+ * - Events without location data are never included
+ * - Events on either side of the 5 km radius are classified correctly
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class DistanceFilterHelperTest {
+    private static final double LAT = 53.5461;
+    private static final double LNG = -113.4938;
+
+    private MoodEvent locatedEvent(double latitude, double longitude) {
+        MoodEvent event = new MoodEvent("Happiness", "reason", "Alone", 0, "Alone", "");
+        event.setHasLocation(true);
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        return event;
+    }
+
+    @Test
+    public void distanceMeters_SamePoint_IsZero() {
+        assertEquals(0, DistanceFilterHelper.distanceMeters(LAT, LNG, LAT, LNG), 1e-6);
+    }
+
+    @Test
+    public void distanceMeters_OneDegreeOfLatitude_IsAbout111Km() {
+        double distance = DistanceFilterHelper.distanceMeters(0, 0, 1, 0);
+
+        assertEquals(111_195, distance, 10);
+    }
+
+    @Test
+    public void filterWithin_KeepsOnlyNearbyLocatedEvents() {
+        // Arrange: ~0.04 degrees of latitude is ~4.4 km, ~0.05 is ~5.6 km
+        MoodEvent near = locatedEvent(LAT + 0.04, LNG);
+        MoodEvent far = locatedEvent(LAT + 0.05, LNG);
+        MoodEvent noLocation = new MoodEvent("Sadness", "reason", "Alone", 0, "Alone", "");
+        List<MoodEvent> events = Arrays.asList(near, far, noLocation);
+
+        // Act
+        List<MoodEvent> nearby = DistanceFilterHelper.filterWithin(events, LAT, LNG, DistanceFilterHelper.FIVE_KM_METERS);
+
+        // Assert
+        assertEquals(1, nearby.size());
+        assertSame(near, nearby.get(0));
+    }
+}
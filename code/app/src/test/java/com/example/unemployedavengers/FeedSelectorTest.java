@@ -0,0 +1,135 @@
+/**
+ * FeedSelectorTest.java
+ *
+ * Unit tests for the FeedSelector top-K feed selection.
+ * Tests verify:
+ * - Each author keeps only their newest public events, whatever order they arrive in
+ * - The feed is cut to the global top K and comes out newest first
+ * - An event kept by one offer can be pushed out by a later one
+ * - Replacing an author's events drops the ones the replacement no longer has or hides
+ * - Both feed modes select what their names promise
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Mode persistence (FeedModeStore) needs SharedPreferences and is covered by instrumented runs
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class FeedSelectorTest {
+
+    private MoodEvent event(long time, boolean isPublic) {
+        return new MoodEvent("Happiness", "reason", "Alone", time, "Alone", "", isPublic);
+    }
+
+    @Test
+    public void offer_KeepsNewestPublicPerAuthorInAnyOrder() {
+        // Arrange
+        FeedSelector selector = new FeedSelector(2, 10);
+        MoodEvent oldest = event(100, true);
+        MoodEvent hidden = event(400, false);
+        MoodEvent newest = event(300, true);
+        MoodEvent middle = event(200, true);
+
+        // Act
+        selector.offerAll("a", Arrays.asList(oldest, hidden, newest, middle));
+
+        // Assert
+        assertEquals(Arrays.asList(newest, middle), selector.result());
+    }
+
+    @Test
+    public void result_CutsToTopKNewestFirst() {
+        // Arrange
+        FeedSelector selector = new FeedSelector(3, 3);
+        MoodEvent a1 = event(500, true);
+        MoodEvent a2 = event(100, true);
+        MoodEvent b1 = event(400, true);
+        MoodEvent b2 = event(300, true);
+        MoodEvent c1 = event(200, true);
+
+        // Act
+        selector.offerAll("a", Arrays.asList(a1, a2));
+        selector.offerAll("b", Arrays.asList(b1, b2));
+        selector.offerAll("c", Arrays.asList(c1));
+
+        // Assert
+        assertEquals(Arrays.asList(a1, b1, b2), selector.result());
+    }
+
+    @Test
+    public void offerAll_LaterBatchPushesOutKeptEvent() {
+        // Arrange
+        FeedSelector selector = new FeedSelector(2, 10);
+        MoodEvent cached = event(100, true);
+        MoodEvent newer = event(200, true);
+        MoodEvent newest = event(300, true);
+
+        // Act
+        selector.offerAll("a", Arrays.asList(cached, newer));
+        selector.offerAll("a", Arrays.asList(newest));
+
+        // Assert
+        assertEquals(Arrays.asList(newest, newer), selector.result());
+        assertFalse(selector.result().contains(cached));
+    }
+
+    @Test
+    public void replaceAll_DropsDeletedAndNowPrivateEvents() {
+        // Arrange
+        FeedSelector selector = new FeedSelector(3, 10);
+        MoodEvent deleted = event(300, true);
+        MoodEvent madePrivate = event(200, false);
+        MoodEvent unchanged = event(100, true);
+        MoodEvent other = event(50, true);
+        selector.offerAll("a", Arrays.asList(deleted, event(200, true), unchanged));
+        selector.offerAll("b", Arrays.asList(other));
+
+        // Act
+        selector.replaceAll("a", Arrays.asList(madePrivate, unchanged));
+
+        // Assert
+        assertEquals(Arrays.asList(unchanged, other), selector.result());
+    }
+
+    @Test
+    public void modes_PerFriendCapsAuthorsAndLatestOverallDoesNot() {
+        // Arrange
+        FeedSelector perFriend = new FeedSelector(FeedSelector.Mode.PER_FRIEND);
+        FeedSelector latest = new FeedSelector(FeedSelector.Mode.LATEST_OVERALL);
+        MoodEvent quiet = event(1, true);
+
+        // Act
+        for (int i = 0; i < 30; i++) {
+            MoodEvent busy = event(1000 + i, true);
+            perFriend.offer("busy", busy);
+            latest.offer("busy", busy);
+        }
+        perFriend.offer("quiet", quiet);
+        latest.offer("quiet", quiet);
+
+        // Assert
+        List<MoodEvent> perFriendFeed = perFriend.result();
+        assertEquals(4, perFriendFeed.size());
+        assertSame(quiet, perFriendFeed.get(3));
+        List<MoodEvent> latestFeed = latest.result();
+        assertEquals(FeedSelector.Mode.LATEST_OVERALL.topK, latestFeed.size());
+        assertFalse(latestFeed.contains(quiet));
+        assertEquals(1029L, latestFeed.get(0).getTime());
+    }
+
+    @Test
+    public void getFetchLimit_AddsSlackForPrivateEvents() {
+        // Act & Assert
+        assertEquals(3 + FeedSelector.PRIVATE_SLACK, new FeedSelector(FeedSelector.Mode.PER_FRIEND).getFetchLimit());
+        assertEquals(5 + FeedSelector.PRIVATE_SLACK, new FeedSelector(10, 5).getFetchLimit());
+    }
+}
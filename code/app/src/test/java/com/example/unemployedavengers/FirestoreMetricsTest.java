@@ -0,0 +1,63 @@
+/**
+ * FirestoreMetricsTest.java
+ *
+ * Unit tests for the pure accounting logic of FirestoreMetrics.
+ * Tests verify:
+ * - Latency samples land in the right histogram bucket
+ * - Document size estimates follow Firestore's storage size rules
+ * - Read budgets default to "none"
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Task-based tracking needs Firebase and is covered by instrumented runs
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class FirestoreMetricsTest {
+
+    @Test
+    public void bucketFor_PlacesLatencyInFirstMatchingBucket() {
+        assertEquals(0, FirestoreMetrics.bucketFor(0));
+        assertEquals(0, FirestoreMetrics.bucketFor(10));
+        assertEquals(1, FirestoreMetrics.bucketFor(11));
+        assertEquals(FirestoreMetrics.LATENCY_BUCKETS_MS.length, FirestoreMetrics.bucketFor(60_000));
+    }
+
+    @Test
+    public void estimateDocumentBytes_CountsNamesAndValues() {
+        // Arrange
+        Map<String, Object> data = new HashMap<>();
+        data.put("username", "alice");             // 9 + 6
+        data.put("likeCount", 3L);                 // 10 + 8
+        data.put("publicStatus", true);            // 13 + 1
+        data.put("replyIds", Arrays.asList("a", "bc")); // 9 + 2 + 3
+
+        // Act
+        long size = FirestoreMetrics.estimateDocumentBytes("users/u1", data);
+
+        // Assert: 32 byte overhead + path (8 + 1) + fields
+        assertEquals(32 + 9 + 15 + 18 + 14 + 14, size);
+    }
+
+    @Test
+    public void estimateDocumentBytes_MissingDocument_IsZero() {
+        assertEquals(0, FirestoreMetrics.estimateDocumentBytes("users/u1", null));
+    }
+
+    @Test
+    public void getReadBudget_Unset_ReturnsMinusOne() {
+        FirestoreMetrics metrics = new FirestoreMetrics();
+        assertEquals(-1, metrics.getReadBudget("dashboardFragment"));
+
+        metrics.setReadBudget("dashboardFragment", 40);
+        assertEquals(40, metrics.getReadBudget("dashboardFragment"));
+    }
+}
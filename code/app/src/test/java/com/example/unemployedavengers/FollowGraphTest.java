@@ -0,0 +1,84 @@
+/**
+ * FollowGraphTest.java
+ *
+ * Unit tests for the in-memory state of FollowGraph.
+ * Tests verify:
+ * - Follow status is answered from the following and outgoing request sets
+ * - Incremental changes add and remove IDs
+ * - Listeners only fire when a set actually changes
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Snapshot listeners and persistence need Firebase and are covered by instrumented runs
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class FollowGraphTest {
+
+    @Test
+    public void getFollowStatus_FollowingTakesPrecedenceOverRequested() {
+        // Arrange
+        FollowGraph graph = new FollowGraph();
+        graph.apply(FollowGraph.Kind.FOLLOWING, Collections.singletonList("u1"), Collections.<String>emptyList());
+        graph.apply(FollowGraph.Kind.OUTGOING_REQUESTS, Arrays.asList("u1", "u2"), Collections.<String>emptyList());
+
+        // Act & Assert
+        assertEquals(FollowGraph.STATUS_FOLLOWING, graph.getFollowStatus("u1"));
+        assertEquals(FollowGraph.STATUS_REQUESTED, graph.getFollowStatus("u2"));
+        assertEquals(FollowGraph.STATUS_NONE, graph.getFollowStatus("u3"));
+    }
+
+    @Test
+    public void apply_RemovesIds() {
+        // Arrange
+        FollowGraph graph = new FollowGraph();
+        graph.apply(FollowGraph.Kind.FOLLOWERS, Arrays.asList("a", "b", "c"), Collections.<String>emptyList());
+
+        // Act
+        graph.apply(FollowGraph.Kind.FOLLOWERS, Collections.<String>emptyList(), Collections.singletonList("b"));
+
+        // Assert
+        List<String> followers = graph.get(FollowGraph.Kind.FOLLOWERS);
+        assertEquals(2, followers.size());
+        assertTrue(followers.containsAll(Arrays.asList("a", "c")));
+        assertFalse(graph.isFollowing("a"));
+    }
+
+    @Test
+    public void apply_NotifiesOnlyOnChange() {
+        // Arrange
+        FollowGraph graph = new FollowGraph();
+        int[] calls = {0};
+        graph.addListener(() -> calls[0]++);
+
+        // Act
+        boolean first = graph.apply(FollowGraph.Kind.FOLLOWING, Collections.singletonList("u1"), Collections.<String>emptyList());
+        boolean second = graph.apply(FollowGraph.Kind.FOLLOWING, Collections.singletonList("u1"), Collections.<String>emptyList());
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(1, calls[0]);
+    }
+
+    @Test
+    public void markRequested_DoesNotMarkOutgoingSetLoaded() {
+        // Arrange
+        FollowGraph graph = new FollowGraph();
+
+        // Act
+        graph.markRequested("u9");
+
+        // Assert: the status is known locally, but the DAO still can't trust the whole set
+        assertEquals(FollowGraph.STATUS_REQUESTED, graph.getFollowStatus("u9"));
+        assertFalse(graph.hasFollowStatus("me"));
+    }
+}
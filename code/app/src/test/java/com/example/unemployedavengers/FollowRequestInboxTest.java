@@ -0,0 +1,120 @@
+/**
+ * FollowRequestInboxTest.java
+ *
+ * Unit tests for the in-memory state of FollowRequestInbox.
+ * Tests verify:
+ * - Requests are listed newest first and only once their profile has loaded
+ * - The unread count follows the seen high-water mark
+ * - Hidden requests drop out of the list and the count
+ * - Missing profiles are fetched in bounded batches, once each
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - The snapshot listener and profile queries need Firebase and are covered by instrumented runs
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.User;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+public class FollowRequestInboxTest {
+
+    private static User user(String id) {
+        return new User(id, "name-" + id, id + "@example.com", "123456", "");
+    }
+
+    @Test
+    public void getRequests_NewestFirstAndOnlyLoadedProfiles() {
+        // Arrange
+        FollowRequestInbox inbox = new FollowRequestInbox();
+        inbox.applyChange("a", 100, true);
+        inbox.applyChange("b", 300, true);
+        inbox.applyChange("c", 200, true);
+        inbox.putProfile(user("a"));
+        inbox.putProfile(user("b"));
+
+        // Act
+        List<User> requests = inbox.getRequests();
+
+        // Assert
+        assertEquals(2, requests.size());
+        assertEquals("b", requests.get(0).getUserId());
+        assertEquals("a", requests.get(1).getUserId());
+    }
+
+    @Test
+    public void getUnreadCount_CountsOnlyRequestsNewerThanLastSeen() {
+        // Arrange
+        FollowRequestInbox inbox = new FollowRequestInbox();
+        inbox.applyChange("a", 100, true);
+        inbox.applyChange("b", 200, true);
+        assertEquals(2, inbox.getUnreadCount());
+
+        // Act
+        inbox.markAllSeen();
+        inbox.applyChange("c", 150, true);
+        inbox.applyChange("d", 250, true);
+
+        // Assert: "c" is older than the newest request already seen
+        assertEquals(1, inbox.getUnreadCount());
+    }
+
+    @Test
+    public void hide_RemovesFromListAndCountUntilShown() {
+        // Arrange
+        FollowRequestInbox inbox = new FollowRequestInbox();
+        inbox.applyChange("a", 100, true);
+        inbox.putProfile(user("a"));
+
+        // Act
+        inbox.hide("a");
+
+        // Assert
+        assertTrue(inbox.getRequests().isEmpty());
+        assertEquals(0, inbox.getUnreadCount());
+
+        inbox.show("a");
+        assertEquals(1, inbox.getRequests().size());
+    }
+
+    @Test
+    public void applyChange_RemovedRequestIsDropped() {
+        // Arrange
+        FollowRequestInbox inbox = new FollowRequestInbox();
+        inbox.applyChange("a", 100, true);
+        inbox.putProfile(user("a"));
+        inbox.hide("a");
+
+        // Act
+        inbox.applyChange("a", 100, false);
+        inbox.show("a");
+
+        // Assert
+        assertTrue(inbox.getRequests().isEmpty());
+    }
+
+    @Test
+    public void takeMissingProfiles_BatchesAndSkipsInFlight() {
+        // Arrange
+        FollowRequestInbox inbox = new FollowRequestInbox();
+        for (int i = 0; i < 5; i++) {
+            inbox.applyChange("u" + i, i, true);
+        }
+        inbox.putProfile(user("u0"));
+
+        // Act
+        List<List<String>> first = inbox.takeMissingProfiles(3);
+        List<List<String>> second = inbox.takeMissingProfiles(3);
+
+        // Assert
+        assertEquals(2, first.size());
+        assertEquals(3, first.get(0).size());
+        assertEquals(1, first.get(1).size());
+        assertTrue(second.isEmpty());
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * ImageCacheKeysTest.java
+ *
+ * Unit tests for ImageCacheKeys, which builds the image cache keys used by ImageModule.
+ * Tests verify:
+ * - Download tokens and signature parameters are removed
+ * - Other parameters keep their order, and fragments are kept
+ * - URLs without volatile parameters are returned unchanged
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ImageCacheKeysTest {
+    private static final String STORAGE_URL =
+            "https://firebasestorage.googleapis.com/v0/b/app.appspot.com/o/avatars%2Fa.jpg";
+
+    @Test
+    public void stableKey_DifferentTokens_SameKey() {
+        // Arrange
+        String first = STORAGE_URL + "?alt=media&token=1111-aaaa";
+        String second = STORAGE_URL + "?alt=media&token=2222-bbbb";
+
+        // Act & Assert
+        assertEquals(STORAGE_URL + "?alt=media", ImageCacheKeys.stableKey(first));
+        assertEquals(ImageCacheKeys.stableKey(first), ImageCacheKeys.stableKey(second));
+    }
+
+    @Test
+    public void stableKey_SignedUrl_RemovesAllSignatureParams() {
+        // Arrange
+        String url = "https://storage.googleapis.com/b/o.jpg?X-Goog-Algorithm=GOOG4-RSA-SHA256"
+                + "&X-Goog-Credential=abc&size=64&X-Goog-Date=20260101T000000Z"
+                + "&X-Goog-Expires=900&X-Goog-SignedHeaders=host&X-Goog-Signature=deadbeef";
+
+        // Act
+        String key = ImageCacheKeys.stableKey(url);
+
+        // Assert
+        assertEquals("https://storage.googleapis.com/b/o.jpg?size=64", key);
+        assertTrue(ImageCacheKeys.hasVolatileParams(url));
+        assertFalse(ImageCacheKeys.hasVolatileParams(key));
+    }
+
+    @Test
+    public void stableKey_TokenFirst_KeepsOtherParamsAndFragment() {
+        // Arrange
+        String url = "https://example.com/img.png?Token=x&b=2&a=1#top";
+
+        // Act & Assert
+        assertEquals("https://example.com/img.png?b=2&a=1#top", ImageCacheKeys.stableKey(url));
+    }
+
+    @Test
+    public void stableKey_NothingToStrip_ReturnsUrl() {
+        // Arrange
+        String plain = "https://example.com/img.png";
+        String tokenLike = "https://example.com/img.png?tokens=3&page=token";
+
+        // Act & Assert
+        assertEquals(plain, ImageCacheKeys.stableKey(plain));
+        assertEquals(tokenLike, ImageCacheKeys.stableKey(tokenLike));
+        assertFalse(ImageCacheKeys.hasVolatileParams(tokenLike));
+        assertNull(ImageCacheKeys.stableKey(null));
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * LocationCacheTest.java
+ *
+ * Unit tests for LocationCache's freshness rule.
+ * Tests verify:
+ * - Recent fixes within the accuracy limit are reused
+ * - Old, inaccurate or accuracy-less fixes are not
+ * - Fixes from the "future" (clock skew) are not
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class LocationCacheTest {
+    private static final LocationCache.Requirement REQUIREMENT = new LocationCache.Requirement(60_000, 100, 0);
+
+    @Test
+    public void isFresh_RecentAccurateFix() {
+        // Act & Assert
+        assertTrue(LocationCache.isFresh(0, true, 20, REQUIREMENT));
+        assertTrue(LocationCache.isFresh(60_000, true, 100, REQUIREMENT));
+    }
+
+    @Test
+    public void isFresh_RejectsOldOrInaccurateFix() {
+        // Act & Assert
+        assertFalse(LocationCache.isFresh(60_001, true, 20, REQUIREMENT));
+        assertFalse(LocationCache.isFresh(1_000, true, 150, REQUIREMENT));
+        assertFalse(LocationCache.isFresh(1_000, false, 0, REQUIREMENT));
+    }
+
+    @Test
+    public void isFresh_RejectsNegativeAge() {
+        // Act & Assert
+        assertFalse(LocationCache.isFresh(-5, true, 20, REQUIREMENT));
+    }
+
+    @Test
+    public void presets_NearbyIsLooserThanMood() {
+        // Arrange
+        LocationCache.Requirement mood = LocationCache.Requirement.MOOD_LOCATION;
+        LocationCache.Requirement nearby = LocationCache.Requirement.NEARBY_FILTER;
+
+        // Assert
+        assertTrue(nearby.maxAgeMs >= mood.maxAgeMs);
+        assertTrue(nearby.maxAccuracyMeters >= mood.maxAccuracyMeters);
+    }
+}
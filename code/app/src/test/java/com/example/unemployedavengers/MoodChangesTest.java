@@ -0,0 +1,92 @@
+/**
+ * MoodChangesTest.java
+ *
+ * Unit tests for MoodChanges.
+ * Tests verify:
+ * - Only changed fields are listed, under their Firestore names
+ * - Identical mood events produce no changes
+ * - Copies are independent of the original
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+public class MoodChangesTest {
+
+    private static MoodEvent event() {
+        MoodEvent event = new MoodEvent();
+        event.setId("m1");
+        event.setUserId("u1");
+        event.setMood("Happiness");
+        event.setReason("sun");
+        event.setSituation("");
+        event.setRadioSituation("Alone");
+        event.setImageUri("");
+        event.setTime(1000);
+        return event;
+    }
+
+    @Test
+    public void diff_ListsOnlyChangedFields() {
+        // Arrange
+        MoodEvent before = event();
+        MoodEvent after = MoodChanges.copy(before);
+        after.setMood("Sadness");
+        after.setPublicStatus(!before.getPublicStatus());
+
+        // Act
+        Map<String, Object> changes = MoodChanges.diff(before, after);
+
+        // Assert
+        assertEquals(2, changes.size());
+        assertEquals("Sadness", changes.get("mood"));
+        assertEquals(after.getPublicStatus(), changes.get("publicStatus"));
+    }
+
+    @Test
+    public void diff_IdenticalEventsHaveNoChanges() {
+        // Act & Assert
+        assertTrue(MoodChanges.diff(event(), event()).isEmpty());
+    }
+
+    @Test
+    public void diff_NullAndEmptyDiffer() {
+        // Arrange
+        MoodEvent before = event();
+        before.setReason(null);
+
+        // Act
+        Map<String, Object> changes = MoodChanges.diff(before, event());
+
+        // Assert
+        assertEquals("sun", changes.get("reason"));
+    }
+
+    @Test
+    public void copy_IsIndependent() {
+        // Arrange
+        MoodEvent original = event();
+        original.setHasLocation(true);
+        original.setLatitude(1.5);
+
+        // Act
+        MoodEvent copy = MoodChanges.copy(original);
+        original.setMood("Anger");
+
+        // Assert
+        assertEquals("Happiness", copy.getMood());
+        assertEquals("m1", copy.getId());
+        assertTrue(copy.getHasLocation());
+        assertEquals(1.5, copy.getLatitude(), 0.0);
+        assertTrue(MoodChanges.diff(copy, MoodChanges.copy(copy)).isEmpty());
+    }
+}
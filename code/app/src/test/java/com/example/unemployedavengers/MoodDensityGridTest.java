@@ -0,0 +1,139 @@
+/**
+ * MoodDensityGridTest.java
+ *
+ * Unit tests for MoodDensityGrid.
+ * Tests verify:
+ * - Only located events, optionally of one mood, are counted
+ * - Each level's counts add up to the level below
+ * - Tiles are empty away from events and densest over them
+ * - Zooms past the finest level still return densities
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class MoodDensityGridTest {
+    private static final double LAT = 53.5232;
+    private static final double LNG = -113.5263;
+
+    private static MoodEvent event(String mood, double latitude, double longitude) {
+        MoodEvent event = new MoodEvent();
+        event.setMood(mood);
+        event.setHasLocation(true);
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        return event;
+    }
+
+    // Tile column and row containing a point, as Google Maps numbers them
+    private static int[] tileOf(double latitude, double longitude, int zoom) {
+        double sin = Math.sin(Math.toRadians(latitude));
+        double x = (longitude + 180) / 360;
+        double y = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        return new int[]{(int) Math.floor(x * (1 << zoom)), (int) Math.floor(y * (1 << zoom))};
+    }
+
+    @Test
+    public void build_CountsLocatedEventsOfMood() {
+        // Arrange
+        List<MoodEvent> events = new ArrayList<>(Arrays.asList(
+                event("😄Happiness", LAT, LNG),
+                event("😔Sadness", LAT, LNG),
+                event("😄Happiness", LAT + 1, LNG),
+                new MoodEvent()));
+
+        // Act & Assert
+        assertEquals(3, MoodDensityGrid.build(events, null).size());
+        assertEquals(2, MoodDensityGrid.build(events, "😄Happiness").size());
+    }
+
+    @Test
+    public void count_LevelsAddUp() {
+        // Arrange
+        List<MoodEvent> events = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            events.add(event("😄Happiness", LAT + i * 0.01, LNG + i * 0.01));
+        }
+
+        // Act
+        MoodDensityGrid grid = MoodDensityGrid.build(events, null);
+
+        // Assert: the whole world is one tile at level 0
+        int total = 0;
+        for (int y = 0; y < MoodDensityGrid.CELLS_PER_TILE; y++) {
+            for (int x = 0; x < MoodDensityGrid.CELLS_PER_TILE; x++) {
+                total += grid.count(0, x, y);
+            }
+        }
+        assertEquals(50, total);
+        assertEquals(0, grid.count(0, -1, 0));
+    }
+
+    @Test
+    public void interleave_ParentIsShiftedCode() {
+        // Act & Assert
+        assertEquals(MoodDensityGrid.interleave(1234 >> 1, 987 >> 1), MoodDensityGrid.interleave(1234, 987) >>> 2);
+        assertEquals(3, MoodDensityGrid.interleave(1, 1));
+    }
+
+    @Test
+    public void tileIntensity_EmptyAwayFromEvents() {
+        // Arrange
+        MoodDensityGrid grid = MoodDensityGrid.build(Arrays.asList(event("😄Happiness", LAT, LNG)), null);
+        int[] far = tileOf(-33.86, 151.21, 12);
+
+        // Act & Assert
+        assertNull(grid.tileIntensity(far[0], far[1], 12));
+        assertNull(MoodDensityGrid.build(new ArrayList<>(), null).tileIntensity(0, 0, 0));
+    }
+
+    @Test
+    public void tileIntensity_PeaksOverEvents() {
+        // Arrange
+        MoodDensityGrid grid = MoodDensityGrid.build(Arrays.asList(
+                event("😄Happiness", LAT, LNG), event("😄Happiness", LAT, LNG)), null);
+        int[] tile = tileOf(LAT, LNG, 12);
+
+        // Act
+        float[] intensity = grid.tileIntensity(tile[0], tile[1], 12);
+
+        // Assert
+        assertNotNull(intensity);
+        float max = 0;
+        int nonZero = 0;
+        for (float value : intensity) {
+            assertTrue(value >= 0 && value <= 1);
+            max = Math.max(max, value);
+            if (value > 0) nonZero++;
+        }
+        assertEquals(1f, max, 1e-6);
+        // Smoothed over the kernel, not a single cell
+        assertTrue(nonZero > 1);
+    }
+
+    @Test
+    public void tileIntensity_BeyondFinestLevel() {
+        // Arrange
+        MoodDensityGrid grid = MoodDensityGrid.build(Arrays.asList(event("😄Happiness", LAT, LNG)), null);
+        int zoom = MoodDensityGrid.MAX_LEVEL + 4;
+        int[] tile = tileOf(LAT, LNG, zoom);
+
+        // Act
+        float[] intensity = grid.tileIntensity(tile[0], tile[1], zoom);
+
+        // Assert
+        assertNotNull(intensity);
+        assertEquals(MoodDensityGrid.CELLS_PER_TILE * MoodDensityGrid.CELLS_PER_TILE, intensity.length);
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * MoodExportFormatterTest.java
+ *
+ * Unit tests for the MoodExportFormatter export lines.
+ * Tests verify:
+ * - The CSV header lists every column and NDJSON has no header
+ * - CSV fields with commas, quotes or line breaks are quoted
+ * - NDJSON strings are escaped and missing values are null
+ * - Coordinates are only written for moods with a location
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Writes to a StringWriter instead of a file
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+public class MoodExportFormatterTest {
+
+    private static MoodEvent event(String reason) {
+        MoodEvent event = new MoodEvent();
+        event.setId("m1");
+        event.setMood("Happiness");
+        event.setReason(reason);
+        event.setTime(0);
+        return event;
+    }
+
+    @Test
+    public void writeHeader_CsvListsColumnsAndNdjsonIsEmpty() throws IOException {
+        // Arrange
+        StringWriter csv = new StringWriter();
+        StringWriter ndjson = new StringWriter();
+
+        // Act
+        new MoodExportFormatter(MoodExportFormatter.Format.CSV).writeHeader(csv);
+        new MoodExportFormatter(MoodExportFormatter.Format.NDJSON).writeHeader(ndjson);
+
+        // Assert
+        assertTrue(csv.toString().startsWith("id,time,mood,reason,"));
+        assertTrue(csv.toString().endsWith("imageUri\r\n"));
+        assertEquals("", ndjson.toString());
+    }
+
+    @Test
+    public void writeRow_CsvQuotesSpecialCharacters() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+
+        // Act
+        new MoodExportFormatter(MoodExportFormatter.Format.CSV).writeRow(out, event("coffee, \"lots\"\nof it"));
+
+        // Assert
+        assertTrue(out.toString().startsWith(
+                "m1,1970-01-01T00:00:00Z,Happiness,\"coffee, \"\"lots\"\"\nof it\","));
+        assertTrue(out.toString().endsWith("\r\n"));
+    }
+
+    @Test
+    public void writeRow_NdjsonEscapesAndWritesNulls() throws IOException {
+        // Arrange
+        StringWriter out = new StringWriter();
+
+        // Act
+        new MoodExportFormatter(MoodExportFormatter.Format.NDJSON).writeRow(out, event("say \"hi\"\\\n\u0001"));
+
+        // Assert
+        String line = out.toString();
+        assertTrue(line.contains("\"reason\":\"say \\\"hi\\\"\\\\\\n\\u0001\""));
+        assertTrue(line.contains("\"latitude\":null"));
+        assertTrue(line.contains("\"publicStatus\":true"));
+        assertTrue(line.endsWith("}\n"));
+        assertEquals(1, line.split("\n").length);
+    }
+
+    @Test
+    public void writeRow_WritesCoordinatesOnlyWithLocation() throws IOException {
+        // Arrange
+        MoodEvent event = event("walk");
+        event.setHasLocation(true);
+        event.setLatitude(53.5);
+        event.setLongitude(-113.5);
+        StringWriter out = new StringWriter();
+
+        // Act
+        new MoodExportFormatter(MoodExportFormatter.Format.NDJSON).writeRow(out, event);
+
+        // Assert
+        assertTrue(out.toString().contains("\"hasLocation\":true,\"latitude\":53.5,\"longitude\":-113.5"));
+    }
+
+    @Test
+    public void csvField_PlainValueIsUnchanged() {
+        // Act & Assert
+        assertEquals("plain", MoodExportFormatter.csvField("plain"));
+        assertEquals("\"a,b\"", MoodExportFormatter.csvField("a,b"));
+    }
+}
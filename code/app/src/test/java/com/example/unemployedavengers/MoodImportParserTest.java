@@ -0,0 +1,165 @@
+/**
+ * MoodImportParserTest.java
+ *
+ * Unit tests for MoodImportParser.
+ * Tests verify:
+ * - CSV, NDJSON and JSON array input are detected and read one record at a time
+ * - Quoted CSV fields and escaped JSON strings are decoded
+ * - Invalid records are skipped and counted, with the reason kept
+ * - Mood names are matched to the app's moods ignoring case and emoji
+ * - skip() resumes at the same record a previous import stopped at
+ * - An export written by MoodExportFormatter imports back unchanged
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Reads from StringReaders instead of files
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+
+public class MoodImportParserTest {
+    private static final List<String> MOODS = Arrays.asList("😄Happiness", "😔Sadness", "😯Surprise ");
+
+    private static MoodImportParser parser(String content) {
+        return new MoodImportParser(new StringReader(content), MOODS);
+    }
+
+    @Test
+    public void next_ReadsCsvWithQuotedFields() throws IOException {
+        // Arrange
+        MoodImportParser parser = parser("mood,time,reason\r\n"
+                + "happiness,1000,\"coffee, \"\"good\"\"\nmorning\"\r\n"
+                + "SADNESS,2000,rain\r\n");
+
+        // Act
+        MoodEvent first = parser.next();
+        MoodEvent second = parser.next();
+
+        // Assert
+        assertEquals("😄Happiness", first.getMood());
+        assertEquals(1000, first.getTime());
+        assertEquals("coffee, \"good\"\nmorning", first.getReason());
+        assertEquals("😔Sadness", second.getMood());
+        assertNull(parser.next());
+        assertEquals(2, parser.getOffset());
+    }
+
+    @Test
+    public void next_ReadsNdjsonAndJsonArray() throws IOException {
+        // Arrange
+        MoodImportParser ndjson = parser("{\"mood\":\"Surprise\",\"time\":\"1970-01-01T00:00:01Z\",\"reason\":\"a\\\"b\\u0041\"}\n"
+                + "{\"mood\":\"Sadness\",\"time\":5,\"extra\":{\"nested\":[1,2]}}\n");
+        MoodImportParser array = parser(" [ {\"mood\":\"Happiness\",\"time\":1} , {\"mood\":\"Sadness\",\"time\":2} ] ");
+
+        // Act
+        MoodEvent first = ndjson.next();
+        MoodEvent second = ndjson.next();
+
+        // Assert
+        assertEquals("😯Surprise ", first.getMood());
+        assertEquals(1000, first.getTime());
+        assertEquals("a\"bA", first.getReason());
+        assertEquals(5, second.getTime());
+        assertNull(ndjson.next());
+
+        assertEquals("😄Happiness", array.next().getMood());
+        assertEquals(2, array.next().getTime());
+        assertNull(array.next());
+    }
+
+    @Test
+    public void next_SkipsInvalidRecordsAndKeepsReason() throws IOException {
+        // Arrange
+        MoodImportParser parser = parser("mood,time\nJoy,1\nHappiness,yesterday\nHappiness,3\n");
+
+        // Act
+        MoodEvent event = parser.next();
+
+        // Assert
+        assertEquals(3, event.getTime());
+        assertEquals(2, parser.getSkipped());
+        assertEquals(3, parser.getOffset());
+        assertTrue(parser.getLastError().contains("time"));
+    }
+
+    @Test
+    public void next_RejectsOverlongReason() throws IOException {
+        // Arrange
+        StringBuilder reason = new StringBuilder();
+        for (int i = 0; i <= MoodImportParser.MAX_REASON_LENGTH; i++) {
+            reason.append('x');
+        }
+        MoodImportParser parser = parser("mood,time,reason\nHappiness,1," + reason + "\n");
+
+        // Act & Assert
+        assertNull(parser.next());
+        assertEquals(1, parser.getSkipped());
+    }
+
+    @Test
+    public void skip_ResumesAtSameRecord() throws IOException {
+        // Arrange
+        String content = "mood,time\nHappiness,1\nSadness,2\nHappiness,3\n";
+        MoodImportParser first = parser(content);
+        first.next();
+        first.next();
+
+        // Act
+        MoodImportParser resumed = parser(content);
+        resumed.skip(first.getOffset());
+
+        // Assert
+        assertEquals(3, resumed.next().getTime());
+    }
+
+    @Test(expected = IOException.class)
+    public void next_MalformedJsonThrows() throws IOException {
+        parser("{\"mood\":\"Happiness\",\"time\":1\n").next();
+    }
+
+    @Test
+    public void next_ReadsOwnExport() throws IOException {
+        // Arrange
+        MoodEvent original = new MoodEvent();
+        original.setId("m1");
+        original.setMood("😔Sadness");
+        original.setReason("long, \"hard\" day");
+        original.setSituation("alone");
+        original.setRadioSituation("Alone");
+        original.setTime(123456);
+        original.setPublicStatus(false);
+        original.setHasLocation(true);
+        original.setLatitude(53.5);
+        original.setLongitude(-113.5);
+        for (MoodExportFormatter.Format format : MoodExportFormatter.Format.values()) {
+            MoodExportFormatter formatter = new MoodExportFormatter(format);
+            StringWriter out = new StringWriter();
+            formatter.writeHeader(out);
+            formatter.writeRow(out, original);
+
+            // Act
+            MoodEvent imported = parser(out.toString()).next();
+
+            // Assert
+            assertEquals(original.getMood(), imported.getMood());
+            assertEquals(original.getReason(), imported.getReason());
+            assertEquals(original.getSituation(), imported.getSituation());
+            assertEquals(original.getRadioSituation(), imported.getRadioSituation());
+            assertEquals(original.getTime(), imported.getTime());
+            assertFalse(imported.getPublicStatus());
+            assertTrue(imported.getHasLocation());
+            assertEquals(-113.5, imported.getLongitude(), 0.0);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/**
+ * MoodSearchIndexTest.java
+ *
+ * Unit tests for MoodSearchIndex.
+ * Tests verify:
+ * - Word forms are reduced to a shared stem and stop words are skipped
+ * - Results are ranked with BM25, rarer and more frequent words first
+ * - Re-putting or removing a document updates the index
+ * - The last query word matches as a prefix
+ * - Snippets are cut around the first match and highlight matched words
+ * - Comments link back to the indexed mood they were made on
+ * - Another user signing in forgets the previous user's moods and comments
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Uses fresh index instances instead of the shared one
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.Comment;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MoodSearchIndexTest {
+
+    private static MoodEvent mood(String id, String userId, String reason, String situation) {
+        MoodEvent event = new MoodEvent();
+        event.setId(id);
+        event.setUserId(userId);
+        event.setReason(reason);
+        event.setSituation(situation);
+        return event;
+    }
+
+    @Test
+    public void stem_SharesStemsAcrossWordForms() {
+        // Act & Assert
+        assertEquals(MoodSearchIndex.stem("stress"), MoodSearchIndex.stem("stressed"));
+        assertEquals(MoodSearchIndex.stem("stress"), MoodSearchIndex.stem("stresses"));
+        assertEquals(MoodSearchIndex.stem("happy"), MoodSearchIndex.stem("happiness"));
+        assertEquals(MoodSearchIndex.stem("happy"), MoodSearchIndex.stem("happily"));
+        assertEquals("run", MoodSearchIndex.stem("running"));
+        assertEquals(MoodSearchIndex.stem("hope"), MoodSearchIndex.stem("hoped"));
+        assertEquals("bus", MoodSearchIndex.stem("bus"));
+    }
+
+    @Test
+    public void tokenize_SkipsStopWordsAndKeepsRanges() {
+        // Act
+        List<MoodSearchIndex.Token> tokens = MoodSearchIndex.tokenize("The exam, and MORE exams!");
+
+        // Assert
+        assertEquals(3, tokens.size());
+        assertEquals("exam", tokens.get(0).term);
+        assertEquals(4, tokens.get(0).start);
+        assertEquals(8, tokens.get(0).end);
+        assertEquals("exam", tokens.get(2).term);
+    }
+
+    @Test
+    public void search_RanksWithBm25() {
+        // Arrange
+        MoodSearchIndex index = new MoodSearchIndex();
+        index.putMoods(Arrays.asList(
+                mood("1", "u", "work work work deadline", ""),
+                mood("2", "u", "work meeting", ""),
+                mood("3", "u", "sunny walk in the park", ""),
+                mood("4", "u", "park picnic with friends", "")));
+
+        // Act
+        List<MoodSearchIndex.Result> work = index.search("working ", 10);
+        List<MoodSearchIndex.Result> sunnyPark = index.search("sunny park ", 10);
+
+        // Assert
+        assertEquals(2, work.size());
+        assertEquals("1", work.get(0).getMoodEvent().getId());
+        assertTrue(work.get(0).getScore() > work.get(1).getScore());
+        assertEquals("3", sunnyPark.get(0).getMoodEvent().getId());
+        assertEquals(2, sunnyPark.size());
+    }
+
+    @Test
+    public void put_ReplacesAndRemoves() {
+        // Arrange
+        MoodSearchIndex index = new MoodSearchIndex();
+        index.putMood(mood("1", "u", "exam stress", ""));
+        index.putMood(mood("2", "u", "exam done", ""));
+
+        // Act
+        index.putMood(mood("1", "u", "beach day", ""));
+        index.replaceUserMoods("u", Arrays.asList(mood("1", "u", "beach day", "")));
+
+        // Assert
+        assertTrue(index.search("stress ", 10).isEmpty());
+        assertTrue(index.search("exam ", 10).isEmpty());
+        assertEquals(1, index.search("beach ", 10).size());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void search_LastWordMatchesAsPrefix() {
+        // Arrange
+        MoodSearchIndex index = new MoodSearchIndex();
+        index.putMood(mood("1", "u", "basketball practice", ""));
+
+        // Act & Assert
+        assertEquals(1, index.search("bask", 10).size());
+        assertTrue(index.search("bask ", 10).isEmpty());
+    }
+
+    @Test
+    public void search_SnippetHighlightsMatches() {
+        // Arrange
+        MoodSearchIndex index = new MoodSearchIndex();
+        String reason = "Started the morning slowly with coffee and a long walk, then had a stressful "
+                + "meeting that stressed everyone out and ran late into the evening for the rest of the team";
+        index.putMood(mood("1", "u", reason, ""));
+
+        // Act
+        MoodSearchIndex.Result result = index.search("stress ", 1).get(0);
+
+        // Assert
+        String snippet = result.getSnippet();
+        assertTrue(snippet.startsWith("…"));
+        assertTrue(snippet.endsWith("…"));
+        assertTrue(snippet.length() < reason.length());
+        int[] first = result.getHighlights().get(0);
+        assertEquals("stressful", snippet.substring(first[0], first[1]));
+        assertEquals(2, result.getHighlights().size());
+    }
+
+    @Test
+    public void search_CommentLinksToMood() {
+        // Arrange
+        MoodSearchIndex index = new MoodSearchIndex();
+        index.putMood(mood("m1", "u", "new puppy", ""));
+        Comment comment = new Comment("m1", "u2", "friend", "Congrats on the puppy!", null);
+        comment.setId("c1");
+        index.putComment(comment);
+
+        // Act
+        List<MoodSearchIndex.Result> results = index.search("congrats ", 10);
+
+        // Assert
+        assertEquals(1, results.size());
+        assertEquals(MoodSearchIndex.Type.COMMENT, results.get(0).getType());
+        assertEquals("m1", results.get(0).getMoodEvent().getId());
+        index.removeComment("c1");
+        assertTrue(index.search("congrats ", 10).isEmpty());
+    }
+
+    @Test
+    public void start_AnotherUserForgetsPreviousUsersDocuments() {
+        // Arrange
+        MoodSearchIndex index = new MoodSearchIndex();
+        index.start("alice");
+        index.putMood(mood("1", "alice", "private diary entry", ""));
+
+        // Act
+        index.start("alice");
+        int sameUser = index.search("diary ", 10).size();
+        index.start("bob");
+
+        // Assert
+        assertEquals(1, sameUser);
+        assertEquals(0, index.size());
+        assertTrue(index.search("diary ", 10).isEmpty());
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * MoodStatsTest.java
+ *
+ * Unit tests for the MoodStats aggregate helpers and reader.
+ * Tests verify:
+ * - A mood event contributes to every bucket, and a negative sign undoes it
+ * - Editing an event without changing its counted fields produces an empty diff
+ * - Rolling windows only sum the days inside the window
+ * - Old per-day counters and reason tokens are trimmed, and writes roll off the days
+ *   just before the window
+ * - Reason tokens, the per-event token cap and top reasons
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Uses UTC so bucket keys don't depend on the machine's zone
+ */
+package com.example.unemployedavengers;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MoodStatsTest {
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    // Wednesday 2025-01-15 14:30 UTC
+    private static final long WEDNESDAY = 1736951400000L;
+    private static final long DAY = 24L * 60 * 60 * 1000;
+    private static final LocalDate TODAY = LocalDate.of(2025, 1, 15);
+
+    private static MoodEvent event(String mood, String reason, long time) {
+        MoodEvent event = new MoodEvent();
+        event.setMood(mood);
+        event.setReason(reason);
+        event.setTime(time);
+        return event;
+    }
+
+    private static MoodStats aggregate(MoodEvent... events) {
+        Map<String, Object> data = new HashMap<>();
+        for (MoodEvent event : events) {
+            MoodStats.mergeInto(data, MoodStats.contribution(event, 1, UTC));
+        }
+        return new MoodStats(data);
+    }
+
+    @Test
+    public void contribution_FillsEveryBucket() {
+        // Arrange & Act
+        MoodStats stats = aggregate(event("Happiness", "Great lunch", WEDNESDAY));
+
+        // Assert
+        assertEquals(1, stats.getTotal());
+        assertEquals(Long.valueOf(1), stats.getByMood().get("Happiness"));
+        assertEquals(1, stats.getByWeekday()[2]);
+        assertEquals(1, stats.getByHour()[14]);
+        assertEquals(Long.valueOf(1), stats.getWindow(1, LocalDate.of(2025, 1, 15)).get("Happiness"));
+        assertEquals(2, stats.getTopReasons(10, TODAY).size());
+    }
+
+    @Test
+    public void pruneZeros_AddThenRemoveLeavesNothing() {
+        // Arrange
+        MoodEvent event = event("Sadness", "rainy day", WEDNESDAY);
+        Map<String, Object> delta = MoodStats.contribution(event, 1, UTC);
+
+        // Act
+        MoodStats.mergeInto(delta, MoodStats.contribution(event, -1, UTC));
+
+        // Assert
+        assertTrue(MoodStats.pruneZeros(delta));
+    }
+
+    @Test
+    public void pruneZeros_KeepsOnlyChangedCounters() {
+        // Arrange
+        Map<String, Object> delta = MoodStats.contribution(event("Anger", "traffic", WEDNESDAY), 1, UTC);
+
+        // Act: same time and reason, different mood
+        MoodStats.mergeInto(delta, MoodStats.contribution(event("Sadness", "traffic", WEDNESDAY), -1, UTC));
+
+        // Assert
+        assertFalse(MoodStats.pruneZeros(delta));
+        assertFalse(delta.containsKey(MoodStats.TOTAL));
+        assertFalse(delta.containsKey(MoodStats.BY_HOUR));
+        assertFalse(delta.containsKey(MoodStats.REASON_TOKENS));
+        assertTrue(delta.containsKey(MoodStats.BY_MOOD));
+        assertTrue(delta.containsKey(MoodStats.BY_DAY));
+    }
+
+    @Test
+    public void getWindow_SumsOnlyDaysInsideWindow() {
+        // Arrange
+        MoodStats stats = aggregate(
+                event("Happiness", "", WEDNESDAY),
+                event("Happiness", "", WEDNESDAY - 6 * DAY),
+                event("Happiness", "", WEDNESDAY - 7 * DAY),
+                event("Fear", "", WEDNESDAY - 20 * DAY));
+        LocalDate today = LocalDate.of(2025, 1, 15);
+
+        // Act
+        Map<String, Long> week = stats.getWindow(7, today);
+        Map<String, Long> month = stats.getWindow(30, today);
+
+        // Assert
+        assertEquals(Long.valueOf(2), week.get("Happiness"));
+        assertNull(week.get("Fear"));
+        assertEquals(Long.valueOf(3), month.get("Happiness"));
+        assertEquals(Long.valueOf(1), month.get("Fear"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void trimDays_DropsDaysOutsideKeepWindow() {
+        // Arrange
+        Map<String, Object> data = new HashMap<>();
+        MoodStats.mergeInto(data, MoodStats.contribution(event("Happiness", "gym", WEDNESDAY), 1, UTC));
+        MoodStats.mergeInto(data, MoodStats.contribution(event("Happiness", "work", WEDNESDAY - MoodStats.KEEP_DAYS * DAY), 1, UTC));
+
+        // Act
+        MoodStats.trimDays(data, TODAY);
+
+        // Assert
+        Map<String, Object> days = (Map<String, Object>) data.get(MoodStats.BY_DAY);
+        assertEquals(1, days.size());
+        assertTrue(days.containsKey("2025-01-15"));
+        Map<String, Object> tokenDays = (Map<String, Object>) data.get(MoodStats.REASON_TOKENS);
+        assertEquals(1, tokenDays.size());
+        assertTrue(tokenDays.containsKey("2025-01-15"));
+        assertEquals(2, new MoodStats(data).getTotal());
+    }
+
+    @Test
+    public void rollOffDays_StartJustBeforeWindow() {
+        // Act
+        List<String> days = MoodStats.rollOffDays(TODAY);
+
+        // Assert
+        assertEquals(MoodStats.ROLL_OFF_DAYS, days.size());
+        assertEquals(TODAY.minusDays(MoodStats.KEEP_DAYS).toString(), days.get(0));
+        assertEquals(TODAY.minusDays(MoodStats.KEEP_DAYS + MoodStats.ROLL_OFF_DAYS - 1).toString(),
+                days.get(days.size() - 1));
+    }
+
+    @Test
+    public void reasonTokens_LowercaseDistinctAndLongEnough() {
+        // Act
+        List<String> tokens = MoodStats.reasonTokens("Work, WORK and a long meeting!");
+
+        // Assert
+        assertEquals(Arrays.asList("work", "and", "long", "meeting"), tokens);
+        assertTrue(MoodStats.reasonTokens(null).isEmpty());
+    }
+
+    @Test
+    public void contribution_CapsTokensPerEvent() {
+        // Arrange
+        StringBuilder reason = new StringBuilder();
+        for (int i = 0; i < MoodStats.MAX_EVENT_TOKENS + 5; i++) {
+            reason.append("word").append((char) ('a' + i)).append(' ');
+        }
+
+        // Act
+        MoodStats stats = aggregate(event("Happiness", reason.toString(), WEDNESDAY));
+
+        // Assert
+        assertEquals(MoodStats.MAX_EVENT_TOKENS, stats.getTopReasons(100, TODAY).size());
+    }
+
+    @Test
+    public void getTopReasons_MostFrequentFirst() {
+        // Arrange
+        MoodStats stats = aggregate(
+                event("Happiness", "gym", WEDNESDAY),
+                event("Happiness", "gym friends", WEDNESDAY),
+                event("Happiness", "work", WEDNESDAY));
+
+        // Act
+        List<Map.Entry<String, Long>> top = stats.getTopReasons(2, TODAY);
+
+        // Assert
+        assertEquals(2, top.size());
+        assertEquals("gym", top.get(0).getKey());
+        assertEquals(Long.valueOf(2), top.get(0).getValue());
+        assertEquals("friends", top.get(1).getKey());
+    }
+
+    @Test
+    public void newMoodStats_NullDataIsEmpty() {
+        // Arrange & Act
+        MoodStats stats = new MoodStats(null);
+
+        // Assert
+        assertEquals(0, stats.getTotal());
+        assertEquals(0, stats.getVersion());
+        assertTrue(stats.getByMood().isEmpty());
+    }
+}
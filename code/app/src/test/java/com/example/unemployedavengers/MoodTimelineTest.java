@@ -0,0 +1,136 @@
+/**
+ * MoodTimelineTest.java
+ *
+ * Unit tests for MoodTimeline.
+ * Tests verify:
+ * - Moods map to scores ignoring emoji; unknown moods are skipped
+ * - Points stay sorted when added out of order, one at a time or a page at a time
+ * - Dropping a range whose load failed lets a retry load it without counting moods twice
+ * - Downsampling keeps the first and last points and isolated peaks
+ * - A window query returns only the window plus one neighbour on each side
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MoodTimelineTest {
+
+    @Test
+    public void score_IgnoresEmojiAndCase() {
+        // Act & Assert
+        assertEquals(2f, MoodTimeline.score("😄Happiness"), 0f);
+        assertEquals(1f, MoodTimeline.score("😯Surprise "), 0f);
+        assertEquals(-2f, MoodTimeline.score("sadness"), 0f);
+        assertTrue(Float.isNaN(MoodTimeline.score("Joy")));
+        assertTrue(Float.isNaN(MoodTimeline.score(null)));
+    }
+
+    @Test
+    public void add_KeepsTimeOrder() {
+        // Arrange
+        MoodTimeline timeline = new MoodTimeline();
+
+        // Act
+        timeline.add(30, "😄Happiness");
+        timeline.add(10, "😔Sadness");
+        timeline.add(20, "Joy");
+        timeline.add(20, "😯Surprise ");
+
+        // Assert
+        assertEquals(3, timeline.size());
+        assertEquals(10, timeline.getStart());
+        assertEquals(30, timeline.getEnd());
+        MoodTimeline.Points points = timeline.downsample(0, 100, 10);
+        assertArrayEquals(new long[]{10, 20, 30}, points.times);
+    }
+
+    @Test
+    public void addAll_MergesOlderPageInOrder() {
+        // Arrange
+        MoodTimeline timeline = new MoodTimeline();
+        timeline.add(20, "😄Happiness");
+        timeline.add(40, "😔Sadness");
+
+        // Act
+        timeline.addAll(new long[]{10, 20, 30}, new String[]{"😯Surprise ", "Joy", "😨Fear"});
+
+        // Assert
+        assertEquals(4, timeline.size());
+        MoodTimeline.Points points = timeline.downsample(0, 100, 10);
+        assertArrayEquals(new long[]{10, 20, 30, 40}, points.times);
+        assertArrayEquals(new float[]{1, 2, -1, -2}, points.scores, 0f);
+    }
+
+    @Test
+    public void removeRange_FailedLoadThenRetry_CountsEachMoodOnce() {
+        // Arrange
+        MoodTimeline timeline = new MoodTimeline();
+        timeline.addAll(new long[]{300, 400}, new String[]{"😄Happiness", "😄Happiness"});
+        long[] firstPage = {100, 150};
+        long[] secondPage = {200, 250};
+        String[] moods = {"😔Sadness", "😯Surprise"};
+        // Range [100, 300) fails after its first page
+        timeline.addAll(firstPage, moods);
+
+        // Act
+        timeline.removeRange(100, 300);
+        timeline.addAll(firstPage, moods);
+        timeline.addAll(secondPage, moods);
+
+        // Assert
+        assertEquals(6, timeline.size());
+        MoodTimeline.Points points = timeline.downsample(0, Long.MAX_VALUE, 100);
+        assertArrayEquals(new long[]{100, 150, 200, 250, 300, 400}, points.times);
+    }
+
+    @Test
+    public void downsample_KeepsEndsAndPeak() {
+        // Arrange: a flat line with one spike
+        MoodTimeline timeline = new MoodTimeline();
+        for (int i = 0; i < 100_000; i++) {
+            timeline.add(i * 1000L, i == 54_321 ? "😄Happiness" : "😔Sadness");
+        }
+
+        // Act
+        MoodTimeline.Points points = timeline.downsample(0, Long.MAX_VALUE, 500);
+
+        // Assert
+        assertEquals(500, points.size);
+        assertEquals(0, points.times[0]);
+        assertEquals(99_999_000L, points.times[points.size - 1]);
+        boolean peakKept = false;
+        for (int i = 1; i < points.size; i++) {
+            assertTrue(points.times[i] > points.times[i - 1]);
+            peakKept |= points.times[i] == 54_321_000L && points.scores[i] == 2f;
+        }
+        assertTrue(peakKept);
+    }
+
+    @Test
+    public void downsample_QueriesOnlyTheWindow() {
+        // Arrange
+        MoodTimeline timeline = new MoodTimeline();
+        for (int i = 0; i < 100; i++) {
+            timeline.add(i * 10L, "😄Happiness");
+        }
+
+        // Act
+        MoodTimeline.Points points = timeline.downsample(205, 250, 100);
+
+        // Assert: 210..250 plus 200 before and 260 after
+        assertEquals(7, points.size);
+        assertEquals(200, points.times[0]);
+        assertEquals(260, points.times[6]);
+    }
+
+    @Test
+    public void downsample_EmptyTimeline() {
+        // Act & Assert
+        assertEquals(0, new MoodTimeline().downsample(0, 100, 10).size);
+    }
+}
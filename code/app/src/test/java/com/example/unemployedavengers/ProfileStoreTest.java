@@ -0,0 +1,94 @@
+/**
+ * ProfileStoreTest.java
+ *
+ * Unit tests for the in-memory state and encoding of ProfileStore.
+ * Tests verify:
+ * - Stored entries decode back to the same summary, whatever the username contains
+ * - Older reads don't overwrite newer ones
+ * - The least recently used users are evicted past MAX_ENTRIES
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ * - Persistence needs SharedPreferences and is covered by instrumented runs
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ProfileStoreTest {
+
+    @Test
+    public void encode_RoundTripsUsernamesWithSeparators() {
+        // Arrange
+        ProfileStore store = new ProfileStore();
+        store.put("u1", "a:b:c", "https://example.com/a.jpg?x=1:2", 42L);
+
+        // Act
+        ProfileStore.Summary decoded = ProfileStore.decode("u1", ProfileStore.encode(store.get("u1")));
+
+        // Assert
+        assertEquals("a:b:c", decoded.username);
+        assertEquals("https://example.com/a.jpg?x=1:2", decoded.avatar);
+        assertEquals(42L, decoded.version);
+        assertTrue(decoded.hasAvatar());
+    }
+
+    @Test
+    public void decode_ReturnsNullForMalformedEntries() {
+        // Act & Assert
+        assertNull(ProfileStore.decode("u1", "garbage"));
+        assertNull(ProfileStore.decode("u1", "1:99:short"));
+    }
+
+    @Test
+    public void put_IgnoresOlderVersionsAndReportsChanges() {
+        // Arrange
+        ProfileStore store = new ProfileStore();
+        store.put("u1", "new", null, 200L);
+
+        // Act
+        boolean older = store.put("u1", "old", null, 100L);
+        boolean same = store.put("u1", "new", "", 300L);
+        boolean renamed = store.put("u1", "renamed", "", 400L);
+
+        // Assert
+        assertFalse(older);
+        assertFalse(same);
+        assertTrue(renamed);
+        assertEquals("renamed", store.get("u1").username);
+        assertFalse(store.get("u1").hasAvatar());
+    }
+
+    @Test
+    public void put_EvictsLeastRecentlyUsed() {
+        // Arrange
+        ProfileStore store = new ProfileStore();
+        for (int i = 0; i < ProfileStore.MAX_ENTRIES; i++) {
+            store.put("u" + i, "user" + i, "", i);
+        }
+        store.get("u0");
+
+        // Act
+        store.put("extra", "extra", "", 1000L);
+
+        // Assert
+        assertEquals(ProfileStore.MAX_ENTRIES, store.size());
+        assertNotNull(store.get("u0"));
+        assertNull(store.get("u1"));
+    }
+
+    @Test
+    public void isFresh_ComparesAgainstFreshWindow() {
+        // Arrange
+        ProfileStore store = new ProfileStore();
+        store.put("u1", "user", "", 1000L);
+        ProfileStore.Summary summary = store.get("u1");
+
+        // Act & Assert
+        assertTrue(ProfileStore.isFresh(summary, 1000L + ProfileStore.FRESH_MS - 1));
+        assertFalse(ProfileStore.isFresh(summary, 1000L + ProfileStore.FRESH_MS));
+        assertFalse(ProfileStore.isFresh(null, 1000L));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * UsernameSearchIndexTest.java
+ *
+ * Unit tests for the UsernameSearchIndex used by search-as-you-type.
+ * Tests verify:
+ * - Normalization and trigram generation
+ * - Case-insensitive prefix matches come before substring matches
+ * - The current user is excluded
+ * - Renamed users replace their old entry and LRU eviction bounds the index
+ *
+ * Testing Approach:
+ * - Uses JUnit 4 test framework
+ * - Follows Arrange-Act-Assert pattern
+ */
+package com.example.unemployedavengers;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+import com.example.unemployedavengers.models.User;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class UsernameSearchIndexTest {
+
+    private User user(String id, String username) {
+        return new User(id, username, username.toLowerCase() + "@example.com", "pw", "");
+    }
+
+    private static List<String> names(List<User> users) {
+        String[] names = new String[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            names[i] = users.get(i).getUsername();
+        }
+        return Arrays.asList(names);
+    }
+
+    @Test
+    public void spreadTrigrams_CoversStartMiddleAndEnd() {
+        // "abcdefghij" has 8 trigram positions; 3 spread over them are 0, 3 and 7
+        assertEquals(Arrays.asList("abc", "def", "hij"), UsernameSearchIndex.spreadTrigrams("abcdefghij", 3));
+        assertEquals(Arrays.asList("ban", "ana", "nan"), UsernameSearchIndex.spreadTrigrams("banana", 4));
+        assertTrue(UsernameSearchIndex.spreadTrigrams("ab", 4).isEmpty());
+    }
+
+    @Test
+    public void trigrams_AreDistinctAndSorted() {
+        assertEquals(Arrays.asList("ana", "ban", "nan"), UsernameSearchIndex.trigrams("banana"));
+        assertTrue(UsernameSearchIndex.trigrams("ab").isEmpty());
+        assertEquals("alice", UsernameSearchIndex.normalize("  Alice "));
+    }
+
+    @Test
+    public void search_PrefixBeforeSubstring_CaseInsensitive() {
+        // Arrange
+        UsernameSearchIndex index = new UsernameSearchIndex(100);
+        index.addAll(Arrays.asList(user("1", "MoodKing"), user("2", "moody"), user("3", "BadMood"), user("4", "other")));
+
+        // Act
+        List<User> results = index.search("MOOD", null, 10);
+
+        // Assert
+        assertEquals(Arrays.asList("MoodKing", "moody", "BadMood"), names(results));
+    }
+
+    @Test
+    public void search_ExcludesCurrentUserAndRespectsLimit() {
+        UsernameSearchIndex index = new UsernameSearchIndex(100);
+        index.addAll(Arrays.asList(user("1", "sam"), user("2", "samantha"), user("3", "samuel")));
+
+        List<User> results = index.search("sam", "1", 1);
+
+        assertEquals(Collections.singletonList("samantha"), names(results));
+    }
+
+    @Test
+    public void addAll_RenamedUserReplacesOldEntry() {
+        UsernameSearchIndex index = new UsernameSearchIndex(100);
+        index.addAll(Collections.singletonList(user("1", "oldname")));
+
+        index.addAll(Collections.singletonList(user("1", "newname")));
+
+        assertTrue(index.search("old", null, 10).isEmpty());
+        assertEquals(Collections.singletonList("newname"), names(index.search("new", null, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void addAll_EvictsLeastRecentlyAdded() {
+        UsernameSearchIndex index = new UsernameSearchIndex(2);
+        index.addAll(Arrays.asList(user("1", "anna"), user("2", "annie"), user("3", "annabel")));
+
+        assertEquals(2, index.size());
+        assertEquals(Arrays.asList("annabel", "annie"), names(index.search("ann", null, 10)));
+    }
+}
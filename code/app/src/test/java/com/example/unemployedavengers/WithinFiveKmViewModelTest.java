@@ -8,6 +8,8 @@
  * - LiveData updates when mood events are set
  * - Proper observation of mood events data
  * - Maintenance of data consistency
+ * - Nearby events are computed once both friend events and location are known,
+ *   in either order
  *
  * Testing Methodology:
  * - Uses Mockito for creating test MoodEvent objects
@@ -20,6 +22,7 @@ package com.example.unemployedavengers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
 import androidx.lifecycle.Observer;
@@ -64,5 +67,47 @@ public class WithinFiveKmViewModelTest {
         assertNotNull(viewModel.getMoodEvents().getValue());
         assertEquals(2, viewModel.getMoodEvents().getValue().size());
     }
+
+    private static MoodEvent locatedEvent(double latitude, double longitude) {
+        MoodEvent event = new MoodEvent();
+        event.setHasLocation(true);
+        event.setLatitude(latitude);
+        event.setLongitude(longitude);
+        return event;
+    }
+
+    @Test
+    public void testFriendEventsBeforeLocation_filtersOnceLocationArrives() {
+        // Arrange
+        MoodEvent near = locatedEvent(53.5461, -113.4938);
+        MoodEvent far = locatedEvent(51.0447, -114.0719);
+        viewModel.getMoodEvents().observeForever(events -> {});
+
+        // Act
+        viewModel.setFriendMoodEvents(Arrays.asList(near, far, new MoodEvent()));
+
+        // Assert: nothing to show until the location is known
+        assertNull(viewModel.getMoodEvents().getValue());
+
+        // Act
+        viewModel.setCurrentLocation(53.5232, -113.5263);
+
+        // Assert
+        assertEquals(Arrays.asList(near), viewModel.getMoodEvents().getValue());
+    }
+
+    @Test
+    public void testLocationBeforeFriendEvents_filtersEachUpdate() {
+        // Arrange
+        MoodEvent near = locatedEvent(53.5461, -113.4938);
+        viewModel.getMoodEvents().observeForever(events -> {});
+        viewModel.setCurrentLocation(53.5232, -113.5263);
+
+        // Act
+        viewModel.setFriendMoodEvents(Arrays.asList(near));
+
+        // Assert
+        assertEquals(1, viewModel.getMoodEvents().getValue().size());
+    }
 }
 
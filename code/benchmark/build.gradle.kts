@@ -0,0 +1,39 @@
+// JVM-only JMH module for the app's pure-Java hot paths.
+// The Android module cannot be a dependency of a plain JVM project, so the
+// helper and model sources are compiled straight from app/src/main/java.
+plugins {
+    `java-library`
+    id("me.champeau.jmh") version "0.7.2"
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_11
+    targetCompatibility = JavaVersion.VERSION_11
+}
+
+sourceSets {
+    main {
+        java {
+            setSrcDirs(listOf("../app/src/main/java"))
+            include(
+                "com/example/unemployedavengers/MoodFilterHelper.java",
+                "com/example/unemployedavengers/FeedSelector.java",
+                "com/example/unemployedavengers/DistanceFilterHelper.java",
+                "com/example/unemployedavengers/CommentThread.java",
+                "com/example/unemployedavengers/models/MoodEvent.java",
+                "com/example/unemployedavengers/models/Comment.java"
+            )
+        }
+    }
+}
+
+jmh {
+    jmhVersion.set("1.37")
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    // Run with -PbenchmarkTag=<name> to keep results from several runs side by side
+    val tag = (findProperty("benchmarkTag") as String?) ?: "latest"
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("results/jmh/results-$tag.json"))
+}
@@ -0,0 +1,83 @@
+/**
+ * BenchmarkData - Deterministic fixtures shared by the JMH benchmarks.
+ *
+ * Key Responsibilities:
+ * - Generates mood events with a fixed seed so every run sees the same data
+ * - Spreads events over 30 days, 6 moods and a 20 km box around Edmonton
+ * - Generates flat comment lists with a configurable share of replies
+ *
+ * @see MoodEvent
+ * @see Comment
+ */
+package com.example.unemployedavengers.benchmark;
+
+import com.example.unemployedavengers.models.Comment;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+final class BenchmarkData {
+    static final long SEED = 42L;
+    static final long NOW = 1_735_689_600_000L; // 2025-01-01T00:00:00Z
+    static final double CENTER_LAT = 53.5461;
+    static final double CENTER_LNG = -113.4938;
+
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final String[] MOODS = {
+            "Anger", "Confusion", "Disgust", "Fear", "Happiness", "Sadness"
+    };
+    private static final String[] REASONS = {
+            "exam", "work", "family", "weather", "friends", "sleep"
+    };
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Creates mood events in random order; about 20% are private and 70% have a location.
+     */
+    static List<MoodEvent> moodEvents(int count, Random random) {
+        List<MoodEvent> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long time = NOW - (long) (random.nextDouble() * 30 * DAY_MILLIS);
+            MoodEvent event = new MoodEvent(
+                    MOODS[random.nextInt(MOODS.length)],
+                    REASONS[random.nextInt(REASONS.length)] + " " + i,
+                    "Alone", time, "Alone", null, random.nextInt(5) != 0);
+            if (random.nextInt(10) < 7) {
+                event.setHasLocation(true);
+                // Roughly +/- 10 km in each direction
+                event.setLatitude(CENTER_LAT + (random.nextDouble() - 0.5) * 0.18);
+                event.setLongitude(CENTER_LNG + (random.nextDouble() - 0.5) * 0.30);
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    /**
+     * Creates a shuffled flat comment list where {@code replyRatio} of the comments are replies.
+     */
+    static List<Comment> comments(int count, double replyRatio, Random random) {
+        List<Comment> topLevel = new ArrayList<>();
+        List<Comment> all = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String parentId = null;
+            if (!topLevel.isEmpty() && random.nextDouble() < replyRatio) {
+                parentId = topLevel.get(random.nextInt(topLevel.size())).getId();
+            }
+            Comment comment = new Comment("mood", "user" + random.nextInt(50), "user", "comment " + i, parentId);
+            comment.setId("c" + i);
+            comment.setTimestamp(NOW - random.nextInt(1_000_000));
+            if (parentId == null) {
+                topLevel.add(comment);
+            }
+            all.add(comment);
+        }
+        Collections.shuffle(all, random);
+        return all;
+    }
+}
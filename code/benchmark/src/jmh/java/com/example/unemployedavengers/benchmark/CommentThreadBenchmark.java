@@ -0,0 +1,53 @@
+/**
+ * CommentThreadBenchmark - Measures building the reply tree of a mood event's
+ * comments by applying one shuffled batch of added comments to an empty thread.
+ *
+ * @see com.example.unemployedavengers.CommentThread
+ */
+package com.example.unemployedavengers.benchmark;
+
+import com.example.unemployedavengers.CommentThread;
+import com.example.unemployedavengers.models.Comment;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CommentThreadBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"0.5"})
+    public double replyRatio;
+
+    private List<CommentThread.Change> changes;
+
+    @Setup
+    public void setUp() {
+        changes = new ArrayList<>();
+        for (Comment comment : BenchmarkData.comments(size, replyRatio, new Random(BenchmarkData.SEED))) {
+            changes.add(new CommentThread.Change(CommentThread.ChangeType.ADDED, comment));
+        }
+    }
+
+    @Benchmark
+    public CommentThread buildThread() {
+        CommentThread thread = new CommentThread();
+        thread.apply(changes);
+        return thread;
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * DistanceFilterBenchmark - Measures the "within 5 km" filter over located and
+ * unlocated mood events spread across a 20 km box.
+ *
+ * @see com.example.unemployedavengers.DistanceFilterHelper
+ */
+package com.example.unemployedavengers.benchmark;
+
+import com.example.unemployedavengers.DistanceFilterHelper;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DistanceFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<MoodEvent> events;
+
+    @Setup
+    public void setUp() {
+        events = BenchmarkData.moodEvents(size, new Random(BenchmarkData.SEED));
+    }
+
+    @Benchmark
+    public List<MoodEvent> withinFiveKm() {
+        return DistanceFilterHelper.filterWithin(events,
+                BenchmarkData.CENTER_LAT, BenchmarkData.CENTER_LNG, DistanceFilterHelper.FIVE_KM_METERS);
+    }
+}
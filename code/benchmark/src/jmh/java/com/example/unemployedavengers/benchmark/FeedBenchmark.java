@@ -0,0 +1,62 @@
+/**
+ * FeedBenchmark - Measures assembling the followee feed the way the feed screens do:
+ * offering every followee's page to a FeedSelector, then reading the feed once.
+ *
+ * Each followee contributes a newest-first page of getFetchLimit() events, matching
+ * the per-followee query used by the feed screens.
+ *
+ * @see com.example.unemployedavengers.FeedSelector
+ */
+package com.example.unemployedavengers.benchmark;
+
+import com.example.unemployedavengers.FeedSelector;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FeedBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int followees;
+
+    @Param({"PER_FRIEND", "LATEST_OVERALL"})
+    public FeedSelector.Mode mode;
+
+    private List<List<MoodEvent>> pages;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        int pageSize = new FeedSelector(mode).getFetchLimit();
+        pages = new ArrayList<>(followees);
+        for (int i = 0; i < followees; i++) {
+            List<MoodEvent> page = BenchmarkData.moodEvents(pageSize, random);
+            page.sort((e1, e2) -> Long.compare(e2.getTime(), e1.getTime()));
+            pages.add(page);
+        }
+    }
+
+    @Benchmark
+    public List<MoodEvent> selectFeed() {
+        FeedSelector selector = new FeedSelector(mode);
+        for (int i = 0; i < pages.size(); i++) {
+            selector.offerAll(String.valueOf(i), pages.get(i));
+        }
+        return selector.result();
+    }
+}
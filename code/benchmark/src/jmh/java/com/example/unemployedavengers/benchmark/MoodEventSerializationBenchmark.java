@@ -0,0 +1,60 @@
+/**
+ * MoodEventSerializationBenchmark - Measures the java.io.Serializable round trip
+ * MoodEvent goes through when it is passed between fragments in a Bundle.
+ *
+ * @see com.example.unemployedavengers.models.MoodEvent
+ */
+package com.example.unemployedavengers.benchmark;
+
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoodEventSerializationBenchmark {
+
+    private MoodEvent event;
+    private byte[] serialized;
+
+    @Setup
+    public void setUp() throws IOException {
+        event = BenchmarkData.moodEvents(1, new Random(BenchmarkData.SEED)).get(0);
+        serialized = write(event);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return write(event);
+    }
+
+    @Benchmark
+    public Object deserialize() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    private static byte[] write(MoodEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(event);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * MoodFilterBenchmark - Measures MoodFilterHelper.filterMoodEvents at history sizes
+ * of 1k, 10k and 100k events.
+ *
+ * Each filter combination used by the filter dialog gets its own benchmark so a
+ * regression in one branch (e.g. the reason substring match) shows up on its own.
+ *
+ * @see com.example.unemployedavengers.MoodFilterHelper
+ */
+package com.example.unemployedavengers.benchmark;
+
+import com.example.unemployedavengers.MoodFilterHelper;
+import com.example.unemployedavengers.models.MoodEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MoodFilterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int size;
+
+    private List<MoodEvent> events;
+
+    @Setup
+    public void setUp() {
+        events = BenchmarkData.moodEvents(size, new Random(BenchmarkData.SEED));
+    }
+
+    @Benchmark
+    public List<MoodEvent> byMood() {
+        return MoodFilterHelper.filterMoodEvents(events, true, false, false, "Happiness", "");
+    }
+
+    @Benchmark
+    public List<MoodEvent> byReason() {
+        return MoodFilterHelper.filterMoodEvents(events, false, true, false, "", "exam");
+    }
+
+    @Benchmark
+    public List<MoodEvent> byWeek() {
+        return MoodFilterHelper.filterMoodEvents(events, false, false, true, "", "");
+    }
+
+    @Benchmark
+    public List<MoodEvent> allFilters() {
+        return MoodFilterHelper.filterMoodEvents(events, true, true, true, "Happiness", "exam");
+    }
+}